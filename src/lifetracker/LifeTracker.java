@@ -11,8 +11,9 @@ import lifetracker.logic.Logic;
 import lifetracker.logic.LogicImpl;
 import lifetracker.parser.Parser;
 import lifetracker.parser.ParserImpl;
+import lifetracker.parser.ParserWarmUp;
+import lifetracker.storage.JournalFileStorage;
 import lifetracker.storage.Storage;
-import lifetracker.storage.ThreadedFileStorage;
 import lifetracker.ui.UiController;
 
 import java.io.File;
@@ -52,7 +53,8 @@ public class LifeTracker extends Application {
     //@@author A0114240B
     @Override
     public void start(Stage primaryStage) throws Exception {
-        fileStorage = new ThreadedFileStorage();
+        ParserWarmUp.start(new ParserImpl(new CommandFactoryImpl()));
+        fileStorage = new JournalFileStorage();
         FXMLLoader fxmlLoader = new FXMLLoader();
         Parent root = fxmlLoader.load(getClass().getResource("/lifetracker/ui/UiDesign.fxml").openStream());
         Scene scene = new Scene(root);
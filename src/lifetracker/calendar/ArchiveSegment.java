@@ -0,0 +1,273 @@
+package lifetracker.calendar;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+//@@author A0091173J
+
+/**
+ * An immutable set of archived entries, stored in a memory-mapped file instead of on the heap.
+ * <p>
+ * Only the IDs and the offset of each entry in the file are kept on the heap. Entries are decoded from the file each
+ * time they are requested, so every call returns a new copy of the entry. The file is a temporary file that is only
+ * used while the program runs; the archived entries are saved together with the rest of the calendar as usual.
+ * <p>
+ * A segment never changes once built. Adding or removing entries builds a new segment from the current one, which
+ * copies the encoded entries without decoding them.
+ */
+final class ArchiveSegment {
+
+    static final ArchiveSegment EMPTY = new ArchiveSegment(new int[0], new int[] {0}, new BitSet(),
+            ByteBuffer.allocate(0));
+
+    private static final String TEMP_FILE_PREFIX = "lifetracker-archive";
+    private static final String TEMP_FILE_SUFFIX = ".seg";
+
+    private static final String ERROR_DECODE = "Archived entry %1$d could not be read!";
+
+    private static final CalendarEntryBinaryCodec CODEC = new CalendarEntryBinaryCodec();
+
+    // IDs in ascending order, and the start of each entry in the buffer. The extra last offset marks the end.
+    private final int[] ids;
+    private final int[] offsets;
+    private final BitSet isEvent;
+    private final ByteBuffer buffer;
+
+    private ArchiveSegment(int[] ids, int[] offsets, BitSet isEvent, ByteBuffer buffer) {
+        this.ids = ids;
+        this.offsets = offsets;
+        this.isEvent = isEvent;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Builds a new segment containing the entries of the base segment, except for the excluded IDs, and the new
+     * entries.
+     *
+     * @param base        The segment to copy entries from.
+     * @param excludedIds The IDs of entries in the base segment that are left out.
+     * @param newEntries  The entries to add, whose IDs must not be in the base segment.
+     * @return The new segment.
+     * @throws IOException If there was an error writing or mapping the file.
+     */
+    static ArchiveSegment build(ArchiveSegment base, Set<Integer> excludedIds, Collection<CalendarEntry> newEntries)
+            throws IOException {
+        List<CalendarEntry> sortedEntries = new ArrayList<>(newEntries);
+        sortedEntries.sort(Comparator.comparingInt(CalendarEntry::getId));
+
+        int capacity = base.size() + sortedEntries.size();
+        int[] ids = new int[capacity];
+        int[] offsets = new int[capacity + 1];
+        BitSet isEvent = new BitSet(capacity);
+
+        File file = File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+        file.deleteOnExit();
+
+        int count = 0;
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            int baseIndex = 0;
+            int newIndex = 0;
+
+            // Merge the two lists of entries, which are both in order of ID
+            while (baseIndex < base.size() || newIndex < sortedEntries.size()) {
+                boolean isFromBase = newIndex >= sortedEntries.size()
+                        || (baseIndex < base.size() && base.ids[baseIndex] < sortedEntries.get(newIndex).getId());
+
+                if (isFromBase) {
+                    if (!excludedIds.contains(base.ids[baseIndex])) {
+                        ids[count] = base.ids[baseIndex];
+                        isEvent.set(count, base.isEvent.get(baseIndex));
+                        base.copyEncodedEntry(baseIndex, output);
+                        offsets[++count] = output.size();
+                    }
+                    baseIndex++;
+                } else {
+                    CalendarEntry entry = sortedEntries.get(newIndex);
+                    ids[count] = entry.getId();
+                    isEvent.set(count, entry.getDateTime(CalendarProperty.START) != null);
+                    CODEC.writeStandaloneEntry(output, entry);
+                    offsets[++count] = output.size();
+                    newIndex++;
+                }
+            }
+        }
+
+        ByteBuffer buffer = map(file);
+
+        return new ArchiveSegment(Arrays.copyOf(ids, count), Arrays.copyOf(offsets, count + 1), isEvent, buffer);
+    }
+
+    private static ByteBuffer map(File file) throws IOException {
+        MappedByteBuffer buffer;
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        // The mapping stays valid after the file is deleted, on platforms that allow deleting it
+        file.delete();
+
+        return buffer;
+    }
+
+    /**
+     * Returns the number of entries in the segment.
+     */
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * Returns whether the segment has an entry with the ID.
+     */
+    boolean contains(int id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    /**
+     * Decodes the entry with the ID.
+     *
+     * @param id The ID of the entry, which must be in the segment.
+     * @return A new copy of the entry.
+     */
+    CalendarEntry get(int id) {
+        int index = Arrays.binarySearch(ids, id);
+
+        assert index >= 0;
+
+        return decode(index);
+    }
+
+    /**
+     * Decodes every entry, in order of ID, except for the excluded IDs.
+     *
+     * @param excludedIds The IDs of entries to skip.
+     * @param action      The action to perform on each entry.
+     */
+    void forEach(Set<Integer> excludedIds, Consumer<CalendarEntry> action) {
+        for (int i = 0; i < ids.length; i++) {
+            if (!excludedIds.contains(ids[i])) {
+                action.accept(decode(i));
+            }
+        }
+    }
+
+    /**
+     * Performs the action on every ID in the segment, in ascending order, except for the excluded IDs. No entries are
+     * decoded.
+     *
+     * @param excludedIds The IDs to skip.
+     * @param action      The action to perform on each ID.
+     */
+    void forEachId(Set<Integer> excludedIds, IntConsumer action) {
+        for (int id : ids) {
+            if (!excludedIds.contains(id)) {
+                action.accept(id);
+            }
+        }
+    }
+
+    /**
+     * Decodes the tasks or events whose name satisfies the filter, except for the excluded IDs. Entries whose name
+     * does not satisfy the filter are not fully decoded.
+     *
+     * @param excludedIds The IDs of entries to skip.
+     * @param isEvents    Whether to look at events instead of tasks.
+     * @param nameFilter  The filter on the names of the entries.
+     * @return The matching entries, in order of ID.
+     */
+    List<CalendarEntry> find(Set<Integer> excludedIds, boolean isEvents, Predicate<String> nameFilter) {
+        List<CalendarEntry> result = new ArrayList<>();
+
+        for (int i = 0; i < ids.length; i++) {
+            if (isEvent.get(i) == isEvents && !excludedIds.contains(ids[i]) && nameFilter.test(decodeName(i))) {
+                result.add(decode(i));
+            }
+        }
+
+        return result;
+    }
+
+    private CalendarEntry decode(int index) {
+        try {
+            return CODEC.readStandaloneEntry(openEntry(index));
+        } catch (IOException | RuntimeException ex) {
+            throw new UncheckedIOException(new IOException(String.format(ERROR_DECODE, ids[index]), ex));
+        }
+    }
+
+    private String decodeName(int index) {
+        try {
+            return CODEC.readStandaloneEntryName(openEntry(index));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void copyEncodedEntry(int index, DataOutputStream output) throws IOException {
+        ByteBuffer entryBuffer = sliceEntry(index);
+        byte[] bytes = new byte[entryBuffer.remaining()];
+        entryBuffer.get(bytes);
+        output.write(bytes);
+    }
+
+    private DataInputStream openEntry(int index) {
+        return new DataInputStream(new ByteBufferInputStream(sliceEntry(index)));
+    }
+
+    /**
+     * Returns a view of the bytes of one entry. Each view has its own position, so views can be read concurrently.
+     */
+    private ByteBuffer sliceEntry(int index) {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(offsets[index + 1]);
+        view.position(offsets[index]);
+        return view;
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
@@ -94,7 +94,13 @@ public interface CalendarEntry extends VisitableEntry {
 
     /**
      * Returns a {@code boolean} to indicate whether the entry satisfies the
-     * specified property.
+     * specified property. Properties that depend on time are checked against
+     * the current time.
+     * <p>
+     * Reading the system clock for every entry is slow when many entries are
+     * checked, and the time may change between entries. To check many entries
+     * at once, read the time once and use
+     * {@link #isProperty(CalendarProperty, LocalDateTime)} instead.
      * 
      * @param property
      *            An {@code enum} representing the desired property.
@@ -102,7 +108,24 @@ public interface CalendarEntry extends VisitableEntry {
      * @return A {@code boolean} to indicate whether the entry satisfies the
      *         specified property.
      */
-    boolean isProperty(CalendarProperty property);
+    default boolean isProperty(CalendarProperty property) {
+        return isProperty(property, property.isTimeDependent() ? LocalDateTime.now() : null);
+    }
+
+    /**
+     * Returns a {@code boolean} to indicate whether the entry satisfies the
+     * specified property at the specified time.
+     * 
+     * @param property
+     *            An {@code enum} representing the desired property.
+     * @param now
+     *            The time to check properties that depend on time against.
+     *            May be {@code null} if the property does not depend on time.
+     * 
+     * @return A {@code boolean} to indicate whether the entry satisfies the
+     *         specified property.
+     */
+    boolean isProperty(CalendarProperty property, LocalDateTime now);
 
     /**
      * Returns an integer property of the entry.
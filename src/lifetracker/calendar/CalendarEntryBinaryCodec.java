@@ -0,0 +1,484 @@
+package lifetracker.calendar;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lifetracker.calendar.visitor.EntryVisitor;
+
+//@@author A0091173J
+
+/**
+ * Encodes a calendar into a compact binary format, and decodes it back.
+ * <p>
+ * The format starts with a header of the bytes {@code "LTBF"} followed by a version byte. The header is followed by the
+ * next ID of the calendar, a table of the distinct entry names, then by the entries. Each entry is a type tag followed
+ * by the fields of its class. Integers are written as variable-length integers, so small IDs and limits take a single
+ * byte. Date and times are written as seconds since the epoch in UTC, followed by the nanoseconds, and dates as days
+ * since the epoch.
+ * <p>
+ * Entries are decoded into a new {@code CalendarListImpl}, which sorts them into active and archived entries.
+ */
+public class CalendarEntryBinaryCodec {
+
+    public static final int FORMAT_VERSION = 2;
+
+    // Version 1 has no next ID after the header
+    private static final int FORMAT_VERSION_WITHOUT_NEXT_ID = 1;
+
+    private static final byte[] MAGIC = {'L', 'T', 'B', 'F'};
+
+    private static final int TYPE_GENERIC = 0;
+    private static final int TYPE_DEADLINE = 1;
+    private static final int TYPE_RECURRING_TASK = 2;
+    private static final int TYPE_EVENT = 3;
+    private static final int TYPE_RECURRING_EVENT = 4;
+
+    private static final int FLAG_ACTIVE = 1;
+
+    // Marks the limit of a recurring entry
+    private static final int LIMIT_NONE = 0;
+    private static final int LIMIT_OCCURRENCE = 1;
+    private static final int LIMIT_DATE = 2;
+
+    private static final int VARINT_DATA_BITS = 7;
+    private static final int VARINT_DATA_MASK = 0x7F;
+    private static final int VARINT_CONTINUE_BIT = 0x80;
+    private static final int MAX_VARINT_SHIFT = 63;
+
+    private static final String ERROR_NOT_BINARY = "Save file is not in the binary format!";
+    private static final String ERROR_UNSUPPORTED_VERSION = "Save file version %1$d is not supported!";
+    private static final String ERROR_INVALID_FORMAT = "Invalid file format! Save file might have been corrupted!";
+
+    private static final EntryVisitor<Integer> TYPE_VISITOR = new EntryTypeVisitor();
+
+    /**
+     * Returns the number of bytes needed by {@link #isBinary(byte[], int)} to recognize the format.
+     *
+     * @return The length of the header.
+     */
+    public static int getHeaderLength() {
+        return MAGIC.length;
+    }
+
+    /**
+     * Checks whether the data starts with the header of this format.
+     *
+     * @param header The first bytes of the data.
+     * @param length The number of bytes read into {@code header}.
+     * @return Whether the data is in this format.
+     */
+    public static boolean isBinary(byte[] header, int length) {
+        return length >= MAGIC.length && Arrays.equals(Arrays.copyOf(header, MAGIC.length), MAGIC);
+    }
+
+    /**
+     * Writes all entries of the calendar, active or archived, to the output stream.
+     *
+     * @param calendar     The calendar to write.
+     * @param outputStream The stream to write to. The stream is flushed, but not closed.
+     * @throws IOException If there was an error writing to the stream.
+     */
+    public void write(CalendarList calendar, OutputStream outputStream) throws IOException {
+        write(calendar, calendar.getNextId(), outputStream);
+    }
+
+    /**
+     * Writes all entries of the calendar, active or archived, to the output stream, with the next ID given.
+     *
+     * @param calendar     The calendar to write, such as a snapshot.
+     * @param nextId       The ID the calendar gives to the next new entry.
+     * @param outputStream The stream to write to. The stream is flushed, but not closed.
+     * @throws IOException If there was an error writing to the stream.
+     */
+    public void write(CalendarView calendar, int nextId, OutputStream outputStream) throws IOException {
+        List<CalendarEntry> entries = new ArrayList<>();
+        entries.addAll(calendar.getTaskList());
+        entries.addAll(calendar.getEventList());
+        entries.addAll(calendar.getArchivedTaskList());
+        entries.addAll(calendar.getArchivedEventList());
+
+        Map<String, Integer> stringTable = new LinkedHashMap<>();
+
+        for (CalendarEntry entry : entries) {
+            stringTable.putIfAbsent(entry.getName(), stringTable.size());
+        }
+
+        DataOutputStream output = new DataOutputStream(outputStream);
+
+        output.write(MAGIC);
+        output.writeByte(FORMAT_VERSION);
+        writeVarLong(output, nextId);
+
+        writeVarLong(output, stringTable.size());
+
+        for (String name : stringTable.keySet()) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(output, bytes.length);
+            output.write(bytes);
+        }
+
+        writeVarLong(output, entries.size());
+
+        for (CalendarEntry entry : entries) {
+            writeEntry(output, entry, stringTable.get(entry.getName()));
+        }
+
+        output.flush();
+    }
+
+    /**
+     * Reads a calendar from the input stream.
+     *
+     * @param inputStream The stream to read from, starting with the header.
+     * @return The calendar read.
+     * @throws IOException If there was an error reading from the stream, or the data is not valid.
+     */
+    public CalendarList read(InputStream inputStream) throws IOException {
+        DataInputStream input = new DataInputStream(inputStream);
+
+        byte[] header = new byte[MAGIC.length];
+        input.readFully(header);
+
+        if (!isBinary(header, header.length)) {
+            throw new IOException(ERROR_NOT_BINARY);
+        }
+
+        int version = input.readUnsignedByte();
+
+        if (version != FORMAT_VERSION && version != FORMAT_VERSION_WITHOUT_NEXT_ID) {
+            throw new IOException(String.format(ERROR_UNSUPPORTED_VERSION, version));
+        }
+
+        CalendarList calendar = new CalendarListImpl();
+
+        if (version != FORMAT_VERSION_WITHOUT_NEXT_ID) {
+            calendar.advanceNextId(readCount(input));
+        }
+
+        int stringCount = readCount(input);
+        List<String> stringTable = new ArrayList<>();
+
+        for (int i = 0; i < stringCount; i++) {
+            byte[] bytes = new byte[readCount(input)];
+            input.readFully(bytes);
+            stringTable.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+
+        int entryCount = readCount(input);
+        calendar.beginBulkLoad();
+
+        try {
+            for (int i = 0; i < entryCount; i++) {
+                calendar.add(readEntry(input, stringTable));
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | ArithmeticException
+                | DateTimeException ex) {
+            throw new IOException(ERROR_INVALID_FORMAT, ex);
+        }
+
+        calendar.endBulkLoad();
+        return calendar;
+    }
+
+    /**
+     * Writes a single entry with its name, so that it can be read without a string table.
+     *
+     * @param output The stream to write to.
+     * @param entry  The entry to write.
+     * @throws IOException If there was an error writing to the stream.
+     */
+    void writeStandaloneEntry(DataOutputStream output, CalendarEntry entry) throws IOException {
+        int type = writeEntryHeader(output, entry);
+
+        byte[] bytes = entry.getName().getBytes(StandardCharsets.UTF_8);
+        writeVarLong(output, bytes.length);
+        output.write(bytes);
+
+        writeEntryFields(output, entry, type);
+    }
+
+    /**
+     * Reads a single entry written by {@link #writeStandaloneEntry(DataOutputStream, CalendarEntry)}.
+     *
+     * @param input The stream to read from.
+     * @return The entry read.
+     * @throws IOException If there was an error reading from the stream, or the data is not valid.
+     */
+    CalendarEntry readStandaloneEntry(DataInputStream input) throws IOException {
+        int type = input.readUnsignedByte();
+        boolean isActive = (input.readUnsignedByte() & FLAG_ACTIVE) != 0;
+        int id = readCount(input);
+
+        return readEntryFields(input, type, isActive, id, readStandaloneName(input));
+    }
+
+    /**
+     * Reads only the name of a single entry written by
+     * {@link #writeStandaloneEntry(DataOutputStream, CalendarEntry)}.
+     *
+     * @param input The stream to read from.
+     * @return The name of the entry.
+     * @throws IOException If there was an error reading from the stream, or the data is not valid.
+     */
+    String readStandaloneEntryName(DataInputStream input) throws IOException {
+        input.readUnsignedByte();
+        input.readUnsignedByte();
+        readCount(input);
+
+        return readStandaloneName(input);
+    }
+
+    private String readStandaloneName(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[readCount(input)];
+        input.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void writeEntry(DataOutputStream output, CalendarEntry entry, int nameIndex) throws IOException {
+        int type = writeEntryHeader(output, entry);
+        writeVarLong(output, nameIndex);
+        writeEntryFields(output, entry, type);
+    }
+
+    private int writeEntryHeader(DataOutputStream output, CalendarEntry entry) throws IOException {
+        int type = entry.accept(TYPE_VISITOR);
+
+        output.writeByte(type);
+        output.writeByte(entry.isProperty(CalendarProperty.ACTIVE) ? FLAG_ACTIVE : 0);
+        writeVarLong(output, entry.getId());
+
+        return type;
+    }
+
+    private void writeEntryFields(DataOutputStream output, CalendarEntry entry, int type) throws IOException {
+        if (type == TYPE_EVENT || type == TYPE_RECURRING_EVENT) {
+            writeDateTime(output, entry.getDateTime(CalendarProperty.START));
+        }
+
+        if (type != TYPE_GENERIC) {
+            writeDateTime(output, entry.getDateTime(CalendarProperty.END));
+        }
+
+        if (type == TYPE_RECURRING_TASK || type == TYPE_RECURRING_EVENT) {
+            writeRecurrence(output, entry);
+        }
+    }
+
+    private void writeRecurrence(DataOutputStream output, CalendarEntry entry) throws IOException {
+        Period period = entry.getPeriod();
+
+        writeSignedVarLong(output, period.getYears());
+        writeSignedVarLong(output, period.getMonths());
+        writeSignedVarLong(output, period.getDays());
+
+        if (entry.isProperty(CalendarProperty.DATE_LIMITED)) {
+            output.writeByte(LIMIT_DATE);
+            writeSignedVarLong(output, entry.getDateTime(CalendarProperty.DATE_LIMIT).toLocalDate().toEpochDay());
+        } else if (entry.isProperty(CalendarProperty.OCCURRENCE_LIMITED)) {
+            output.writeByte(LIMIT_OCCURRENCE);
+            writeVarLong(output, entry.getIntegerProperty(CalendarProperty.OCCURRENCE_LIMIT));
+        } else {
+            output.writeByte(LIMIT_NONE);
+        }
+    }
+
+    private CalendarEntry readEntry(DataInputStream input, List<String> stringTable) throws IOException {
+        int type = input.readUnsignedByte();
+        boolean isActive = (input.readUnsignedByte() & FLAG_ACTIVE) != 0;
+        int id = readCount(input);
+        String name = stringTable.get(readCount(input));
+
+        return readEntryFields(input, type, isActive, id, name);
+    }
+
+    private CalendarEntry readEntryFields(DataInputStream input, int type, boolean isActive, int id, String name)
+            throws IOException {
+        CalendarEntry entry;
+
+        switch (type) {
+            case TYPE_GENERIC :
+                entry = new GenericEntry(name);
+                break;
+            case TYPE_DEADLINE :
+                entry = new DeadlineTask(name, readDateTime(input));
+                break;
+            case TYPE_EVENT :
+                entry = new Event(name, readDateTime(input), readDateTime(input));
+                break;
+            case TYPE_RECURRING_TASK :
+                entry = readRecurringTask(input, name, readDateTime(input));
+                break;
+            case TYPE_RECURRING_EVENT :
+                entry = readRecurringEvent(input, name, readDateTime(input), readDateTime(input));
+                break;
+            default :
+                throw new IOException(ERROR_INVALID_FORMAT);
+        }
+
+        entry.setId(id);
+
+        if (entry.isProperty(CalendarProperty.ACTIVE) != isActive) {
+            entry.toggleActive();
+        }
+
+        return entry;
+    }
+
+    private CalendarEntry readRecurringTask(DataInputStream input, String name, LocalDateTime end)
+            throws IOException {
+        Period period = readPeriod(input);
+        int limitType = input.readUnsignedByte();
+
+        switch (limitType) {
+            case LIMIT_NONE :
+                return new RecurringTask(name, end, period);
+            case LIMIT_OCCURRENCE :
+                return new RecurringTask(name, end, period, readCount(input));
+            case LIMIT_DATE :
+                return new RecurringTask(name, end, period, LocalDate.ofEpochDay(readSignedVarLong(input)));
+            default :
+                throw new IOException(ERROR_INVALID_FORMAT);
+        }
+    }
+
+    private CalendarEntry readRecurringEvent(DataInputStream input, String name, LocalDateTime start,
+            LocalDateTime end) throws IOException {
+        Period period = readPeriod(input);
+        int limitType = input.readUnsignedByte();
+
+        switch (limitType) {
+            case LIMIT_NONE :
+                return new RecurringEvent(name, start, end, period);
+            case LIMIT_OCCURRENCE :
+                return new RecurringEvent(name, start, end, period, readCount(input));
+            case LIMIT_DATE :
+                return new RecurringEvent(name, start, end, period, LocalDate.ofEpochDay(readSignedVarLong(input)));
+            default :
+                throw new IOException(ERROR_INVALID_FORMAT);
+        }
+    }
+
+    private Period readPeriod(DataInputStream input) throws IOException {
+        int years = Math.toIntExact(readSignedVarLong(input));
+        int months = Math.toIntExact(readSignedVarLong(input));
+        int days = Math.toIntExact(readSignedVarLong(input));
+
+        return Period.of(years, months, days);
+    }
+
+    private void writeDateTime(DataOutputStream output, LocalDateTime dateTime) throws IOException {
+        writeSignedVarLong(output, dateTime.toEpochSecond(ZoneOffset.UTC));
+        writeVarLong(output, dateTime.getNano());
+    }
+
+    private LocalDateTime readDateTime(DataInputStream input) throws IOException {
+        long epochSecond = readSignedVarLong(input);
+        int nano = readCount(input);
+
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    private void writeVarLong(DataOutputStream output, long value) throws IOException {
+        assert value >= 0;
+
+        long remaining = value;
+
+        while ((remaining & ~VARINT_DATA_MASK) != 0) {
+            output.writeByte((int) (remaining & VARINT_DATA_MASK) | VARINT_CONTINUE_BIT);
+            remaining >>>= VARINT_DATA_BITS;
+        }
+
+        output.writeByte((int) remaining);
+    }
+
+    private void writeSignedVarLong(DataOutputStream output, long value) throws IOException {
+        // Zigzag encoding keeps small negative numbers small
+        writeVarLong(output, (value << 1) ^ (value >> MAX_VARINT_SHIFT));
+    }
+
+    private long readVarLong(DataInputStream input) throws IOException {
+        long value = 0;
+
+        for (int shift = 0; shift <= MAX_VARINT_SHIFT; shift += VARINT_DATA_BITS) {
+            int nextByte = input.read();
+
+            if (nextByte < 0) {
+                throw new EOFException(ERROR_INVALID_FORMAT);
+            }
+
+            value |= (long) (nextByte & VARINT_DATA_MASK) << shift;
+
+            if ((nextByte & VARINT_CONTINUE_BIT) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException(ERROR_INVALID_FORMAT);
+    }
+
+    private long readSignedVarLong(DataInputStream input) throws IOException {
+        long encoded = readVarLong(input);
+
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+
+    /**
+     * Reads a non-negative variable-length integer that fits in an {@code int}, such as an ID, a length or an index.
+     */
+    private int readCount(DataInputStream input) throws IOException {
+        long value = readVarLong(input);
+
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException(ERROR_INVALID_FORMAT);
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * Identifies the class of an entry with a type tag.
+     */
+    private static class EntryTypeVisitor implements EntryVisitor<Integer> {
+
+        @Override
+        public Integer visit(GenericEntry entry) {
+            return TYPE_GENERIC;
+        }
+
+        @Override
+        public Integer visit(DeadlineTask task) {
+            return TYPE_DEADLINE;
+        }
+
+        @Override
+        public Integer visit(RecurringTask task) {
+            return TYPE_RECURRING_TASK;
+        }
+
+        @Override
+        public Integer visit(Event event) {
+            return TYPE_EVENT;
+        }
+
+        @Override
+        public Integer visit(RecurringEvent event) {
+            return TYPE_RECURRING_EVENT;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package lifetracker.calendar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+//@@author A0091173J
+
+/**
+ * Entries as comma-separated values, one entry to a row.
+ * <p>
+ * The first row names the columns, which can come in any order: {@code name}, {@code start}, {@code end},
+ * {@code period}, {@code limit} and {@code done}. Only {@code name} is required, and other columns are ignored. Dates
+ * are written as {@code 2016-03-01T10:00}, or {@code 2016-03-01} for midnight, and periods as {@code P1W}. A limit is
+ * either a number of occurrences or a last date. Fields holding commas, quotes or line breaks are quoted, with quotes
+ * doubled, as in RFC 4180.
+ */
+final class CalendarEntryCsvFormat extends CalendarEntryFileFormat {
+
+    static final String COLUMN_NAME = "name";
+    static final String COLUMN_START = "start";
+    static final String COLUMN_END = "end";
+    static final String COLUMN_PERIOD = "period";
+    static final String COLUMN_LIMIT = "limit";
+    static final String COLUMN_DONE = "done";
+
+    static final char SEPARATOR = ',';
+    static final char QUOTE = '"';
+
+    private static final String LINE_SEPARATOR = "\r\n";
+    private static final String VALUE_DONE = "yes";
+    private static final String HEADER = String.join(String.valueOf(SEPARATOR), COLUMN_NAME, COLUMN_START,
+            COLUMN_END, COLUMN_PERIOD, COLUMN_LIMIT, COLUMN_DONE);
+
+    private static final List<String> DONE_VALUES = Arrays.asList("true", "yes", "y", "1", "done");
+    private static final List<String> NOT_DONE_VALUES = Arrays.asList("false", "no", "n", "0", "");
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE)
+            .optionalStart().appendLiteral('T').append(DateTimeFormatter.ISO_LOCAL_TIME).optionalEnd()
+            .optionalStart().appendLiteral(' ').append(DateTimeFormatter.ISO_LOCAL_TIME).optionalEnd()
+            .parseDefaulting(ChronoField.HOUR_OF_DAY, 0)
+            .toFormatter(Locale.ROOT);
+
+    private static final String ERROR_INVALID_ROW = "Line %1$d: %2$s";
+    private static final String ERROR_NO_NAME_COLUMN = "The first row must name the columns, including \"name\"!";
+    private static final String ERROR_EMPTY_NAME = "Task/Event's name cannot be empty!";
+    private static final String ERROR_INVALID_DONE = "\"%1$s\" is not yes or no!";
+    private static final String ERROR_UNCLOSED_QUOTE = "A quoted field is not closed!";
+
+    private int lineNumber;
+    private int rowLineNumber;
+
+    @Override
+    public int read(BufferedReader reader, Consumer<CalendarEntry> action) throws IOException {
+        lineNumber = 1;
+
+        List<String> header = readRow(reader);
+        Map<String, Integer> columns = new HashMap<>();
+
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        if (!columns.containsKey(COLUMN_NAME)) {
+            throw new IllegalArgumentException(String.format(ERROR_INVALID_ROW, 1, ERROR_NO_NAME_COLUMN));
+        }
+
+        List<String> row;
+
+        while ((row = readRow(reader)) != null) {
+            if (row.size() == 1 && row.get(0).trim().isEmpty()) {
+                continue;
+            }
+
+            try {
+                action.accept(toEntry(row, columns));
+            } catch (IllegalArgumentException | DateTimeException ex) {
+                throw new IllegalArgumentException(String.format(ERROR_INVALID_ROW, rowLineNumber, ex.getMessage()));
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    void writeStart(Writer writer) throws IOException {
+        writer.write(HEADER);
+        writer.write(LINE_SEPARATOR);
+    }
+
+    /**
+     * Writes the entry as a row with every column, leaving out the values the entry does not have.
+     */
+    @Override
+    void writeEntry(CalendarEntry entry, Writer writer) throws IOException {
+        LocalDateTime start = entry.getDateTime(CalendarProperty.START);
+        LocalDateTime end = entry.getDateTime(CalendarProperty.END);
+        boolean isRecurring = entry.isProperty(CalendarProperty.RECURRING);
+
+        writeField(entry.getName(), writer);
+        writer.write(SEPARATOR);
+        writeField(start == null ? "" : start.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), writer);
+        writer.write(SEPARATOR);
+        writeField(end == null ? "" : end.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), writer);
+        writer.write(SEPARATOR);
+        writeField(isRecurring ? entry.getPeriod().toString() : "", writer);
+        writer.write(SEPARATOR);
+
+        if (entry.isProperty(CalendarProperty.OCCURRENCE_LIMITED)) {
+            writeField(String.valueOf(entry.getIntegerProperty(CalendarProperty.OCCURRENCE_LIMIT)), writer);
+        } else if (entry.isProperty(CalendarProperty.DATE_LIMITED)) {
+            writeField(entry.getDateTime(CalendarProperty.DATE_LIMIT).toLocalDate().toString(), writer);
+        }
+        writer.write(SEPARATOR);
+
+        writeField(entry.isProperty(CalendarProperty.ACTIVE) ? "" : VALUE_DONE, writer);
+        writer.write(LINE_SEPARATOR);
+    }
+
+    @Override
+    void writeEnd(Writer writer) {
+        // A CSV file has nothing after its last row
+    }
+
+    /**
+     * Writes the field, quoted if it holds a separator, a quote, a line break or spaces at either end.
+     */
+    private static void writeField(String field, Writer writer) throws IOException {
+        boolean isQuoted = field.indexOf(SEPARATOR) != -1 || field.indexOf(QUOTE) != -1 || field.indexOf('\n') != -1
+                || field.indexOf('\r') != -1 || !field.trim().equals(field);
+
+        if (!isQuoted) {
+            writer.write(field);
+            return;
+        }
+
+        writer.write(QUOTE);
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+
+            if (c == QUOTE) {
+                writer.write(QUOTE);
+            }
+            writer.write(c);
+        }
+        writer.write(QUOTE);
+    }
+
+    private static CalendarEntry toEntry(List<String> row, Map<String, Integer> columns) {
+        String name = getField(row, columns, COLUMN_NAME);
+
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException(ERROR_EMPTY_NAME);
+        }
+
+        String limit = getField(row, columns, COLUMN_LIMIT);
+        boolean isOccurrenceLimit = !limit.isEmpty() && limit.chars().allMatch(Character::isDigit);
+
+        return createEntry(name,
+                parseDateTime(getField(row, columns, COLUMN_START)),
+                parseDateTime(getField(row, columns, COLUMN_END)),
+                parsePeriod(getField(row, columns, COLUMN_PERIOD)),
+                isOccurrenceLimit ? Integer.parseInt(limit) : 0,
+                isOccurrenceLimit || limit.isEmpty() ? null : LocalDate.parse(limit),
+                parseDone(getField(row, columns, COLUMN_DONE)));
+    }
+
+    /**
+     * Returns the trimmed field of the column, or an empty string if the file or the row does not have the column.
+     */
+    private static String getField(List<String> row, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= row.size() ? "" : row.get(index).trim();
+    }
+
+    private static LocalDateTime parseDateTime(String field) {
+        return field.isEmpty() ? null : LocalDateTime.parse(field, DATE_TIME_FORMAT);
+    }
+
+    private static Period parsePeriod(String field) {
+        return field.isEmpty() ? null : Period.parse(field);
+    }
+
+    private static boolean parseDone(String field) {
+        String value = field.toLowerCase(Locale.ROOT);
+
+        if (DONE_VALUES.contains(value)) {
+            return true;
+        } else if (NOT_DONE_VALUES.contains(value)) {
+            return false;
+        }
+        throw new IllegalArgumentException(String.format(ERROR_INVALID_DONE, field));
+    }
+
+    /**
+     * Reads the fields of the next row, which can span several lines if a quoted field holds line breaks.
+     *
+     * @return The fields of the row, or null at the end of the file
+     */
+    private List<String> readRow(BufferedReader reader) throws IOException {
+        int c = reader.read();
+
+        if (c == -1) {
+            return null;
+        }
+
+        rowLineNumber = lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean isQuoted = false;
+
+        while (c != -1) {
+            if (isQuoted) {
+                if (c == QUOTE) {
+                    reader.mark(1);
+                    int next = reader.read();
+
+                    if (next == QUOTE) {
+                        field.append(QUOTE);
+                    } else {
+                        isQuoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == QUOTE) {
+                isQuoted = true;
+            } else if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                lineNumber++;
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+
+            c = reader.read();
+        }
+
+        if (isQuoted) {
+            throw new IllegalArgumentException(String.format(ERROR_INVALID_ROW, rowLineNumber, ERROR_UNCLOSED_QUOTE));
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+}
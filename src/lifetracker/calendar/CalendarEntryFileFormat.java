@@ -0,0 +1,209 @@
+package lifetracker.calendar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+//@@author A0091173J
+
+/**
+ * A file format that entries can be imported from and exported to, chosen by the extension of the file name.
+ * <p>
+ * The entries are read one line at a time and passed on as they are read, so the whole file is never held in memory.
+ * Dates and times in these formats are already structured, so they are read with fixed formats instead of the date
+ * parser used for commands. Entries are likewise written one at a time, straight from the calendar.
+ */
+public abstract class CalendarEntryFileFormat {
+
+    private static final String EXTENSION_CSV = ".csv";
+    private static final String EXTENSION_ICS = ".ics";
+
+    private static final String ERROR_UNSUPPORTED_FILE = "%1$s is not a .csv or .ics file!";
+    private static final String ERROR_NO_DATE = "A recurring entry must have a date!";
+    private static final String ERROR_NO_END = "An event must have an end!";
+    private static final String ERROR_DONE_RECURRING = "A recurring entry cannot be done!";
+    private static final String ERROR_INVALID_PERIOD = "The time between occurrences must be positive!";
+
+    /**
+     * Checks whether entries can be imported from and exported to a file with the name given.
+     *
+     * @param fileName The name of the file
+     * @return True if the file is a .csv or .ics file
+     */
+    public static boolean isSupported(String fileName) {
+        String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+        return lowerCaseName.endsWith(EXTENSION_CSV) || lowerCaseName.endsWith(EXTENSION_ICS);
+    }
+
+    /**
+     * Returns the format of a file with the name given.
+     *
+     * @param fileName The name of the file
+     * @return The format of the file
+     * @throws IllegalArgumentException If the file is not a .csv or .ics file
+     */
+    public static CalendarEntryFileFormat forFile(String fileName) {
+        String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+
+        if (lowerCaseName.endsWith(EXTENSION_CSV)) {
+            return new CalendarEntryCsvFormat();
+        } else if (lowerCaseName.endsWith(EXTENSION_ICS)) {
+            return new CalendarEntryIcsFormat();
+        }
+        throw new IllegalArgumentException(String.format(ERROR_UNSUPPORTED_FILE, fileName));
+    }
+
+    /**
+     * Reads the entries in the file, passing each one on as soon as it is read.
+     * <p>
+     * The entries are new, without an ID. Entries that are done are not active, so they are archived when added to a
+     * calendar.
+     *
+     * @param reader The contents of the file
+     * @param action What to do with each entry read
+     * @return The number of entries in the file that could not be turned into an entry and were left out
+     * @throws IOException              If the file cannot be read
+     * @throws IllegalArgumentException If the file is not valid, naming the line at fault
+     */
+    public abstract int read(BufferedReader reader, Consumer<CalendarEntry> action) throws IOException;
+
+    /**
+     * Writes the active or archived entries of the calendar, or both, one entry at a time.
+     * <p>
+     * Active entries are written in display order. Archived entries kept off the heap are decoded one at a time, so
+     * writing them does not need memory for all of them at once. The calendar must not be changed while it is written.
+     *
+     * @param calendar           The calendar to write the entries of
+     * @param isActiveIncluded   Whether to write the active entries
+     * @param isArchivedIncluded Whether to write the archived entries
+     * @param writer             Where to write the file to
+     * @return The number of entries written
+     * @throws IOException If the file cannot be written
+     */
+    public int write(CalendarView calendar, boolean isActiveIncluded, boolean isArchivedIncluded, Writer writer)
+            throws IOException {
+        int[] count = {0};
+
+        writeStart(writer);
+
+        if (isActiveIncluded) {
+            for (CalendarEntry entry : calendar.getTaskList()) {
+                writeEntry(entry, writer);
+                count[0]++;
+            }
+            for (CalendarEntry entry : calendar.getEventList()) {
+                writeEntry(entry, writer);
+                count[0]++;
+            }
+        }
+
+        if (isArchivedIncluded) {
+            try {
+                calendar.forEachArchived(entry -> {
+                    try {
+                        writeEntry(entry, writer);
+                        count[0]++;
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        }
+
+        writeEnd(writer);
+        writer.flush();
+        return count[0];
+    }
+
+    /**
+     * Writes what comes before the first entry, such as a header.
+     */
+    abstract void writeStart(Writer writer) throws IOException;
+
+    abstract void writeEntry(CalendarEntry entry, Writer writer) throws IOException;
+
+    /**
+     * Writes what comes after the last entry.
+     */
+    abstract void writeEnd(Writer writer) throws IOException;
+
+    /**
+     * Creates the entry of the right type for the dates given.
+     * <p>
+     * An entry without dates is a {@code GenericEntry}, an entry with only an end is a {@code DeadlineTask}, and an
+     * entry with both a start and an end is an {@code Event}. Entries with a period recur, limited by the number of
+     * occurrences or the date given, if any.
+     *
+     * @param name            The name of the entry
+     * @param start           The start of the entry, or null
+     * @param end             The end, or deadline, of the entry, or null
+     * @param period          The time between occurrences, or null if the entry does not recur
+     * @param occurrenceLimit The number of occurrences of the entry, or 0 if not limited by number
+     * @param dateLimit       The last date the entry can occur on, or null if not limited by date
+     * @param isDone          Whether the entry is done
+     * @return The entry
+     * @throws IllegalArgumentException If no entry can have the dates given
+     */
+    static CalendarEntry createEntry(String name, LocalDateTime start, LocalDateTime end, Period period,
+            int occurrenceLimit, LocalDate dateLimit, boolean isDone) {
+        if (start != null && end == null) {
+            throw new IllegalArgumentException(ERROR_NO_END);
+        }
+        if (period != null && end == null) {
+            throw new IllegalArgumentException(ERROR_NO_DATE);
+        }
+        if (period != null && isDone) {
+            throw new IllegalArgumentException(ERROR_DONE_RECURRING);
+        }
+        if (period != null && (period.isZero() || period.isNegative())) {
+            throw new IllegalArgumentException(ERROR_INVALID_PERIOD);
+        }
+
+        CalendarEntry entry;
+
+        if (end == null) {
+            entry = new GenericEntry(name);
+        } else if (start == null) {
+            entry = createTask(name, end, period, occurrenceLimit, dateLimit);
+        } else {
+            entry = createEvent(name, start, end, period, occurrenceLimit, dateLimit);
+        }
+
+        if (isDone) {
+            entry.toggleActive();
+        }
+        return entry;
+    }
+
+    private static CalendarEntry createTask(String name, LocalDateTime deadline, Period period, int occurrenceLimit,
+            LocalDate dateLimit) {
+        if (period == null) {
+            return new DeadlineTask(name, deadline);
+        } else if (occurrenceLimit > 0) {
+            return new RecurringTask(name, deadline, period, occurrenceLimit);
+        } else if (dateLimit != null) {
+            return new RecurringTask(name, deadline, period, dateLimit);
+        }
+        return new RecurringTask(name, deadline, period);
+    }
+
+    private static CalendarEntry createEvent(String name, LocalDateTime start, LocalDateTime end, Period period,
+            int occurrenceLimit, LocalDate dateLimit) {
+        if (period == null) {
+            return new Event(name, start, end);
+        } else if (occurrenceLimit > 0) {
+            return new RecurringEvent(name, start, end, period, occurrenceLimit);
+        } else if (dateLimit != null) {
+            return new RecurringEvent(name, start, end, period, dateLimit);
+        }
+        return new RecurringEvent(name, start, end, period);
+    }
+}
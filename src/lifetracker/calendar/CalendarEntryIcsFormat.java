@@ -0,0 +1,629 @@
+package lifetracker.calendar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+//@@author A0091173J
+
+/**
+ * Entries as an iCalendar file, as described in RFC 5545.
+ * <p>
+ * Each {@code VEVENT} becomes an event and each {@code VTODO} a task, with a deadline at its {@code DUE} date if it has
+ * one. Times in UTC or in a named time zone are converted to the local time zone, and times without a zone are taken
+ * as local times. A recurrence rule becomes the period of a recurring entry if it repeats at a fixed number of days,
+ * weeks, months or years, limited by {@code COUNT} or {@code UNTIL}. Components that cannot be represented, such as
+ * those with more complex recurrence rules, are left out and counted instead of failing the whole file.
+ * <p>
+ * Entries are written with local times without a zone. Recurring entries are written with a recurrence rule, unless
+ * their period mixes months and days, which a rule cannot describe, in which case only their current occurrence is
+ * written.
+ */
+final class CalendarEntryIcsFormat extends CalendarEntryFileFormat {
+
+    static final String COMPONENT_EVENT = "VEVENT";
+    static final String COMPONENT_TODO = "VTODO";
+
+    static final String PROPERTY_BEGIN = "BEGIN";
+    static final String PROPERTY_END = "END";
+    static final String PROPERTY_SUMMARY = "SUMMARY";
+    static final String PROPERTY_START = "DTSTART";
+    static final String PROPERTY_EVENT_END = "DTEND";
+    static final String PROPERTY_DUE = "DUE";
+    static final String PROPERTY_DURATION = "DURATION";
+    static final String PROPERTY_RULE = "RRULE";
+    static final String PROPERTY_STATUS = "STATUS";
+    static final String PROPERTY_COMPLETED = "COMPLETED";
+
+    static final String PARAMETER_VALUE = "VALUE";
+    static final String PARAMETER_ZONE = "TZID";
+    static final String VALUE_DATE = "DATE";
+
+    static final String RULE_FREQUENCY = "FREQ";
+    static final String RULE_INTERVAL = "INTERVAL";
+    static final String RULE_COUNT = "COUNT";
+    static final String RULE_UNTIL = "UNTIL";
+    static final String RULE_WEEK_START = "WKST";
+    static final String RULE_DAY = "BYDAY";
+    static final String RULE_MONTH_DAY = "BYMONTHDAY";
+
+    static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+    static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("uuuuMMdd'T'HHmmss", Locale.ROOT);
+
+    private static final String STATUS_COMPLETED = "COMPLETED";
+    private static final String STATUS_CANCELLED = "CANCELLED";
+    private static final String UTC_SUFFIX = "Z";
+    private static final char QUOTE = '"';
+    private static final int DATE_LENGTH = 8;
+    private static final int DAY_NAME_LENGTH = 2;
+    private static final int DAYS_IN_WEEK = 7;
+
+    private static final String LINE_SEPARATOR = "\r\n";
+    // Lines longer than this many bytes are folded onto the next line
+    private static final int MAX_LINE_LENGTH = 75;
+    private static final String FOLD_PREFIX = " ";
+    private static final String CALENDAR_START = "BEGIN:VCALENDAR";
+    private static final String CALENDAR_VERSION = "VERSION:2.0";
+    private static final String CALENDAR_PRODUCT = "PRODID:-//LifeTracker//LifeTracker//EN";
+    private static final String CALENDAR_END = "END:VCALENDAR";
+    private static final String PROPERTY_UID = "UID";
+    private static final String PROPERTY_STAMP = "DTSTAMP";
+    private static final String UID_FORMAT = "%1$d@lifetracker";
+    private static final LocalTime UNTIL_TIME = LocalTime.of(23, 59, 59);
+
+    private static final Logger LOGGER = Logger.getGlobal();
+    private static final String LOG_SKIPPED = "Left out the %1$s at line %2$d: %3$s";
+
+    private static final String ERROR_NO_SUMMARY = "It has no summary!";
+    private static final String ERROR_NO_START = "It has no start!";
+    private static final String ERROR_CANCELLED = "It is cancelled!";
+    private static final String ERROR_UNSUPPORTED_RULE = "Recurrence rule %1$s is not supported!";
+    private static final String ERROR_INVALID_LINE = "Line %1$d: \"%2$s\" is not a valid iCalendar line!";
+
+    private final Clock clock;
+    private final ZoneId zone;
+    // The time the file is written, in UTC
+    private String stamp;
+
+    // The component being read, with its properties by name, or null outside a component
+    private String componentName;
+    private Map<String, ContentLine> componentProperties;
+    private int componentLineNumber;
+    // The number of components, such as alarms, open inside the component being read
+    private int nestedDepth;
+    private int skippedCount;
+
+    CalendarEntryIcsFormat() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Creates a format that converts times to the time zone of the clock, and stamps the files written with the time
+     * of the clock.
+     */
+    CalendarEntryIcsFormat(Clock clock) {
+        this.clock = clock;
+        this.zone = clock.getZone();
+    }
+
+    /**
+     * A content line, made of a name, parameters and a value, such as
+     * {@code DTSTART;TZID=Asia/Singapore:20160301T100000}.
+     */
+    private static final class ContentLine {
+        private final String name;
+        private final Map<String, String> parameters = new HashMap<>();
+        private final String value;
+
+        private ContentLine(String line, int lineNumber) {
+            int nameEnd = findUnquoted(line, 0, ";:");
+
+            if (nameEnd == -1) {
+                throw new IllegalArgumentException(String.format(ERROR_INVALID_LINE, lineNumber, line));
+            }
+
+            name = line.substring(0, nameEnd).trim().toUpperCase(Locale.ROOT);
+            int position = nameEnd;
+
+            while (line.charAt(position) == ';') {
+                int parameterEnd = findUnquoted(line, position + 1, ";:");
+
+                if (parameterEnd == -1) {
+                    throw new IllegalArgumentException(String.format(ERROR_INVALID_LINE, lineNumber, line));
+                }
+
+                String parameter = line.substring(position + 1, parameterEnd);
+                int equals = parameter.indexOf('=');
+
+                if (equals != -1) {
+                    parameters.put(parameter.substring(0, equals).trim().toUpperCase(Locale.ROOT),
+                            unquote(parameter.substring(equals + 1).trim()));
+                }
+                position = parameterEnd;
+            }
+
+            value = line.substring(position + 1);
+        }
+
+        private String getParameter(String parameterName) {
+            return parameters.get(parameterName);
+        }
+    }
+
+    @Override
+    public int read(BufferedReader reader, Consumer<CalendarEntry> action) throws IOException {
+        componentName = null;
+        skippedCount = 0;
+
+        StringBuilder unfoldedLine = null;
+        int unfoldedLineNumber = 0;
+        int lineNumber = 0;
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+
+            // A line starting with a space or a tab continues the line before it
+            if (unfoldedLine != null && !line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t')) {
+                unfoldedLine.append(line, 1, line.length());
+                continue;
+            }
+
+            if (unfoldedLine != null) {
+                processLine(unfoldedLine.toString(), unfoldedLineNumber, action);
+            }
+            unfoldedLine = new StringBuilder(line);
+            unfoldedLineNumber = lineNumber;
+        }
+
+        if (unfoldedLine != null) {
+            processLine(unfoldedLine.toString(), unfoldedLineNumber, action);
+        }
+        return skippedCount;
+    }
+
+    @Override
+    void writeStart(Writer writer) throws IOException {
+        stamp = LocalDateTime.ofInstant(clock.instant(), ZoneOffset.UTC).format(DATE_TIME_FORMAT) + UTC_SUFFIX;
+
+        writeLine(CALENDAR_START, writer);
+        writeLine(CALENDAR_VERSION, writer);
+        writeLine(CALENDAR_PRODUCT, writer);
+    }
+
+    /**
+     * Writes the entry as a {@code VEVENT} if it has a start, or as a {@code VTODO} otherwise.
+     */
+    @Override
+    void writeEntry(CalendarEntry entry, Writer writer) throws IOException {
+        LocalDateTime start = entry.getDateTime(CalendarProperty.START);
+        LocalDateTime end = entry.getDateTime(CalendarProperty.END);
+        String component = start == null ? COMPONENT_TODO : COMPONENT_EVENT;
+
+        writeLine(PROPERTY_BEGIN + ":" + component, writer);
+        writeLine(PROPERTY_UID + ":" + String.format(UID_FORMAT, entry.getId()), writer);
+        writeLine(PROPERTY_STAMP + ":" + stamp, writer);
+        writeLine(PROPERTY_SUMMARY + ":" + escape(entry.getName()), writer);
+
+        if (start != null) {
+            writeLine(PROPERTY_START + ":" + start.format(DATE_TIME_FORMAT), writer);
+            writeLine(PROPERTY_EVENT_END + ":" + end.format(DATE_TIME_FORMAT), writer);
+        } else if (end != null) {
+            writeLine(PROPERTY_DUE + ":" + end.format(DATE_TIME_FORMAT), writer);
+        }
+
+        String rule = entry.isProperty(CalendarProperty.RECURRING) ? toRule(entry) : null;
+        if (rule != null) {
+            writeLine(PROPERTY_RULE + ":" + rule, writer);
+        }
+
+        if (start == null && !entry.isProperty(CalendarProperty.ACTIVE)) {
+            writeLine(PROPERTY_STATUS + ":" + STATUS_COMPLETED, writer);
+        }
+
+        writeLine(PROPERTY_END + ":" + component, writer);
+    }
+
+    @Override
+    void writeEnd(Writer writer) throws IOException {
+        writeLine(CALENDAR_END, writer);
+    }
+
+    /**
+     * Returns the recurrence rule of a recurring entry, or null if its period mixes months and days.
+     */
+    private static String toRule(CalendarEntry entry) {
+        Period period = entry.getPeriod();
+        String frequency;
+        long interval;
+
+        if (period.getDays() == 0) {
+            boolean isYearly = period.getMonths() == 0;
+            frequency = isYearly ? "YEARLY" : "MONTHLY";
+            interval = isYearly ? period.getYears() : period.toTotalMonths();
+        } else if (period.toTotalMonths() == 0) {
+            boolean isWeekly = period.getDays() % DAYS_IN_WEEK == 0;
+            frequency = isWeekly ? "WEEKLY" : "DAILY";
+            interval = isWeekly ? period.getDays() / DAYS_IN_WEEK : period.getDays();
+        } else {
+            return null;
+        }
+
+        StringBuilder rule = new StringBuilder(RULE_FREQUENCY + "=" + frequency);
+
+        if (interval != 1) {
+            rule.append(";" + RULE_INTERVAL + "=").append(interval);
+        }
+
+        if (entry.isProperty(CalendarProperty.OCCURRENCE_LIMITED)) {
+            rule.append(";" + RULE_COUNT + "=").append(entry.getIntegerProperty(CalendarProperty.OCCURRENCE_LIMIT));
+        } else if (entry.isProperty(CalendarProperty.DATE_LIMITED)) {
+            LocalDateTime until = entry.getDateTime(CalendarProperty.DATE_LIMIT).toLocalDate().atTime(UNTIL_TIME);
+            rule.append(";" + RULE_UNTIL + "=").append(until.format(DATE_TIME_FORMAT));
+        }
+        return rule.toString();
+    }
+
+    /**
+     * Writes a content line, folding it so that no line is longer than 75 bytes.
+     */
+    private static void writeLine(String line, Writer writer) throws IOException {
+        int lineLength = 0;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            int charLength = getUtf8Length(c);
+
+            if (lineLength + charLength > MAX_LINE_LENGTH) {
+                writer.write(LINE_SEPARATOR);
+                writer.write(FOLD_PREFIX);
+                lineLength = FOLD_PREFIX.length();
+            }
+
+            writer.write(c);
+            lineLength += charLength;
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+
+    /**
+     * Returns the number of bytes the character takes in UTF-8. A surrogate pair takes 4 bytes, all counted for the
+     * high surrogate, so that the pair is never split across lines.
+     */
+    private static int getUtf8Length(char c) {
+        if (Character.isHighSurrogate(c)) {
+            return 4;
+        } else if (Character.isLowSurrogate(c)) {
+            return 0;
+        } else if (c < 0x80) {
+            return 1;
+        } else if (c < 0x800) {
+            return 2;
+        }
+        return 3;
+    }
+
+    private static String escape(String text) {
+        StringBuilder result = new StringBuilder(text.length());
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (c == '\\' || c == ';' || c == ',') {
+                result.append('\\').append(c);
+            } else if (c == '\n') {
+                result.append("\\n");
+            } else if (c != '\r') {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private void processLine(String line, int lineNumber, Consumer<CalendarEntry> action) {
+        if (line.trim().isEmpty()) {
+            return;
+        }
+
+        ContentLine contentLine = new ContentLine(line, lineNumber);
+        String componentType = contentLine.value.trim().toUpperCase(Locale.ROOT);
+
+        switch (contentLine.name) {
+            case PROPERTY_BEGIN :
+                if (componentName != null) {
+                    nestedDepth++;
+                } else if (componentType.equals(COMPONENT_EVENT) || componentType.equals(COMPONENT_TODO)) {
+                    componentName = componentType;
+                    componentProperties = new HashMap<>();
+                    componentLineNumber = lineNumber;
+                    nestedDepth = 0;
+                }
+                break;
+            case PROPERTY_END :
+                if (componentName != null && nestedDepth > 0) {
+                    nestedDepth--;
+                } else if (componentName != null) {
+                    processComponent(action);
+                    componentName = null;
+                }
+                break;
+            default :
+                if (componentName != null && nestedDepth == 0) {
+                    componentProperties.putIfAbsent(contentLine.name, contentLine);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Passes on the entry of the component just read, or counts it as left out if it cannot be represented.
+     */
+    private void processComponent(Consumer<CalendarEntry> action) {
+        CalendarEntry entry;
+
+        try {
+            entry = toEntry();
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            LOGGER.log(Level.WARNING, String.format(LOG_SKIPPED, componentName, componentLineNumber, ex.getMessage()));
+            skippedCount++;
+            return;
+        }
+
+        action.accept(entry);
+    }
+
+    private CalendarEntry toEntry() {
+        ContentLine summary = componentProperties.get(PROPERTY_SUMMARY);
+
+        if (summary == null || unescape(summary.value).trim().isEmpty()) {
+            throw new IllegalArgumentException(ERROR_NO_SUMMARY);
+        }
+
+        String name = unescape(summary.value).trim();
+        ContentLine status = componentProperties.get(PROPERTY_STATUS);
+        String statusValue = status == null ? "" : status.value.trim().toUpperCase(Locale.ROOT);
+
+        if (statusValue.equals(STATUS_CANCELLED)) {
+            throw new IllegalArgumentException(ERROR_CANCELLED);
+        }
+
+        if (componentName.equals(COMPONENT_TODO)) {
+            boolean isDone = statusValue.equals(STATUS_COMPLETED)
+                    || componentProperties.containsKey(PROPERTY_COMPLETED);
+            ContentLine due = componentProperties.get(PROPERTY_DUE);
+            LocalDateTime deadline = due == null ? null : parseDateTime(due);
+
+            return createRecurringEntry(name, null, deadline, isDone);
+        }
+
+        ContentLine startLine = componentProperties.get(PROPERTY_START);
+
+        if (startLine == null) {
+            throw new IllegalArgumentException(ERROR_NO_START);
+        }
+
+        LocalDateTime start = parseDateTime(startLine);
+        ContentLine endLine = componentProperties.get(PROPERTY_EVENT_END);
+        ContentLine durationLine = componentProperties.get(PROPERTY_DURATION);
+        LocalDateTime end;
+
+        if (endLine != null) {
+            end = parseDateTime(endLine);
+        } else if (durationLine != null) {
+            end = start.plus(parseDuration(durationLine.value.trim()));
+        } else if (isDate(startLine)) {
+            // An event on a date without an end takes the whole day
+            end = start.plusDays(1);
+        } else {
+            end = start;
+        }
+
+        return createRecurringEntry(name, start, end, false);
+    }
+
+    /**
+     * Creates the entry with the recurrence of the component, if any. An entry that is done no longer recurs.
+     */
+    private CalendarEntry createRecurringEntry(String name, LocalDateTime start, LocalDateTime end, boolean isDone) {
+        ContentLine rule = componentProperties.get(PROPERTY_RULE);
+
+        if (rule == null || isDone) {
+            return createEntry(name, start, end, null, 0, null, isDone);
+        }
+
+        Map<String, String> parts = new HashMap<>();
+
+        for (String part : rule.value.trim().split(";")) {
+            int equals = part.indexOf('=');
+
+            if (equals != -1) {
+                parts.put(part.substring(0, equals).trim().toUpperCase(Locale.ROOT), part.substring(equals + 1).trim());
+            }
+        }
+
+        LocalDateTime firstOccurrence = start == null ? end : start;
+        Period period = parsePeriod(parts, firstOccurrence, rule.value);
+        String count = parts.get(RULE_COUNT);
+        String until = parts.get(RULE_UNTIL);
+
+        return createEntry(name, start, end, period,
+                count == null ? 0 : Integer.parseInt(count),
+                until == null ? null : parseDateTime(until, null).toLocalDate(),
+                false);
+    }
+
+    /**
+     * Returns the time between occurrences of a recurrence rule, if the rule only repeats at a fixed period.
+     * <p>
+     * The days a rule repeats on can be given again by name or by number, as some calendars do, as long as they are
+     * the days of the first occurrence.
+     */
+    private static Period parsePeriod(Map<String, String> parts, LocalDateTime firstOccurrence, String rule) {
+        String frequency = parts.getOrDefault(RULE_FREQUENCY, "");
+        int interval = Integer.parseInt(parts.getOrDefault(RULE_INTERVAL, "1"));
+        Period period;
+
+        switch (frequency.toUpperCase(Locale.ROOT)) {
+            case "DAILY" :
+                period = Period.ofDays(interval);
+                break;
+            case "WEEKLY" :
+                period = Period.ofWeeks(interval);
+                break;
+            case "MONTHLY" :
+                period = Period.ofMonths(interval);
+                break;
+            case "YEARLY" :
+                period = Period.ofYears(interval);
+                break;
+            default :
+                throw new IllegalArgumentException(String.format(ERROR_UNSUPPORTED_RULE, rule));
+        }
+
+        for (Map.Entry<String, String> part : parts.entrySet()) {
+            boolean isSupported;
+
+            switch (part.getKey()) {
+                case RULE_FREQUENCY :
+                case RULE_INTERVAL :
+                case RULE_COUNT :
+                case RULE_UNTIL :
+                case RULE_WEEK_START :
+                    isSupported = true;
+                    break;
+                case RULE_DAY :
+                    isSupported = frequency.equalsIgnoreCase("WEEKLY") && part.getValue().equalsIgnoreCase(
+                            firstOccurrence.getDayOfWeek().name().substring(0, DAY_NAME_LENGTH));
+                    break;
+                case RULE_MONTH_DAY :
+                    isSupported = frequency.equalsIgnoreCase("MONTHLY")
+                            && part.getValue().equals(String.valueOf(firstOccurrence.getDayOfMonth()));
+                    break;
+                default :
+                    isSupported = false;
+                    break;
+            }
+
+            if (!isSupported) {
+                throw new IllegalArgumentException(String.format(ERROR_UNSUPPORTED_RULE, rule));
+            }
+        }
+        return period;
+    }
+
+    private LocalDateTime parseDateTime(ContentLine line) {
+        String value = line.value.trim();
+
+        if (isDate(line)) {
+            return LocalDate.parse(value, DATE_FORMAT).atStartOfDay();
+        }
+        return parseDateTime(value, line.getParameter(PARAMETER_ZONE));
+    }
+
+    /**
+     * Parses a date, or a date and time in UTC, in the zone named, or in local time.
+     *
+     * @param value    The date or date and time
+     * @param zoneName The time zone named for the value, or null
+     * @return The local date and time
+     */
+    private LocalDateTime parseDateTime(String value, String zoneName) {
+        if (value.length() == DATE_LENGTH) {
+            return LocalDate.parse(value, DATE_FORMAT).atStartOfDay();
+        }
+
+        boolean isUtc = value.endsWith(UTC_SUFFIX);
+        LocalDateTime dateTime = LocalDateTime.parse(isUtc ? value.substring(0, value.length() - 1) : value,
+                DATE_TIME_FORMAT);
+
+        ZoneId valueZone = isUtc ? ZoneOffset.UTC : toZone(zoneName);
+        return valueZone == null ? dateTime : dateTime.atZone(valueZone).withZoneSameInstant(zone).toLocalDateTime();
+    }
+
+    /**
+     * Returns the time zone named, or null if there is no name or the name is not a known time zone, in which case
+     * the time is taken as a local time.
+     */
+    private static ZoneId toZone(String zoneName) {
+        if (zoneName == null) {
+            return null;
+        }
+
+        try {
+            return ZoneId.of(zoneName);
+        } catch (DateTimeException ex) {
+            return null;
+        }
+    }
+
+    private static boolean isDate(ContentLine line) {
+        return VALUE_DATE.equalsIgnoreCase(line.getParameter(PARAMETER_VALUE))
+                || line.value.trim().length() == DATE_LENGTH;
+    }
+
+    /**
+     * Parses a duration such as {@code PT1H30M}, {@code P1D} or {@code P2W}.
+     */
+    private static Duration parseDuration(String value) {
+        String upperCaseValue = value.toUpperCase(Locale.ROOT);
+
+        if (upperCaseValue.endsWith("W")) {
+            return Duration.ofDays(Period.parse(upperCaseValue).getDays());
+        }
+        return Duration.parse(upperCaseValue);
+    }
+
+    private static String unescape(String text) {
+        StringBuilder result = new StringBuilder(text.length());
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                result.append(next == 'n' || next == 'N' ? ' ' : next);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static int findUnquoted(String line, int from, String characters) {
+        boolean isQuoted = false;
+
+        for (int i = from; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (c == QUOTE) {
+                isQuoted = !isQuoted;
+            } else if (!isQuoted && characters.indexOf(c) != -1) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.charAt(0) == QUOTE && value.charAt(value.length() - 1) == QUOTE) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+}
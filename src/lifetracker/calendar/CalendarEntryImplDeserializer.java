@@ -1,11 +1,11 @@
 package lifetracker.calendar;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
 
 import java.lang.reflect.Type;
 import java.util.HashMap;
@@ -15,12 +15,18 @@ import java.util.Map;
 
 /**
  * This class helps GSON identify the correct implementation of {@code CalendarEntry} to deserialize into.
+ * <p>
+ * The type adapter of each implementation is looked up once and shared, since creating a {@code Gson} and its
+ * reflective adapters is far more costly than deserializing a single entry.
  */
 public class CalendarEntryImplDeserializer implements JsonDeserializer<CalendarEntry> {
 
     private static final String SERIAL_CLASS_ID_FIELD = "SERIAL_TYPE_IDENTIFIER";
 
+    private static final String ERROR_INVALID_FORMAT = "Invalid file format! Save file might have been corrupted!";
+
     private static final Map<String, Class<? extends CalendarEntry>> CLASS_MAP = new HashMap<>();
+    private static final Map<String, TypeAdapter<? extends CalendarEntry>> ADAPTER_MAP = new HashMap<>();
 
     static {
         CLASS_MAP.put("DeadlineTask", DeadlineTask.class);
@@ -28,27 +34,44 @@ public class CalendarEntryImplDeserializer implements JsonDeserializer<CalendarE
         CLASS_MAP.put("GenericEntry", GenericEntry.class);
         CLASS_MAP.put("RecurringEvent", RecurringEvent.class);
         CLASS_MAP.put("RecurringTask", RecurringTask.class);
+
+        Gson gsonParser = new Gson();
+
+        for (Map.Entry<String, Class<? extends CalendarEntry>> entry : CLASS_MAP.entrySet()) {
+            ADAPTER_MAP.put(entry.getKey(), gsonParser.getAdapter(entry.getValue()));
+        }
     }
 
     @Override
     public CalendarEntry deserialize(JsonElement jsonElement, Type type,
             JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
 
-        Class<? extends CalendarEntry> entryClass = resolveEntryClass(jsonElement);
-
-        Gson gsonParser = new GsonBuilder().create();
+        return deserialize(jsonElement);
+    }
 
-        return gsonParser.fromJson(jsonElement, entryClass);
+    /**
+     * Deserializes the JSON of a single entry into the implementation of {@code CalendarEntry} it was serialized from.
+     *
+     * @param jsonElement The JSON of the entry.
+     * @return The entry.
+     * @throws JsonParseException If the JSON is not a valid entry.
+     */
+    public CalendarEntry deserialize(JsonElement jsonElement) throws JsonParseException {
+        return resolveEntryAdapter(jsonElement).fromJsonTree(jsonElement);
     }
 
-    private Class<? extends CalendarEntry> resolveEntryClass(JsonElement jsonElement) {
+    private TypeAdapter<? extends CalendarEntry> resolveEntryAdapter(JsonElement jsonElement) {
+
+        if (!jsonElement.isJsonObject()) {
+            throw new JsonParseException(ERROR_INVALID_FORMAT);
+        }
 
         JsonElement classSerialID = jsonElement.getAsJsonObject().get(SERIAL_CLASS_ID_FIELD);
 
-        if (classSerialID == null) {
-            throw new JsonParseException("Invalid file format! Save file might have been corrupted!");
+        if (classSerialID == null || !ADAPTER_MAP.containsKey(classSerialID.getAsString())) {
+            throw new JsonParseException(ERROR_INVALID_FORMAT);
         }
 
-        return CLASS_MAP.get(classSerialID.getAsString());
+        return ADAPTER_MAP.get(classSerialID.getAsString());
     }
 }
@@ -3,8 +3,11 @@ package lifetracker.calendar;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Period;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
+import lifetracker.calendar.visitor.OldNewEntriesPair;
 import lifetracker.calendar.visitor.OldNewEntryPair;
 
 //@@author A0108473E
@@ -22,50 +25,15 @@ import lifetracker.calendar.visitor.OldNewEntryPair;
  * The {@code mark} method provides a way to mark an entry as done, and uses a
  * visitor design pattern to determine the actions to be done to on entry
  * depending on its class type.
+ * <p>
+ * The search methods are inherited from {@code CalendarView}, and return
+ * read-only views.
  *
  */
-public interface CalendarList {
+public interface CalendarList extends CalendarView {
 
-    String ERROR_INVALID_ID = "Entry %1$s is not found!";
     int BASE_ID = 0;
 
-    /**
-     * Sorts all active task objects in ascending order of deadline, and all
-     * archived task objects in descending order of deadline, in two separate
-     * lists. Floating tasks are at the tail end of both lists. The lists are
-     * concatenated and returned as a single list.
-     *
-     * @return A sorted {@code List} of task objects.
-     */
-    List<CalendarEntry> getTaskList();
-
-    /**
-     * Sorts all active event objects in ascending order, and all archived
-     * events in descending order, of end date and time followed by start date
-     * and time, in two separate lists. The lists are concatenated and returned
-     * as a single list.
-     *
-     * @return A sorted {@code List} of event objects.
-     */
-    List<CalendarEntry> getEventList();
-
-    /**
-     * Sorts and returns only the archived tasks in the {@code CalendarList}, in
-     * descending order.
-     *
-     * @return A sorted {@code List} of archived task objects.
-     */
-    List<CalendarEntry> getArchivedTaskList();
-
-    /**
-     * Sorts and returns only the archived events in the {@code CalendarList},
-     * in descending order of end date and time, followed by start date and
-     * time.
-     *
-     * @return A sorted {@code List} of archived event objects.
-     */
-    List<CalendarEntry> getArchivedEventList();
-
     /**
      * Adds a floating task.
      *
@@ -215,6 +183,20 @@ public interface CalendarList {
      */
     int add(CalendarEntry entry);
 
+    /**
+     * Adds several entries at once, as {@code add(CalendarEntry)} does for
+     * each of them.
+     * <p>
+     * Either all of the entries are added or, if any of them is invalid, none
+     * of them are. Archived entries among them are only moved off the heap
+     * once, after all of them are added.
+     *
+     * @param entries
+     *            The entries to add, in order.
+     * @return The entry IDs of the newly added entries, in the same order.
+     */
+    List<Integer> addAll(Collection<? extends CalendarEntry> entries);
+
     /**
      * Deletes an entry.
      *
@@ -522,66 +504,89 @@ public interface CalendarList {
     OldNewEntryPair mark(int id);
 
     /**
-     * Finds and returns the {@code CalendarEntry} object with the specified ID
-     * number.
+     * Marks every occurrence of the recurring entry with ID number {@code id}
+     * that takes place up to the date, as marking it once for each would. The
+     * occurrences marked are archived together, and the entry moves straight
+     * to its first occurrence after the date, or ends if it has none.
      *
      * @param id
-     *            ID number of desired entry.
-     * @return The entry object with the specified ID number.
+     *            The ID number of the recurring entry to be marked.
+     * @param date
+     *            The last date to mark occurrences on, which is the deadline
+     *            of a task or the start of an event.
+     * @return The entry before marking, and the archived occurrences.
      * @throws IllegalArgumentException
-     *             If ID number is not found.
+     *             If the ID number is not found, the entry does not recur, or
+     *             no occurrence takes place up to the date.
+     * @see lifetracker.calendar.visitor.MarkVisitor
+     */
+    OldNewEntriesPair markUpTo(int id, LocalDate date);
+
+    /**
+     * Returns the ID numbers of all entries that were added, deleted or
+     * modified since the last call to this method, and starts tracking changes
+     * afresh.
+     * <p>
+     * An entry whose ID number is returned but cannot be found with
+     * {@code get} has been deleted.
+     *
+     * @return A {@code Set} of the ID numbers of changed entries.
      */
-    CalendarEntry get(int id);
+    Set<Integer> takeChangedIds();
 
     /**
-     * Creates and returns a copy of the {@code CalendarListImpl} object with
-     * {@code taskList} and {@code eventList} filtered to contain only entries
-     * with descriptions containing the desired text. Allows room for minor
-     * typographical errors.
+     * Returns the ID number that will be given to the next new entry. ID
+     * numbers are never reused, even after the entry with the largest ID
+     * number is deleted.
      *
-     * @param toSearch
-     *            The desired text to search for.
-     * @return A {@code CalendarList} with customized {@code taskList} and
-     *         {@code eventList}.
+     * @return The next ID number.
      */
-    CalendarList findByName(String toSearch);
+    int getNextId();
 
     /**
-     * Creates and returns a {@code CalendarListImpl} object with
-     * {@code taskList} and {@code eventList} set as the archived lists of the
-     * main {@code CalendarList}, filtered to contain only entries with
-     * descriptions containing the desired text. Allows room for minor
-     * typographical errors.
+     * Makes sure that no new entry will be given an ID number smaller than
+     * the specified ID number. Has no effect if the next ID number is already
+     * at least as large.
      *
-     * @param toSearch
-     *            The desired text to search for.
-     * @return A {@code CalendarList} with customized {@code taskList} and
-     *         {@code eventList}.
+     * @param id
+     *            The smallest ID number to give to the next new entry.
+     */
+    void advanceNextId(int id);
+
+    /**
+     * Starts adding many entries at once, such as while loading a saved
+     * calendar. Until {@code endBulkLoad} is called, archived entries stay
+     * on the heap, instead of being moved off the heap each time enough of
+     * them have built up.
      */
-    CalendarList findArchivedByName(String toSearch);
+    void beginBulkLoad();
 
     /**
-     * Creates and returns a {@code CalendarListImpl} object with
-     * {@code taskList} and {@code eventList} containing all entries (active or
-     * archived) whose descriptions contain the desired text. Allows room for
-     * minor typographical errors.
+     * Finishes adding many entries at once, and moves the archived entries
+     * built up since {@code beginBulkLoad} off the heap in one go.
+     */
+    void endBulkLoad();
+
+    /**
+     * Creates and returns a copy of the calendar, containing copies of all
+     * entries (active or archived). Changes to either calendar or their
+     * entries do not affect the other.
      *
-     * @param toSearch
-     *            The desired text to search for.
-     * @return A {@code CalendarList} with customized {@code taskList} and
-     *         {@code eventList}.
+     * @return An independent copy of the {@code CalendarList}.
      */
-    CalendarList findAllByName(String toSearch);
+    CalendarList copy();
 
     /**
-     * Creates and returns a {@code CalendarListImpl} object with
-     * {@code taskList} and {@code eventList} containing only active tasks that
-     * are due on the same day, active events that start on the same day, and
-     * active events that are ongoing at the time when the method is called.
+     * Returns a read-only view of all entries (active or archived) as they
+     * are now. Later changes to the calendar do not affect the view.
+     * <p>
+     * Unlike {@code copy}, the entries are shared with the calendar instead
+     * of being copied, and no indexes are built, so taking a snapshot is
+     * cheap. The calendar never changes an entry it holds, but replaces it
+     * with a changed copy, so the view can be read on another thread.
      *
-     * @return A {@code CalendarList} with customized {@code taskList} and
-     *         {@code eventList}.
+     * @return A snapshot of the {@code CalendarList}.
      */
-    CalendarList findToday();
+    CalendarView snapshot();
 
 }
@@ -1,20 +1,26 @@
 package lifetracker.calendar;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Period;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
 import java.util.TreeMap;
-import java.util.stream.Collectors;
-
-import org.apache.commons.lang3.StringUtils;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import lifetracker.calendar.visitor.EntryCopyVisitor;
 import lifetracker.calendar.visitor.EntryToDeadlineTaskVisitor;
 import lifetracker.calendar.visitor.EntryToEventVisitor;
 import lifetracker.calendar.visitor.EntryToGenericTaskVisitor;
@@ -22,6 +28,7 @@ import lifetracker.calendar.visitor.EntryToRecurringEventVisitor;
 import lifetracker.calendar.visitor.EntryToRecurringTaskVisitor;
 import lifetracker.calendar.visitor.EntryVisitor;
 import lifetracker.calendar.visitor.MarkVisitor;
+import lifetracker.calendar.visitor.OldNewEntriesPair;
 import lifetracker.calendar.visitor.OldNewEntryPair;
 
 //@@author A0108473E
@@ -36,71 +43,93 @@ import lifetracker.calendar.visitor.OldNewEntryPair;
 public class CalendarListImpl implements CalendarList {
 
     private static final String ERROR_EMPTY_NAME = "Task/Event's name cannot be empty!";
+    private static final String ERROR_NOT_RECURRING = "Entry %1$d does not recur!";
+    private static final String ERROR_NOTHING_TO_MARK = "Entry %1$d has no occurrences up to %2$s!";
 
     private static final double WORD_SIMILARITY_THRESHOLD_INDEX = 0.85;
 
+    private static final int DEFAULT_ARCHIVE_SPILL_THRESHOLD = 500;
+    private static final String LOG_ARCHIVE_SPILL_FAILED = "Archived entries are kept in memory: %1$s";
+
     // variables
     private TreeMap<Integer, CalendarEntry> taskList = new TreeMap<>();
     private TreeMap<Integer, CalendarEntry> eventList = new TreeMap<>();
     private TreeMap<Integer, CalendarEntry> archivedTaskList = new TreeMap<>();
     private TreeMap<Integer, CalendarEntry> archivedEventList = new TreeMap<>();
 
-    private void setTaskList(TreeMap<Integer, CalendarEntry> map) {
-        this.taskList = map;
-    }
+    // The ID given to the next new entry. IDs are never reused, even after the entry with the largest ID is deleted.
+    private int nextId = BASE_ID + 1;
 
-    private void setEventList(TreeMap<Integer, CalendarEntry> map) {
-        this.eventList = map;
-    }
+    // Every ID in the calendar, with the list that holds its entry, not saved
+    private transient EntryIndex index = new EntryIndex();
 
-    @Override
-    public List<CalendarEntry> getTaskList() {
-        List<CalendarEntry> active = taskList.values().stream()
-                .filter(entry -> entry.isProperty(CalendarProperty.ACTIVE)).collect(Collectors.toList());
+    // The entries of taskList and eventList in display order, kept up to date on every change, not saved
+    private transient TreeSet<CalendarEntry> sortedTasks = new TreeSet<>(EntryComparators.TASK_ORDER);
+    private transient TreeSet<CalendarEntry> sortedEvents = new TreeSet<>(EntryComparators.EVENT_ORDER);
 
-        sortByDateTime(CalendarProperty.END, active);
+    // The entries of taskList and eventList by the time they take place, for date range searches, not saved
+    private transient IntervalIndex taskTimes = new IntervalIndex();
+    private transient IntervalIndex eventTimes = new IntervalIndex();
 
-        List<CalendarEntry> nonActive = taskList.values().stream()
-                .filter(entry -> !entry.isProperty(CalendarProperty.ACTIVE)).collect(Collectors.toList());
+    // The recurring entries of taskList and eventList, whose later occurrences are not in the indexes above, not saved
+    private transient Set<CalendarEntry> recurringEntries = new LinkedHashSet<>();
 
-        sortReverseByDateTime(CalendarProperty.END, nonActive);
-        active.addAll(nonActive);
+    // The occurrences of the recurring entries of eventList, for finding conflicts, not saved
+    private transient OccurrenceIndex recurringEventTimes = new OccurrenceIndex();
 
-        return active;
-    }
+    // The words in the names of the entries kept on the heap, not saved
+    private transient NameIndex nameIndex = new NameIndex(CalendarListImpl::isSimilar, WORD_SIMILARITY_THRESHOLD_INDEX);
 
-    @Override
-    public List<CalendarEntry> getEventList() {
+    // IDs of entries changed since the last call to takeChangedIds, not saved
+    private transient Set<Integer> changedIds = new HashSet<>();
 
-        List<CalendarEntry> active = eventList.values().stream()
-                .filter(entry -> entry.isProperty(CalendarProperty.ACTIVE)).collect(Collectors.toList());
+    // Archived entries moved off the heap, and the IDs deleted from the segment since it was built, not saved.
+    // The archived lists above only hold the entries archived since then.
+    private transient ArchiveSegment archiveSegment = ArchiveSegment.EMPTY;
+    private transient Set<Integer> deletedArchiveIds = new HashSet<>();
+    private transient int archiveSpillThreshold = DEFAULT_ARCHIVE_SPILL_THRESHOLD;
+    // Whether archived entries are kept on the heap until the entries being loaded are all added, not saved
+    private transient boolean isBulkLoading = false;
 
-        sortByDateTime(CalendarProperty.END, active);
-        sortByDateTime(CalendarProperty.START, active);
+    public CalendarListImpl() {
+    }
 
-        List<CalendarEntry> nonActive = eventList.values().stream()
-                .filter(entry -> !entry.isProperty(CalendarProperty.ACTIVE)).collect(Collectors.toList());
+    /**
+     * Creates an empty calendar that moves archived entries off the heap once
+     * the specified number of archived entries or deletions have built up.
+     *
+     * @param archiveSpillThreshold
+     *            The number of archived entries kept on the heap before they
+     *            are moved off the heap.
+     */
+    CalendarListImpl(int archiveSpillThreshold) {
+        assert archiveSpillThreshold > 0;
 
-        sortReverseByDateTime(CalendarProperty.END, nonActive);
-        sortReverseByDateTime(CalendarProperty.START, nonActive);
+        this.archiveSpillThreshold = archiveSpillThreshold;
+    }
 
-        active.addAll(nonActive);
+    @Override
+    public List<CalendarEntry> getTaskList() {
+        return new ArrayList<>(sortedTasks);
+    }
 
-        return active;
+    @Override
+    public List<CalendarEntry> getEventList() {
+        return new ArrayList<>(sortedEvents);
     }
 
     @Override
     public List<CalendarEntry> getArchivedTaskList() {
-        List<CalendarEntry> list = new ArrayList<>(archivedTaskList.values());
-        return sortReverseByDateTime(CalendarProperty.END, list);
+        List<CalendarEntry> list = new ArrayList<>(findArchived(false, null, null).values());
+        list.sort(EntryComparators.TASK_ORDER);
+        return list;
     }
 
     @Override
     public List<CalendarEntry> getArchivedEventList() {
-        List<CalendarEntry> list = new ArrayList<>(archivedEventList.values());
-        List<CalendarEntry> sortedList = sortReverseByDateTime(CalendarProperty.END, list);
-        sortedList = sortReverseByDateTime(CalendarProperty.START, sortedList);
-        return sortedList;
+        List<CalendarEntry> list = new ArrayList<>(findArchived(true, null, null).values());
+        list.sort(EntryComparators.EVENT_ORDER);
+        return list;
     }
 
     @Override
@@ -150,6 +179,36 @@ public class CalendarListImpl implements CalendarList {
 
     @Override
     public int add(CalendarEntry entry) {
+        int id = put(entry);
+
+        if (!entry.isProperty(CalendarProperty.ACTIVE)) {
+            spillArchiveIfFull();
+        }
+        return id;
+    }
+
+    @Override
+    public List<Integer> addAll(Collection<? extends CalendarEntry> entries) {
+        for (CalendarEntry entry : entries) {
+            if (entry.getName().isEmpty()) {
+                throw new IllegalArgumentException(ERROR_EMPTY_NAME);
+            }
+        }
+
+        List<Integer> ids = new ArrayList<>(entries.size());
+        for (CalendarEntry entry : entries) {
+            ids.add(put(entry));
+        }
+
+        spillArchiveIfFull();
+        return ids;
+    }
+
+    /**
+     * Adds the entry without spilling the archive, so that several archived
+     * entries can be added before spilling once.
+     */
+    private int put(CalendarEntry entry) {
         assert entry != null;
         assert entry.getName() != null;
 
@@ -157,37 +216,52 @@ public class CalendarListImpl implements CalendarList {
             throw new IllegalArgumentException(ERROR_EMPTY_NAME);
         }
 
-        if (!isValidId(entry.getId())) {
-            entry.setId(getNextId());
-        }
-        if (entry.isProperty(CalendarProperty.ACTIVE)) {
-            if (entry.getDateTime(CalendarProperty.START) == null) {
-                taskList.put(entry.getId(), entry);
-            } else {
-                eventList.put(entry.getId(), entry);
-            }
+        if (isValidId(entry.getId())) {
+            advanceNextId(entry.getId() + 1);
         } else {
-            if (entry.getDateTime(CalendarProperty.START) == null) {
-                archivedTaskList.put(entry.getId(), entry);
-            } else {
-                archivedEventList.put(entry.getId(), entry);
-            }
+            entry.setId(nextId++);
         }
+
+        byte bucket = getBucket(entry);
+        getBucketList(bucket).put(entry.getId(), entry);
+        index.put(entry.getId(), entry, bucket);
+        nameIndex.add(entry.getId(), entry.getName());
+        addToActiveIndexes(entry, bucket);
+
+        changedIds.add(entry.getId());
         return entry.getId();
     }
 
     @Override
     public CalendarEntry delete(int id) {
-        if (taskList.containsKey(id)) {
-            return taskList.remove(id);
-        } else if (eventList.containsKey(id)) {
-            return eventList.remove(id);
-        } else if (archivedEventList.containsKey(id)) {
-            return archivedEventList.remove(id);
-        } else if (archivedTaskList.containsKey(id)) {
-            return archivedTaskList.remove(id);
+        CalendarEntry indexedEntry = index.get(id);
+        byte bucket = index.remove(id);
+
+        if (bucket == EntryIndex.BUCKET_NONE) {
+            throw new IllegalArgumentException(String.format(ERROR_INVALID_ID, id));
         }
-        throw new IllegalArgumentException(String.format(ERROR_INVALID_ID, id));
+
+        changedIds.add(id);
+
+        if (bucket == EntryIndex.BUCKET_ARCHIVE_SEGMENT) {
+            CalendarEntry entry = archiveSegment.get(id);
+            deletedArchiveIds.add(id);
+            spillArchiveIfFull();
+            return entry;
+        }
+
+        nameIndex.remove(id, indexedEntry.getName());
+
+        if (bucket == EntryIndex.BUCKET_TASK) {
+            sortedTasks.remove(indexedEntry);
+            taskTimes.remove(indexedEntry);
+        } else if (bucket == EntryIndex.BUCKET_EVENT) {
+            sortedEvents.remove(indexedEntry);
+            eventTimes.remove(indexedEntry);
+            recurringEventTimes.remove(indexedEntry);
+        }
+        recurringEntries.remove(indexedEntry);
+        return getBucketList(bucket).remove(id);
     }
 
     @Override
@@ -271,7 +345,8 @@ public class CalendarListImpl implements CalendarList {
 
     @Override
     public OldNewEntryPair mark(int id) {
-        CalendarEntry entryToMark = delete(id);
+        // Snapshots may share the entry, so a copy of it is marked instead
+        CalendarEntry entryToMark = delete(id).accept(new EntryCopyVisitor());
 
         MarkVisitor visitor = new MarkVisitor();
         OldNewEntryPair pair = entryToMark.accept(visitor);
@@ -285,184 +360,449 @@ public class CalendarListImpl implements CalendarList {
         return pair;
     }
 
+    @Override
+    public OldNewEntriesPair markUpTo(int id, LocalDate date) {
+        CalendarEntry entryToMark = get(id);
+
+        if (!Recurrence.isRecurring(entryToMark)) {
+            throw new IllegalArgumentException(String.format(ERROR_NOT_RECURRING, id));
+        }
+
+        Iterator<Occurrence> occurrences = Recurrence.iterator(entryToMark, IntervalIndex.getStart(entryToMark),
+                date.plusDays(1).atStartOfDay());
+
+        if (!occurrences.hasNext()) {
+            throw new IllegalArgumentException(String.format(ERROR_NOTHING_TO_MARK, id, date));
+        }
+
+        List<CalendarEntry> doneEntries = new ArrayList<>();
+        CalendarEntry lastEntry = null;
+
+        // Each occurrence is marked on a copy of the entry at that occurrence, so the entry itself is kept for undo
+        while (occurrences.hasNext()) {
+            Occurrence occurrence = occurrences.next();
+
+            lastEntry = occurrence.getIndex() == 0 ? entryToMark.accept(new EntryCopyVisitor())
+                    : occurrence.toEntry();
+            doneEntries.add(lastEntry.accept(new MarkVisitor()).newEntry);
+        }
+
+        delete(id);
+
+        // The last occurrence keeps the ID of the entry if the entry has no more occurrences
+        if (doneEntries.get(doneEntries.size() - 1).getId() != id) {
+            add(lastEntry);
+        }
+
+        for (CalendarEntry doneEntry : doneEntries) {
+            put(doneEntry);
+        }
+        spillArchiveIfFull();
+
+        return new OldNewEntriesPair(entryToMark, doneEntries);
+    }
+
     @Override
     public CalendarEntry get(int id) {
-        if (taskList.containsKey(id)) {
-            return taskList.get(id);
-        } else if (eventList.containsKey(id)) {
-            return eventList.get(id);
-        } else if (archivedEventList.containsKey(id)) {
-            return archivedEventList.get(id);
-        } else if (archivedTaskList.containsKey(id)) {
-            return archivedTaskList.get(id);
+        byte bucket = index.getBucket(id);
+
+        if (bucket == EntryIndex.BUCKET_NONE) {
+            throw new IllegalArgumentException(String.format(ERROR_INVALID_ID, id));
+        } else if (bucket == EntryIndex.BUCKET_ARCHIVE_SEGMENT) {
+            return archiveSegment.get(id);
         }
-        throw new IllegalArgumentException(String.format(ERROR_INVALID_ID, id));
+        return index.get(id);
     }
 
     @Override
-    public CalendarList findByName(String toSearch) {
-        CalendarListImpl result = new CalendarListImpl();
-        TreeMap<Integer, CalendarEntry> copyTaskList = new TreeMap<>();
-        copyTaskList.putAll(this.taskList);
-        filterByName(copyTaskList, toSearch);
-        TreeMap<Integer, CalendarEntry> copyEventList = new TreeMap<>();
-        copyEventList.putAll(this.eventList);
-        filterByName(copyEventList, toSearch);
-        result.setTaskList(copyTaskList);
-        result.setEventList(copyEventList);
-        return result;
+    public CalendarView findByName(String toSearch) {
+        Set<Integer> matchingIds = findMatchingIds(toSearch);
+
+        return new CalendarListView(selectEntries(EntryIndex.BUCKET_TASK, matchingIds),
+                selectEntries(EntryIndex.BUCKET_EVENT, matchingIds), entry -> true);
     }
 
     @Override
-    public CalendarList findArchivedByName(String toSearch) {
-        CalendarListImpl result = new CalendarListImpl();
-        result.setTaskList(this.archivedTaskList);
-        result.setEventList(this.archivedEventList);
-        return result.findByName(toSearch);
+    public CalendarView findArchivedByName(String toSearch) {
+        Set<Integer> matchingIds = findMatchingIds(toSearch);
+
+        return new CalendarListView(findArchived(false, toSearch, matchingIds).values(),
+                findArchived(true, toSearch, matchingIds).values(), entry -> true);
     }
 
     @Override
-    public CalendarList findAllByName(String toSearch) {
-        CalendarListImpl result = new CalendarListImpl();
+    public CalendarView findAllByName(String toSearch) {
+        Set<Integer> matchingIds = findMatchingIds(toSearch);
 
-        TreeMap<Integer, CalendarEntry> combinedTask = new TreeMap<>(taskList);
-        combinedTask.putAll(archivedTaskList);
-        result.setTaskList(combinedTask);
+        List<CalendarEntry> combinedTask = new ArrayList<>(selectEntries(EntryIndex.BUCKET_TASK, matchingIds));
+        combinedTask.addAll(findArchived(false, toSearch, matchingIds).values());
 
-        TreeMap<Integer, CalendarEntry> combinedEvent = new TreeMap<>(eventList);
-        combinedEvent.putAll(archivedEventList);
-        result.setEventList(combinedEvent);
+        List<CalendarEntry> combinedEvent = new ArrayList<>(selectEntries(EntryIndex.BUCKET_EVENT, matchingIds));
+        combinedEvent.addAll(findArchived(true, toSearch, matchingIds).values());
 
-        return result.findByName(toSearch);
+        return new CalendarListView(combinedTask, combinedEvent, entry -> true);
     }
 
     @Override
-    public CalendarList findToday() {
-        CalendarListImpl result = new CalendarListImpl();
+    public CalendarView findToday(LocalDateTime now) {
+        LocalDateTime startOfToday = now.toLocalDate().atStartOfDay();
+        LocalDateTime startOfTomorrow = startOfToday.plusDays(1);
+
+        // Every entry happening today takes place within today, except tasks without a deadline, which always count
+        List<CalendarEntry> tasks = taskTimes.find(startOfToday, startOfTomorrow);
+        tasks.addAll(taskTimes.getUndatedEntries());
+
+        return new CalendarListView(tasks, eventTimes.find(startOfToday, startOfTomorrow),
+                entry -> entry.isProperty(CalendarProperty.TODAY, now));
+    }
+
+    @Override
+    public CalendarView findInRange(LocalDateTime from, LocalDateTime to) {
+        return new CalendarListView(taskTimes.find(from, to), eventTimes.find(from, to), entry -> true);
+    }
+
+    @Override
+    public CalendarView findAgenda(LocalDateTime from, LocalDateTime to) {
+        List<Iterator<Occurrence>> sequences = new ArrayList<>();
+
+        // Entries that do not recur have a single occurrence, and the indexes find them in order of time
+        sequences.add(findSingleOccurrences(taskTimes, from, to));
+        sequences.add(findSingleOccurrences(eventTimes, from, to));
+
+        for (CalendarEntry entry : recurringEntries) {
+            sequences.add(Recurrence.iterator(entry, from, to));
+        }
+
+        return CalendarListView.ofOccurrences(new OccurrenceMerger(sequences));
+    }
+
+    @Override
+    public Set<Integer> findConflicts(int id) {
+        CalendarEntry entry = get(id);
+        Set<Integer> conflictingIds = new TreeSet<>();
+
+        // Only active events take up time
+        if (entry.getDateTime(CalendarProperty.START) == null || !entry.isProperty(CalendarProperty.ACTIVE)) {
+            return conflictingIds;
+        }
+
+        LocalDateTime start = entry.getDateTime(CalendarProperty.START);
+        Iterator<Occurrence> occurrences = Recurrence.iterator(entry, start, start.plus(CONFLICT_HORIZON));
+
+        while (occurrences.hasNext()) {
+            Occurrence occurrence = occurrences.next();
+            LocalDateTime from = occurrence.getStart();
+            // An event that takes no time still conflicts with the events around it
+            LocalDateTime to = occurrence.getEnd().isAfter(from) ? occurrence.getEnd() : from.plusNanos(1);
+
+            for (CalendarEntry other : eventTimes.find(from, to)) {
+                if (!recurringEntries.contains(other)) {
+                    conflictingIds.add(other.getId());
+                }
+            }
+            for (Occurrence other : recurringEventTimes.find(from, to)) {
+                conflictingIds.add(other.getEntry().getId());
+            }
+        }
+
+        conflictingIds.remove(id);
+        return conflictingIds;
+    }
+
+    @Override
+    public List<FreeSlot> findFreeSlots(Duration length, LocalDateTime from, LocalDateTime to, int limit) {
+        List<Iterator<Occurrence>> busy = new ArrayList<>();
+
+        busy.add(findSingleOccurrences(eventTimes, from, to));
+        busy.add(recurringEventTimes.find(from, to).iterator());
 
-        Map<Integer, CalendarEntry> todayTasks = taskList.entrySet().stream()
-                .filter(e -> e.getValue().isProperty(CalendarProperty.TODAY))
-                .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
+        return FreeSlot.findGaps(new OccurrenceMerger(busy), length, from, to, limit);
+    }
 
-        result.setTaskList(new TreeMap<>(todayTasks));
+    @Override
+    public Set<Integer> takeChangedIds() {
+        Set<Integer> changes = changedIds;
+        changedIds = new HashSet<>();
+        return changes;
+    }
 
-        Map<Integer, CalendarEntry> todayEvents = eventList.entrySet().stream()
-                .filter(e -> e.getValue().isProperty(CalendarProperty.TODAY))
-                .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
+    @Override
+    public int getNextId() {
+        return nextId;
+    }
 
-        result.setEventList(new TreeMap<>(todayEvents));
+    @Override
+    public void advanceNextId(int id) {
+        nextId = Math.max(nextId, id);
+    }
+
+    @Override
+    public void beginBulkLoad() {
+        isBulkLoading = true;
+    }
+
+    @Override
+    public void endBulkLoad() {
+        isBulkLoading = false;
+        spillArchiveIfFull();
+    }
+
+    @Override
+    public CalendarList copy() {
+        CalendarListImpl result = new CalendarListImpl();
+
+        result.taskList = copyEntries(taskList);
+        result.eventList = copyEntries(eventList);
+        result.archivedTaskList = copyEntries(archivedTaskList);
+        result.archivedEventList = copyEntries(archivedEventList);
+
+        // The segment never changes, so it can be shared
+        result.archiveSegment = archiveSegment;
+        result.deletedArchiveIds = new HashSet<>(deletedArchiveIds);
+        result.archiveSpillThreshold = archiveSpillThreshold;
+        result.nextId = nextId;
+        result.rebuildIndexes();
 
         return result;
     }
 
-    private CalendarEntry updateWithVisitor(EntryVisitor<OldNewEntryPair> visitor, int id) {
-        CalendarEntry entryToEdit = delete(id);
-        try {
-            OldNewEntryPair pair = entryToEdit.accept(visitor);
-            add(pair.newEntry);
-            return pair.oldEntry;
-        } catch (IllegalArgumentException ex) {
-            add(entryToEdit);
-            throw ex;
+    @Override
+    public CalendarView snapshot() {
+        List<CalendarEntry> archivedEntries = new ArrayList<>(archivedTaskList.values());
+        archivedEntries.addAll(archivedEventList.values());
+
+        // The segment never changes, so it can be shared
+        return CalendarListView.ofSnapshot(new ArrayList<>(taskList.values()), new ArrayList<>(eventList.values()),
+                archivedEntries, archiveSegment, new HashSet<>(deletedArchiveIds));
+    }
+
+    @Override
+    public void forEachArchived(Consumer<CalendarEntry> action) {
+        archivedTaskList.values().forEach(action);
+        archivedEventList.values().forEach(action);
+        archiveSegment.forEach(deletedArchiveIds, action);
+    }
+
+    /**
+     * Returns the archived tasks or events whose names contain any word of
+     * the text, including those off the heap.
+     *
+     * @param isEvents
+     *            Whether to find events instead of tasks.
+     * @param toSearch
+     *            The text to search for, or {@code null} or an empty string
+     *            to find all archived tasks or events.
+     * @param matchingIds
+     *            The IDs of the entries on the heap that match the text, as
+     *            returned by {@code findMatchingIds}.
+     * @return The matching entries, by ID.
+     */
+    private TreeMap<Integer, CalendarEntry> findArchived(boolean isEvents, String toSearch,
+            Set<Integer> matchingIds) {
+        TreeMap<Integer, CalendarEntry> result = new TreeMap<>();
+
+        for (CalendarEntry entry : selectEntries(
+                isEvents ? EntryIndex.BUCKET_ARCHIVED_EVENT : EntryIndex.BUCKET_ARCHIVED_TASK, matchingIds)) {
+            result.put(entry.getId(), entry);
         }
+
+        for (CalendarEntry entry : archiveSegment.find(deletedArchiveIds, isEvents,
+                name -> toSearch == null || toSearch.isEmpty() || containsAnyWord(name, toSearch))) {
+            result.put(entry.getId(), entry);
+        }
+
+        return result;
     }
 
-    private void filterByName(TreeMap<Integer, CalendarEntry> treeMap, String toSearch) {
+    /**
+     * Returns the IDs of the entries on the heap whose names contain any word
+     * of the text, or {@code null} if the text is {@code null} or empty, in
+     * which case every entry matches.
+     */
+    private Set<Integer> findMatchingIds(String toSearch) {
         if (toSearch == null || toSearch.isEmpty()) {
-            return;
+            return null;
+        }
+        return nameIndex.find(toSearch);
+    }
+
+    /**
+     * Returns the entries of the list that are among the matching IDs, in no
+     * particular order, or the whole list without copying it if the matching
+     * IDs are {@code null}.
+     */
+    private Collection<CalendarEntry> selectEntries(byte bucket, Set<Integer> matchingIds) {
+        if (matchingIds == null) {
+            return Collections.unmodifiableCollection(getBucketList(bucket).values());
         }
-        Iterator<Map.Entry<Integer, CalendarEntry>> iterator = treeMap.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<Integer, CalendarEntry> entry = iterator.next();
-            String entryName = entry.getValue().getName();
-            if (!containsAnyWord(entryName, toSearch)) {
-                iterator.remove();
+
+        List<CalendarEntry> result = new ArrayList<>();
+
+        for (int id : matchingIds) {
+            if (index.getBucket(id) == bucket) {
+                result.add(index.get(id));
             }
         }
+        return result;
     }
 
-    private int getNextId() {
-        int taskMax = getLastKey(this.taskList);
-        int eventMax = getLastKey(this.eventList);
-        int archivedTaskMax = getLastKey(this.archivedTaskList);
-        int archivedEventMax = getLastKey(this.archivedEventList);
-        int idToSet = maxId(taskMax, eventMax, archivedTaskMax, archivedEventMax) + 1;
-        return idToSet;
+    /**
+     * Moves the archived entries on the heap into a new archive segment, once
+     * enough archived entries or deletions from the segment have built up.
+     * If the segment cannot be built, the entries stay on the heap.
+     * <p>
+     * Building a segment copies the whole existing segment, so nothing is
+     * moved during a bulk load, which would otherwise copy the segment over
+     * and over.
+     */
+    private void spillArchiveIfFull() {
+        int pending = archivedTaskList.size() + archivedEventList.size() + deletedArchiveIds.size();
+
+        if (isBulkLoading || pending < archiveSpillThreshold) {
+            return;
+        }
+
+        List<CalendarEntry> entries = new ArrayList<>(archivedTaskList.values());
+        entries.addAll(archivedEventList.values());
+
+        try {
+            archiveSegment = ArchiveSegment.build(archiveSegment, deletedArchiveIds, entries);
+        } catch (IOException ex) {
+            Logger.getGlobal().log(Level.WARNING, String.format(LOG_ARCHIVE_SPILL_FAILED, ex.getMessage()));
+            archiveSpillThreshold = Integer.MAX_VALUE;
+            return;
+        }
+
+        for (CalendarEntry entry : entries) {
+            index.put(entry.getId(), null, EntryIndex.BUCKET_ARCHIVE_SEGMENT);
+            nameIndex.remove(entry.getId(), entry.getName());
+        }
+
+        archivedTaskList.clear();
+        archivedEventList.clear();
+        deletedArchiveIds = new HashSet<>();
     }
 
-    private int getLastKey(TreeMap<Integer, CalendarEntry> treeMap) {
-        int key = treeMap.isEmpty() ? BASE_ID : treeMap.lastKey();
-        return key;
+    private void rebuildIndexes() {
+        index.clear();
+        nameIndex.clear();
+        sortedTasks.clear();
+        sortedEvents.clear();
+        taskTimes.clear();
+        eventTimes.clear();
+        recurringEntries.clear();
+        recurringEventTimes.clear();
+
+        taskList.values().forEach(entry -> addToActiveIndexes(entry, EntryIndex.BUCKET_TASK));
+        eventList.values().forEach(entry -> addToActiveIndexes(entry, EntryIndex.BUCKET_EVENT));
+
+        indexEntries(taskList, EntryIndex.BUCKET_TASK);
+        indexEntries(eventList, EntryIndex.BUCKET_EVENT);
+        indexEntries(archivedTaskList, EntryIndex.BUCKET_ARCHIVED_TASK);
+        indexEntries(archivedEventList, EntryIndex.BUCKET_ARCHIVED_EVENT);
+        archiveSegment.forEachId(deletedArchiveIds,
+                id -> index.put(id, null, EntryIndex.BUCKET_ARCHIVE_SEGMENT));
     }
 
-    private int maxId(int taskMax, int eventMax, int archivedTaskMax, int archivedEventMax) {
-        int maxId = Math.max(taskMax, eventMax);
-        maxId = Math.max(maxId, archivedTaskMax);
-        maxId = Math.max(maxId, archivedEventMax);
-        return maxId;
+    private void indexEntries(TreeMap<Integer, CalendarEntry> treeMap, byte bucket) {
+        for (CalendarEntry entry : treeMap.values()) {
+            index.put(entry.getId(), entry, bucket);
+            nameIndex.add(entry.getId(), entry.getName());
+        }
     }
 
-    private boolean isValidId(int id) {
-        return id > BASE_ID && !isPresent(id);
+    private void addToActiveIndexes(CalendarEntry entry, byte bucket) {
+        if (bucket == EntryIndex.BUCKET_TASK) {
+            sortedTasks.add(entry);
+            taskTimes.add(entry);
+        } else if (bucket == EntryIndex.BUCKET_EVENT) {
+            sortedEvents.add(entry);
+            eventTimes.add(entry);
+        } else {
+            return;
+        }
+
+        if (!Recurrence.isRecurring(entry)) {
+            return;
+        }
+
+        recurringEntries.add(entry);
+
+        if (bucket == EntryIndex.BUCKET_EVENT) {
+            recurringEventTimes.add(entry);
+        }
     }
 
-    private boolean isPresent(int id) {
-        boolean isPresent = taskList.containsKey(id);
-        isPresent |= eventList.containsKey(id);
-        isPresent |= archivedTaskList.containsKey(id);
-        isPresent |= archivedEventList.containsKey(id);
-        return isPresent;
-    }
-
-    private List<CalendarEntry> sortByDateTime(CalendarProperty property, List<CalendarEntry> list) {
-        Comparator<CalendarEntry> comparator = (CalendarEntry entry1, CalendarEntry entry2) -> {
-            LocalDateTime date1 = entry1.getDateTime(property);
-            LocalDateTime date2 = entry2.getDateTime(property);
-
-            if (date1 == null && date2 == null) {
-                return 0;
-            } else if (date1 == null) {
-                return 1;
-            } else if (date2 == null) {
-                return -1;
-            } else if (date1.isBefore(date2)) {
-                return -1;
-            } else if (date1.isAfter(date2)) {
-                return 1;
-            } else {
-                return 0;
+    private Iterator<Occurrence> findSingleOccurrences(IntervalIndex times, LocalDateTime from, LocalDateTime to) {
+        List<Occurrence> occurrences = new ArrayList<>();
+
+        for (CalendarEntry entry : times.find(from, to)) {
+            if (!recurringEntries.contains(entry)) {
+                occurrences.add(new Occurrence(entry, 0, IntervalIndex.getStart(entry),
+                        entry.getDateTime(CalendarProperty.END)));
             }
-        };
-        Collections.sort(list, comparator);
-        return list;
+        }
+        return occurrences.iterator();
     }
 
-    private List<CalendarEntry> sortReverseByDateTime(CalendarProperty property, List<CalendarEntry> list) {
-        List<CalendarEntry> sortedList = new ArrayList<CalendarEntry>();
-        sortedList = sortByDateTime(property, list);
-        Collections.reverse(sortedList);
+    private byte getBucket(CalendarEntry entry) {
+        boolean isTask = entry.getDateTime(CalendarProperty.START) == null;
 
-        Comparator<CalendarEntry> comparator = (CalendarEntry entry1, CalendarEntry entry2) -> {
-            LocalDateTime date1 = entry1.getDateTime(property);
-            LocalDateTime date2 = entry2.getDateTime(property);
+        if (entry.isProperty(CalendarProperty.ACTIVE)) {
+            return isTask ? EntryIndex.BUCKET_TASK : EntryIndex.BUCKET_EVENT;
+        } else {
+            return isTask ? EntryIndex.BUCKET_ARCHIVED_TASK : EntryIndex.BUCKET_ARCHIVED_EVENT;
+        }
+    }
 
-            if (date1 == null && date2 == null) {
-                return 0;
-            } else if (date1 == null) {
-                return 1;
-            } else if (date2 == null) {
-                return -1;
-            } else {
-                return 0;
-            }
-        };
+    private TreeMap<Integer, CalendarEntry> getBucketList(byte bucket) {
+        switch (bucket) {
+            case EntryIndex.BUCKET_TASK :
+                return taskList;
+            case EntryIndex.BUCKET_EVENT :
+                return eventList;
+            case EntryIndex.BUCKET_ARCHIVED_TASK :
+                return archivedTaskList;
+            case EntryIndex.BUCKET_ARCHIVED_EVENT :
+                return archivedEventList;
+            default :
+                throw new AssertionError(bucket);
+        }
+    }
+
+    private TreeMap<Integer, CalendarEntry> copyEntries(TreeMap<Integer, CalendarEntry> treeMap) {
+        EntryCopyVisitor visitor = new EntryCopyVisitor();
+        TreeMap<Integer, CalendarEntry> copy = new TreeMap<>();
+
+        for (Map.Entry<Integer, CalendarEntry> entry : treeMap.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().accept(visitor));
+        }
+
+        return copy;
+    }
+
+    private CalendarEntry updateWithVisitor(EntryVisitor<OldNewEntryPair> visitor, int id) {
+        CalendarEntry entryToEdit = delete(id);
+        try {
+            // Snapshots may share the entry, so a copy of it is edited instead
+            OldNewEntryPair pair = entryToEdit.accept(new EntryCopyVisitor()).accept(visitor);
+            add(pair.newEntry);
+            return pair.oldEntry;
+        } catch (IllegalArgumentException ex) {
+            add(entryToEdit);
+            throw ex;
+        }
+    }
 
-        Collections.sort(sortedList, comparator);
+    private boolean isValidId(int id) {
+        return id > BASE_ID && !isPresent(id);
+    }
 
-        return sortedList;
+    private boolean isPresent(int id) {
+        return index.contains(id);
     }
 
-    private boolean containsAnyWord(String entryName, String toSearch) {
+    static boolean containsAnyWord(String entryName, String toSearch) {
         String[] toSearchArray = toSearch.split(" ");
         String[] entryNameArray = entryName.split(" ");
         for (String word1 : toSearchArray) {
@@ -475,8 +815,8 @@ public class CalendarListImpl implements CalendarList {
         return false;
     }
 
-    private boolean isSimilar(String word1, String word2) {
-        return StringUtils.getJaroWinklerDistance(word1, word2) > WORD_SIMILARITY_THRESHOLD_INDEX;
+    private static boolean isSimilar(String word1, String word2) {
+        return WordSimilarity.getScore(word1, word2) > WORD_SIMILARITY_THRESHOLD_INDEX;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,309 @@
+package lifetracker.calendar;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+//@@author A0108473E
+
+/**
+ * A read-only {@code CalendarView} showing the entries of another calendar
+ * that satisfy a condition, such as the results of a search.
+ * <p>
+ * The view holds the collections of the underlying calendar (or the matches
+ * already found in them) and a condition, instead of copying the entries.
+ * Narrowing the view, for example to today's entries, only combines the
+ * conditions. The entries are filtered and sorted when a list is requested,
+ * so only the matching entries are ever collected.
+ * <p>
+ * A snapshot of a calendar is also a view, which holds the archived entries
+ * of the calendar as well.
+ */
+final class CalendarListView implements CalendarView {
+
+    private final Collection<CalendarEntry> tasks;
+    private final Collection<CalendarEntry> events;
+    // The archived entries on the heap and off the heap, which only a snapshot has
+    private final Collection<CalendarEntry> archivedEntries;
+    private final ArchiveSegment archiveSegment;
+    private final Set<Integer> deletedArchiveIds;
+    private final Predicate<CalendarEntry> condition;
+    // Whether the entries are already in the order to show them in, instead of the usual order
+    private final boolean isOrdered;
+
+    /**
+     * Creates a view of the entries that satisfy the condition.
+     *
+     * @param tasks
+     *            The tasks to show, which are not copied.
+     * @param events
+     *            The events to show, which are not copied.
+     * @param condition
+     *            The condition that entries must satisfy to be shown.
+     */
+    CalendarListView(Collection<CalendarEntry> tasks, Collection<CalendarEntry> events,
+            Predicate<CalendarEntry> condition) {
+        this(tasks, events, Collections.emptyList(), ArchiveSegment.EMPTY, Collections.emptySet(), condition, false);
+    }
+
+    private CalendarListView(Collection<CalendarEntry> tasks, Collection<CalendarEntry> events,
+            Collection<CalendarEntry> archivedEntries, ArchiveSegment archiveSegment, Set<Integer> deletedArchiveIds,
+            Predicate<CalendarEntry> condition, boolean isOrdered) {
+        this.tasks = tasks;
+        this.events = events;
+        this.archivedEntries = archivedEntries;
+        this.archiveSegment = archiveSegment;
+        this.deletedArchiveIds = deletedArchiveIds;
+        this.condition = condition;
+        this.isOrdered = isOrdered;
+    }
+
+    /**
+     * Creates a view of all entries of a calendar, active or archived.
+     *
+     * @param tasks
+     *            The active tasks, which are not copied.
+     * @param events
+     *            The active events, which are not copied.
+     * @param archivedEntries
+     *            The archived entries on the heap, which are not copied.
+     * @param archiveSegment
+     *            The archived entries off the heap.
+     * @param deletedArchiveIds
+     *            The IDs of the entries deleted from the archive segment.
+     * @return A view of the entries.
+     */
+    static CalendarListView ofSnapshot(Collection<CalendarEntry> tasks, Collection<CalendarEntry> events,
+            Collection<CalendarEntry> archivedEntries, ArchiveSegment archiveSegment, Set<Integer> deletedArchiveIds) {
+        return new CalendarListView(tasks, events, archivedEntries, archiveSegment, deletedArchiveIds, entry -> true,
+                false);
+    }
+
+    /**
+     * Creates a view of the occurrences, shown in the order given instead of
+     * being sorted.
+     *
+     * @param occurrences
+     *            The occurrences to show, in order.
+     * @return A view with each occurrence as a task or an event.
+     */
+    static CalendarListView ofOccurrences(Iterator<Occurrence> occurrences) {
+        List<CalendarEntry> tasks = new ArrayList<>();
+        List<CalendarEntry> events = new ArrayList<>();
+
+        while (occurrences.hasNext()) {
+            CalendarEntry entry = occurrences.next().toEntry();
+
+            if (entry.getDateTime(CalendarProperty.START) == null) {
+                tasks.add(entry);
+            } else {
+                events.add(entry);
+            }
+        }
+
+        return new CalendarListView(tasks, events, Collections.emptyList(), ArchiveSegment.EMPTY,
+                Collections.emptySet(), entry -> true, true);
+    }
+
+    @Override
+    public List<CalendarEntry> getTaskList() {
+        return select(tasks, EntryComparators.TASK_ORDER);
+    }
+
+    @Override
+    public List<CalendarEntry> getEventList() {
+        return select(events, EntryComparators.EVENT_ORDER);
+    }
+
+    @Override
+    public List<CalendarEntry> getArchivedTaskList() {
+        return findArchived().getTaskList();
+    }
+
+    @Override
+    public List<CalendarEntry> getArchivedEventList() {
+        return findArchived().getEventList();
+    }
+
+    @Override
+    public CalendarEntry get(int id) {
+        CalendarEntry entry = findById(tasks, id);
+
+        if (entry == null) {
+            entry = findById(events, id);
+        }
+        if (entry == null) {
+            entry = findById(archivedEntries, id);
+        }
+        if (entry == null && archiveSegment.contains(id) && !deletedArchiveIds.contains(id)) {
+            entry = archiveSegment.get(id);
+        }
+        if (entry == null) {
+            throw new IllegalArgumentException(String.format(ERROR_INVALID_ID, id));
+        }
+        return entry;
+    }
+
+    @Override
+    public CalendarView findByName(String toSearch) {
+        if (toSearch == null || toSearch.isEmpty()) {
+            return this;
+        }
+        return narrow(entry -> CalendarListImpl.containsAnyWord(entry.getName(), toSearch));
+    }
+
+    @Override
+    public CalendarView findArchivedByName(String toSearch) {
+        return findArchived().findByName(toSearch);
+    }
+
+    @Override
+    public CalendarView findAllByName(String toSearch) {
+        CalendarListView archived = findArchived();
+
+        List<CalendarEntry> allTasks = new ArrayList<>(tasks);
+        allTasks.addAll(archived.tasks);
+
+        List<CalendarEntry> allEvents = new ArrayList<>(events);
+        allEvents.addAll(archived.events);
+
+        return new CalendarListView(allTasks, allEvents, condition).findByName(toSearch);
+    }
+
+    @Override
+    public CalendarView findToday(LocalDateTime now) {
+        return narrow(entry -> entry.isProperty(CalendarProperty.TODAY, now));
+    }
+
+    @Override
+    public CalendarView findInRange(LocalDateTime from, LocalDateTime to) {
+        return narrow(entry -> IntervalIndex.isWithin(entry, from, to));
+    }
+
+    @Override
+    public CalendarView findAgenda(LocalDateTime from, LocalDateTime to) {
+        List<Iterator<Occurrence>> sequences = new ArrayList<>();
+
+        for (CalendarEntry entry : getTaskList()) {
+            sequences.add(Recurrence.iterator(entry, from, to));
+        }
+        for (CalendarEntry entry : getEventList()) {
+            sequences.add(Recurrence.iterator(entry, from, to));
+        }
+
+        return ofOccurrences(new OccurrenceMerger(sequences));
+    }
+
+    @Override
+    public Set<Integer> findConflicts(int id) {
+        CalendarEntry entry = get(id);
+        Set<Integer> conflictingIds = new TreeSet<>();
+
+        if (entry.getDateTime(CalendarProperty.START) == null || !entry.isProperty(CalendarProperty.ACTIVE)) {
+            return conflictingIds;
+        }
+
+        LocalDateTime start = entry.getDateTime(CalendarProperty.START);
+        List<Occurrence> occurrences = Recurrence.stream(entry, start, start.plus(CONFLICT_HORIZON))
+                .collect(Collectors.toList());
+
+        for (CalendarEntry other : getEventList()) {
+            if (other.getId() != id && other.isProperty(CalendarProperty.ACTIVE)
+                    && occurrences.stream().anyMatch(occurrence -> overlaps(other, occurrence))) {
+                conflictingIds.add(other.getId());
+            }
+        }
+        return conflictingIds;
+    }
+
+    @Override
+    public List<FreeSlot> findFreeSlots(Duration length, LocalDateTime from, LocalDateTime to, int limit) {
+        List<Iterator<Occurrence>> busy = new ArrayList<>();
+
+        for (CalendarEntry entry : getEventList()) {
+            if (entry.isProperty(CalendarProperty.ACTIVE)) {
+                busy.add(Recurrence.iterator(entry, from, to));
+            }
+        }
+
+        return FreeSlot.findGaps(new OccurrenceMerger(busy), length, from, to, limit);
+    }
+
+    @Override
+    public void forEachArchived(Consumer<CalendarEntry> action) {
+        for (CalendarEntry entry : archivedEntries) {
+            if (condition.test(entry)) {
+                action.accept(entry);
+            }
+        }
+        archiveSegment.forEach(deletedArchiveIds, entry -> {
+            if (condition.test(entry)) {
+                action.accept(entry);
+            }
+        });
+    }
+
+    private static boolean overlaps(CalendarEntry entry, Occurrence occurrence) {
+        LocalDateTime from = occurrence.getStart();
+        LocalDateTime to = occurrence.getEnd().isAfter(from) ? occurrence.getEnd() : from.plusNanos(1);
+
+        return Recurrence.iterator(entry, from, to).hasNext();
+    }
+
+    private CalendarListView narrow(Predicate<CalendarEntry> extraCondition) {
+        return new CalendarListView(tasks, events, archivedEntries, archiveSegment, deletedArchiveIds,
+                condition.and(extraCondition), isOrdered);
+    }
+
+    /**
+     * Returns a view with the archived entries as its tasks and events.
+     */
+    private CalendarListView findArchived() {
+        List<CalendarEntry> archivedTasks = new ArrayList<>();
+        List<CalendarEntry> archivedEvents = new ArrayList<>();
+
+        forEachArchived(entry -> {
+            if (entry.getDateTime(CalendarProperty.START) == null) {
+                archivedTasks.add(entry);
+            } else {
+                archivedEvents.add(entry);
+            }
+        });
+
+        return new CalendarListView(archivedTasks, archivedEvents, entry -> true);
+    }
+
+    private CalendarEntry findById(Collection<CalendarEntry> entries, int id) {
+        for (CalendarEntry entry : entries) {
+            if (entry.getId() == id && condition.test(entry)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private List<CalendarEntry> select(Collection<CalendarEntry> entries, Comparator<CalendarEntry> order) {
+        List<CalendarEntry> result = new ArrayList<>();
+
+        for (CalendarEntry entry : entries) {
+            if (condition.test(entry)) {
+                result.add(entry);
+            }
+        }
+
+        if (!isOrdered) {
+            result.sort(order);
+        }
+        return result;
+    }
+}
@@ -11,4 +11,15 @@ public enum CalendarProperty {
 
     START, END, OVER, RECURRING, ONGOING, ACTIVE, TODAY, DATE_LIMIT, OCCURRENCE_LIMIT, DATE_LIMITED, OCCURRENCE_LIMITED;
 
+    /**
+     * Returns whether an entry can gain or lose the property as time passes,
+     * without being changed.
+     *
+     * @return {@code true} for {@code OVER}, {@code ONGOING} and
+     *         {@code TODAY}.
+     */
+    public boolean isTimeDependent() {
+        return this == OVER || this == ONGOING || this == TODAY;
+    }
+
 }
@@ -0,0 +1,203 @@
+package lifetracker.calendar;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+//@@author A0108473E
+
+/**
+ * A read-only view of the entries of a calendar.
+ * <p>
+ * Both the calendar itself, a {@code CalendarList}, and the results of
+ * searching it are views. The results of a search cannot be changed, so the
+ * search methods return this type instead of a {@code CalendarList}.
+ *
+ */
+public interface CalendarView {
+
+    String ERROR_INVALID_ID = "Entry %1$s is not found!";
+    Period CONFLICT_HORIZON = Period.ofYears(1);
+
+    /**
+     * Sorts all active task objects in ascending order of deadline, and all
+     * archived task objects in descending order of deadline, in two separate
+     * lists. Floating tasks are at the tail end of both lists. The lists are
+     * concatenated and returned as a single list.
+     *
+     * @return A sorted {@code List} of task objects.
+     */
+    List<CalendarEntry> getTaskList();
+
+    /**
+     * Sorts all active event objects in ascending order, and all archived
+     * events in descending order, of end date and time followed by start date
+     * and time, in two separate lists. The lists are concatenated and returned
+     * as a single list.
+     *
+     * @return A sorted {@code List} of event objects.
+     */
+    List<CalendarEntry> getEventList();
+
+    /**
+     * Sorts and returns only the archived tasks in the {@code CalendarView}, in
+     * descending order.
+     *
+     * @return A sorted {@code List} of archived task objects.
+     */
+    List<CalendarEntry> getArchivedTaskList();
+
+    /**
+     * Sorts and returns only the archived events in the {@code CalendarView},
+     * in descending order of end date and time, followed by start date and
+     * time.
+     *
+     * @return A sorted {@code List} of archived event objects.
+     */
+    List<CalendarEntry> getArchivedEventList();
+
+    /**
+     * Finds and returns the {@code CalendarEntry} object with the specified ID
+     * number.
+     *
+     * @param id
+     *            ID number of desired entry.
+     * @return The entry object with the specified ID number.
+     * @throws IllegalArgumentException
+     *             If ID number is not found.
+     */
+    CalendarEntry get(int id);
+
+    /**
+     * Returns a read-only view of the calendar with {@code taskList} and
+     * {@code eventList} filtered to contain only entries with descriptions
+     * containing the desired text. Allows room for minor typographical errors.
+     *
+     * @param toSearch
+     *            The desired text to search for.
+     * @return A {@code CalendarView} with customized {@code taskList} and
+     *         {@code eventList}.
+     */
+    CalendarView findByName(String toSearch);
+
+    /**
+     * Returns a read-only {@code CalendarView} with {@code taskList} and
+     * {@code eventList} set as the archived lists of the calendar, filtered to
+     * contain only entries with descriptions containing the desired text.
+     * Allows room for minor typographical errors.
+     *
+     * @param toSearch
+     *            The desired text to search for.
+     * @return A {@code CalendarView} with customized {@code taskList} and
+     *         {@code eventList}.
+     */
+    CalendarView findArchivedByName(String toSearch);
+
+    /**
+     * Returns a read-only {@code CalendarView} with {@code taskList} and
+     * {@code eventList} containing all entries (active or archived) whose
+     * descriptions contain the desired text. Allows room for minor
+     * typographical errors.
+     *
+     * @param toSearch
+     *            The desired text to search for.
+     * @return A {@code CalendarView} with customized {@code taskList} and
+     *         {@code eventList}.
+     */
+    CalendarView findAllByName(String toSearch);
+
+    /**
+     * Returns a read-only {@code CalendarView} with {@code taskList} and
+     * {@code eventList} containing only active tasks that are due on the same
+     * day, active events that start on the same day, and active events that are
+     * ongoing, at the specified time.
+     *
+     * @param now
+     *            The time to find the entries of that day for.
+     * @return A {@code CalendarView} with customized {@code taskList} and
+     *         {@code eventList}.
+     */
+    CalendarView findToday(LocalDateTime now);
+
+    /**
+     * Returns a read-only {@code CalendarView} with {@code taskList} and
+     * {@code eventList} containing only active tasks due within the range, and
+     * active events that take place at any time within the range. The end of
+     * the range is not part of it.
+     *
+     * @param from
+     *            The start of the range.
+     * @param to
+     *            The end of the range, which must not be before the start.
+     * @return A {@code CalendarView} with customized {@code taskList} and
+     *         {@code eventList}.
+     */
+    CalendarView findInRange(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Returns a read-only {@code CalendarView} with {@code taskList} and
+     * {@code eventList} containing every occurrence within the range of the
+     * active tasks and events with a date, in order of time. A recurring entry
+     * appears once for each of its occurrences, up to its occurrence limit or
+     * date limit, and its later occurrences are copies of it with their own
+     * dates.
+     *
+     * @param from
+     *            The start of the range.
+     * @param to
+     *            The end of the range, which is not part of the range.
+     * @return A {@code CalendarView} with customized {@code taskList} and
+     *         {@code eventList}.
+     * @see Recurrence
+     */
+    CalendarView findAgenda(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Returns the ID numbers of the active events that take place at the same
+     * time as the event with ID number {@code id}. The occurrences of
+     * recurring events are checked up to {@code CONFLICT_HORIZON} after the
+     * start of the event, and events that only touch at their start and end
+     * do not conflict.
+     *
+     * @param id
+     *            The ID number of the event to check.
+     * @return The ID numbers of the conflicting events, in ascending order,
+     *         which is empty if the entry is not an active event.
+     * @throws IllegalArgumentException
+     *             If ID number is not found.
+     */
+    Set<Integer> findConflicts(int id);
+
+    /**
+     * Returns the earliest stretches of time within the range when no active
+     * event takes place, including the occurrences of recurring events, that
+     * are at least as long as the length given. Tasks do not take up time.
+     *
+     * @param length
+     *            The shortest stretch of time to find.
+     * @param from
+     *            The start of the range.
+     * @param to
+     *            The end of the range, which is not part of the range.
+     * @param limit
+     *            The most stretches of time to find.
+     * @return The free stretches of time in order, which are empty if there
+     *         are none.
+     */
+    List<FreeSlot> findFreeSlots(Duration length, LocalDateTime from, LocalDateTime to, int limit);
+
+    /**
+     * Performs the action on every archived entry, in no particular order.
+     * <p>
+     * Archived entries that are kept off the heap are decoded one at a
+     * time, so this does not need memory for all archived entries at once.
+     *
+     * @param action
+     *            The action to perform on each archived entry.
+     */
+    void forEachArchived(Consumer<CalendarEntry> action);
+
+}
@@ -1,6 +1,5 @@
 package lifetracker.calendar;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import lifetracker.calendar.visitor.EntryVisitor;
@@ -47,16 +46,16 @@ public class DeadlineTask extends GenericEntry {
     }
 
     @Override
-    public boolean isProperty(CalendarProperty property) {
+    public boolean isProperty(CalendarProperty property, LocalDateTime now) {
         switch (property) {
             case OVER :
-                return LocalDateTime.now().isAfter(this.deadline);
+                return now.isAfter(this.deadline);
             case ONGOING :
-                return LocalDateTime.now().isBefore(this.deadline);
+                return now.isBefore(this.deadline);
             case TODAY :
-                return LocalDate.now().equals(this.deadline.toLocalDate());
+                return now.toLocalDate().equals(this.deadline.toLocalDate());
             default :
-                return super.isProperty(property);
+                return super.isProperty(property, now);
         }
     }
 
@@ -0,0 +1,84 @@
+package lifetracker.calendar;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+//@@author A0108473E
+
+/**
+ * The orders in which lists of entries are displayed.
+ * <p>
+ * Each order compares all its keys in a single pass, so a list is sorted once
+ * instead of being sorted again for each key. Ties are broken by ID, so no
+ * two different entries compare as equal and the orders can be used in sorted
+ * sets. The comparators are shared and do not allocate while comparing.
+ */
+final class EntryComparators {
+
+    /**
+     * Orders tasks: active tasks by earliest deadline first, then inactive
+     * tasks by latest deadline first. Tasks without a deadline come last in
+     * each group. Ties are broken by ID, in ascending order for active tasks
+     * and descending order for inactive tasks.
+     */
+    static final Comparator<CalendarEntry> TASK_ORDER = EntryComparators::compareTasks;
+
+    /**
+     * Orders events: active events by earliest start first, then inactive
+     * events by latest start first. Events that start together are ordered by
+     * earliest end, then by ID.
+     */
+    static final Comparator<CalendarEntry> EVENT_ORDER = EntryComparators::compareEvents;
+
+    private EntryComparators() {
+    }
+
+    private static int compareTasks(CalendarEntry entry1, CalendarEntry entry2) {
+        boolean isActive = entry1.isProperty(CalendarProperty.ACTIVE);
+
+        if (isActive != entry2.isProperty(CalendarProperty.ACTIVE)) {
+            return isActive ? -1 : 1;
+        }
+
+        int result = compareDateTime(entry1, entry2, CalendarProperty.END, !isActive);
+
+        if (result == 0) {
+            result = isActive ? Integer.compare(entry1.getId(), entry2.getId())
+                    : Integer.compare(entry2.getId(), entry1.getId());
+        }
+        return result;
+    }
+
+    private static int compareEvents(CalendarEntry entry1, CalendarEntry entry2) {
+        boolean isActive = entry1.isProperty(CalendarProperty.ACTIVE);
+
+        if (isActive != entry2.isProperty(CalendarProperty.ACTIVE)) {
+            return isActive ? -1 : 1;
+        }
+
+        int result = compareDateTime(entry1, entry2, CalendarProperty.START, !isActive);
+
+        if (result == 0) {
+            result = compareDateTime(entry1, entry2, CalendarProperty.END, false);
+        }
+        if (result == 0) {
+            result = Integer.compare(entry1.getId(), entry2.getId());
+        }
+        return result;
+    }
+
+    /**
+     * Compares the date and time of two entries. Entries that do not have the
+     * date and time come last, whether or not the order is reversed.
+     */
+    private static int compareDateTime(CalendarEntry entry1, CalendarEntry entry2, CalendarProperty property,
+            boolean isReversed) {
+        LocalDateTime date1 = entry1.getDateTime(property);
+        LocalDateTime date2 = entry2.getDateTime(property);
+
+        if (date1 == null || date2 == null) {
+            return Boolean.compare(date1 == null, date2 == null);
+        }
+        return isReversed ? date2.compareTo(date1) : date1.compareTo(date2);
+    }
+}
@@ -0,0 +1,184 @@
+package lifetracker.calendar;
+
+import java.util.Arrays;
+
+//@@author A0091173J
+
+/**
+ * An index from entry IDs to entries, and the list of the calendar that holds each entry.
+ * <p>
+ * IDs are kept in a primitive open-addressing hash table with linear probing, so looking up an ID neither boxes it nor
+ * searches the lists of the calendar one by one. Removed slots are closed up by shifting later entries back, so the
+ * table never fills with deleted markers.
+ */
+final class EntryIndex {
+
+    // The list of the calendar that holds an entry
+    static final byte BUCKET_NONE = 0;
+    static final byte BUCKET_TASK = 1;
+    static final byte BUCKET_EVENT = 2;
+    static final byte BUCKET_ARCHIVED_TASK = 3;
+    static final byte BUCKET_ARCHIVED_EVENT = 4;
+    static final byte BUCKET_ARCHIVE_SEGMENT = 5;
+
+    // IDs are always greater than the base ID, so it marks an empty slot
+    private static final int EMPTY_KEY = CalendarList.BASE_ID;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    private int[] keys;
+    private CalendarEntry[] entries;
+    private byte[] buckets;
+    private int size;
+    private int mask;
+
+    EntryIndex() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int id) {
+        return findSlot(id) >= 0;
+    }
+
+    /**
+     * Returns the bucket of the entry with the ID, or {@code BUCKET_NONE} if there is no such entry.
+     */
+    byte getBucket(int id) {
+        int slot = findSlot(id);
+        return slot < 0 ? BUCKET_NONE : buckets[slot];
+    }
+
+    /**
+     * Returns the entry with the ID, or {@code null} if there is no such entry or the entry is not kept on the heap.
+     */
+    CalendarEntry get(int id) {
+        int slot = findSlot(id);
+        return slot < 0 ? null : entries[slot];
+    }
+
+    /**
+     * Adds the entry with the ID to the index, or replaces it if the ID is already in the index.
+     *
+     * @param id     The ID of the entry, which must be greater than {@code CalendarList.BASE_ID}.
+     * @param entry  The entry, or {@code null} if the entry is not kept on the heap.
+     * @param bucket The list of the calendar that holds the entry.
+     */
+    void put(int id, CalendarEntry entry, byte bucket) {
+        assert id != EMPTY_KEY;
+        assert bucket != BUCKET_NONE;
+
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+
+        int slot = hash(id);
+
+        while (keys[slot] != EMPTY_KEY && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+
+        if (keys[slot] == EMPTY_KEY) {
+            keys[slot] = id;
+            size++;
+        }
+
+        entries[slot] = entry;
+        buckets[slot] = bucket;
+    }
+
+    /**
+     * Removes the ID from the index.
+     *
+     * @return The bucket the entry was in, or {@code BUCKET_NONE} if the ID was not in the index.
+     */
+    byte remove(int id) {
+        int slot = findSlot(id);
+
+        if (slot < 0) {
+            return BUCKET_NONE;
+        }
+
+        byte bucket = buckets[slot];
+        size--;
+
+        // Shift back the entries after the removed slot that would otherwise no longer be found
+        int gap = slot;
+        int next = (slot + 1) & mask;
+
+        while (keys[next] != EMPTY_KEY) {
+            int home = hash(keys[next]);
+
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                entries[gap] = entries[next];
+                buckets[gap] = buckets[next];
+                gap = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        keys[gap] = EMPTY_KEY;
+        entries[gap] = null;
+        buckets[gap] = BUCKET_NONE;
+
+        return bucket;
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY_KEY);
+        Arrays.fill(entries, null);
+        Arrays.fill(buckets, BUCKET_NONE);
+        size = 0;
+    }
+
+    private int findSlot(int id) {
+        if (id == EMPTY_KEY) {
+            return -1;
+        }
+
+        int slot = hash(id);
+
+        while (keys[slot] != EMPTY_KEY) {
+            if (keys[slot] == id) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    private int hash(int id) {
+        // Fibonacci hashing spreads consecutive IDs over the whole table
+        return (id * HASH_MULTIPLIER >>> (Integer.SIZE - Integer.numberOfTrailingZeros(keys.length))) & mask;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        CalendarEntry[] oldEntries = entries;
+        byte[] oldBuckets = buckets;
+
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                put(oldKeys[i], oldEntries[i], oldBuckets[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        entries = new CalendarEntry[capacity];
+        buckets = new byte[capacity];
+        mask = capacity - 1;
+        size = 0;
+
+        Arrays.fill(keys, EMPTY_KEY);
+    }
+}
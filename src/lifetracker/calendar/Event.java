@@ -1,6 +1,5 @@
 package lifetracker.calendar;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import lifetracker.calendar.visitor.EntryVisitor;
@@ -49,18 +48,18 @@ public class Event extends DeadlineTask {
     }
 
     @Override
-    public boolean isProperty(CalendarProperty property) {
+    public boolean isProperty(CalendarProperty property, LocalDateTime now) {
         switch (property) {
             case ONGOING :
-                boolean hasStarted = LocalDateTime.now().isAfter(startDateTime);
-                boolean isOver = isProperty(CalendarProperty.OVER);
+                boolean hasStarted = now.isAfter(startDateTime);
+                boolean isOver = isProperty(CalendarProperty.OVER, now);
                 return hasStarted && !isOver;
             case TODAY :
-                boolean startsToday = (LocalDate.now().equals(startDateTime.toLocalDate()));
-                boolean isOngoing = isProperty(CalendarProperty.ONGOING);
+                boolean startsToday = (now.toLocalDate().equals(startDateTime.toLocalDate()));
+                boolean isOngoing = isProperty(CalendarProperty.ONGOING, now);
                 return startsToday || isOngoing;
             default :
-                return super.isProperty(property);
+                return super.isProperty(property, now);
         }
     }
 
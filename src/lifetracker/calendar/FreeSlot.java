@@ -0,0 +1,72 @@
+package lifetracker.calendar;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+//@@author A0091173J
+
+/**
+ * A stretch of time when no active event takes place.
+ */
+public final class FreeSlot {
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    FreeSlot(LocalDateTime start, LocalDateTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    /**
+     * Finds the earliest gaps between the busy occurrences within a range that are at least as long as the length.
+     * <p>
+     * The occurrences are swept once in order of start, keeping the time the last of them ended, so only the
+     * occurrences within the range are looked at, however long the range is.
+     *
+     * @param busy   The occurrences that take up time, in order of start
+     * @param length The shortest gap to find
+     * @param from   The start of the range
+     * @param to     The end of the range
+     * @param limit  The most gaps to find
+     * @return The gaps in order, each cut to fit within the range
+     */
+    static List<FreeSlot> findGaps(Iterator<Occurrence> busy, Duration length, LocalDateTime from,
+            LocalDateTime to, int limit) {
+        List<FreeSlot> gaps = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+
+        while (busy.hasNext() && gaps.size() < limit) {
+            Occurrence occurrence = busy.next();
+            LocalDateTime busyFrom = occurrence.getStart().isBefore(to) ? occurrence.getStart() : to;
+            LocalDateTime busyTo = occurrence.getEnd().isAfter(busyFrom) ? occurrence.getEnd() : busyFrom;
+
+            if (fits(freeFrom, busyFrom, length)) {
+                gaps.add(new FreeSlot(freeFrom, busyFrom));
+            }
+            if (busyTo.isAfter(freeFrom)) {
+                freeFrom = busyTo;
+            }
+        }
+
+        if (gaps.size() < limit && fits(freeFrom, to, length)) {
+            gaps.add(new FreeSlot(freeFrom, to));
+        }
+        return gaps;
+    }
+
+    private static boolean fits(LocalDateTime from, LocalDateTime to, Duration length) {
+        return from.isBefore(to) && Duration.between(from, to).compareTo(length) >= 0;
+    }
+}
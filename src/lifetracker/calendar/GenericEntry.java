@@ -122,12 +122,14 @@ public class GenericEntry implements CalendarEntry {
      * 
      * @param property
      *            An {@code enum} representing the desired property.
+     * @param now
+     *            The time to check properties that depend on time against.
      * 
      * @return A {@code boolean} to indicate whether the entry satisfies the
      *         specified property.
      */
     @Override
-    public boolean isProperty(CalendarProperty property) {
+    public boolean isProperty(CalendarProperty property, LocalDateTime now) {
         switch (property) {
             case ONGOING :
                 return true;
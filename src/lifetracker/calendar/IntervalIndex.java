@@ -0,0 +1,305 @@
+package lifetracker.calendar;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+//@@author A0091173J
+
+/**
+ * An index of entries by the time they take place, for finding the entries within a range of time.
+ * <p>
+ * An event takes place from its start to its end, and a task with a deadline takes place at its deadline. The entries
+ * are kept in an interval tree: a treap ordered by start, where every node also holds the latest end in its subtree.
+ * A search skips every subtree that ends before the range or starts after it, so it takes time proportional to the
+ * depth of the tree and the number of entries found, instead of looking at every entry.
+ * <p>
+ * Entries without a date take place at no particular time, so they are kept apart and never found by a search.
+ */
+final class IntervalIndex {
+
+    // Priorities only need to look random, and a fixed seed makes the shape of the tree repeatable
+    private static final long PRIORITY_SEED = 0x5DEECE66DL;
+
+    private final Random priorities = new Random(PRIORITY_SEED);
+    private final Set<CalendarEntry> undatedEntries = new LinkedHashSet<>();
+
+    private Node root;
+    private int size;
+
+    private static final class Node {
+        private final CalendarEntry entry;
+        private final int index;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final int priority;
+
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(CalendarEntry entry, int index, LocalDateTime start, LocalDateTime end, int priority) {
+            this.entry = entry;
+            this.index = index;
+            this.start = start;
+            this.end = end;
+            this.priority = priority;
+            this.maxEnd = getLatest(start, end);
+        }
+    }
+
+    /**
+     * Returns the number of entries in the index, including those without a date.
+     */
+    int size() {
+        return size + undatedEntries.size();
+    }
+
+    void add(CalendarEntry entry) {
+        LocalDateTime end = entry.getDateTime(CalendarProperty.END);
+
+        if (end == null) {
+            undatedEntries.add(entry);
+            return;
+        }
+
+        add(new Occurrence(entry, 0, getStart(entry), end));
+    }
+
+    /**
+     * Adds an occurrence of an entry, which takes place at the dates of the occurrence instead of those of the entry.
+     * An entry can have one occurrence added for each start.
+     */
+    void add(Occurrence occurrence) {
+        root = insert(root, new Node(occurrence.getEntry(), occurrence.getIndex(), occurrence.getStart(),
+                occurrence.getEnd(), priorities.nextInt()));
+        size++;
+    }
+
+    /**
+     * Removes the entry from the index. The dates of the entry must not have changed since it was added.
+     */
+    void remove(CalendarEntry entry) {
+        LocalDateTime end = entry.getDateTime(CalendarProperty.END);
+
+        if (end == null) {
+            undatedEntries.remove(entry);
+            return;
+        }
+
+        remove(entry, getStart(entry));
+    }
+
+    /**
+     * Removes the occurrence of the entry added as starting at the time given.
+     */
+    void remove(CalendarEntry entry, LocalDateTime start) {
+        int oldSize = size;
+        root = delete(root, start, entry.getId());
+
+        assert size == oldSize - 1 : entry.getId();
+    }
+
+    void clear() {
+        root = null;
+        size = 0;
+        undatedEntries.clear();
+    }
+
+    /**
+     * Returns the entries without a date, which are never found by {@code find}.
+     */
+    Collection<CalendarEntry> getUndatedEntries() {
+        return Collections.unmodifiableCollection(undatedEntries);
+    }
+
+    /**
+     * Returns the entries that take place within the range, in order of start.
+     *
+     * @param from
+     *            The start of the range.
+     * @param to
+     *            The end of the range, which is not part of the range.
+     * @return The entries that satisfy {@code isWithin} for the range.
+     */
+    List<CalendarEntry> find(LocalDateTime from, LocalDateTime to) {
+        List<CalendarEntry> result = new ArrayList<>();
+
+        if (from.isBefore(to)) {
+            collect(root, from, to, node -> result.add(node.entry));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the occurrences that take place within the range, in order of start.
+     *
+     * @see #find(LocalDateTime, LocalDateTime)
+     */
+    List<Occurrence> findOccurrences(LocalDateTime from, LocalDateTime to) {
+        List<Occurrence> result = new ArrayList<>();
+
+        if (from.isBefore(to)) {
+            collect(root, from, to, node -> result.add(new Occurrence(node.entry, node.index, node.start, node.end)));
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether an entry takes place within the range {@code [from, to)}.
+     * <p>
+     * An event is within the range if any part of it is, except for the instant it ends. An event that takes no time
+     * and a task with a deadline are within the range if their time is. No entry is within a range that ends before
+     * or at its start.
+     */
+    static boolean isWithin(CalendarEntry entry, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = entry.getDateTime(CalendarProperty.END);
+
+        return end != null && from.isBefore(to) && isWithin(getStart(entry), end, from, to);
+    }
+
+    static boolean isWithin(LocalDateTime start, LocalDateTime end, LocalDateTime from, LocalDateTime to) {
+        return start.isBefore(to) && (end.isAfter(from) || !start.isBefore(from));
+    }
+
+    static LocalDateTime getStart(CalendarEntry entry) {
+        LocalDateTime start = entry.getDateTime(CalendarProperty.START);
+        return start == null ? entry.getDateTime(CalendarProperty.END) : start;
+    }
+
+    private static void collect(Node node, LocalDateTime from, LocalDateTime to, Consumer<Node> result) {
+        // Every entry in the subtree ends before the range
+        if (node == null || node.maxEnd.isBefore(from)) {
+            return;
+        }
+
+        collect(node.left, from, to, result);
+
+        // This entry and every entry to its right start after the range
+        if (!node.start.isBefore(to)) {
+            return;
+        }
+
+        if (isWithin(node.start, node.end, from, to)) {
+            result.accept(node);
+        }
+
+        collect(node.right, from, to, result);
+    }
+
+    private static int compare(LocalDateTime start1, int id1, LocalDateTime start2, int id2) {
+        int result = start1.compareTo(start2);
+        return result != 0 ? result : Integer.compare(id1, id2);
+    }
+
+    private static Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+
+        if (compare(newNode.start, newNode.entry.getId(), node.start, node.entry.getId()) < 0) {
+            node.left = insert(node.left, newNode);
+
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, newNode);
+
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+
+        update(node);
+        return node;
+    }
+
+    private Node delete(Node node, LocalDateTime start, int id) {
+        if (node == null) {
+            return null;
+        }
+
+        int comparison = compare(start, id, node.start, node.entry.getId());
+
+        if (comparison < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, start, id);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+
+        update(node);
+        return node;
+    }
+
+    /**
+     * Joins two subtrees where every entry of the left one comes before every entry of the right one.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        } else if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            update(right);
+            return right;
+        }
+    }
+
+    private static Node rotateRight(Node node) {
+        Node newRoot = node.left;
+        node.left = newRoot.right;
+        newRoot.right = node;
+
+        update(node);
+        update(newRoot);
+        return newRoot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node newRoot = node.right;
+        node.right = newRoot.left;
+        newRoot.left = node;
+
+        update(node);
+        update(newRoot);
+        return newRoot;
+    }
+
+    /**
+     * Returns the later of the start and the end. Adding a period of months to the start and the end of an event
+     * separately can leave the end before the start, and such an event still takes place at its start.
+     */
+    private static LocalDateTime getLatest(LocalDateTime start, LocalDateTime end) {
+        return end.isBefore(start) ? start : end;
+    }
+
+    private static void update(Node node) {
+        LocalDateTime maxEnd = getLatest(node.start, node.end);
+
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+
+        node.maxEnd = maxEnd;
+    }
+}
@@ -0,0 +1,139 @@
+package lifetracker.calendar;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+//@@author A0108473E
+
+/**
+ * An inverted index from the words in entry names to the IDs of the entries.
+ * <p>
+ * Names are split into words on spaces, the same way searches split them, so a
+ * search through the index matches exactly the entries that comparing every
+ * word of every name would. Words are kept as they are, without changing their
+ * case, because the similarity of two words depends on their case.
+ * <p>
+ * Words are also grouped by length. Two words whose lengths are too far apart
+ * cannot reach the similarity threshold, so a search only compares the query
+ * words against words of plausible lengths.
+ */
+final class NameIndex {
+
+    private static final String WORD_SEPARATOR = " ";
+
+    // Jaro-Winkler adds up to 4 characters of common prefix, each worth 0.1 of the remaining distance
+    private static final double MAX_PREFIX_WEIGHT = 0.4;
+    private static final double SCORE_ROUNDING = 100.0;
+    // Keeps the bound above the actual score when both round at the same point
+    private static final double SCORE_TOLERANCE = 1e-9;
+
+    private final Map<String, Set<Integer>> idsByWord = new HashMap<>();
+    private final List<Set<String>> wordsByLength = new ArrayList<>();
+
+    private final BiPredicate<String, String> similarity;
+    private final double threshold;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param similarity
+     *            Whether a query word is similar to a word in a name.
+     * @param threshold
+     *            The Jaro-Winkler score that {@code similarity} requires two
+     *            words to exceed, used to skip words that cannot be similar.
+     */
+    NameIndex(BiPredicate<String, String> similarity, double threshold) {
+        this.similarity = similarity;
+        this.threshold = threshold;
+    }
+
+    void add(int id, String name) {
+        for (String word : name.split(WORD_SEPARATOR)) {
+            Set<Integer> ids = idsByWord.get(word);
+
+            if (ids == null) {
+                ids = new HashSet<>();
+                idsByWord.put(word, ids);
+                getWordsOfLength(word.length()).add(word);
+            }
+            ids.add(id);
+        }
+    }
+
+    void remove(int id, String name) {
+        for (String word : name.split(WORD_SEPARATOR)) {
+            Set<Integer> ids = idsByWord.get(word);
+
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                idsByWord.remove(word);
+                wordsByLength.get(word.length()).remove(word);
+            }
+        }
+    }
+
+    void clear() {
+        idsByWord.clear();
+        wordsByLength.clear();
+    }
+
+    /**
+     * Returns the IDs of the entries with a word in their name that is similar
+     * to any word of the text.
+     *
+     * @param toSearch
+     *            The text to search for.
+     * @return The IDs of the matching entries.
+     */
+    Set<Integer> find(String toSearch) {
+        Set<Integer> result = new HashSet<>();
+
+        for (String queryWord : toSearch.split(WORD_SEPARATOR)) {
+            for (int length = 0; length < wordsByLength.size(); length++) {
+                if (!canBeSimilar(queryWord.length(), length)) {
+                    continue;
+                }
+
+                for (String word : wordsByLength.get(length)) {
+                    if (similarity.test(queryWord, word)) {
+                        result.addAll(idsByWord.get(word));
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether words of the two lengths could score above the
+     * threshold.
+     * <p>
+     * At most as many characters match as there are in the shorter word, so
+     * the Jaro score is at most {@code (2 + shorter / longer) / 3}. The
+     * common prefix then adds at most 0.4 of the remaining distance, and the
+     * score is rounded to 2 decimal places.
+     */
+    boolean canBeSimilar(int length1, int length2) {
+        if (length1 == 0 || length2 == 0) {
+            return false;
+        }
+
+        double lengthRatio = (double) Math.min(length1, length2) / Math.max(length1, length2);
+        double maxJaro = (2 + lengthRatio) / 3;
+        double maxScore = maxJaro + MAX_PREFIX_WEIGHT * (1 - maxJaro);
+
+        return Math.round((maxScore + SCORE_TOLERANCE) * SCORE_ROUNDING) / SCORE_ROUNDING > threshold;
+    }
+
+    private Set<String> getWordsOfLength(int length) {
+        while (wordsByLength.size() <= length) {
+            wordsByLength.add(new HashSet<>());
+        }
+        return wordsByLength.get(length);
+    }
+}
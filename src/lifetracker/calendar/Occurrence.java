@@ -0,0 +1,80 @@
+package lifetracker.calendar;
+
+import java.time.LocalDateTime;
+
+import lifetracker.calendar.visitor.EntryCopyVisitor;
+
+//@@author A0108473E
+
+/**
+ *
+ * A single occurrence of an entry. An entry that does not recur has one
+ * occurrence, at its own dates. A task takes place at its deadline, so both
+ * the start and end of its occurrences are the deadline.
+ *
+ */
+public final class Occurrence {
+
+    private final CalendarEntry entry;
+    private final int index;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    Occurrence(CalendarEntry entry, int index, LocalDateTime start, LocalDateTime end) {
+        this.entry = entry;
+        this.index = index;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns the entry this is an occurrence of. The dates of the entry are
+     * those of its current occurrence, not necessarily this one.
+     *
+     * @return The entry.
+     */
+    public CalendarEntry getEntry() {
+        return entry;
+    }
+
+    /**
+     * Returns how many occurrences of the entry come before this one, counting
+     * from the current occurrence of the entry.
+     *
+     * @return 0 for the current occurrence, 1 for the next, and so on.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    /**
+     * Returns the entry as it is at this occurrence. The current occurrence
+     * is the entry itself, and later occurrences are copies of the entry with
+     * the dates, and the number of occurrences left, of this occurrence.
+     *
+     * @return The entry at this occurrence.
+     */
+    public CalendarEntry toEntry() {
+        if (index == 0) {
+            return entry;
+        }
+
+        // Only recurring entries have occurrences after the current one
+        RecurringTask copy = (RecurringTask) entry.accept(new EntryCopyVisitor());
+        copy.setOccurrenceDates(start, end);
+
+        int occurrenceLimit = copy.getIntegerProperty(CalendarProperty.OCCURRENCE_LIMIT);
+        if (occurrenceLimit > 0) {
+            copy.setOccurrenceLimit(occurrenceLimit - index);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,154 @@
+package lifetracker.calendar;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+//@@author A0091173J
+
+/**
+ * An index of the occurrences of recurring entries by the time they take place, for finding the occurrences within a
+ * range of time.
+ * <p>
+ * A recurring entry can have any number of occurrences, so they are only expanded within a window of time, which
+ * grows to cover the ranges searched. The occurrences within the window are kept in an {@code IntervalIndex}, so a
+ * search within the window takes time proportional to the depth of the tree and the number of occurrences found. A
+ * window is never made longer than {@code MAX_WINDOW}: a search far from it starts a new window, and a search longer
+ * than that looks at the occurrences of each entry instead, which {@code Recurrence} can jump straight to.
+ * <p>
+ * The entries must not be changed while they are in the index.
+ */
+final class OccurrenceIndex {
+
+    private static final Duration MAX_WINDOW = ChronoUnit.YEARS.getDuration().multipliedBy(2);
+
+    private final Set<CalendarEntry> entries = new LinkedHashSet<>();
+    private final IntervalIndex occurrenceTimes = new IntervalIndex();
+
+    // Every occurrence within the window is in occurrenceTimes, and no other; both are null if there is no window
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+
+    void add(CalendarEntry entry) {
+        if (entries.add(entry) && windowStart != null) {
+            Recurrence.iterator(entry, windowStart, windowEnd).forEachRemaining(occurrenceTimes::add);
+        }
+    }
+
+    void remove(CalendarEntry entry) {
+        if (!entries.remove(entry) || windowStart == null) {
+            return;
+        }
+
+        Iterator<Occurrence> occurrences = Recurrence.iterator(entry, windowStart, windowEnd);
+
+        while (occurrences.hasNext()) {
+            occurrenceTimes.remove(entry, occurrences.next().getStart());
+        }
+    }
+
+    void clear() {
+        entries.clear();
+        occurrenceTimes.clear();
+        windowStart = null;
+        windowEnd = null;
+    }
+
+    /**
+     * Returns the occurrences that take place within the range, in order of start.
+     *
+     * @param from
+     *            The start of the range.
+     * @param to
+     *            The end of the range, which is not part of the range.
+     * @return The occurrences within the range, as {@code IntervalIndex}
+     *         decides.
+     */
+    List<Occurrence> find(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return Collections.emptyList();
+        }
+
+        if (!coverWindow(from, to)) {
+            return findEach(from, to);
+        }
+        return occurrenceTimes.findOccurrences(from, to);
+    }
+
+    /**
+     * Grows the window to cover the range, or starts a new window if that would make it too long.
+     *
+     * @return True if the window covers the range.
+     */
+    private boolean coverWindow(LocalDateTime from, LocalDateTime to) {
+        if (windowStart != null && !from.isBefore(windowStart) && !to.isAfter(windowEnd)) {
+            return true;
+        }
+
+        LocalDateTime newStart = windowStart == null || from.isBefore(windowStart) ? from : windowStart;
+        LocalDateTime newEnd = windowEnd == null || to.isAfter(windowEnd) ? to : windowEnd;
+
+        if (isTooLong(newStart, newEnd)) {
+            if (isTooLong(from, to)) {
+                return false;
+            }
+
+            occurrenceTimes.clear();
+            windowStart = null;
+            windowEnd = null;
+            newStart = from;
+            newEnd = to;
+        }
+
+        for (CalendarEntry entry : entries) {
+            if (windowStart == null) {
+                expand(entry, newStart, newEnd);
+            } else {
+                // Only the occurrences that are not within the old window are added
+                expand(entry, newStart, windowStart);
+                expand(entry, windowEnd, newEnd);
+            }
+        }
+
+        windowStart = newStart;
+        windowEnd = newEnd;
+        return true;
+    }
+
+    /**
+     * Adds the occurrences of the entry within the range that are not within the window.
+     */
+    private void expand(CalendarEntry entry, LocalDateTime from, LocalDateTime to) {
+        Iterator<Occurrence> occurrences = Recurrence.iterator(entry, from, to);
+
+        while (occurrences.hasNext()) {
+            Occurrence occurrence = occurrences.next();
+
+            if (windowStart == null
+                    || !IntervalIndex.isWithin(occurrence.getStart(), occurrence.getEnd(), windowStart, windowEnd)) {
+                occurrenceTimes.add(occurrence);
+            }
+        }
+    }
+
+    private List<Occurrence> findEach(LocalDateTime from, LocalDateTime to) {
+        List<Occurrence> result = new ArrayList<>();
+
+        for (CalendarEntry entry : entries) {
+            Recurrence.iterator(entry, from, to).forEachRemaining(result::add);
+        }
+
+        result.sort(OccurrenceMerger.TIME_ORDER);
+        return result;
+    }
+
+    private static boolean isTooLong(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from, to).compareTo(MAX_WINDOW) > 0;
+    }
+}
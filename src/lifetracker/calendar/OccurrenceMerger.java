@@ -0,0 +1,77 @@
+package lifetracker.calendar;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+//@@author A0108473E
+
+/**
+ * Merges several sequences of occurrences, each already in time order, into
+ * a single sequence in time order.
+ * <p>
+ * The next occurrence of every sequence is kept in a heap, so each occurrence
+ * taken costs a logarithm of the number of sequences, and occurrences are only
+ * produced as they are taken. Occurrences that start at the same time are
+ * ordered by ID, the same order {@code IntervalIndex} finds entries in, and
+ * then by how far they are from the current occurrence of their entry.
+ */
+final class OccurrenceMerger implements Iterator<Occurrence> {
+
+    static final Comparator<Occurrence> TIME_ORDER = Comparator.comparing(Occurrence::getStart)
+            .thenComparingInt(occurrence -> occurrence.getEntry().getId())
+            .thenComparingInt(Occurrence::getIndex);
+
+    private final PriorityQueue<Source> heads = new PriorityQueue<>(
+            (source1, source2) -> TIME_ORDER.compare(source1.head, source2.head));
+
+    /**
+     * A sequence of occurrences, with its next occurrence taken out.
+     */
+    private static final class Source {
+        private final Iterator<Occurrence> rest;
+        private Occurrence head;
+
+        private Source(Iterator<Occurrence> rest) {
+            this.rest = rest;
+            this.head = rest.next();
+        }
+    }
+
+    /**
+     * Creates a merger of the sequences, which must each be in {@code TIME_ORDER}.
+     *
+     * @param sequences
+     *            The sequences of occurrences to merge.
+     */
+    OccurrenceMerger(Iterable<Iterator<Occurrence>> sequences) {
+        for (Iterator<Occurrence> sequence : sequences) {
+            if (sequence.hasNext()) {
+                heads.add(new Source(sequence));
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heads.isEmpty();
+    }
+
+    @Override
+    public Occurrence next() {
+        Source source = heads.poll();
+
+        if (source == null) {
+            throw new NoSuchElementException();
+        }
+
+        Occurrence occurrence = source.head;
+
+        if (source.rest.hasNext()) {
+            source.head = source.rest.next();
+            heads.add(source);
+        }
+        return occurrence;
+    }
+}
@@ -0,0 +1,246 @@
+package lifetracker.calendar;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+//@@author A0108473E
+
+/**
+ *
+ * Lists the occurrences of entries within a range of time, without changing
+ * the entries.
+ * <p>
+ * A recurring entry only holds its current occurrence. Marking it done moves
+ * its dates forward by its period, one occurrence at a time, and the
+ * occurrences listed here are exactly the ones marking would reach, within
+ * the occurrence limit or date limit of the entry.
+ * <p>
+ * Occurrences are produced one at a time as they are needed. The first
+ * occurrence within the range is found by jumping straight to it when the
+ * period allows: a period of days, or a period of months and years when no
+ * date of the entry falls after the 28th, where adding the period repeatedly
+ * is the same as adding it once, multiplied. Other periods can shorten the
+ * end of a month, which later occurrences keep, so their occurrences are
+ * stepped through from the current one.
+ *
+ */
+public final class Recurrence {
+
+    private static final long SECONDS_PER_DAY = ChronoUnit.DAYS.getDuration().getSeconds();
+    private static final long SECONDS_PER_MONTH = ChronoUnit.MONTHS.getDuration().getSeconds();
+    // Every month has at least this many days, so adding months never moves such a day
+    private static final int LAST_DAY_IN_EVERY_MONTH = 28;
+
+    private static final int OCCURRENCE_CHARACTERISTICS = Spliterator.ORDERED | Spliterator.NONNULL
+            | Spliterator.IMMUTABLE;
+
+    private Recurrence() {
+    }
+
+    /**
+     * Returns the occurrences of the entry within the range, in order. The
+     * entry must not be changed while the occurrences are being read.
+     *
+     * @param entry
+     *            The entry to list the occurrences of.
+     * @param from
+     *            The start of the range.
+     * @param to
+     *            The end of the range, which is not part of the range.
+     * @return The occurrences within the range, as {@code IntervalIndex}
+     *         decides for a single entry.
+     */
+    public static Iterator<Occurrence> iterator(CalendarEntry entry, LocalDateTime from, LocalDateTime to) {
+        return new OccurrenceIterator(entry, from, to);
+    }
+
+    /**
+     * Returns the occurrences of the entry within the range, in order, as a
+     * stream.
+     *
+     * @see #iterator(CalendarEntry, LocalDateTime, LocalDateTime)
+     */
+    public static Stream<Occurrence> stream(CalendarEntry entry, LocalDateTime from, LocalDateTime to) {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator(entry, from, to), OCCURRENCE_CHARACTERISTICS), false);
+    }
+
+    /**
+     * Checks whether the entry has more than one occurrence.
+     */
+    static boolean isRecurring(CalendarEntry entry) {
+        Period period = entry.getPeriod();
+
+        return entry.isProperty(CalendarProperty.RECURRING) && period != null && !period.isZero()
+                && !period.isNegative();
+    }
+
+    /**
+     * Checks whether the occurrence of a date can be found by adding the
+     * period multiplied, instead of adding the period repeatedly.
+     */
+    static boolean canJump(Period period, LocalDate... dates) {
+        if (period.toTotalMonths() == 0) {
+            return true;
+        } else if (period.getDays() != 0) {
+            return false;
+        }
+
+        for (LocalDate date : dates) {
+            if (date.getDayOfMonth() > LAST_DAY_IN_EVERY_MONTH) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class OccurrenceIterator implements Iterator<Occurrence> {
+
+        private final CalendarEntry entry;
+        private final LocalDateTime to;
+
+        private final Period period;
+        private final boolean isJumpable;
+        private final LocalDateTime firstStart;
+        private final LocalDateTime firstEnd;
+
+        private final int occurrenceLimit;
+        private final LocalDate dateLimit;
+        private final boolean isLimitedByStart;
+
+        // The occurrence returned next, or null if there are no more
+        private int index;
+        private LocalDateTime start;
+        private LocalDateTime end;
+
+        private OccurrenceIterator(CalendarEntry entry, LocalDateTime from, LocalDateTime to) {
+            this.entry = entry;
+            this.to = to;
+
+            firstEnd = entry.getDateTime(CalendarProperty.END);
+            LocalDateTime startOfEntry = entry.getDateTime(CalendarProperty.START);
+            firstStart = startOfEntry == null ? firstEnd : startOfEntry;
+
+            boolean isRecurring = firstEnd != null && isRecurring(entry);
+            period = isRecurring ? entry.getPeriod() : null;
+            isJumpable = isRecurring && canJump(period, firstStart.toLocalDate(), firstEnd.toLocalDate());
+
+            occurrenceLimit = isRecurring ? entry.getIntegerProperty(CalendarProperty.OCCURRENCE_LIMIT) : 1;
+            LocalDateTime dateLimitTime = isRecurring ? entry.getDateTime(CalendarProperty.DATE_LIMIT) : null;
+            dateLimit = dateLimitTime == null ? null : dateLimitTime.toLocalDate();
+            // Recurring events are limited by the date they start on, recurring tasks by their deadline
+            isLimitedByStart = startOfEntry != null;
+
+            start = firstStart;
+            end = firstEnd;
+
+            if (firstEnd == null || !from.isBefore(to)) {
+                finish();
+            } else {
+                skipTo(from);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return end != null;
+        }
+
+        @Override
+        public Occurrence next() {
+            if (end == null) {
+                throw new NoSuchElementException();
+            }
+
+            Occurrence occurrence = new Occurrence(entry, index, start, end);
+
+            if (period == null) {
+                finish();
+            } else {
+                moveTo(index + 1);
+                checkInRange();
+            }
+            return occurrence;
+        }
+
+        /**
+         * Moves to the first occurrence that does not end before the time.
+         */
+        private void skipTo(LocalDateTime from) {
+            if (period != null && isJumpable && endsBefore(from)) {
+                long secondsAfterFirst = Duration.between(firstEnd, from).getSeconds();
+                long periodSeconds = period.toTotalMonths() * SECONDS_PER_MONTH + period.getDays() * SECONDS_PER_DAY;
+                long estimate = Math.min(secondsAfterFirst / periodSeconds, Integer.MAX_VALUE - 1);
+
+                moveTo((int) estimate);
+
+                // The estimate uses the average length of a month, so it can be one occurrence too far
+                while (index > 0 && !occurrenceEndsBefore(index - 1, from)) {
+                    moveTo(index - 1);
+                }
+            }
+
+            while (endsBefore(from) && isWithinLimit()) {
+                if (period == null) {
+                    finish();
+                    return;
+                }
+                moveTo(index + 1);
+            }
+
+            checkInRange();
+        }
+
+        private void checkInRange() {
+            if (!isWithinLimit() || !start.isBefore(to)) {
+                finish();
+            }
+        }
+
+        private boolean endsBefore(LocalDateTime from) {
+            return !IntervalIndex.isWithin(start, end, from, LocalDateTime.MAX);
+        }
+
+        private boolean occurrenceEndsBefore(int otherIndex, LocalDateTime from) {
+            return !IntervalIndex.isWithin(firstStart.plus(period.multipliedBy(otherIndex)),
+                    firstEnd.plus(period.multipliedBy(otherIndex)), from, LocalDateTime.MAX);
+        }
+
+        private boolean isWithinLimit() {
+            if (dateLimit != null) {
+                LocalDateTime limitedTime = isLimitedByStart ? start : end;
+                return !limitedTime.toLocalDate().isAfter(dateLimit);
+            } else if (occurrenceLimit > 0) {
+                return index < occurrenceLimit;
+            }
+            return true;
+        }
+
+        private void moveTo(int newIndex) {
+            if (isJumpable) {
+                start = firstStart.plus(period.multipliedBy(newIndex));
+                end = firstEnd.plus(period.multipliedBy(newIndex));
+            } else {
+                assert newIndex == index + 1;
+
+                start = start.plus(period);
+                end = end.plus(period);
+            }
+            index = newIndex;
+        }
+
+        private void finish() {
+            start = null;
+            end = null;
+        }
+    }
+}
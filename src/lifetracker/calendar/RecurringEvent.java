@@ -70,18 +70,18 @@ public class RecurringEvent extends RecurringTask {
     }
 
     @Override
-    public boolean isProperty(CalendarProperty property) {
+    public boolean isProperty(CalendarProperty property, LocalDateTime now) {
         switch (property) {
             case ONGOING :
-                boolean hasStarted = LocalDateTime.now().isAfter(startDateTime);
-                boolean isOver = isProperty(CalendarProperty.OVER);
+                boolean hasStarted = now.isAfter(startDateTime);
+                boolean isOver = isProperty(CalendarProperty.OVER, now);
                 return hasStarted && !isOver;
             case TODAY :
-                boolean startsToday = (LocalDate.now().equals(startDateTime.toLocalDate()));
-                boolean isOngoing = isProperty(CalendarProperty.ONGOING);
+                boolean startsToday = (now.toLocalDate().equals(startDateTime.toLocalDate()));
+                boolean isOngoing = isProperty(CalendarProperty.ONGOING, now);
                 return startsToday || isOngoing;
             default :
-                return super.isProperty(property);
+                return super.isProperty(property, now);
         }
     }
 
@@ -93,6 +93,12 @@ public class RecurringEvent extends RecurringTask {
         }
     }
 
+    @Override
+    void setOccurrenceDates(LocalDateTime start, LocalDateTime end) {
+        super.setOccurrenceDates(start, end);
+        this.startDateTime = start;
+    }
+
     @Override
     public boolean hasNext() {
         int occurrenceLimit = getIntegerProperty(CalendarProperty.OCCURRENCE_LIMIT);
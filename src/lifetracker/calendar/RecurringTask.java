@@ -117,7 +117,7 @@ public class RecurringTask extends DeadlineTask {
     }
 
     @Override
-    public boolean isProperty(CalendarProperty property) {
+    public boolean isProperty(CalendarProperty property, LocalDateTime now) {
         switch (property) {
             case RECURRING :
                 return true;
@@ -128,7 +128,7 @@ public class RecurringTask extends DeadlineTask {
             case ACTIVE :
                 return true;
             default :
-                return super.isProperty(property);
+                return super.isProperty(property, now);
         }
     }
 
@@ -159,6 +159,15 @@ public class RecurringTask extends DeadlineTask {
         occurrenceLimit = INF_LIMIT_CONST;
     }
 
+    /**
+     * Moves the task to the dates of one of its occurrences. The dates are not
+     * checked against the date limit, as the last occurrence of an event may
+     * end after the limit date.
+     */
+    void setOccurrenceDates(LocalDateTime start, LocalDateTime end) {
+        super.setDateTime(CalendarProperty.END, end);
+    }
+
     protected void forceUpdateDate() {
         LocalDateTime currentDeadline = getDateTime(CalendarProperty.END);
         super.setDateTime(CalendarProperty.END, currentDeadline.plus(this.period));
@@ -0,0 +1,99 @@
+package lifetracker.calendar;
+
+import org.apache.commons.lang3.StringUtils;
+
+import lifetracker.util.LruCache;
+
+//@@author A0108473E
+
+/**
+ * Scores how similar two words are, remembering the most recently used scores.
+ * <p>
+ * The score of two words never changes, so scores are kept in a bounded
+ * least-recently-used cache shared by all calendars, and never need to be
+ * invalidated. Repeated searches then cost a lookup per pair of words instead
+ * of a Jaro-Winkler computation. The numbers of hits and misses are counted so
+ * the cache size can be tuned.
+ */
+public final class WordSimilarity {
+
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+
+    private static final String ERROR_NEGATIVE_SIZE = "Cache size cannot be negative!";
+
+    // Words are split on spaces, so a space cannot appear inside either word of the key
+    private static final char KEY_SEPARATOR = ' ';
+
+    private static final LruCache<String, Double> SCORES = new LruCache<>(DEFAULT_CACHE_SIZE);
+
+    private static long hitCount = 0;
+    private static long missCount = 0;
+
+    private WordSimilarity() {
+    }
+
+    /**
+     * Returns the Jaro-Winkler score of the two words.
+     *
+     * @param queryWord
+     *            A word being searched for, which must not contain spaces.
+     * @param nameWord
+     *            A word of an entry name, which must not contain spaces.
+     * @return The score, between 0 and 1.
+     */
+    public static synchronized double getScore(String queryWord, String nameWord) {
+        if (SCORES.getMaxSize() == 0) {
+            missCount++;
+            return StringUtils.getJaroWinklerDistance(queryWord, nameWord);
+        }
+
+        String key = queryWord + KEY_SEPARATOR + nameWord;
+        Double score = SCORES.get(key);
+
+        if (score != null) {
+            hitCount++;
+            return score;
+        }
+
+        missCount++;
+        score = StringUtils.getJaroWinklerDistance(queryWord, nameWord);
+        SCORES.put(key, score);
+        return score;
+    }
+
+    /**
+     * Sets the largest number of scores to remember, dropping the least
+     * recently used scores if there are more. A size of 0 turns the cache off.
+     *
+     * @param size
+     *            The number of scores to remember.
+     */
+    public static synchronized void setCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException(ERROR_NEGATIVE_SIZE);
+        }
+
+        SCORES.setMaxSize(size);
+    }
+
+    public static synchronized int getCacheSize() {
+        return SCORES.getMaxSize();
+    }
+
+    public static synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public static synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Forgets all remembered scores and resets the counters.
+     */
+    public static synchronized void clear() {
+        SCORES.clear();
+        hitCount = 0;
+        missCount = 0;
+    }
+}
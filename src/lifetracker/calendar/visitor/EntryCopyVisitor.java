@@ -0,0 +1,41 @@
+package lifetracker.calendar.visitor;
+
+import lifetracker.calendar.CalendarEntry;
+import lifetracker.calendar.DeadlineTask;
+import lifetracker.calendar.Event;
+import lifetracker.calendar.GenericEntry;
+import lifetracker.calendar.RecurringEvent;
+import lifetracker.calendar.RecurringTask;
+
+//@@author A0091173J
+
+/**
+ * Creates an independent copy of an entry, of the same class as the entry.
+ */
+public class EntryCopyVisitor implements EntryVisitor<CalendarEntry> {
+
+    @Override
+    public CalendarEntry visit(GenericEntry entry) {
+        return new GenericEntry(entry);
+    }
+
+    @Override
+    public CalendarEntry visit(DeadlineTask task) {
+        return new DeadlineTask(task);
+    }
+
+    @Override
+    public CalendarEntry visit(RecurringTask task) {
+        return new RecurringTask(task);
+    }
+
+    @Override
+    public CalendarEntry visit(Event event) {
+        return new Event(event);
+    }
+
+    @Override
+    public CalendarEntry visit(RecurringEvent event) {
+        return new RecurringEvent(event);
+    }
+}
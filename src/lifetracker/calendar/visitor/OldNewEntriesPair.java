@@ -0,0 +1,18 @@
+package lifetracker.calendar.visitor;
+
+import lifetracker.calendar.CalendarEntry;
+
+import java.util.List;
+
+//@@author A0091173J
+
+public class OldNewEntriesPair {
+    public CalendarEntry oldEntry;
+    public List<CalendarEntry> newEntries;
+
+    public OldNewEntriesPair(CalendarEntry oldEntry, List<CalendarEntry> newEntries) {
+        this.oldEntry = oldEntry;
+        this.newEntries = newEntries;
+    }
+
+}
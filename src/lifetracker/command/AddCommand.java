@@ -1,6 +1,8 @@
 package lifetracker.command;
 
+import lifetracker.calendar.CalendarEntry;
 import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
 
 import java.time.LocalDateTime;
 
@@ -20,6 +22,9 @@ public class AddCommand extends CommandObject {
 
     private int addedEntryID;
 
+    // The entry removed by undo, which redo adds back with the same ID
+    private CalendarEntry removedEntry;
+
     /**
      * Creates a new {@code AddCommand} which adds a entry with only a name.
      *
@@ -70,21 +75,23 @@ public class AddCommand extends CommandObject {
      * {@inheritDoc}
      */
     @Override
-    public CalendarList execute(CalendarList calendar) {
+    public CalendarView execute(CalendarList calendar) {
         assert calendar != null;
 
-        if (endDateTime == null) {
-            addedEntryID = calendar.add(name);
-        } else if (startDateTime == null) {
-            addedEntryID = calendar.add(name, endDateTime);
+        if (removedEntry == null) {
+            addedEntryID = addToCalendar(calendar);
         } else {
-            addedEntryID = calendar.add(name, startDateTime, endDateTime);
+            addedEntryID = calendar.add(removedEntry);
         }
 
         addHighlightEntry(addedEntryID);
 
         setComment(String.format(MESSAGE_ADDED, name));
 
+        if (startDateTime != null) {
+            highlightConflicts(calendar, addedEntryID);
+        }
+
         return super.execute(calendar);
     }
 
@@ -92,17 +99,33 @@ public class AddCommand extends CommandObject {
      * {@inheritDoc}
      */
     @Override
-    public CalendarList undo(CalendarList calendar) {
+    public CalendarView undo(CalendarList calendar) {
 
         assert calendar != null;
 
-        calendar.delete(addedEntryID);
+        removedEntry = calendar.delete(addedEntryID);
 
         setComment(String.format(MESSAGE_UNDO, addedEntryID, name));
 
         return super.undo(calendar);
     }
 
+    /**
+     * Adds a new entry to the calendar, the first time this command is executed.
+     *
+     * @param calendar The {@code CalendarList} to add the entry to
+     * @return The ID of the entry added
+     */
+    protected int addToCalendar(CalendarList calendar) {
+        if (endDateTime == null) {
+            return calendar.add(name);
+        } else if (startDateTime == null) {
+            return calendar.add(name, endDateTime);
+        } else {
+            return calendar.add(name, startDateTime, endDateTime);
+        }
+    }
+
     protected String getName() {
         return name;
     }
@@ -114,8 +137,4 @@ public class AddCommand extends CommandObject {
     protected LocalDateTime getEndDateTime() {
         return endDateTime;
     }
-
-    protected void setAddedEntryID(int addedEntryID) {
-        this.addedEntryID = addedEntryID;
-    }
 }
@@ -62,22 +62,7 @@ public class AddRecurringCommand extends AddCommand {
     }
 
     @Override
-    public CalendarList execute(CalendarList calendar) {
-        assert calendar != null;
-
-        int newId = addToCalendar(calendar);
-
-        setAddedEntryID(newId);
-        addHighlightEntry(newId);
-
-        setExecuted(true);
-
-        setComment(String.format(MESSAGE_ADDED, getName()));
-
-        return calendar;
-    }
-
-    private int addToCalendar(CalendarList calendar) {
+    protected int addToCalendar(CalendarList calendar) {
         if (getStartDateTime() == null) {
             return addAsTask(calendar);
         } else {
@@ -0,0 +1,91 @@
+package lifetracker.command;
+
+import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+//@@author A0091173J
+
+/**
+ * A {@code CommandObject} that executes several commands in order, as a single command.
+ * <p>
+ * If any of the commands cannot be executed, the commands executed before it are undone, so either all of the commands
+ * take effect or none do. Undoing this command undoes all of the commands, in reverse order.
+ */
+public class BatchCommand extends CommandObject {
+
+    private static final String MESSAGE_EXECUTED = "%1$d commands executed. Last: %2$s";
+    private static final String MESSAGE_UNDONE = "%1$d commands undone.";
+    private static final String ERROR_EMPTY_BATCH = "There are no commands to execute!";
+
+    private final List<CommandObject> commands;
+
+    public BatchCommand(List<CommandObject> commands) {
+        if (commands.isEmpty()) {
+            throw new IllegalArgumentException(ERROR_EMPTY_BATCH);
+        }
+
+        this.commands = new ArrayList<>(commands);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The calendar shown is the one shown by the last command.
+     */
+    @Override
+    public CalendarView execute(CalendarList calendar) {
+        CalendarView executedState = calendar;
+        int executedCount = 0;
+
+        try {
+            for (CommandObject command : commands) {
+                executedState = command.execute(calendar);
+                executedCount++;
+            }
+        } catch (IllegalArgumentException ex) {
+            for (int i = executedCount - 1; i >= 0; i--) {
+                commands.get(i).undo(calendar);
+            }
+            throw ex;
+        }
+
+        for (CommandObject command : commands) {
+            command.getHighlightEntries().forEach(this::addHighlightEntry);
+        }
+
+        CommandObject lastCommand = commands.get(commands.size() - 1);
+        setComment(String.format(MESSAGE_EXECUTED, commands.size(), lastCommand.getComment()));
+
+        super.execute(calendar);
+        return executedState;
+    }
+
+    @Override
+    public CalendarView undo(CalendarList calendar) {
+        CalendarView undoneState = calendar;
+
+        for (int i = commands.size() - 1; i >= 0; i--) {
+            undoneState = commands.get(i).undo(calendar);
+        }
+
+        setComment(String.format(MESSAGE_UNDONE, commands.size()));
+
+        super.undo(calendar);
+        return undoneState;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Every command in the batch reads the time from the same clock.
+     */
+    @Override
+    public void setClock(Clock clock) {
+        super.setClock(clock);
+        commands.forEach(command -> command.setClock(clock));
+    }
+}
@@ -1,5 +1,6 @@
 package lifetracker.command;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Period;
@@ -183,6 +184,86 @@ public interface CommandFactory {
      */
     CommandObject findOld(String searchString, boolean isOnlyToday);
 
+    /**
+     * Returns a CommandObject that lists all non-archived calendar entries taking place from the first date to the last
+     * date, including both dates.
+     *
+     * @param startDate The first date
+     * @param endDate   The last date, which must not be before the first date
+     * @return The corresponding {@code CommandObject}
+     */
+    CommandObject findInRange(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Returns a CommandObject that lists all non-archived calendar entries taking place in the week starting on the day
+     * the command is executed.
+     *
+     * @return The corresponding {@code CommandObject}
+     */
+    CommandObject findInRange();
+
+    /**
+     * Returns a CommandObject that lists every occurrence of the non-archived calendar entries from the first date to
+     * the last date, including both dates, in order of time.
+     *
+     * @param startDate The first date
+     * @param endDate   The last date, which must not be before the first date
+     * @return The corresponding {@code CommandObject}
+     */
+    CommandObject agenda(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Returns a CommandObject that lists every occurrence of the non-archived calendar entries in the week starting on
+     * the day the command is executed, in order of time.
+     *
+     * @return The corresponding {@code CommandObject}
+     */
+    CommandObject agenda();
+
+    /**
+     * Returns a CommandObject that finds the earliest free times within a range that are at least as long as the
+     * length given.
+     *
+     * @param length        The length of the free time to find
+     * @param startDateTime The start of the range, or null to start when the command is executed
+     * @param endDateTime   The end of the range, which must not be before the start, or null to end a week after the
+     *                      start
+     * @return The corresponding {@code CommandObject}
+     */
+    CommandObject findFree(Duration length, LocalDateTime startDateTime, LocalDateTime endDateTime);
+
+    /**
+     * Returns a CommandObject that imports the entries in a .csv or .ics file.
+     *
+     * @param fileName The path of the file
+     * @return The corresponding {@code CommandObject}
+     */
+    CommandObject importEntries(String fileName);
+
+    /**
+     * Returns a CommandObject that exports the active entries to a .csv or .ics file.
+     *
+     * @param fileName The path of the file, which is replaced if it exists
+     * @return The corresponding {@code CommandObject}
+     */
+    CommandObject export(String fileName);
+
+    /**
+     * Returns a CommandObject that exports the archived entries to a .csv or .ics file.
+     *
+     * @param fileName The path of the file, which is replaced if it exists
+     * @return The corresponding {@code CommandObject}
+     */
+    CommandObject exportOld(String fileName);
+
+    /**
+     * Returns a CommandObject that exports both the active and the archived entries to a .csv or .ics file.
+     *
+     * @param fileName The path of the file, which is replaced if it exists
+     * @return The corresponding {@code CommandObject}
+     */
+    CommandObject exportAll(String fileName);
+
     /**
      * Returns a CommandObject that deletes an entry based on the ID provided.
      *
@@ -199,6 +280,16 @@ public interface CommandFactory {
      */
     CommandObject mark(int id);
 
+    /**
+     * Returns a CommandObject that marks every occurrence of a recurring entry up to a date, which is undone as a
+     * whole.
+     *
+     * @param id   The ID of the recurring entry to mark
+     * @param date The date of the last occurrence to mark
+     * @return The corresponding {@code CommandObject}
+     */
+    CommandObject markUpTo(int id, LocalDate date);
+
     /**
      * Returns a CommandObject that edits the name of a entry in the calendar.
      *
@@ -1,5 +1,6 @@
 package lifetracker.command;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Period;
@@ -138,6 +139,78 @@ public class CommandFactoryImpl implements CommandFactory {
         return new FindOldCommand(searchString, isOnlyToday);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandObject findInRange(LocalDate startDate, LocalDate endDate) {
+        return new FindRangeCommand(startDate, endDate);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandObject findInRange() {
+        return new FindRangeCommand();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandObject agenda(LocalDate startDate, LocalDate endDate) {
+        return new AgendaCommand(startDate, endDate);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandObject agenda() {
+        return new AgendaCommand();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandObject findFree(Duration length, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        return new FindFreeCommand(length, startDateTime, endDateTime);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandObject importEntries(String fileName) {
+        return new ImportCommand(fileName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandObject export(String fileName) {
+        return new ExportCommand(fileName, true, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandObject exportOld(String fileName) {
+        return new ExportCommand(fileName, false, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandObject exportAll(String fileName) {
+        return new ExportCommand(fileName, true, true);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -154,6 +227,14 @@ public class CommandFactoryImpl implements CommandFactory {
         return new MarkCommand(id);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CommandObject markUpTo(int id, LocalDate date) {
+        return new MarkUpToCommand(id, date);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1,7 +1,9 @@
 package lifetracker.command;
 
 import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
 
+import java.time.Clock;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -20,6 +22,7 @@ public abstract class CommandObject {
     private boolean executed = false;
     private Set<Integer> highlightEntries = new HashSet<>();
     private String comment = MESSAGE_ERROR;
+    private Clock clock = Clock.systemDefaultZone();
 
     /**
      * Executes this command.
@@ -27,9 +30,9 @@ public abstract class CommandObject {
      * The command will also be marked as executed.
      *
      * @param calendar The {@code CalendarList} object to execute on
-     * @return The {@code CalendarList} after execution
+     * @return The {@code CalendarView} to show after execution
      */
-    public CalendarList execute(CalendarList calendar) {
+    public CalendarView execute(CalendarList calendar) {
         assert !executed;
         executed = true;
         return calendar;
@@ -41,9 +44,9 @@ public abstract class CommandObject {
      * Command will be marked as not executed.
      *
      * @param calendar The {@code CalendarList} object to undo on
-     * @return The {@code CalendarList} after undo
+     * @return The {@code CalendarView} to show after undo
      */
-    public CalendarList undo(CalendarList calendar) {
+    public CalendarView undo(CalendarList calendar) {
         assert executed;
         executed = false;
         return calendar;
@@ -70,10 +73,37 @@ public abstract class CommandObject {
         this.comment = comment;
     }
 
+    /**
+     * Sets the clock this command reads the time from.
+     * <p>
+     * Everything shown for one command should be checked against the same time, so the caller can pass a fixed clock
+     * holding the time the command was given.
+     *
+     * @param clock The clock to read the time from
+     */
+    public void setClock(Clock clock) {
+        assert clock != null;
+        this.clock = clock;
+    }
+
+    protected Clock getClock() {
+        return clock;
+    }
+
     protected void addHighlightEntry(int id) {
         highlightEntries.add(id);
     }
 
+    /**
+     * Highlights the events that take place at the same time as the entry with the ID given, along with the entry.
+     *
+     * @param calendar The {@code CalendarList} the entry is in
+     * @param id       The ID of the entry
+     */
+    protected void highlightConflicts(CalendarList calendar, int id) {
+        calendar.findConflicts(id).forEach(this::addHighlightEntry);
+    }
+
     protected boolean isExecuted() {
         return executed;
     }
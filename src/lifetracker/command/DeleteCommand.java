@@ -2,6 +2,7 @@ package lifetracker.command;
 
 import lifetracker.calendar.CalendarEntry;
 import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
 
 //@@author A0091173J
 
@@ -22,7 +23,7 @@ public class DeleteCommand extends CommandObject {
     }
 
     @Override
-    public CalendarList execute(CalendarList calendar) {
+    public CalendarView execute(CalendarList calendar) {
 
         assert calendar != null;
 
@@ -38,7 +39,7 @@ public class DeleteCommand extends CommandObject {
     }
 
     @Override
-    public CalendarList undo(CalendarList calendar) {
+    public CalendarView undo(CalendarList calendar) {
         calendar.add(entryDeleted);
 
         addHighlightEntry(entryDeleted.getId());
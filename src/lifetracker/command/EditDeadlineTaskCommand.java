@@ -2,6 +2,7 @@ package lifetracker.command;
 
 import lifetracker.calendar.CalendarEntry;
 import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
 import lifetracker.calendar.CalendarProperty;
 
 import java.time.LocalDateTime;
@@ -23,7 +24,7 @@ public class EditDeadlineTaskCommand extends EditGenericTaskCommand {
     }
 
     @Override
-    public CalendarList execute(CalendarList calendar) {
+    public CalendarView execute(CalendarList calendar) {
         if (isForcedConvert) {
             oldEntry = calendar.updateToDeadline(id, name, endDateTime, true);
         } else {
@@ -2,6 +2,7 @@ package lifetracker.command;
 
 import lifetracker.calendar.CalendarEntry;
 import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
 import lifetracker.calendar.CalendarProperty;
 
 import java.time.LocalDateTime;
@@ -24,7 +25,7 @@ public class EditEventCommand extends EditDeadlineTaskCommand {
     }
 
     @Override
-    public CalendarList execute(CalendarList calendar) {
+    public CalendarView execute(CalendarList calendar) {
 
         if (isForcedConvert) {
             oldEntry = calendar.updateToEvent(id, name, startDateTime, endDateTime, true);
@@ -42,6 +43,7 @@ public class EditEventCommand extends EditDeadlineTaskCommand {
 
         setExecuted(true);
         setComment(String.format(MESSAGE_EDITED, id));
+        highlightConflicts(calendar, id);
 
         return calendar;
     }
@@ -2,6 +2,7 @@ package lifetracker.command;
 
 import lifetracker.calendar.CalendarEntry;
 import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
 
 //@@author A0091173J
 
@@ -28,7 +29,7 @@ public class EditGenericTaskCommand extends CommandObject {
     }
 
     @Override
-    public CalendarList execute(CalendarList calendar) {
+    public CalendarView execute(CalendarList calendar) {
         oldEntry = calendar.updateToGeneric(id, name, isForcedConvert);
         addHighlightEntry(id);
 
@@ -38,7 +39,7 @@ public class EditGenericTaskCommand extends CommandObject {
     }
 
     @Override
-    public CalendarList undo(CalendarList calendar) {
+    public CalendarView undo(CalendarList calendar) {
         calendar.update(oldEntry);
 
         setComment(String.format(MESSAGE_UNEDITED, id));
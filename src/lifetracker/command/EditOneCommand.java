@@ -2,9 +2,12 @@ package lifetracker.command;
 
 import lifetracker.calendar.CalendarEntry;
 import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
 import lifetracker.calendar.visitor.OldNewEntryPair;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 
 //@@author A0091173J
 
@@ -25,6 +28,9 @@ public class EditOneCommand extends CommandObject {
     private CalendarEntry editedEntry;
     private int newEntryId;
 
+    // The entries left in the calendar by editing, which redo puts back with the same IDs
+    private List<CalendarEntry> resultEntries;
+
     public EditOneCommand(int id, String name) {
         this.id = id;
         this.name = name;
@@ -47,14 +53,14 @@ public class EditOneCommand extends CommandObject {
     }
 
     @Override
-    public CalendarList execute(CalendarList calendar) {
+    public CalendarView execute(CalendarList calendar) {
 
-        if (end == null) {
-            processEditName(calendar);
-        } else if (start == null) {
-            processEditDeadLine(calendar);
+        if (resultEntries == null) {
+            processEdit(calendar);
+            resultEntries = Arrays.asList(calendar.get(id), calendar.get(newEntryId));
         } else {
-            processEditEvent(calendar);
+            calendar.delete(id);
+            calendar.addAll(resultEntries);
         }
 
         addHighlightEntry(id);
@@ -66,7 +72,7 @@ public class EditOneCommand extends CommandObject {
     }
 
     @Override
-    public CalendarList undo(CalendarList calendar) {
+    public CalendarView undo(CalendarList calendar) {
         super.undo(calendar);
 
         calendar.delete(newEntryId);
@@ -77,6 +83,16 @@ public class EditOneCommand extends CommandObject {
         return calendar;
     }
 
+    private void processEdit(CalendarList calendar) {
+        if (end == null) {
+            processEditName(calendar);
+        } else if (start == null) {
+            processEditDeadLine(calendar);
+        } else {
+            processEditEvent(calendar);
+        }
+    }
+
     private void processEditName(CalendarList calendar) {
         markEntry(calendar);
 
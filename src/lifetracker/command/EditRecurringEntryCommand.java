@@ -2,6 +2,7 @@ package lifetracker.command;
 
 import lifetracker.calendar.CalendarEntry;
 import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
 import lifetracker.calendar.CalendarProperty;
 
 import java.time.LocalDate;
@@ -43,7 +44,7 @@ public class EditRecurringEntryCommand extends EditGenericTaskCommand {
     }
 
     @Override
-    public CalendarList execute(CalendarList calendar) {
+    public CalendarView execute(CalendarList calendar) {
 
         CalendarEntry entryToEdit = calendar.get(id);
 
@@ -1,6 +1,7 @@
 package lifetracker.command;
 
 import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -36,7 +37,7 @@ public class EditRecurringEventCommand extends EditRecurringTaskCommand {
     }
 
     @Override
-    public CalendarList execute(CalendarList calendar) {
+    public CalendarView execute(CalendarList calendar) {
 
         if (occurLimit == OCCUR_INF) {
             oldEntry = calendar
@@ -53,6 +54,7 @@ public class EditRecurringEventCommand extends EditRecurringTaskCommand {
 
         setExecuted(true);
         setComment(String.format(MESSAGE_EDITED, id));
+        highlightConflicts(calendar, id);
 
         return calendar;
     }
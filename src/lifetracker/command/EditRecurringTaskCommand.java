@@ -1,6 +1,7 @@
 package lifetracker.command;
 
 import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -36,7 +37,7 @@ public class EditRecurringTaskCommand extends EditRecurringEntryCommand {
     }
 
     @Override
-    public CalendarList execute(CalendarList calendar) {
+    public CalendarView execute(CalendarList calendar) {
         if (occurLimit == OCCUR_INF) {
             oldEntry = calendar.updateToRecurringTask(id, name, endDateTime, recurringPeriod, !isForcedConvert, true);
         } else if (occurLimit == OCCUR_DATE) {
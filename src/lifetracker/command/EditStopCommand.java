@@ -2,6 +2,7 @@ package lifetracker.command;
 
 import lifetracker.calendar.CalendarEntry;
 import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
 import lifetracker.calendar.CalendarProperty;
 
 //@@author A0091173J
@@ -16,7 +17,7 @@ public class EditStopCommand extends EditGenericTaskCommand {
     }
 
     @Override
-    public CalendarList execute(CalendarList calendar) {
+    public CalendarView execute(CalendarList calendar) {
 
         CalendarEntry entryToEdit = calendar.get(id);
 
@@ -0,0 +1,137 @@
+package lifetracker.command;
+
+import lifetracker.calendar.CalendarEntryFileFormat;
+import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+//@@author A0091173J
+
+/**
+ * A {@code CommandObject} that exports the entries of the calendar to a .csv or .ics file.
+ * <p>
+ * A copy of the calendar is taken when the command is executed, and the file is written from the copy on a separate
+ * thread, so the calendar can keep changing while a large file is written. The copy shares the archived entries kept
+ * off the heap, which never change, and the file is written one entry at a time, so exporting a large archive does not
+ * need memory for all of it at once. The file is written under a temporary name and renamed when it is complete.
+ * <p>
+ * Undoing this command simply returns the same calendar that execute was called with. The file is kept.
+ */
+public class ExportCommand extends CommandObject {
+
+    private static final Logger LOGGER = Logger.getGlobal();
+
+    private static final String THREAD_NAME = "Export Thread";
+    private static final String TEMP_FILE_EXTENSION = ".tmp";
+
+    private static final String MESSAGE_EXPORTING = "Exporting %1$s to %2$s.";
+    private static final String MESSAGE_SEARCH_ALL = "Displaying entries.";
+    private static final String SCOPE_ACTIVE = "entries";
+    private static final String SCOPE_ARCHIVED = "archived entries";
+    private static final String SCOPE_ALL = "all entries";
+
+    private static final String LOG_EXPORTED = "Export Thread: %1$d entries written to %2$s in %3$d ms.";
+    private static final String LOG_EXPORT_FAILED = "Export Thread: Could not write %1$s: %2$s";
+
+    private final String fileName;
+    private final boolean isActiveIncluded;
+    private final boolean isArchivedIncluded;
+
+    private CalendarList originalCalendar;
+    private Thread exportThread;
+
+    /**
+     * Creates a new {@code ExportCommand} which exports the active or archived entries of the calendar, or both.
+     *
+     * @param fileName           The path of the .csv or .ics file to write
+     * @param isActiveIncluded   Whether to export the active entries
+     * @param isArchivedIncluded Whether to export the archived entries
+     */
+    public ExportCommand(String fileName, boolean isActiveIncluded, boolean isArchivedIncluded) {
+        assert fileName != null;
+        assert isActiveIncluded || isArchivedIncluded;
+
+        this.fileName = fileName;
+        this.isActiveIncluded = isActiveIncluded;
+        this.isArchivedIncluded = isArchivedIncluded;
+    }
+
+    @Override
+    public CalendarView execute(CalendarList calendar) {
+        originalCalendar = calendar;
+
+        CalendarEntryFileFormat format = CalendarEntryFileFormat.forFile(fileName);
+        CalendarView snapshot = calendar.snapshot();
+
+        exportThread = new Thread(() -> writeFile(format, snapshot), THREAD_NAME);
+        exportThread.start();
+
+        setComment(String.format(MESSAGE_EXPORTING, getScope(), fileName));
+        return calendar;
+    }
+
+    @Override
+    public CalendarView undo(CalendarList calendar) {
+        setComment(MESSAGE_SEARCH_ALL);
+
+        return originalCalendar;
+    }
+
+    /**
+     * Waits until the file is written.
+     */
+    void awaitExport() throws InterruptedException {
+        if (exportThread != null) {
+            exportThread.join();
+        }
+    }
+
+    private String getScope() {
+        if (!isArchivedIncluded) {
+            return SCOPE_ACTIVE;
+        } else if (!isActiveIncluded) {
+            return SCOPE_ARCHIVED;
+        }
+        return SCOPE_ALL;
+    }
+
+    /**
+     * Writes the file on the export thread, logging the outcome, as there is no command left to report it to.
+     */
+    private void writeFile(CalendarEntryFileFormat format, CalendarView snapshot) {
+        long startTime = System.nanoTime();
+        Path target = Paths.get(fileName).toAbsolutePath();
+        Path tempFile = target.resolveSibling(target.getFileName() + TEMP_FILE_EXTENSION);
+
+        try {
+            int count;
+
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                count = format.write(snapshot, isActiveIncluded, isArchivedIncluded, writer);
+            }
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+
+            LOGGER.log(Level.INFO, String.format(LOG_EXPORTED, count, fileName,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)));
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, String.format(LOG_EXPORT_FAILED, fileName, ex.getMessage()));
+            System.err.println(String.format(LOG_EXPORT_FAILED, fileName, ex.getMessage()));
+
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException deleteEx) {
+                // The temporary file is left behind, and the original file is untouched
+            }
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package lifetracker.command;
 
 import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
+
+import java.time.LocalDateTime;
 
 //@@author A0091173J
 
@@ -20,10 +23,10 @@ public class FindAllCommand extends FindCommand {
     }
 
     @Override
-    public CalendarList execute(CalendarList calendar) {
+    public CalendarView execute(CalendarList calendar) {
         super.execute(calendar);
 
-        CalendarList searchCalendar;
+        CalendarView searchCalendar;
 
         if (getSearchTerm().isEmpty()) {
             searchCalendar = calendar.findAllByName("");
@@ -32,7 +35,7 @@ public class FindAllCommand extends FindCommand {
         }
 
         if (isOnlyToday()) {
-            searchCalendar = searchCalendar.findToday();
+            searchCalendar = searchCalendar.findToday(LocalDateTime.now(getClock()));
         }
 
         return searchCalendar;
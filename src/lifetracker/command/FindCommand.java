@@ -1,6 +1,9 @@
 package lifetracker.command;
 
 import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
+
+import java.time.LocalDateTime;
 
 //@@author A0091173J
 
@@ -31,10 +34,10 @@ public class FindCommand extends CommandObject {
     }
 
     @Override
-    public CalendarList execute(CalendarList calendar) {
+    public CalendarView execute(CalendarList calendar) {
         originalCalendar = calendar;
 
-        CalendarList searchCalendar;
+        CalendarView searchCalendar;
 
         if (searchTerm.isEmpty()) {
             setComment(MESSAGE_SEARCH_ALL);
@@ -46,14 +49,14 @@ public class FindCommand extends CommandObject {
         }
 
         if (isOnlyToday) {
-            searchCalendar = searchCalendar.findToday();
+            searchCalendar = searchCalendar.findToday(LocalDateTime.now(getClock()));
         }
 
         return searchCalendar;
     }
 
     @Override
-    public CalendarList undo(CalendarList calendar) {
+    public CalendarView undo(CalendarList calendar) {
         setComment(MESSAGE_SEARCH_ALL);
 
         return originalCalendar;
@@ -0,0 +1,102 @@
+package lifetracker.command;
+
+import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
+import lifetracker.calendar.FreeSlot;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.List;
+import java.util.stream.Collectors;
+
+//@@author A0091173J
+
+/**
+ * A {@code CommandObject} that finds the earliest free times within a range that are long enough for an event.
+ * <p>
+ * The free times are listed in the comment, and the events taking place within the range are displayed. Undoing this
+ * command simply returns the same calendar that execute was called with.
+ */
+public class FindFreeCommand extends CommandObject {
+
+    private static final String MESSAGE_FREE = "Free: %1$s.";
+    private static final String MESSAGE_NOT_FREE = "No free time found from %1$s to %2$s.";
+    private static final String MESSAGE_SEARCH_ALL = "Displaying entries.";
+    private static final String ERROR_END_BEFORE_START = "The end cannot be before the start!";
+
+    private static final String SLOT_FORMAT = "%1$s to %2$s";
+    private static final String SLOT_SEPARATOR = "; ";
+    private static final int SLOTS_SHOWN = 3;
+    private static final int DAYS_IN_WEEK = 7;
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter
+            .ofLocalizedDateTime(FormatStyle.MEDIUM, FormatStyle.SHORT);
+
+    private final Duration length;
+    // Null to start when this command is executed
+    private final LocalDateTime startDateTime;
+    // Null to end a week after the start
+    private final LocalDateTime endDateTime;
+
+    private CalendarList originalCalendar;
+
+    public FindFreeCommand(Duration length, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        assert !length.isNegative() && !length.isZero();
+
+        if (startDateTime != null && endDateTime != null && endDateTime.isBefore(startDateTime)) {
+            throw new IllegalArgumentException(ERROR_END_BEFORE_START);
+        }
+
+        this.length = length;
+        this.startDateTime = startDateTime;
+        this.endDateTime = endDateTime;
+    }
+
+    @Override
+    public CalendarView execute(CalendarList calendar) {
+        LocalDateTime start = startDateTime == null ? LocalDateTime.now(getClock()) : startDateTime;
+        LocalDateTime end = endDateTime == null ? start.plusDays(DAYS_IN_WEEK) : endDateTime;
+
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException(ERROR_END_BEFORE_START);
+        }
+
+        originalCalendar = calendar;
+
+        List<FreeSlot> freeSlots = calendar.findFreeSlots(length, start, end, SLOTS_SHOWN);
+
+        if (freeSlots.isEmpty()) {
+            setComment(String.format(MESSAGE_NOT_FREE, start.format(DATE_TIME_FORMATTER),
+                    end.format(DATE_TIME_FORMATTER)));
+        } else {
+            String slotList = freeSlots.stream()
+                    .map(slot -> String.format(SLOT_FORMAT, slot.getStart().format(DATE_TIME_FORMATTER),
+                            slot.getEnd().format(DATE_TIME_FORMATTER)))
+                    .collect(Collectors.joining(SLOT_SEPARATOR));
+            setComment(String.format(MESSAGE_FREE, slotList));
+        }
+
+        return calendar.findInRange(start, end);
+    }
+
+    @Override
+    public CalendarView undo(CalendarList calendar) {
+        setComment(MESSAGE_SEARCH_ALL);
+
+        return originalCalendar;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    public LocalDateTime getStartDateTime() {
+        return startDateTime;
+    }
+
+    public LocalDateTime getEndDateTime() {
+        return endDateTime;
+    }
+}
@@ -0,0 +1,78 @@
+package lifetracker.command;
+
+import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+
+//@@author A0091173J
+
+/**
+ * A {@code CommandObject} that finds all active entries taking place on a range of dates.
+ * <p>
+ * Both the first and the last date are included in the range. Undoing this command simply returns the same calendar
+ * that execute was called with.
+ */
+public class FindRangeCommand extends CommandObject {
+
+    private static final String MESSAGE_SEARCH_RANGE = "Displaying entries from %1$s to %2$s.";
+    private static final String MESSAGE_SEARCH_ALL = "Displaying entries.";
+    private static final String ERROR_END_BEFORE_START = "The last date cannot be before the first date!";
+
+    private static final int DAYS_IN_WEEK = 7;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM);
+
+    // Both are null for the week starting on the day this command is executed
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    private CalendarList originalCalendar;
+
+    /**
+     * Creates a {@code FindRangeCommand} for the week starting on the day it is executed.
+     */
+    public FindRangeCommand() {
+        this.startDate = null;
+        this.endDate = null;
+    }
+
+    public FindRangeCommand(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException(ERROR_END_BEFORE_START);
+        }
+
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    @Override
+    public CalendarView execute(CalendarList calendar) {
+        originalCalendar = calendar;
+
+        LocalDate firstDate = startDate == null ? LocalDate.now(getClock()) : startDate;
+        LocalDate lastDate = endDate == null ? firstDate.plusDays(DAYS_IN_WEEK - 1) : endDate;
+
+        setComment(String.format(MESSAGE_SEARCH_RANGE, firstDate.format(DATE_FORMATTER),
+                lastDate.format(DATE_FORMATTER)));
+
+        return calendar.findInRange(firstDate.atStartOfDay(), lastDate.plusDays(1).atStartOfDay());
+    }
+
+    @Override
+    public CalendarView undo(CalendarList calendar) {
+        setComment(MESSAGE_SEARCH_ALL);
+
+        return originalCalendar;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+}
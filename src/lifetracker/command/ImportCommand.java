@@ -0,0 +1,114 @@
+package lifetracker.command;
+
+import lifetracker.calendar.CalendarEntry;
+import lifetracker.calendar.CalendarEntryFileFormat;
+import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+//@@author A0091173J
+
+/**
+ * A Command that imports the entries in a .csv or .ics file into a Calendar.
+ * <p>
+ * The file is read one line at a time, and every entry read is added in one go once the whole file is read, so either
+ * all of the entries are imported or none are. The entries read are kept, so the command can be redone without reading
+ * the file again.
+ */
+public class ImportCommand extends CommandObject {
+
+    private static final Logger LOGGER = Logger.getGlobal();
+
+    private static final String MESSAGE_IMPORTED = "%1$d entries imported from %2$s in %3$d ms (%4$d entries/s).";
+    private static final String MESSAGE_SKIPPED = " %1$d entries could not be imported.";
+    private static final String MESSAGE_UNDO = "%1$d imported entries removed.";
+    private static final String ERROR_READ = "Cannot read %1$s!";
+
+    private final String fileName;
+
+    private List<CalendarEntry> entries;
+    private List<Integer> importedIds = new ArrayList<>();
+    private int skippedCount;
+
+    /**
+     * Creates a new {@code ImportCommand} which imports the entries in a file.
+     *
+     * @param fileName The path of the .csv or .ics file
+     */
+    public ImportCommand(String fileName) {
+        assert fileName != null;
+
+        this.fileName = fileName;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CalendarView execute(CalendarList calendar) {
+        assert calendar != null;
+
+        long startTime = System.nanoTime();
+
+        if (entries == null) {
+            entries = readEntries();
+        }
+
+        importedIds = calendar.addAll(entries);
+
+        long elapsedNanos = Math.max(System.nanoTime() - startTime, 1);
+        long entriesPerSecond = importedIds.size() * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+
+        importedIds.forEach(this::addHighlightEntry);
+
+        String comment = String.format(MESSAGE_IMPORTED, importedIds.size(), fileName,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), entriesPerSecond);
+        if (skippedCount > 0) {
+            comment += String.format(MESSAGE_SKIPPED, skippedCount);
+        }
+
+        setComment(comment);
+        LOGGER.log(Level.INFO, comment);
+
+        return super.execute(calendar);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CalendarView undo(CalendarList calendar) {
+        assert calendar != null;
+
+        for (int i = importedIds.size() - 1; i >= 0; i--) {
+            calendar.delete(importedIds.get(i));
+        }
+
+        setComment(String.format(MESSAGE_UNDO, importedIds.size()));
+
+        return super.undo(calendar);
+    }
+
+    private List<CalendarEntry> readEntries() {
+        CalendarEntryFileFormat format = CalendarEntryFileFormat.forFile(fileName);
+        List<CalendarEntry> entriesRead = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(fileName), StandardCharsets.UTF_8)) {
+            skippedCount = format.read(reader, entriesRead::add);
+        } catch (IOException ex) {
+            throw new IllegalArgumentException(String.format(ERROR_READ, fileName));
+        }
+
+        return entriesRead;
+    }
+}
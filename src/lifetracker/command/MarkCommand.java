@@ -1,8 +1,13 @@
 package lifetracker.command;
 
+import lifetracker.calendar.CalendarEntry;
 import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
 import lifetracker.calendar.visitor.OldNewEntryPair;
 
+import java.util.ArrayList;
+import java.util.List;
+
 //@@author A0091173J
 
 /**
@@ -17,13 +22,27 @@ public class MarkCommand extends CommandObject {
 
     private OldNewEntryPair markedEntryPair;
 
+    // The entries left in the calendar by marking, which redo puts back with the same IDs
+    private List<CalendarEntry> markedEntries;
+
     public MarkCommand(int entryId) {
         this.entryId = entryId;
     }
 
     @Override
-    public CalendarList execute(CalendarList calendar) {
-        markedEntryPair = calendar.mark(entryId);
+    public CalendarView execute(CalendarList calendar) {
+        if (markedEntries == null) {
+            markedEntryPair = calendar.mark(entryId);
+            markedEntries = new ArrayList<>();
+            markedEntries.add(calendar.get(entryId));
+
+            if (markedEntryPair.newEntry != null && markedEntryPair.newEntry.getId() != entryId) {
+                markedEntries.add(markedEntryPair.newEntry);
+            }
+        } else {
+            calendar.delete(entryId);
+            calendar.addAll(markedEntries);
+        }
 
         addHighlightEntry(entryId);
 
@@ -33,7 +52,7 @@ public class MarkCommand extends CommandObject {
     }
 
     @Override
-    public CalendarList undo(CalendarList calendar) {
+    public CalendarView undo(CalendarList calendar) {
 
         if (markedEntryPair.newEntry != null) {
             calendar.delete(markedEntryPair.newEntry.getId());
@@ -0,0 +1,88 @@
+package lifetracker.command;
+
+import lifetracker.calendar.CalendarEntry;
+import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarView;
+import lifetracker.calendar.visitor.OldNewEntriesPair;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.ArrayList;
+import java.util.List;
+
+//@@author A0091173J
+
+/**
+ * A {@code CommandObject} that marks every occurrence of a recurring entry up to a date.
+ * <p>
+ * All the occurrences are marked and archived by this one command, so undoing it restores the entry to where it was
+ * before, and removes every archived occurrence.
+ */
+public class MarkUpToCommand extends CommandObject {
+
+    private static final String MESSAGE_MARKED_DONE = "%2$d occurrences of \"%1$d\" marked up to %3$s.";
+    private static final String MESSAGE_MARKED_UNDONE = "\"%1$d\" unmarked.";
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM);
+
+    private final int entryId;
+    private final LocalDate date;
+
+    private OldNewEntriesPair markedEntries;
+
+    // The entries left in the calendar by marking, which redo puts back with the same IDs
+    private List<CalendarEntry> resultEntries;
+
+    public MarkUpToCommand(int entryId, LocalDate date) {
+        this.entryId = entryId;
+        this.date = date;
+    }
+
+    @Override
+    public CalendarView execute(CalendarList calendar) {
+        if (resultEntries == null) {
+            markedEntries = calendar.markUpTo(entryId, date);
+            resultEntries = new ArrayList<>();
+            resultEntries.add(calendar.get(entryId));
+
+            for (CalendarEntry doneEntry : markedEntries.newEntries) {
+                if (doneEntry.getId() != entryId) {
+                    resultEntries.add(doneEntry);
+                }
+            }
+        } else {
+            calendar.delete(entryId);
+            calendar.addAll(resultEntries);
+        }
+
+        addHighlightEntry(entryId);
+
+        setComment(String.format(MESSAGE_MARKED_DONE, entryId, markedEntries.newEntries.size(),
+                date.format(DATE_FORMATTER)));
+
+        return super.execute(calendar);
+    }
+
+    @Override
+    public CalendarView undo(CalendarList calendar) {
+
+        for (CalendarEntry doneEntry : markedEntries.newEntries) {
+            calendar.delete(doneEntry.getId());
+        }
+
+        calendar.update(markedEntries.oldEntry);
+
+        setComment(String.format(MESSAGE_MARKED_UNDONE, entryId));
+
+        return super.undo(calendar);
+    }
+
+    public int getEntryId() {
+        return entryId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+}
@@ -1,6 +1,10 @@
 package lifetracker.logic;
 
+import java.util.List;
+
 //@@author A0149467N
 public interface Logic {
     ExecuteResult executeCommand(String commandString);
+
+    ExecuteResult executeBatch(List<String> commandStrings);
 }
@@ -3,9 +3,13 @@ package lifetracker.logic;
 import lifetracker.calendar.CalendarEntry;
 import lifetracker.calendar.CalendarList;
 import lifetracker.calendar.CalendarProperty;
+import lifetracker.calendar.CalendarView;
+import lifetracker.calendar.WordSimilarity;
+import lifetracker.command.BatchCommand;
 import lifetracker.command.CommandObject;
 import lifetracker.logic.ExecuteResult.CommandType;
 import lifetracker.parser.Parser;
+import lifetracker.storage.DurabilityPolicy;
 import lifetracker.storage.Storage;
 
 import java.io.BufferedInputStream;
@@ -16,8 +20,12 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EmptyStackException;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import java.util.Stack;
@@ -30,12 +38,25 @@ public class LogicImpl implements Logic {
     private static final String CONFIG_FILE_NAME = "config.properties";
     private static final String SAVE_FILE_PROPERTY = "savefile";
     private static final String DEFAULT_SAVE_FILE_NAME = "lifetracker.dat";
+    private static final String DURABILITY_PROPERTY = "durability";
+    private static final DurabilityPolicy DEFAULT_DURABILITY = DurabilityPolicy.PER_BATCH;
+    private static final String SAVE_FORMAT_PROPERTY = "saveformat";
+    private static final SaveFormat DEFAULT_SAVE_FORMAT = SaveFormat.JSON;
+    private static final String PRETTY_PRINT_PROPERTY = "prettyprint";
+    private static final String DEFAULT_PRETTY_PRINT = "false";
+    private static final String SEARCH_CACHE_PROPERTY = "searchcache";
 
     //Error message
     private static final String ERROR_INVALID_COMMAND = "Invalid Command: %1$s";
     private static final String ERROR_SAVE = "Warning: There was an error saving to the save file!";
+    private static final String ERROR_INVALID_PROPERTY = "Warning: Unknown %1$s %2$s, using %3$s instead.";
     private static final String ERROR_ERROR_UNDO_STACK_EMPTY = "No command to undo!";
     private static final String ERROR_ERROR_REDO_STACK_EMPTY = "No command to redo!";
+    private static final String ERROR_BATCH_LINE = "Line %1$d: %2$s";
+    private static final String ERROR_NOT_IN_BATCH = "%1$s cannot be run in a batch!";
+
+    //Commands that act on the program rather than the calendar, which cannot be run in a batch
+    private static final List<String> NON_BATCH_COMMANDS = Arrays.asList("saveat", "exit", "help", "undo", "redo");
 
     //save comment
     private static final String COMMENT_SAVE = "Calendar is saved at ";
@@ -51,6 +72,12 @@ public class LogicImpl implements Logic {
     private Properties property;
     //This is the configuration file
     private File propertyFile;
+    //Whether the save file is written with indentation
+    private boolean isPrettyPrinted;
+    //The format the save file is written in
+    private SaveFormat saveFormat;
+    //The clock that the time of every command is read from
+    private final Clock clock;
 
     /**
     * Constructor of Logic. Initialize parser, storage and two stacks,
@@ -62,9 +89,24 @@ public class LogicImpl implements Logic {
     *       If an I/O error occurs when configuring the file or load the calendar
     */
     public LogicImpl(Parser parser, Storage storage) throws IOException {
+        this(parser, storage, Clock.systemDefaultZone());
+    }
+
+    /**
+    * Constructor of Logic that reads the time of every command from the given clock.
+    * 
+    * @param parser
+    * @param storage
+    * @param clock
+    * @throws IOException
+    *       If an I/O error occurs when configuring the file or load the calendar
+    */
+    LogicImpl(Parser parser, Storage storage, Clock clock) throws IOException {
         assert parser != null;
         assert storage != null;
+        assert clock != null;
 
+        this.clock = clock;
         commandParser = parser;
         calendarStorage = storage;
         commandStack = new Stack<>();
@@ -93,10 +135,58 @@ public class LogicImpl implements Logic {
         InputStream fileInputStream = new BufferedInputStream(new FileInputStream(propertyFile));
         property.load(fileInputStream);
 
+        calendarStorage.setDurabilityPolicy(readEnumProperty(DURABILITY_PROPERTY, DEFAULT_DURABILITY));
+        saveFormat = readEnumProperty(SAVE_FORMAT_PROPERTY, DEFAULT_SAVE_FORMAT);
+        isPrettyPrinted = Boolean.parseBoolean(property.getProperty(PRETTY_PRINT_PROPERTY, DEFAULT_PRETTY_PRINT));
+        WordSimilarity.setCacheSize(readSizeProperty(SEARCH_CACHE_PROPERTY, WordSimilarity.DEFAULT_CACHE_SIZE));
+
         String location = property.getProperty(SAVE_FILE_PROPERTY, DEFAULT_SAVE_FILE_NAME);
         calendarStorage.setStoreAndStart(location);
     }
 
+    /**
+    * Read a setting with a fixed set of values from the configuration file, such as the durability policy
+    *   (none, per_batch or per_interval) or the save format (json or binary)
+    * 
+    * @param key
+    * @param defaultValue
+    * @return The setting, or the default value if it is missing or invalid
+    */
+    private <E extends Enum<E>> E readEnumProperty(String key, E defaultValue) {
+        String value = property.getProperty(key, defaultValue.name());
+
+        try {
+            return Enum.valueOf(defaultValue.getDeclaringClass(), value.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            System.err.println(String.format(ERROR_INVALID_PROPERTY, key, value, defaultValue));
+            return defaultValue;
+        }
+    }
+
+    /**
+    * Read a size from the configuration file, such as the number of word similarity scores to remember
+    * 
+    * @param key
+    * @param defaultValue
+    * @return The size, or the default value if it is missing or not a number of zero or more
+    */
+    private int readSizeProperty(String key, int defaultValue) {
+        String value = property.getProperty(key, String.valueOf(defaultValue));
+
+        try {
+            int size = Integer.parseInt(value.trim());
+
+            if (size >= 0) {
+                return size;
+            }
+        } catch (NumberFormatException ex) {
+            // Reported below
+        }
+
+        System.err.println(String.format(ERROR_INVALID_PROPERTY, key, value, defaultValue));
+        return defaultValue;
+    }
+
     /**
     * Decide what kind of command it is and set the CommandType for them,
     *   pass the command string to respective handlers
@@ -181,11 +271,13 @@ public class LogicImpl implements Logic {
     */
     private ExecuteResult undo(ExecuteResult runResult) {
         CommandObject commandToExecute;
-        CalendarList executedState;
+        CalendarView executedState;
+        Clock commandClock = takeTimeSnapshot();
 
         try {
             commandToExecute = commandStack.pop();
             redoStack.push(commandToExecute);
+            commandToExecute.setClock(commandClock);
             executedState = commandToExecute.undo(calendar);
         } catch (EmptyStackException ex) {
             ExecuteResult errorResult = new ExecuteResultImpl();
@@ -195,13 +287,13 @@ public class LogicImpl implements Logic {
         }
 
         store();
-        return processExecutionResults(runResult, commandToExecute, executedState);
+        return processExecutionResults(runResult, commandToExecute, executedState, commandClock);
     }
 
     /**
     * Pop the redo stack, push the command to the command stack and redo the command.
     *   Store the changes and pass the result from parser to be processed
-    *   If the redo stack is empty, return an error result.
+    *   If the redo stack is empty, or the command cannot be redone, return an error result.
     * 
     * @param runResult
     *       The ExecutedResult object to be modified so that it can be returned to UI
@@ -209,21 +301,29 @@ public class LogicImpl implements Logic {
     */
     private ExecuteResult redo(ExecuteResult runResult) {
         CommandObject commandToExecute;
-        CalendarList executedState;
+        CalendarView executedState;
+        Clock commandClock = takeTimeSnapshot();
 
         try {
             commandToExecute = redoStack.pop();
             commandStack.push(commandToExecute);
+            commandToExecute.setClock(commandClock);
             executedState = commandToExecute.execute(calendar);
         } catch (EmptyStackException ex) {
             ExecuteResult errorResult = new ExecuteResultImpl();
             errorResult.setComment(String.format(ERROR_INVALID_COMMAND, ERROR_ERROR_REDO_STACK_EMPTY));
             errorResult.setType(CommandType.ERROR);
             return errorResult;
+        } catch (IllegalArgumentException ex) {
+            redoStack.push(commandStack.pop());
+            ExecuteResult errorResult = new ExecuteResultImpl();
+            errorResult.setComment(String.format(ERROR_INVALID_COMMAND, ex.getMessage()));
+            errorResult.setType(CommandType.ERROR);
+            return errorResult;
         }
 
         store();
-        return processExecutionResults(runResult, commandToExecute, executedState);
+        return processExecutionResults(runResult, commandToExecute, executedState, commandClock);
     }
 
     /**
@@ -239,10 +339,51 @@ public class LogicImpl implements Logic {
     */
     private ExecuteResult otherCommand(String commandString, ExecuteResult runResult) {
         CommandObject commandToExecute;
-        CalendarList executedState;
+        CalendarView executedState;
+        Clock commandClock = takeTimeSnapshot();
 
         try {
             commandToExecute = commandParser.parse(commandString);
+            commandToExecute.setClock(commandClock);
+            executedState = commandToExecute.execute(calendar);
+        } catch (IllegalArgumentException ex) {
+            ExecuteResult errorResult = new ExecuteResultImpl();
+            errorResult.setComment(String.format(ERROR_INVALID_COMMAND, ex.getMessage()));
+            errorResult.setType(CommandType.ERROR);
+            return errorResult;
+        }
+
+        commandStack.push(commandToExecute);
+        redoStack.clear();
+
+        store();
+        return processExecutionResults(runResult, commandToExecute, executedState, commandClock);
+    }
+
+    /**
+    * Parse every command string and execute the commands as one command.
+    *   Blank lines are skipped. If any line cannot be parsed, none of the commands are executed,
+    *   and if any command cannot be executed, the commands before it are undone.
+    *   The batch is pushed to the command stack as a single command, so one undo reverts all of it,
+    *   and the calendar is stored once at the end instead of after every command.
+    * 
+    * @param commandStrings
+    * @return The result after execution, showing the calendar as the last command left it
+    */
+    @Override
+    public ExecuteResult executeBatch(List<String> commandStrings) {
+        assert commandStrings != null;
+
+        ExecuteResult runResult = new ExecuteResultImpl();
+        runResult.setType(CommandType.DISPLAY);
+
+        CommandObject commandToExecute;
+        CalendarView executedState;
+        Clock commandClock = takeTimeSnapshot();
+
+        try {
+            commandToExecute = new BatchCommand(parseBatch(commandStrings));
+            commandToExecute.setClock(commandClock);
             executedState = commandToExecute.execute(calendar);
         } catch (IllegalArgumentException ex) {
             ExecuteResult errorResult = new ExecuteResultImpl();
@@ -255,7 +396,51 @@ public class LogicImpl implements Logic {
         redoStack.clear();
 
         store();
-        return processExecutionResults(runResult, commandToExecute, executedState);
+        return processExecutionResults(runResult, commandToExecute, executedState, commandClock);
+    }
+
+    /**
+    * Parse each non-blank command string of a batch, before any of them is executed
+    * 
+    * @param commandStrings
+    * @return The parsed commands, in order
+    * @throws IllegalArgumentException
+    *       If a line cannot be parsed or cannot be run in a batch, naming the line
+    */
+    private List<CommandObject> parseBatch(List<String> commandStrings) {
+        List<CommandObject> commands = new ArrayList<>();
+        int lineNumber = 0;
+
+        for (String commandString : commandStrings) {
+            lineNumber++;
+            String trimmedCommand = commandString.trim();
+
+            if (trimmedCommand.isEmpty()) {
+                continue;
+            }
+
+            String commandWord = trimmedCommand.split(" ")[0];
+
+            try {
+                if (NON_BATCH_COMMANDS.contains(commandWord)) {
+                    throw new IllegalArgumentException(String.format(ERROR_NOT_IN_BATCH, commandWord));
+                }
+                commands.add(commandParser.parse(trimmedCommand));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException(String.format(ERROR_BATCH_LINE, lineNumber, ex.getMessage()));
+            }
+        }
+
+        return commands;
+    }
+
+    /**
+    * Read the time once for a command, so that the command and the entries it shows all use the same time
+    * 
+    * @return A clock that always gives the time the command was given
+    */
+    private Clock takeTimeSnapshot() {
+        return Clock.fixed(clock.instant(), clock.getZone());
     }
 
     /**
@@ -263,7 +448,7 @@ public class LogicImpl implements Logic {
     */
     private void store() {
         try {
-            StorageAdapter storageAdapter = new StorageAdapter(calendarStorage);
+            StorageAdapter storageAdapter = new StorageAdapter(calendarStorage, saveFormat, isPrettyPrinted);
             storageAdapter.store(calendar);
         } catch (IOException ex) {
             System.err.println(ERROR_SAVE);
@@ -278,27 +463,26 @@ public class LogicImpl implements Logic {
     * @param commandExecuted
     *       The parser parsed the command string to a command object: commandExecuted
     * @param executedState
-    *       The CalendarList to be manipulated so that it can be displayed in UI
+    *       The CalendarView to be displayed in UI
+    * @param commandClock
+    *       The clock holding the time the command was given, which every entry is checked against
     * @return The ExecuteResult object to be returned to UI
     */
     private ExecuteResult processExecutionResults(ExecuteResult runResult, CommandObject commandExecuted,
-            CalendarList executedState) {
+            CalendarView executedState, Clock commandClock) {
         assert commandExecuted != null;
         assert executedState != null;
 
         Set<Integer> entriesToHighlight = commandExecuted.getHighlightEntries();
+        LocalDateTime now = LocalDateTime.now(commandClock);
 
         runResult.setComment(commandExecuted.getComment());
 
-        if (!executedState.getTaskList().isEmpty()) {
-            executedState.getTaskList()
-                    .forEach(task -> addTask(runResult, task, entriesToHighlight.contains(task.getId())));
-        }
+        executedState.getTaskList()
+                .forEach(task -> addTask(runResult, task, entriesToHighlight.contains(task.getId()), now));
 
-        if (!executedState.getEventList().isEmpty()) {
-            executedState.getEventList()
-                    .forEach(event -> addEvent(runResult, event, entriesToHighlight.contains(event.getId())));
-        }
+        executedState.getEventList()
+                .forEach(event -> addEvent(runResult, event, entriesToHighlight.contains(event.getId()), now));
 
         return runResult;
     }
@@ -312,14 +496,16 @@ public class LogicImpl implements Logic {
     *       The task to be added to runResult
     * @param isHighlighted
     *       Whether the task will be highlighted in UI
+    * @param now
+    *       The time the command was given
     */
-    private void addTask(ExecuteResult runResult, CalendarEntry task, boolean isHighlighted) {
+    private void addTask(ExecuteResult runResult, CalendarEntry task, boolean isHighlighted, LocalDateTime now) {
         LocalDateTime limitDate = task.getDateTime(CalendarProperty.DATE_LIMIT);
         runResult.addTaskLine(
                 task.getId(),
                 task.getName(),
                 task.getDateTime(CalendarProperty.END),
-                task.isProperty(CalendarProperty.OVER),
+                task.isProperty(CalendarProperty.OVER, now),
                 task.isProperty(CalendarProperty.ACTIVE),
                 task.getPeriod(),
                 task.getIntegerProperty(CalendarProperty.OCCURRENCE_LIMIT),
@@ -336,15 +522,17 @@ public class LogicImpl implements Logic {
     *       The event to be added to runResult
     * @param isHighlighted
     *       Whether the event will be highlighted in UI
+    * @param now
+    *       The time the command was given
     */
-    private void addEvent(ExecuteResult runResult, CalendarEntry event, boolean isHighlighted) {
+    private void addEvent(ExecuteResult runResult, CalendarEntry event, boolean isHighlighted, LocalDateTime now) {
         LocalDateTime limitDate = event.getDateTime(CalendarProperty.DATE_LIMIT);
         runResult.addEventLine(
                 event.getId(),
                 event.getName(),
                 event.getDateTime(CalendarProperty.START),
                 event.getDateTime(CalendarProperty.END),
-                event.isProperty(CalendarProperty.OVER),
+                event.isProperty(CalendarProperty.OVER, now),
                 event.isProperty(CalendarProperty.ACTIVE),
                 event.getPeriod(),
                 event.getIntegerProperty(CalendarProperty.OCCURRENCE_LIMIT),
@@ -0,0 +1,95 @@
+package lifetracker.logic;
+
+import lifetracker.calendar.CalendarList;
+import lifetracker.storage.JournalFileStorage;
+import lifetracker.storage.Storage;
+import lifetracker.storage.ThreadedFileStorage;
+
+import java.io.File;
+import java.io.IOException;
+
+//@@author A0149467N
+
+/**
+ * Converts a save file between the Json and binary formats.
+ * <p>
+ * Usage: {@code SaveFileConverter <json|binary> <source file> <destination file>}
+ */
+public class SaveFileConverter {
+
+    private static final String JOURNAL_EXTENSION = ".journal";
+
+    private static final String USAGE = "Usage: SaveFileConverter <json|binary> <source file> <destination file>";
+    private static final String ERROR_SAME_FILE = "Source and destination must be different files!";
+    private static final String ERROR_CONVERT = "Error converting save file: %1$s";
+    private static final String COMMENT_CONVERTED = "Converted %1$s to %2$s in %3$s format.";
+
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println(USAGE);
+            return;
+        }
+
+        SaveFormat format;
+
+        try {
+            format = SaveFormat.valueOf(args[0].toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            System.err.println(USAGE);
+            return;
+        }
+
+        try {
+            convert(args[1], args[2], format);
+            System.out.println(String.format(COMMENT_CONVERTED, args[1], args[2], format));
+        } catch (Exception ex) {
+            System.err.println(String.format(ERROR_CONVERT, ex.getMessage()));
+        }
+    }
+
+    /**
+     * Load the calendar from the source file, in whichever format it was saved, and save it to the destination file
+     *   in the given format
+     * <p>
+     * If the source file has a journal, the journal is included in the converted calendar.
+     *
+     * @param source The save file to convert
+     * @param destination The file to save the converted calendar to
+     * @param format The format to convert to
+     * @throws Exception
+     *      If an error occurs while loading or saving
+     */
+    public static void convert(String source, String destination, SaveFormat format) throws Exception {
+        assert format != null;
+
+        if (new File(source).getAbsoluteFile().equals(new File(destination).getAbsoluteFile())) {
+            throw new IllegalArgumentException(ERROR_SAME_FILE);
+        }
+
+        CalendarList calendar;
+        Storage sourceStorage = openSource(source);
+
+        try {
+            calendar = new StorageAdapter(sourceStorage).load();
+        } finally {
+            sourceStorage.close();
+        }
+
+        // Closing the storage waits until the calendar is written
+        Storage destinationStorage = new ThreadedFileStorage(destination);
+
+        try {
+            new StorageAdapter(destinationStorage, format, false).store(calendar);
+        } finally {
+            destinationStorage.close();
+        }
+    }
+
+    private static Storage openSource(String source) throws IOException {
+        if (new File(source + JOURNAL_EXTENSION).exists()) {
+            return new JournalFileStorage(source);
+        } else {
+            return new ThreadedFileStorage(source);
+        }
+    }
+}
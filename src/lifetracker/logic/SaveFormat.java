@@ -0,0 +1,18 @@
+package lifetracker.logic;
+
+//@@author A0149467N
+
+/**
+ * The formats the calendar can be saved in. Either format can be loaded, regardless of the format being saved in.
+ */
+public enum SaveFormat {
+    /**
+     * Json text, which can be read and edited by hand.
+     */
+    JSON,
+
+    /**
+     * A compact binary format, which is smaller and faster to load.
+     */
+    BINARY
+}
@@ -1,58 +1,420 @@
 package lifetracker.logic;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import lifetracker.calendar.CalendarEntry;
+import lifetracker.calendar.CalendarEntryBinaryCodec;
 import lifetracker.calendar.CalendarEntryImplDeserializer;
 import lifetracker.calendar.CalendarList;
 import lifetracker.calendar.CalendarListImpl;
+import lifetracker.calendar.CalendarProperty;
+import lifetracker.calendar.CalendarView;
+import lifetracker.storage.JournalStorage;
 import lifetracker.storage.Storage;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 //@@author A0149467N
 
 public class StorageAdapter {
 
+    private static final Logger STORE_LOG = Logger.getGlobal();
+
+    private static final String LOG_JOURNAL_TRUNCATED = "Journal replay stopped at damaged record %1$d of %2$d.";
+    private static final String LOG_LOAD_SNAPSHOT = "Load: Snapshot read and decoded in %1$d ms.";
+    private static final String LOG_LOAD_JOURNAL = "Load: %1$d journal records replayed in %2$d ms.";
+
+    private static final String ERROR_INVALID_SNAPSHOT = "Invalid file format! Save file might have been corrupted!";
+
+    private static final String RECORD_PUT = "PUT";
+    private static final String RECORD_REMOVE = "REMOVE";
+
+    private static final String PRETTY_PRINT_INDENT = "  ";
+
+    private static final Gson SNAPSHOT_GSON = new Gson();
+    private static final JsonParser JSON_PARSER = new JsonParser();
+    private static final CalendarEntryImplDeserializer ENTRY_DESERIALIZER = new CalendarEntryImplDeserializer();
+    private static final CalendarEntryBinaryCodec BINARY_CODEC = new CalendarEntryBinaryCodec();
+
+    // The lists of entries in a Json snapshot, each keyed by ID
+    private static final String TASK_LIST_NAME = "taskList";
+    private static final String EVENT_LIST_NAME = "eventList";
+    private static final String ARCHIVED_TASK_LIST_NAME = "archivedTaskList";
+    private static final String ARCHIVED_EVENT_LIST_NAME = "archivedEventList";
+    private static final String NEXT_ID_NAME = "nextId";
+    private static final Set<String> ENTRY_LIST_NAMES = new HashSet<>(
+            Arrays.asList(TASK_LIST_NAME, EVENT_LIST_NAME, ARCHIVED_TASK_LIST_NAME, ARCHIVED_EVENT_LIST_NAME));
+
     private Storage calendarStorage;
+    private SaveFormat saveFormat;
+    private boolean isPrettyPrinted;
 
     public StorageAdapter(Storage storage) {
+        this(storage, false);
+    }
+
+    /**
+     * @param storage The storage to store to and load from
+     * @param isPrettyPrinted Whether snapshots are stored with line breaks and indentation, instead of compactly
+     */
+    public StorageAdapter(Storage storage, boolean isPrettyPrinted) {
+        this(storage, SaveFormat.JSON, isPrettyPrinted);
+    }
+
+    /**
+     * @param storage The storage to store to and load from
+     * @param saveFormat The format snapshots are stored in
+     * @param isPrettyPrinted Whether Json snapshots are stored with line breaks and indentation, instead of compactly
+     */
+    public StorageAdapter(Storage storage, SaveFormat saveFormat, boolean isPrettyPrinted) {
+        assert saveFormat != null;
+
         this.calendarStorage = storage;
+        this.saveFormat = saveFormat;
+        this.isPrettyPrinted = isPrettyPrinted;
     }
 
     /**
-     * Convert the calendar to Json and let the storage store it
+     * Convert the calendar to the save format and let the storage store it
+     * <p>
+     * A full snapshot is streamed straight to the storage on the storage thread, from a snapshot of the calendar taken
+     * here, so the calendar can keep changing while it is written. The snapshot shares the entries of the calendar
+     * instead of copying them.
+     * <p>
+     * If the storage keeps a journal, only the entries changed since the last store are written to the journal,
+     * unless the storage asks for a full snapshot.
      *
      * @param calendar Calendar to be stored
-     * 
+     *
      * @throws IOException
      *      If an I/O error occurs during store
      */
     public void store(CalendarList calendar) throws IOException {
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        String s = gson.toJson(calendar);
-        calendarStorage.store(s);
+        Set<Integer> changedIds = calendar.takeChangedIds();
+
+        if (calendarStorage instanceof JournalStorage && !((JournalStorage) calendarStorage).isSnapshotDue()) {
+            storeChanges((JournalStorage) calendarStorage, calendar, changedIds);
+        } else {
+            int nextId = calendar.getNextId();
+            CalendarView snapshot = calendar.snapshot();
+
+            if (saveFormat == SaveFormat.BINARY) {
+                calendarStorage.storeWith(outputStream -> BINARY_CODEC.write(snapshot, nextId, outputStream));
+            } else {
+                calendarStorage.storeWith(outputStream -> writeSnapshot(snapshot, nextId, outputStream));
+            }
+        }
     }
 
     /**
-     * Load the Json string for calendar from storage and convert it to CalendarList
+     * Write the calendar as Json to the output stream, without building the whole Json string in memory
+     *
+     * @param calendar The calendar to write, which must not be changed while writing
+     * @param nextId The ID the calendar gives to the next new entry
+     * @param outputStream The stream to write to
+     * @throws IOException
+     *      If an I/O error occurs during write
+     */
+    private void writeSnapshot(CalendarView calendar, int nextId, OutputStream outputStream) throws IOException {
+        JsonWriter jsonWriter = new JsonWriter(
+                new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+
+        if (isPrettyPrinted) {
+            jsonWriter.setIndent(PRETTY_PRINT_INDENT);
+        }
+
+        TreeMap<Integer, CalendarEntry> archivedTasks = new TreeMap<>();
+        TreeMap<Integer, CalendarEntry> archivedEvents = new TreeMap<>();
+
+        calendar.forEachArchived(entry -> {
+            if (entry.getDateTime(CalendarProperty.START) == null) {
+                archivedTasks.put(entry.getId(), entry);
+            } else {
+                archivedEvents.put(entry.getId(), entry);
+            }
+        });
+
+        try {
+            jsonWriter.beginObject();
+            writeEntries(jsonWriter, TASK_LIST_NAME, calendar.getTaskList());
+            writeEntries(jsonWriter, EVENT_LIST_NAME, calendar.getEventList());
+            writeEntries(jsonWriter, ARCHIVED_TASK_LIST_NAME, archivedTasks.values());
+            writeEntries(jsonWriter, ARCHIVED_EVENT_LIST_NAME, archivedEvents.values());
+            jsonWriter.name(NEXT_ID_NAME).value(nextId);
+            jsonWriter.endObject();
+        } catch (JsonIOException ex) {
+            throw new IOException(ex);
+        }
+
+        jsonWriter.flush();
+    }
+
+    /**
+     * Write the entries as a Json object keyed by ID, in order of ID
+     */
+    private void writeEntries(JsonWriter jsonWriter, String listName, Collection<CalendarEntry> entries)
+            throws IOException {
+        TreeMap<Integer, CalendarEntry> entriesById = new TreeMap<>();
+
+        for (CalendarEntry entry : entries) {
+            entriesById.put(entry.getId(), entry);
+        }
+
+        jsonWriter.name(listName);
+        jsonWriter.beginObject();
+
+        for (CalendarEntry entry : entriesById.values()) {
+            jsonWriter.name(String.valueOf(entry.getId()));
+            SNAPSHOT_GSON.toJson(entry, entry.getClass(), jsonWriter);
+        }
+
+        jsonWriter.endObject();
+    }
+
+    /**
+     * Load the calendar from storage and convert it to CalendarList
+     * <p>
+     * The format of the save file is detected from its header, so a calendar saved in either format can be loaded.
+     * Archived entries are only moved off the heap once the snapshot is read, and again once the journal is replayed,
+     * rather than every time enough of them have been read.
+     * The Json is read from the storage as a stream, and only one entry is held as a Json tree at any time. If the
+     * storage keeps a journal, the records in the journal are replayed on top of the loaded calendar. The time taken
+     * by each phase is logged.
      *
      * @return The calendar stored in the storage
-     * 
+     *
      * @throws IOException
      *      If an I/O error occurs during load()
      */
     public CalendarList load() throws IOException {
-        String l = calendarStorage.load();
+        long startTime = System.nanoTime();
+
+        CalendarList calendar = calendarStorage.loadWith(this::readAnyFormat);
+
+        long snapshotTime = System.nanoTime();
+        int recordCount = 0;
+
+        if (calendarStorage instanceof JournalStorage) {
+            List<String> records = ((JournalStorage) calendarStorage).loadJournal();
+            recordCount = records.size();
+
+            calendar.beginBulkLoad();
+            replayJournal(records, calendar);
+            calendar.endBulkLoad();
+        }
+
+        calendar.takeChangedIds();
+
+        long endTime = System.nanoTime();
+
+        STORE_LOG.log(Level.INFO, String.format(LOG_LOAD_SNAPSHOT, toMillis(snapshotTime - startTime)));
+        STORE_LOG.log(Level.INFO, String.format(LOG_LOAD_JOURNAL, recordCount, toMillis(endTime - snapshotTime)));
+
+        return calendar;
+    }
+
+    /**
+     * Read the calendar from the input stream, in the format given by its header
+     *
+     * @param inputStream The stream to read from
+     * @return The calendar read, or an empty calendar if the stream is empty
+     * @throws IOException
+     *      If an I/O error occurs during read, or the data is invalid
+     */
+    private CalendarList readAnyFormat(InputStream inputStream) throws IOException {
+        int headerLength = CalendarEntryBinaryCodec.getHeaderLength();
+        InputStream bufferedStream = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream);
+
+        byte[] header = new byte[headerLength];
+        int bytesRead = 0;
 
-        if (l.isEmpty()) {
-            return new CalendarListImpl();
+        bufferedStream.mark(headerLength);
+
+        while (bytesRead < headerLength) {
+            int count = bufferedStream.read(header, bytesRead, headerLength - bytesRead);
+
+            if (count < 0) {
+                break;
+            }
+
+            bytesRead += count;
+        }
+
+        bufferedStream.reset();
+
+        if (CalendarEntryBinaryCodec.isBinary(header, bytesRead)) {
+            return BINARY_CODEC.read(bufferedStream);
         } else {
-            Gson gson = new GsonBuilder()
-                    .registerTypeHierarchyAdapter(CalendarEntry.class, new CalendarEntryImplDeserializer())
-                    .setPrettyPrinting().create();
-            CalendarList calendar = gson.fromJson(l, CalendarListImpl.class);
+            return readSnapshot(bufferedStream);
+        }
+    }
+
+    /**
+     * Read the calendar from the Json in the input stream, one entry at a time
+     *
+     * @param inputStream The stream to read from
+     * @return The calendar read, or an empty calendar if the stream is empty
+     * @throws IOException
+     *      If an I/O error occurs during read, or the Json is invalid
+     */
+    private CalendarList readSnapshot(InputStream inputStream) throws IOException {
+        JsonReader jsonReader = new JsonReader(
+                new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+        CalendarList calendar = new CalendarListImpl();
+
+        try {
+            jsonReader.peek();
+        } catch (EOFException ex) {
+            // Nothing has been saved yet
             return calendar;
         }
+
+        calendar.beginBulkLoad();
+
+        try {
+            jsonReader.beginObject();
+
+            while (jsonReader.hasNext()) {
+                String name = jsonReader.nextName();
+
+                if (ENTRY_LIST_NAMES.contains(name) && jsonReader.peek() == JsonToken.BEGIN_OBJECT) {
+                    readEntries(jsonReader, calendar);
+                } else if (NEXT_ID_NAME.equals(name) && jsonReader.peek() == JsonToken.NUMBER) {
+                    // Older save files have no next ID, which is then worked out from the entries
+                    calendar.advanceNextId(jsonReader.nextInt());
+                } else {
+                    jsonReader.skipValue();
+                }
+            }
+
+            jsonReader.endObject();
+        } catch (IllegalStateException | JsonParseException ex) {
+            throw new IOException(ERROR_INVALID_SNAPSHOT, ex);
+        }
+
+        calendar.endBulkLoad();
+        return calendar;
+    }
+
+    private void readEntries(JsonReader jsonReader, CalendarList calendar) throws IOException {
+        jsonReader.beginObject();
+
+        while (jsonReader.hasNext()) {
+            jsonReader.nextName();
+            calendar.add(ENTRY_DESERIALIZER.deserialize(JSON_PARSER.parse(jsonReader)));
+        }
+
+        jsonReader.endObject();
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Append a record to the journal for each changed entry.
+     * <p>
+     * Adding, editing and marking entries are all recorded as the latest state of each entry involved, while deleted
+     * entries are recorded by their ID.
+     *
+     * @param journal The journal to append to
+     * @param calendar The calendar containing the changes
+     * @param changedIds The IDs of the changed entries
+     * @throws IOException
+     *      If an I/O error occurs during append
+     */
+    private void storeChanges(JournalStorage journal, CalendarList calendar, Set<Integer> changedIds)
+            throws IOException {
+        for (int id : changedIds) {
+            JournalRecord record;
+
+            try {
+                CalendarEntry entry = calendar.get(id);
+                record = new JournalRecord(RECORD_PUT, id, SNAPSHOT_GSON.toJsonTree(entry));
+            } catch (IllegalArgumentException ex) {
+                record = new JournalRecord(RECORD_REMOVE, id, null);
+            }
+
+            journal.append(SNAPSHOT_GSON.toJson(record));
+        }
+    }
+
+    /**
+     * Apply the records from the journal to the calendar in order.
+     * <p>
+     * Records are safe to apply more than once, so a journal that was already included in the snapshot does no harm.
+     * A damaged record can only be the last one written before a crash, so replay stops there.
+     *
+     * @param records The records from the journal
+     * @param calendar The calendar to apply the records to
+     */
+    private void replayJournal(List<String> records, CalendarList calendar) {
+        for (int i = 0; i < records.size(); i++) {
+            JournalRecord record;
+            CalendarEntry entry = null;
+
+            try {
+                record = SNAPSHOT_GSON.fromJson(records.get(i), JournalRecord.class);
+
+                if (RECORD_PUT.equals(record.op)) {
+                    entry = ENTRY_DESERIALIZER.deserialize(record.entry);
+                }
+            } catch (JsonParseException ex) {
+                STORE_LOG.log(Level.WARNING, String.format(LOG_JOURNAL_TRUNCATED, i + 1, records.size()));
+                return;
+            }
+
+            if (entry != null) {
+                calendar.update(entry);
+            } else {
+                removeIfPresent(calendar, record.id);
+                // The ID of a deleted entry is not given out again
+                calendar.advanceNextId(record.id + 1);
+            }
+        }
+    }
+
+    private void removeIfPresent(CalendarList calendar, int id) {
+        try {
+            calendar.delete(id);
+        } catch (IllegalArgumentException ex) {
+            // Already deleted in the snapshot
+        }
+    }
+
+    private static class JournalRecord {
+        private String op;
+        private int id;
+        private JsonElement entry;
+
+        JournalRecord(String op, int id, JsonElement entry) {
+            this.op = op;
+            this.id = id;
+            this.entry = entry;
+        }
     }
 }
@@ -13,11 +13,16 @@ import lifetracker.parser.syntax.EditParameterParser;
 import lifetracker.parser.syntax.Parameters;
 import org.apache.commons.lang3.StringUtils;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 //@@author A0091173J
 
@@ -35,6 +40,8 @@ public class ParserImpl implements Parser {
 
     private static final String ERROR_INVALID_EDIT = "Invalid syntax for edit command!";
 
+    private static final String ERROR_INVALID_RANGE = "Invalid syntax for %1$s command!";
+
     private static final DateTimeParser DATE_TIME_PARSER = DateTimeParser.getInstance();
 
     private static final DurationParser DURATION_PARSER = DurationParser.getInstance();
@@ -65,6 +72,19 @@ public class ParserImpl implements Parser {
         EDIT_OPTIONS_VERIFICATIONS.put(CommandOptions.FOREVER, StringUtils::isBlank);
     }
 
+    private static final Map<CommandOptions, Predicate<String>> RANGE_OPTIONS_VERIFICATIONS = new HashMap<>();
+
+    static {
+        RANGE_OPTIONS_VERIFICATIONS.put(CommandOptions.FROM, DATE_TIME_PARSER::isDateTime);
+        RANGE_OPTIONS_VERIFICATIONS.put(CommandOptions.TO, DATE_TIME_PARSER::isDateTime);
+    }
+
+    private static final Map<CommandOptions, Predicate<String>> MARK_OPTIONS_VERIFICATIONS = new HashMap<>();
+
+    static {
+        MARK_OPTIONS_VERIFICATIONS.put(CommandOptions.UPTO, DATE_TIME_PARSER::isDateTime);
+    }
+
     private static final Map<String, CommandOptions> KEYWORD_TO_ENUM_MAP = new HashMap<>();
 
     static {
@@ -78,12 +98,19 @@ public class ParserImpl implements Parser {
         KEYWORD_TO_ENUM_MAP.put("stop", CommandOptions.STOP);
         KEYWORD_TO_ENUM_MAP.put("nodue", CommandOptions.NODUE);
         KEYWORD_TO_ENUM_MAP.put("forever", CommandOptions.FOREVER);
+        KEYWORD_TO_ENUM_MAP.put("upto", CommandOptions.UPTO);
     }
 
     private static final String defaultCommand = "add";
 
     private static final String FULL_COMMAND_SEPARATOR = " > ";
 
+    private static final String EXPORT_OLD = "old";
+
+    private static final String EXPORT_ALL = "all";
+
+    private static final Pattern ENTRY_FILE_PATTERN = Pattern.compile(".+\\.(csv|ics)", Pattern.CASE_INSENSITIVE);
+
     private final Map<String, Function<List<String>, CommandObject>> commands = new HashMap<>();
 
     private final FullCommandParser cmdParser;
@@ -131,6 +158,12 @@ public class ParserImpl implements Parser {
         commands.put("today", this::processToday);
         commands.put("todayall", this::processTodayAll);
         commands.put("todayold", this::processTodayOld);
+        commands.put("week", this::processWeek);
+        commands.put("range", this::processRange);
+        commands.put("agenda", this::processAgenda);
+        commands.put("free", this::processFree);
+        commands.put("import", this::processImport);
+        commands.put("export", this::processExport);
         commands.put("mark", this::processMark);
     }
 
@@ -286,12 +319,185 @@ public class ParserImpl implements Parser {
         }
     }
 
+    private CommandObject processWeek(List<String> commandBody) {
+        if (!restoreCommandSections(commandBody).trim().isEmpty()) {
+            throw new IllegalArgumentException(String.format(ERROR_INVALID_RANGE, "week"));
+        }
+
+        return commandObjectFactory.findInRange();
+    }
+
+    private CommandObject processRange(List<String> commandBody) {
+        String rangeCommandBody = restoreCommandSections(commandBody).trim();
+
+        if (rangeCommandBody.isEmpty()) {
+            throw new IllegalArgumentException(String.format(ERROR_INVALID_RANGE, "range"));
+        }
+
+        List<LocalDate> dates = parseDateRange(rangeCommandBody, "range");
+
+        return commandObjectFactory.findInRange(dates.get(0), dates.get(1));
+    }
+
+    private CommandObject processAgenda(List<String> commandBody) {
+        String agendaCommandBody = restoreCommandSections(commandBody).trim();
+
+        if (agendaCommandBody.isEmpty()) {
+            return commandObjectFactory.agenda();
+        }
+
+        List<LocalDate> dates = parseDateRange(agendaCommandBody, "agenda");
+
+        return commandObjectFactory.agenda(dates.get(0), dates.get(1));
+    }
+
+    /**
+     * Parses the split sections of a command identified as "free", and produces a command that finds free times at
+     * least as long as the length given.
+     * <p>
+     * The range to search follows "from" and "to". It starts now if "from" is left out, and lasts a week if "to" is
+     * left out. If no length is given, the whole command is added as an entry instead, such as "free lunch".
+     *
+     * @param commandBody The sections of the command
+     * @return The corresponding {@code CommandObject}
+     */
+    private CommandObject processFree(List<String> commandBody) {
+        String freeCommandBody = restoreCommandSections(commandBody).trim();
+
+        CommandSectionParser<CommandOptions> bodyParser = new CommandSectionParser<>(KEYWORD_TO_ENUM_MAP,
+                RANGE_OPTIONS_VERIFICATIONS, CommandOptions.NAME);
+
+        Map<CommandOptions, String> commandBodySectionsMap = bodyParser.parseCommandSection(freeCommandBody);
+
+        String lengthString = commandBodySectionsMap.get(CommandOptions.NAME);
+
+        if (!DURATION_PARSER.isLength(lengthString)) {
+            return processAdd(prependToName("free", commandBody));
+        }
+
+        String startString = commandBodySectionsMap.get(CommandOptions.FROM);
+        String endString = commandBodySectionsMap.get(CommandOptions.TO);
+
+        // The defaults are left to the command, which reads the time when it is executed
+        LocalDateTime startDateTime = startString == null ? null : DATE_TIME_PARSER.parseSingleDateTime(startString);
+        LocalDateTime endDateTime = endString == null ? null : DATE_TIME_PARSER.parseSingleDateTime(endString);
+
+        return commandObjectFactory.findFree(DURATION_PARSER.parseLength(lengthString), startDateTime, endDateTime);
+    }
+
+    /**
+     * Parses the split sections of a command identified as "import", and produces a command that imports the entries
+     * in the file named.
+     * <p>
+     * If the command does not name a .csv or .ics file, the whole command is added as an entry instead, such as
+     * "import groceries".
+     *
+     * @param commandBody The sections of the command
+     * @return The corresponding {@code CommandObject}
+     */
+    private CommandObject processImport(List<String> commandBody) {
+        String fileName = restoreCommandSections(commandBody).trim();
+
+        if (!ENTRY_FILE_PATTERN.matcher(fileName).matches()) {
+            return processAdd(prependToName("import", commandBody));
+        }
+
+        return commandObjectFactory.importEntries(fileName);
+    }
+
+    /**
+     * Parses the split sections of a command identified as "export", and produces a command that exports the entries
+     * to the file named.
+     * <p>
+     * The active entries are exported, unless the file name is followed by "old" for the archived entries, or "all"
+     * for both. If the command does not name a .csv or .ics file, the whole command is added as an entry instead, such
+     * as "export goods".
+     *
+     * @param commandBody The sections of the command
+     * @return The corresponding {@code CommandObject}
+     */
+    private CommandObject processExport(List<String> commandBody) {
+        String exportCommandBody = restoreCommandSections(commandBody).trim();
+        String[] words = exportCommandBody.split("\\s+");
+        String scope = words[words.length - 1].toLowerCase();
+        String fileName = exportCommandBody;
+
+        if (words.length > 1 && (scope.equals(EXPORT_OLD) || scope.equals(EXPORT_ALL))) {
+            fileName = exportCommandBody.substring(0, exportCommandBody.length() - scope.length()).trim();
+        }
+
+        if (!ENTRY_FILE_PATTERN.matcher(fileName).matches()) {
+            return processAdd(prependToName("export", commandBody));
+        }
+
+        if (fileName.equals(exportCommandBody)) {
+            return commandObjectFactory.export(fileName);
+        } else if (scope.equals(EXPORT_OLD)) {
+            return commandObjectFactory.exportOld(fileName);
+        }
+        return commandObjectFactory.exportAll(fileName);
+    }
+
+    /**
+     * Parses a range of dates, such as the body of a "range" command.
+     * <p>
+     * The first date may follow "from", or come right at the start. The last date follows "to", and defaults to the
+     * first date if it is left out.
+     *
+     * @param rangeCommandBody The range to parse
+     * @param command          The command the range is for, to report errors with
+     * @return A list with 2 {@code LocalDate}s, which are the first and last dates respectively.
+     */
+    private List<LocalDate> parseDateRange(String rangeCommandBody, String command) {
+        CommandSectionParser<CommandOptions> bodyParser = new CommandSectionParser<>(KEYWORD_TO_ENUM_MAP,
+                RANGE_OPTIONS_VERIFICATIONS, CommandOptions.NAME);
+
+        Map<CommandOptions, String> commandBodySectionsMap = bodyParser.parseCommandSection(rangeCommandBody);
+
+        String nameString = commandBodySectionsMap.get(CommandOptions.NAME);
+        String startString = commandBodySectionsMap.getOrDefault(CommandOptions.FROM, nameString);
+        String endString = commandBodySectionsMap.getOrDefault(CommandOptions.TO, startString);
+
+        boolean isNameLeftOver = commandBodySectionsMap.containsKey(CommandOptions.FROM) && !nameString.isEmpty();
+
+        if (isNameLeftOver || !DATE_TIME_PARSER.isDateTime(startString)) {
+            throw new IllegalArgumentException(String.format(ERROR_INVALID_RANGE, command));
+        }
+
+        LocalDate startDate = DATE_TIME_PARSER.parseSingleDateTime(startString).toLocalDate();
+        LocalDate endDate = DATE_TIME_PARSER.parseSingleDateTime(endString).toLocalDate();
+
+        return Arrays.asList(startDate, endDate);
+    }
+
+    /**
+     * Parses the split sections of a command identified as "mark", and produces a command that marks the entry with the
+     * ID given.
+     * <p>
+     * A date following "upto" marks every occurrence of a recurring entry up to that date at once.
+     *
+     * @param commandBody The sections of the command
+     * @return The corresponding {@code CommandObject}
+     */
     private CommandObject processMark(List<String> commandBody) {
-        String idString = restoreCommandSections(commandBody);
+        String markCommandBody = restoreCommandSections(commandBody);
+
+        CommandSectionParser<CommandOptions> bodyParser = new CommandSectionParser<>(KEYWORD_TO_ENUM_MAP,
+                MARK_OPTIONS_VERIFICATIONS, CommandOptions.NAME);
+
+        Map<CommandOptions, String> commandBodySectionsMap = bodyParser.parseCommandSection(markCommandBody);
+
+        String idString = commandBodySectionsMap.get(CommandOptions.NAME);
+        String dateString = commandBodySectionsMap.get(CommandOptions.UPTO);
 
         try {
             int id = Integer.parseInt(idString);
-            return commandObjectFactory.mark(id);
+
+            if (dateString == null) {
+                return commandObjectFactory.mark(id);
+            }
+
+            return commandObjectFactory.markUpTo(id, DATE_TIME_PARSER.parseSingleDateTime(dateString).toLocalDate());
         } catch (NumberFormatException ex) {
             throw new IllegalArgumentException(String.format(ERROR_INVALID_ID, idString));
         }
@@ -434,6 +640,24 @@ public class ParserImpl implements Parser {
         return id;
     }
 
+    /**
+     * Puts the command word back in front of the rest of a command, for adding a command that is not one as an entry.
+     *
+     * @param command     The command word
+     * @param commandBody The sections of the command
+     * @return The sections of an add command with the command word as the start of the name
+     */
+    private List<String> prependToName(String command, List<String> commandBody) {
+        List<String> addCommandBody = new ArrayList<>(commandBody);
+
+        if (addCommandBody.isEmpty()) {
+            addCommandBody.add(command);
+        } else {
+            addCommandBody.set(0, command + " " + addCommandBody.get(0));
+        }
+        return addCommandBody;
+    }
+
     private String restoreCommandSections(List<String> stringList) {
 
         if (stringList.isEmpty()) {
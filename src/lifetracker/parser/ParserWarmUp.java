@@ -0,0 +1,114 @@
+package lifetracker.parser;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+//@@author A0091173J
+
+/**
+ * Parses a few representative commands when the program starts, so that the first command entered is not slowed down
+ * by everything that is loaded the first time a command is parsed.
+ * <p>
+ * The first date parsed by natty takes about a second, as natty builds its grammar, and the first command of each kind
+ * also loads the classes of the parsers and commands it goes through. The commands given cover dates read by natty
+ * and by the simple date parser, durations, and each kind of command created by the {@code CommandFactory}. They are
+ * only parsed, never executed, so they do not change the calendar. The time taken to parse each command is logged,
+ * along with the time taken to parse the first command again once everything is loaded.
+ */
+public class ParserWarmUp implements Runnable {
+
+    static final List<String> COMMANDS = Arrays.asList(
+            "add warm up by next monday 4am every week",
+            "add warm up from tomorrow 5pm to 6pm every 2 days for 3",
+            "add warm up by 23/3/16 11:30am every month until day after tomorrow",
+            "edit 1 > warm up from 2/3 21:33 to 23:00",
+            "editone 1 > warm up by today",
+            "delete 1",
+            "find warm up",
+            "range from today to next week",
+            "free 30 minutes from today to tomorrow",
+            "mark 1 upto next friday");
+
+    private static final Logger LOGGER = Logger.getGlobal();
+
+    private static final String THREAD_NAME = "Warm-up Thread";
+
+    private static final String LOG_STARTUP = "Warm-up Thread: Starting";
+    private static final String LOG_COMMAND_PARSED = "Warm-up Thread: \"%1$s\" parsed in %2$d us.";
+    private static final String LOG_COMMAND_FAILED = "Warm-up Thread: \"%1$s\" could not be parsed: %2$s";
+    private static final String LOG_FINISHED = "Warm-up Thread: %1$d commands parsed in %2$d ms. "
+            + "The first command took %3$d us, and %4$d us once warmed up.";
+
+    private final Parser parser;
+
+    private int parsedCount = 0;
+
+    /**
+     * Creates a new {@code ParserWarmUp} that parses the commands with the parser given.
+     *
+     * @param parser A parser whose commands are not executed
+     */
+    public ParserWarmUp(Parser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Starts parsing the commands on a background thread, which does not keep the program running.
+     *
+     * @param parser A parser whose commands are not executed
+     * @return The thread parsing the commands
+     */
+    public static Thread start(Parser parser) {
+        Thread warmUpThread = new Thread(new ParserWarmUp(parser), THREAD_NAME);
+        warmUpThread.setDaemon(true);
+        warmUpThread.start();
+        return warmUpThread;
+    }
+
+    @Override
+    public void run() {
+        LOGGER.log(Level.INFO, LOG_STARTUP);
+        long startTime = System.nanoTime();
+
+        long firstCommandTime = parse(COMMANDS.get(0));
+        for (String command : COMMANDS.subList(1, COMMANDS.size())) {
+            parse(command);
+        }
+
+        long totalTime = System.nanoTime() - startTime;
+        long warmCommandTime = parse(COMMANDS.get(0));
+
+        LOGGER.log(Level.INFO, String.format(LOG_FINISHED, parsedCount, TimeUnit.NANOSECONDS.toMillis(totalTime),
+                TimeUnit.NANOSECONDS.toMicros(firstCommandTime), TimeUnit.NANOSECONDS.toMicros(warmCommandTime)));
+    }
+
+    /**
+     * Returns the number of commands parsed without error, including the first command parsed again.
+     */
+    int getParsedCount() {
+        return parsedCount;
+    }
+
+    /**
+     * Parses the command, logging the time taken or the error.
+     *
+     * @return The time taken, in nanoseconds
+     */
+    private long parse(String command) {
+        long startTime = System.nanoTime();
+
+        try {
+            parser.parse(command);
+            parsedCount++;
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.WARNING, String.format(LOG_COMMAND_FAILED, command, ex.getMessage()));
+        }
+
+        long time = System.nanoTime() - startTime;
+        LOGGER.log(Level.FINE, String.format(LOG_COMMAND_PARSED, command, TimeUnit.NANOSECONDS.toMicros(time)));
+        return time;
+    }
+}
@@ -1,19 +1,24 @@
 package lifetracker.parser.datetime;
 
 import com.joestelmach.natty.DateGroup;
+import lifetracker.util.LruCache;
 import org.apache.commons.lang3.StringUtils;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.TimeZone;
 
 //@@author A0091173J
 
@@ -23,6 +28,15 @@ import java.util.Set;
  * This class uses natty to parse date and time strings. After parsing, the
  * datetimes are adjusted accordingly based on the method's defaults.
  * <p>
+ * Parsing with natty is slow, so the results are remembered, and a string is parsed by natty only once on a day
+ * however many times it is used, such as when it is checked by {@link #isDateTime(String)} and then parsed. The date
+ * natty gives a string like "tomorrow" depends on the day it is parsed, so results are forgotten at the end of the
+ * day. Where the string does not give a time, natty takes the time it is parsed, so that time is moved forward to the
+ * time the result is used.
+ * <p>
+ * The most common forms, such as "5pm", "tomorrow 9am" or "23/4", are read by a {@link SimpleDateTimeParser} instead,
+ * which gives the same results as natty far more quickly, so only other strings are parsed by natty.
+ * <p>
  * Refer to the method descriptions themselves.
  *
  * @see #parseSingleDateTime(String)
@@ -35,18 +49,91 @@ public class DateTimeParser {
     private static final String NATTY_DATE_FIELD = "date";
     private static final String NATTY_MERIDIAN_INDICATOR = "meridian_indicator";
 
+    private static final String ERROR_INVALID_DATE_TIME = "\"%1$s\" is not a valid date/time!";
+
+    private static final int CACHE_SIZE = 256;
+
+    private static final List<Set<String>> SIMPLE_PARSE_ELEMENTS = new ArrayList<>();
+
+    static {
+        // Indexed by whether the time, the date and am/pm are specified, as the bits of the index
+        for (int i = 0; i < 8; i++) {
+            Set<String> parseElements = new HashSet<>();
+            if ((i & 1) != 0) {
+                parseElements.add(NATTY_TIME_FIELD);
+            }
+            if ((i & 2) != 0) {
+                parseElements.add(NATTY_DATE_FIELD);
+            }
+            if ((i & 4) != 0) {
+                parseElements.add(NATTY_MERIDIAN_INDICATOR);
+            }
+            SIMPLE_PARSE_ELEMENTS.add(Collections.unmodifiableSet(parseElements));
+        }
+    }
+
     //Natty parses "1" as 1am, but "12" as 12pm so there's no need to adjust
     private static final LocalTime UNGODLY_HOUR_START = LocalTime.of(0, 59, 59);
     private static final LocalTime UNGODLY_HOUR_END = LocalTime.of(7, 0);
 
-    private static DateTimeParser instance = new DateTimeParser();
-    private final com.joestelmach.natty.Parser nattyParser = new com.joestelmach.natty.Parser();
+    private static DateTimeParser instance = new DateTimeParser(Clock.systemDefaultZone());
+
+    private final Clock clock;
+    private final com.joestelmach.natty.Parser nattyParser;
+    private final SimpleDateTimeParser simpleParser;
+
+    private final LruCache<String, NattyResult> nattyResults = new LruCache<>(CACHE_SIZE);
+
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long simpleCount = 0;
 
     public static DateTimeParser getInstance() {
         return instance;
     }
 
-    private DateTimeParser() {
+    /**
+     * Creates a {@code DateTimeParser} that takes the current date and time from the clock given.
+     *
+     * @param clock The clock, whose time zone is used for all dates and times
+     */
+    DateTimeParser(Clock clock) {
+        this.clock = clock;
+        this.nattyParser = new com.joestelmach.natty.Parser(TimeZone.getTimeZone(clock.getZone()));
+        this.simpleParser = new SimpleDateTimeParser(clock.getZone());
+    }
+
+    /**
+     * The result of parsing a string, which stays the same for the rest of the day it was parsed on.
+     */
+    private static final class NattyResult {
+        private final LocalDateTime parsedAt;
+        private final LocalDateTime dateTime;
+        private final Set<String> parseElements;
+
+        private NattyResult(LocalDateTime parsedAt, LocalDateTime dateTime, Set<String> parseElements) {
+            this.parsedAt = parsedAt;
+            this.dateTime = dateTime;
+            this.parseElements = parseElements;
+        }
+
+        private boolean isValid() {
+            return dateTime != null;
+        }
+
+        private boolean isExpired(LocalDateTime now) {
+            return !now.toLocalDate().equals(parsedAt.toLocalDate());
+        }
+
+        /**
+         * Returns the date/time natty would give if the string were parsed now, on the same day as it was parsed.
+         */
+        private LocalDateTime getDateTime(LocalDateTime now) {
+            if (parseElements.contains(NATTY_TIME_FIELD)) {
+                return dateTime;
+            }
+            return dateTime.plus(Duration.between(parsedAt, now));
+        }
     }
 
     /**
@@ -60,7 +147,7 @@ public class DateTimeParser {
     public boolean isDateTime(String dateTimeString) {
         assert dateTimeString != null;
 
-        return dateTimeString.isEmpty() || nattyParser.parse(dateTimeString).size() == 1;
+        return dateTimeString.isEmpty() || getNattyResult(dateTimeString, LocalDateTime.now(clock)).isValid();
     }
 
     /**
@@ -82,11 +169,12 @@ public class DateTimeParser {
 
         dateTimeString = fillEmpty(dateTimeString);
 
-        DateGroup parsedDateGroup = parseWithNatty(dateTimeString);
+        LocalDateTime now = LocalDateTime.now(clock);
+        NattyResult parsedResult = parseWithNatty(dateTimeString, now);
 
-        LocalDateTime parsedDateTimeObj = convertDateGroupToLocalDateTime(parsedDateGroup);
+        LocalDateTime parsedDateTimeObj = parsedResult.getDateTime(now);
 
-        return adjustSingleDateToDefault(parsedDateTimeObj, parsedDateGroup.getParseLocations().keySet());
+        return adjustSingleDateToDefault(parsedDateTimeObj, parsedResult.parseElements);
     }
 
     /**
@@ -120,17 +208,18 @@ public class DateTimeParser {
         startString = fillEmpty(startString);
         endString = fillEmpty(endString);
 
-        DateGroup startDateGroup = parseWithNatty(startString);
-        DateGroup endDateGroup = parseWithNatty(endString);
+        LocalDateTime now = LocalDateTime.now(clock);
+        NattyResult startResult = parseWithNatty(startString, now);
+        NattyResult endResult = parseWithNatty(endString, now);
 
-        LocalDateTime startDateTime = convertDateGroupToLocalDateTime(startDateGroup);
-        LocalDateTime endDateTime = convertDateGroupToLocalDateTime(endDateGroup);
+        LocalDateTime startDateTime = startResult.getDateTime(now);
+        LocalDateTime endDateTime = endResult.getDateTime(now);
 
         Set<String> startParseElements = isStartEmpty ?
                 Collections.emptySet() :
-                startDateGroup.getParseLocations().keySet();
+                startResult.parseElements;
         // If end datetime was empty to begin with, we have to pretend nothing was parsed.
-        Set<String> endParseElements = isEndEmpty ? Collections.emptySet() : endDateGroup.getParseLocations().keySet();
+        Set<String> endParseElements = isEndEmpty ? Collections.emptySet() : endResult.parseElements;
 
         LocalDateTime[] adjustedDates = adjustDoubleDateToDefault(startDateTime, endDateTime, startParseElements,
                 endParseElements);
@@ -149,9 +238,21 @@ public class DateTimeParser {
      * @return The date/time produced as by natty
      */
     public LocalDateTime parseDateTimeAsIs(String dateTimeString) {
-        DateGroup parsedDateGroup = parseWithNatty(dateTimeString);
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        return parseWithNatty(dateTimeString, now).getDateTime(now);
+    }
 
-        return convertDateGroupToLocalDateTime(parsedDateGroup);
+    synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    synchronized long getMissCount() {
+        return missCount;
+    }
+
+    synchronized long getSimpleCount() {
+        return simpleCount;
     }
 
     private String fillEmpty(String dateTimeString) {
@@ -162,14 +263,61 @@ public class DateTimeParser {
         }
     }
 
-    private DateGroup parseWithNatty(String dateTimeString) {
-        return nattyParser.parse(dateTimeString).get(0);
+    private NattyResult parseWithNatty(String dateTimeString, LocalDateTime now) {
+        NattyResult result = getNattyResult(dateTimeString, now);
+
+        if (!result.isValid()) {
+            throw new IllegalArgumentException(String.format(ERROR_INVALID_DATE_TIME, dateTimeString));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the result of parsing the string, with the simple parser if it can, or else with natty, parsing it with
+     * natty only if it was not parsed earlier today.
+     * <p>
+     * Natty ignores case and extra spaces, so strings differing only in those share a result.
+     */
+    private synchronized NattyResult getNattyResult(String dateTimeString, LocalDateTime now) {
+        String key = StringUtils.normalizeSpace(dateTimeString).toLowerCase(Locale.ROOT);
+
+        if (simpleParser.parse(key, now)) {
+            simpleCount++;
+            return new NattyResult(now, simpleParser.getDateTime(), getSimpleParseElements());
+        }
+
+        NattyResult result = nattyResults.get(key);
+
+        if (result != null && !result.isExpired(now)) {
+            hitCount++;
+            return result;
+        }
+
+        missCount++;
+        result = parseNewWithNatty(key, now);
+        nattyResults.put(key, result);
+        return result;
+    }
+
+    private Set<String> getSimpleParseElements() {
+        int index = (simpleParser.isTimeSpecified() ? 1 : 0) | (simpleParser.isDateSpecified() ? 2 : 0)
+                | (simpleParser.isMeridianSpecified() ? 4 : 0);
+        return SIMPLE_PARSE_ELEMENTS.get(index);
     }
 
-    private LocalDateTime convertDateGroupToLocalDateTime(DateGroup dateGroup) {
+    private NattyResult parseNewWithNatty(String dateTimeString, LocalDateTime now) {
+        Instant nowInstant = now.atZone(clock.getZone()).toInstant();
+        List<DateGroup> dateGroups = nattyParser.parse(dateTimeString, Date.from(nowInstant));
+
+        if (dateGroups.size() != 1) {
+            return new NattyResult(now, null, Collections.emptySet());
+        }
+
+        DateGroup dateGroup = dateGroups.get(0);
         Date date = dateGroup.getDates().get(0);
+        LocalDateTime dateTime = LocalDateTime.ofInstant(date.toInstant(), clock.getZone());
 
-        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+        return new NattyResult(now, dateTime, new HashSet<>(dateGroup.getParseLocations().keySet()));
     }
 
     /**
@@ -183,10 +331,10 @@ public class DateTimeParser {
      */
     private LocalDateTime adjustSingleDateToDefault(LocalDateTime dateTime, Set<String> parseElements) {
 
-        dateTime = fillDefaultDateTime(dateTime, LocalDateTime.of(LocalDate.now(), LocalTime.MIDNIGHT.minusMinutes(1)),
-                parseElements);
+        dateTime = fillDefaultDateTime(dateTime,
+                LocalDateTime.of(LocalDate.now(clock), LocalTime.MIDNIGHT.minusMinutes(1)), parseElements);
 
-        dateTime = adjustDateAfterReferenceByDays(dateTime, LocalDateTime.now().withNano(0), parseElements);
+        dateTime = adjustDateAfterReferenceByDays(dateTime, LocalDateTime.now(clock).withNano(0), parseElements);
 
         dateTime = adjustAmPm(dateTime, parseElements);
 
@@ -211,7 +359,7 @@ public class DateTimeParser {
 
         LocalDateTime adjustedStart;
         LocalDateTime adjustedEnd;
-        LocalDateTime defaultDateTime = LocalDateTime.now().plusHours(1).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime defaultDateTime = LocalDateTime.now(clock).plusHours(1).withMinute(0).withSecond(0).withNano(0);
 
         //Fill in proper default dates
         adjustedStart = fillDefaultDateTime(startDateTime, defaultDateTime, startParseElements);
@@ -225,7 +373,7 @@ public class DateTimeParser {
         adjustedEnd = adjustTimeAfterReferenceOneHour(adjustedEnd, adjustedStart, endParseElements);
         adjustedEnd = adjustDateAfterReferenceByDays(adjustedEnd, adjustedStart, endParseElements);
 
-        if (adjustedEnd.isBefore(LocalDateTime.now())) {
+        if (adjustedEnd.isBefore(LocalDateTime.now(clock))) {
             // jointParse will detect if both dates can be adjusted
             Set<String> jointParse = new HashSet<>(startParseElements);
             jointParse.addAll(endParseElements);
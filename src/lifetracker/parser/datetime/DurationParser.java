@@ -1,6 +1,8 @@
 package lifetracker.parser.datetime;
 
+import java.time.Duration;
 import java.time.Period;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
@@ -11,6 +13,8 @@ import java.util.function.Function;
  * This Singleton class parses duration Strings into {@code Period} objects.
  * <p>
  * Examples of duration Strings are "1 week", "year", "3 days".
+ * <p>
+ * Lengths of time, such as "2 hours" or "30 minutes", can also be parsed into {@code Duration} objects.
  */
 public class DurationParser {
     private static DurationParser ourInstance = new DurationParser();
@@ -18,6 +22,7 @@ public class DurationParser {
     private final String DURATION_PATTERN = "(\\d+\\s+)?\\w+";
     private final String TERM_SEPARATOR_PATTERN = "\\s+";
     private Map<String, Function<Integer, Period>> parserMap = new HashMap<>();
+    private Map<String, Function<Integer, Duration>> lengthParserMap = new HashMap<>();
 
     /**
      * Gets the instance of this Singleton class.
@@ -33,6 +38,12 @@ public class DurationParser {
         parserMap.put("month", Period::ofMonths);
         parserMap.put("week", Period::ofWeeks);
         parserMap.put("day", Period::ofDays);
+
+        lengthParserMap.put("week", num -> ChronoUnit.WEEKS.getDuration().multipliedBy(num));
+        lengthParserMap.put("day", Duration::ofDays);
+        lengthParserMap.put("hour", Duration::ofHours);
+        lengthParserMap.put("minute", Duration::ofMinutes);
+        lengthParserMap.put("min", Duration::ofMinutes);
     }
 
     /**
@@ -58,6 +69,37 @@ public class DurationParser {
      * @see Period
      */
     public Period parse(String durationString) {
+        return parse(durationString, parserMap);
+    }
+
+    /**
+     * Detects if the String provided is a length of time.
+     *
+     * @param lengthString The String to check
+     * @return {@code true} if the String is a length of time
+     */
+    public boolean isLength(String lengthString) {
+        try {
+            parseLength(lengthString);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parses the String into a {@code Duration}. Unlike {@code parse}, lengths of time shorter than a day are allowed,
+     * while months and years, which have no fixed length, are not.
+     *
+     * @param lengthString The length string to parse
+     * @return The {@code Duration} object
+     * @see Duration
+     */
+    public Duration parseLength(String lengthString) {
+        return parse(lengthString, lengthParserMap);
+    }
+
+    private <T> T parse(String durationString, Map<String, Function<Integer, T>> expressionParsers) {
 
         if (!isValidFormat(durationString)) {
             throw new IllegalArgumentException(FORMAT_ERROR);
@@ -66,8 +108,8 @@ public class DurationParser {
         int num = getNum(durationString);
         String expression = getDurationExpression(durationString);
 
-        if (parserMap.containsKey(expression) && num > 0) {
-            return parserMap.get(expression).apply(num);
+        if (expressionParsers.containsKey(expression) && num > 0) {
+            return expressionParsers.get(expression).apply(num);
         } else {
             throw new IllegalArgumentException(FORMAT_ERROR);
         }
@@ -0,0 +1,344 @@
+package lifetracker.parser.datetime;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+
+//@@author A0091173J
+
+/**
+ * A parser for the simplest and most common date and time strings, which gives the same date/time as natty would,
+ * without going through natty's grammar.
+ * <p>
+ * A string is a date, a time, or a date and a time in either order, separated by a space. A date is one of:
+ * <ul>
+ * <li>{@code today}, {@code tomorrow}, {@code tmr} or {@code yesterday}
+ * <li>The name of a day of the week, such as {@code mon} or {@code thursday}, meaning the next such day after today
+ * <li>A day and month, such as {@code 23/4}, in the current year, or with a year, such as {@code 23/4/2016}
+ * <li>An ISO date, such as {@code 2016-04-23}
+ * </ul>
+ * A time is either a 12-hour time such as {@code 5pm}, {@code 5 pm} or {@code 2:30am}, or a 24-hour time such as
+ * {@code 21:33}. Anything else is left to natty, including years of two digits, and dates that do not exist such as
+ * {@code 31/2}, which natty moves into the next month.
+ * <p>
+ * The string is read one character at a time, without creating any objects other than the date/time parsed. The
+ * string must be in lower case, with single spaces between words. This class is not thread-safe.
+ */
+final class SimpleDateTimeParser {
+
+    private static final String[] RELATIVE_DAYS = {"yesterday", "today", "tomorrow", "tmr"};
+    private static final int[] RELATIVE_DAY_OFFSETS = {-1, 0, 1, 1};
+
+    private static final String[] DAYS_OF_WEEK = {"monday", "mon", "tuesday", "tues", "tue", "wednesday", "wed",
+            "thursday", "thurs", "thur", "thu", "friday", "fri", "saturday", "sat", "sunday", "sun"};
+    private static final int[] DAY_OF_WEEK_VALUES = {1, 1, 2, 2, 2, 3, 3, 4, 4, 4, 4, 5, 5, 6, 6, 7, 7};
+
+    private static final String AM = "am";
+    private static final String PM = "pm";
+
+    private static final int DAYS_IN_WEEK = 7;
+    private static final int HOURS_IN_HALF_DAY = 12;
+    private static final int NANOS_IN_MILLI = 1_000_000;
+
+    // Natty reads earlier dates in the Julian calendar
+    private static final int MIN_YEAR = 1600;
+
+    private final ZoneId zone;
+
+    private String text;
+    private LocalDateTime now;
+
+    private int year;
+    private int month;
+    private int day;
+    private int dayOffset;
+    private int hour;
+    private int minute;
+
+    private boolean isTimeSpecified;
+    private boolean isDateSpecified;
+    private boolean isMeridianSpecified;
+
+    private LocalDateTime dateTime;
+
+    /**
+     * Creates a {@code SimpleDateTimeParser} for date/times in the time zone given.
+     *
+     * @param zone The time zone, used to move times that are skipped when clocks go forward, as natty does
+     */
+    SimpleDateTimeParser(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * Parses the string, if it is in one of the forms this parser reads.
+     *
+     * @param dateTimeString The string, in lower case, with single spaces between words
+     * @param now            The current date/time, which natty would parse the string against
+     * @return True if the string was parsed, or false if it must be left to natty
+     */
+    boolean parse(String dateTimeString, LocalDateTime now) {
+        this.text = dateTimeString;
+        this.now = now;
+
+        isDateSpecified = false;
+        isTimeSpecified = false;
+        isMeridianSpecified = false;
+        dateTime = null;
+
+        int end = parseDate(0);
+
+        if (end != -1) {
+            isDateSpecified = true;
+
+            if (end < text.length()) {
+                isTimeSpecified = isSpace(end) && parseTime(end + 1) == text.length();
+                if (!isTimeSpecified) {
+                    return false;
+                }
+            }
+        } else {
+            resetDate();
+            end = parseTime(0);
+
+            if (end == -1) {
+                return false;
+            }
+            isTimeSpecified = true;
+
+            if (end < text.length()) {
+                isDateSpecified = isSpace(end) && parseDate(end + 1) == text.length();
+                if (!isDateSpecified) {
+                    return false;
+                }
+            }
+        }
+
+        dateTime = createDateTime();
+        return true;
+    }
+
+    LocalDateTime getDateTime() {
+        return dateTime;
+    }
+
+    boolean isTimeSpecified() {
+        return isTimeSpecified;
+    }
+
+    boolean isDateSpecified() {
+        return isDateSpecified;
+    }
+
+    boolean isMeridianSpecified() {
+        return isMeridianSpecified;
+    }
+
+    /**
+     * Reads a date starting at the position given.
+     *
+     * @return The position after the date, or -1 if there is no date there
+     */
+    private int parseDate(int start) {
+        resetDate();
+
+        for (int i = 0; i < RELATIVE_DAYS.length; i++) {
+            if (isWordAt(start, RELATIVE_DAYS[i])) {
+                dayOffset = RELATIVE_DAY_OFFSETS[i];
+                return start + RELATIVE_DAYS[i].length();
+            }
+        }
+
+        for (int i = 0; i < DAYS_OF_WEEK.length; i++) {
+            if (isWordAt(start, DAYS_OF_WEEK[i])) {
+                int daysAfterToday = (DAY_OF_WEEK_VALUES[i] - now.getDayOfWeek().getValue() + DAYS_IN_WEEK)
+                        % DAYS_IN_WEEK;
+                dayOffset = daysAfterToday == 0 ? DAYS_IN_WEEK : daysAfterToday;
+                return start + DAYS_OF_WEEK[i].length();
+            }
+        }
+
+        int end = parseIsoDate(start);
+        return end == -1 ? parseDayMonth(start) : end;
+    }
+
+    private void resetDate() {
+        year = now.getYear();
+        month = now.getMonthValue();
+        day = now.getDayOfMonth();
+        dayOffset = 0;
+    }
+
+    /**
+     * Reads a date such as 2016-04-23.
+     */
+    private int parseIsoDate(int start) {
+        if (!isDigits(start, 4) || !isCharAt(start + 4, '-') || !isDigits(start + 5, 2) || !isCharAt(start + 7, '-')
+                || !isDigits(start + 8, 2) || !isBoundary(start + 10)) {
+            return -1;
+        }
+
+        year = readNumber(start, 4);
+        month = readNumber(start + 5, 2);
+        day = readNumber(start + 8, 2);
+
+        return isValidDate() ? start + 10 : -1;
+    }
+
+    /**
+     * Reads a date such as 23/4, or 23/4/2016.
+     */
+    private int parseDayMonth(int start) {
+        int position = start;
+        int length = countDigits(position, 2);
+
+        if (length == 0 || !isCharAt(position + length, '/')) {
+            return -1;
+        }
+        day = readNumber(position, length);
+        position += length + 1;
+
+        length = countDigits(position, 2);
+        if (length == 0) {
+            return -1;
+        }
+        month = readNumber(position, length);
+        position += length;
+
+        if (isCharAt(position, '/')) {
+            if (!isDigits(position + 1, 4)) {
+                return -1;
+            }
+            year = readNumber(position + 1, 4);
+            position += 5;
+        }
+
+        return isBoundary(position) && isValidDate() ? position : -1;
+    }
+
+    /**
+     * Reads a time starting at the position given.
+     *
+     * @return The position after the time, or -1 if there is no time there
+     */
+    private int parseTime(int start) {
+        int length = countDigits(start, 2);
+
+        if (length == 0) {
+            return -1;
+        }
+
+        hour = readNumber(start, length);
+        minute = 0;
+
+        int position = start + length;
+        boolean hasMinutes = isCharAt(position, ':');
+
+        if (hasMinutes) {
+            if (!isDigits(position + 1, 2)) {
+                return -1;
+            }
+            minute = readNumber(position + 1, 2);
+            position += 3;
+        }
+
+        int meridianStart = isSpace(position) ? position + 1 : position;
+        boolean isAm = isWordAt(meridianStart, AM);
+        boolean isPm = isWordAt(meridianStart, PM);
+
+        if (isAm || isPm) {
+            if (hour == 0 || hour > HOURS_IN_HALF_DAY || minute > 59) {
+                return -1;
+            }
+
+            hour = hour % HOURS_IN_HALF_DAY + (isPm ? HOURS_IN_HALF_DAY : 0);
+            isMeridianSpecified = true;
+            return meridianStart + AM.length();
+        }
+
+        // A number alone is left to natty, which reads it as an hour or as part of a date
+        if (!hasMinutes || hour > 23 || minute > 59 || !isBoundary(position)) {
+            return -1;
+        }
+        return position;
+    }
+
+    /**
+     * Creates the date/time read, taking the date or the time from now where it was not given, as natty does.
+     */
+    private LocalDateTime createDateTime() {
+        LocalDateTime result;
+
+        if (isTimeSpecified) {
+            result = LocalDateTime.of(year, month, day, hour, minute);
+        } else {
+            int nanos = now.getNano() / NANOS_IN_MILLI * NANOS_IN_MILLI;
+            result = LocalDateTime.of(year, month, day, now.getHour(), now.getMinute(), now.getSecond(), nanos);
+        }
+
+        if (dayOffset != 0) {
+            result = result.plusDays(dayOffset);
+        }
+
+        ZoneOffsetTransition transition = zone.getRules().getTransition(result);
+        if (transition != null && transition.isGap()) {
+            result = result.plus(transition.getDuration());
+        }
+        return result;
+    }
+
+    private boolean isValidDate() {
+        return year >= MIN_YEAR && month >= 1 && month <= 12 && day >= 1
+                && day <= Month.of(month).length(Year.isLeap(year));
+    }
+
+    private boolean isWordAt(int position, String word) {
+        return text.startsWith(word, position) && isBoundary(position + word.length());
+    }
+
+    private boolean isBoundary(int position) {
+        return position == text.length() || isSpace(position);
+    }
+
+    private boolean isSpace(int position) {
+        return isCharAt(position, ' ');
+    }
+
+    private boolean isCharAt(int position, char c) {
+        return position < text.length() && text.charAt(position) == c;
+    }
+
+    private boolean isDigits(int position, int count) {
+        return countDigits(position, count) == count;
+    }
+
+    /**
+     * Returns the number of digits at the position given, up to the most given, which must not be followed by another
+     * digit.
+     */
+    private int countDigits(int position, int most) {
+        int count = 0;
+
+        while (count < most && position + count < text.length() && isDigit(text.charAt(position + count))) {
+            count++;
+        }
+
+        boolean isFollowedByDigit = position + count < text.length() && isDigit(text.charAt(position + count));
+        return isFollowedByDigit ? 0 : count;
+    }
+
+    private int readNumber(int position, int length) {
+        int number = 0;
+
+        for (int i = position; i < position + length; i++) {
+            number = number * 10 + (text.charAt(i) - '0');
+        }
+        return number;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -16,5 +16,6 @@ public enum CommandOptions {
     NODUE,
     FOREVER,
     STOP,
-    TODAY
+    TODAY,
+    UPTO
 }
@@ -0,0 +1,26 @@
+package lifetracker.storage;
+
+//@@author A0091173J
+
+/**
+ * The policies on how often a storage forces written data onto the storage device.
+ * <p>
+ * Forcing data makes sure it survives a crash or power loss, but each force makes the write take longer.
+ */
+public enum DurabilityPolicy {
+    /**
+     * Never force data, except the new content of a replaced file before it is renamed, which keeps the file whole.
+     * The operating system decides when everything else reaches the device.
+     */
+    NONE,
+
+    /**
+     * Force data after every batch of writes, before the next batch is started.
+     */
+    PER_BATCH,
+
+    /**
+     * Force data at most once per interval. At most one interval's worth of writes can be lost.
+     */
+    PER_INTERVAL
+}
@@ -0,0 +1,245 @@
+package lifetracker.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+//@@author A0091173J
+
+/**
+ * Writes files for the storage threads, forcing the data onto the storage device as dictated by a
+ * {@code DurabilityPolicy}.
+ * <p>
+ * Files are replaced by writing to a temporary file in the same folder, forcing it, then renaming it over the original
+ * file. A crash in the middle of a write therefore leaves either the old or the new content, never a mix of both,
+ * whatever the policy. The policy only decides when the rename itself is forced, so a crash can lose a recent
+ * replacement but never tear it.
+ * <p>
+ * This class is designed to be used by a single thread.
+ */
+class DurableFileWriter {
+
+    static final long DEFAULT_FORCE_INTERVAL_MILLIS = 1000;
+
+    private static final String TEMP_FILE_EXTENSION = ".tmp";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DurabilityPolicy policy;
+    private final long forceIntervalMillis;
+
+    // Files written since they were last forced, only used for PER_INTERVAL
+    private final Set<Path> unforcedFiles = new LinkedHashSet<>();
+    private long lastForceTime = System.currentTimeMillis();
+
+    DurableFileWriter(DurabilityPolicy policy) {
+        this(policy, DEFAULT_FORCE_INTERVAL_MILLIS);
+    }
+
+    DurableFileWriter(DurabilityPolicy policy, long forceIntervalMillis) {
+        assert policy != null;
+        assert forceIntervalMillis > 0;
+
+        this.policy = policy;
+        this.forceIntervalMillis = forceIntervalMillis;
+    }
+
+    /**
+     * Replaces the content of the file atomically.
+     *
+     * @param target  The file to replace.
+     * @param content The new content of the file.
+     * @throws IOException If there was an error writing the file.
+     */
+    void replace(File target, String content) throws IOException {
+        replace(target, outputStream -> outputStream.write(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Replaces the content of the file atomically, with the data written by the {@code StoreWriter}.
+     * <p>
+     * If the {@code StoreWriter} fails, the file is left unchanged.
+     *
+     * @param target      The file to replace.
+     * @param storeWriter The callback that writes the new content of the file.
+     * @throws IOException If there was an error writing the file.
+     */
+    void replace(File target, StoreWriter storeWriter) throws IOException {
+        replace(target, storeWriter, policy == DurabilityPolicy.PER_BATCH);
+    }
+
+    /**
+     * Replaces the content of the file atomically, and forces the new content and the rename onto the storage device
+     * before returning, whatever the {@code DurabilityPolicy}.
+     * <p>
+     * This is used before removing data that the new content replaces, so that a crash can never lose both.
+     *
+     * @param target      The file to replace.
+     * @param storeWriter The callback that writes the new content of the file.
+     * @throws IOException If there was an error writing the file.
+     */
+    void replaceDurably(File target, StoreWriter storeWriter) throws IOException {
+        replace(target, storeWriter, true);
+    }
+
+    private void replace(File target, StoreWriter storeWriter, boolean isRenameForced) throws IOException {
+        Path targetPath = target.toPath();
+        Path tempPath = targetPath.resolveSibling(target.getName() + TEMP_FILE_EXTENSION);
+
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            // The channel stays open until it is forced, so the buffered stream is only flushed here
+            OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            storeWriter.writeTo(outputStream);
+            outputStream.flush();
+
+            // The content must reach the device before the rename can, or a crash may leave a torn file
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+
+        moveAtomically(tempPath, targetPath);
+
+        if (isRenameForced) {
+            forceDirectory(targetPath);
+        } else if (policy == DurabilityPolicy.PER_INTERVAL) {
+            unforcedFiles.add(targetPath);
+        }
+    }
+
+    /**
+     * Appends lines to the end of the file, each followed by the separator.
+     *
+     * @param target    The file to append to.
+     * @param lines     The lines to append.
+     * @param separator The separator to write after each line.
+     * @throws IOException If there was an error writing the file.
+     */
+    void append(File target, List<String> lines, String separator) throws IOException {
+        StringBuilder content = new StringBuilder();
+
+        for (String line : lines) {
+            content.append(line).append(separator);
+        }
+
+        try (FileChannel channel = FileChannel.open(target.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            writeFully(channel, content.toString());
+
+            if (policy == DurabilityPolicy.PER_BATCH) {
+                channel.force(false);
+            }
+        }
+
+        if (policy == DurabilityPolicy.PER_INTERVAL) {
+            unforcedFiles.add(target.toPath());
+        }
+    }
+
+    /**
+     * Empties the file.
+     *
+     * @param target The file to empty.
+     * @throws IOException If there was an error writing the file.
+     */
+    void truncate(File target) throws IOException {
+        try (FileChannel channel = FileChannel.open(target.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            if (policy == DurabilityPolicy.PER_BATCH) {
+                channel.force(true);
+            }
+        }
+
+        if (policy == DurabilityPolicy.PER_INTERVAL) {
+            unforcedFiles.add(target.toPath());
+        }
+    }
+
+    /**
+     * Gets the time the storage thread can wait before the files written since the last force are due to be forced.
+     *
+     * @return The time in milliseconds, or {@code Long.MAX_VALUE} if there is nothing waiting to be forced.
+     */
+    long getMillisUntilForceDue() {
+        if (unforcedFiles.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+
+        long elapsed = System.currentTimeMillis() - lastForceTime;
+
+        return Math.max(0, forceIntervalMillis - elapsed);
+    }
+
+    /**
+     * Forces all files written since the last force, regardless of the interval.
+     *
+     * @throws IOException If there was an error forcing the files.
+     */
+    void forceAll() throws IOException {
+        for (Path path : unforcedFiles) {
+            if (Files.exists(path)) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+                forceDirectory(path);
+            }
+        }
+
+        unforcedFiles.clear();
+        lastForceTime = System.currentTimeMillis();
+    }
+
+    DurabilityPolicy getPolicy() {
+        return policy;
+    }
+
+    private void writeFully(FileChannel channel, String content) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Forces the folder containing the file, so that a rename into it is also on the device.
+     * <p>
+     * Some platforms cannot open folders this way, in which case the rename is left to the operating system.
+     */
+    private void forceDirectory(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+
+        if (directory == null) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on this platform
+        }
+    }
+}
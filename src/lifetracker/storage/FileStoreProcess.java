@@ -1,12 +1,12 @@
 package lifetracker.storage;
 
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -15,6 +15,9 @@ import java.util.logging.Logger;
 /**
  * A class that writes strings to a file.
  * <p>
+ * Each string replaces the file atomically, so a crash during a write leaves the previous content intact. How often
+ * the written data is forced onto the storage device is decided by the {@code DurabilityPolicy}.
+ * <p>
  * This class is designed to be run by a single thread. Running it on multiple threads might cause concurrency issues.
  */
 public class FileStoreProcess implements Runnable {
@@ -23,7 +26,8 @@ public class FileStoreProcess implements Runnable {
 
     private static final String LOG_ENTRY_ADDED = "Storage Thread: Storage entry %1$d added.";
     private static final String LOG_SHUTDOWN_ENTRY_ADDED = "Storage Thread: Shutdown entry added.";
-    private static final String LOG_FILE_WRITTEN = "Storage Thread: Entry %1$d written to file.";
+    private static final String LOG_FILE_WRITTEN = "Storage Thread: Entry %1$d written to file in %2$d us (%3$s).";
+    private static final String LOG_FILE_FORCED = "Storage Thread: Pending writes forced in %1$d us.";
     private static final String LOG_ENTRY_SKIPPED = "Storage Thread: Storage entry %1$d skipped.";
     private static final String LOG_STARTUP = "Storage Thread: Starting";
     private static final String LOG_SHUTDOWN = "Storage Thread: Exiting";
@@ -33,16 +37,23 @@ public class FileStoreProcess implements Runnable {
     private static final String ERROR_FILE_WRITE = "Error writing to file!";
 
     private final BlockingQueue<WriteNode> writeQueue = new PriorityBlockingQueue<>();
+    private final DurableFileWriter fileWriter;
     private File storeFile;
 
     FileStoreProcess(File storeFile) throws FileNotFoundException {
+        this(storeFile, DurabilityPolicy.PER_BATCH);
+    }
+
+    FileStoreProcess(File storeFile, DurabilityPolicy policy) throws FileNotFoundException {
         assert storeFile != null;
+        assert policy != null;
 
         if (storeFile.isDirectory() || !storeFile.exists()) {
             throw new FileNotFoundException(ERROR_INVALID_FILE);
         }
 
         this.storeFile = storeFile;
+        this.fileWriter = new DurableFileWriter(policy);
     }
 
     /**
@@ -56,7 +67,21 @@ public class FileStoreProcess implements Runnable {
     public void submitSave(String saveString) {
         assert saveString != null;
 
-        WriteNode newNode = new WriteNode(saveString);
+        submitSave(outputStream -> outputStream.write(saveString.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Adds a {@code StoreWriter} to the write queue. It will be run on the write thread to write the save file.
+     * <p>
+     * As with strings, a {@code StoreWriter} submitted later will effectively override one submitted earlier, in
+     * which case the earlier one is never run.
+     *
+     * @param storeWriter The callback that writes the save file.
+     */
+    public void submitSave(StoreWriter storeWriter) {
+        assert storeWriter != null;
+
+        WriteNode newNode = new WriteNode(storeWriter);
 
         writeQueue.add(newNode);
 
@@ -81,24 +106,36 @@ public class FileStoreProcess implements Runnable {
         long latestWrittenNodeNum = Long.MIN_VALUE;
 
         try {
-            WriteNode currentNode = writeQueue.take();
+            WriteNode currentNode = takeNextNode();
 
             while (currentNode != WriteNode.END_NODE) {
 
-                if (currentNode.getSequenceNum() > latestWrittenNodeNum) {
+                if (currentNode == null) {
+                    // Timed out waiting, so the pending writes are due
+                } else if (currentNode.getSequenceNum() > latestWrittenNodeNum) {
 
                     latestWrittenNodeNum = currentNode.getSequenceNum();
 
+                    long startTime = System.nanoTime();
                     writeNodeToFile(currentNode);
+                    long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime);
 
-                    STORE_LOG.log(Level.INFO, String.format(LOG_FILE_WRITTEN, currentNode.getSequenceNum()));
+                    STORE_LOG.log(Level.INFO, String.format(LOG_FILE_WRITTEN, currentNode.getSequenceNum(),
+                            elapsedMicros, fileWriter.getPolicy()));
                 } else {
                     STORE_LOG.log(Level.WARNING, String.format(LOG_ENTRY_SKIPPED, currentNode.getSequenceNum()));
                 }
 
-                currentNode = writeQueue.take();
+                if (fileWriter.getMillisUntilForceDue() == 0) {
+                    forcePendingWrites();
+                }
+
+                currentNode = takeNextNode();
             }
 
+            // Nothing written may be left unforced once the thread exits
+            forcePendingWrites();
+
             STORE_LOG.log(Level.INFO, LOG_SHUTDOWN);
 
         } catch (InterruptedException e) {
@@ -108,12 +145,37 @@ public class FileStoreProcess implements Runnable {
         }
     }
 
-    private void writeNodeToFile(WriteNode currentNode) throws IOException {
-        String writeString = currentNode.getContent();
+    /**
+     * Takes the next node from the write queue, waiting no longer than the time until pending writes are due to be
+     * forced.
+     *
+     * @return The next node, or null if the pending writes are due to be forced.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    private WriteNode takeNextNode() throws InterruptedException {
+        long waitMillis = fileWriter.getMillisUntilForceDue();
 
-        try (BufferedWriter fileWriter = new BufferedWriter(new FileWriter(storeFile))) {
-                fileWriter.write(writeString);
+        if (waitMillis == Long.MAX_VALUE) {
+            return writeQueue.take();
         }
+
+        return writeQueue.poll(waitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void forcePendingWrites() throws IOException {
+        if (fileWriter.getMillisUntilForceDue() == Long.MAX_VALUE) {
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        fileWriter.forceAll();
+        long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime);
+
+        STORE_LOG.log(Level.INFO, String.format(LOG_FILE_FORCED, elapsedMicros));
+    }
+
+    private void writeNodeToFile(WriteNode currentNode) throws IOException {
+        fileWriter.replace(storeFile, currentNode.getContent());
     }
 
     private static class WriteNode implements Comparable<WriteNode> {
@@ -123,16 +185,16 @@ public class FileStoreProcess implements Runnable {
         private static int nextSequenceNum = 0;
 
         private final long sequenceNum;
-        private String content;
+        private StoreWriter content;
 
-        WriteNode(String content) {
+        WriteNode(StoreWriter content) {
             sequenceNum = nextSequenceNum;
             nextSequenceNum++;
 
             this.content = content;
         }
 
-        private WriteNode(int sequenceNum, String content) {
+        private WriteNode(int sequenceNum, StoreWriter content) {
             this.sequenceNum = sequenceNum;
             this.content = content;
         }
@@ -141,7 +203,7 @@ public class FileStoreProcess implements Runnable {
             return sequenceNum;
         }
 
-        private String getContent() {
+        private StoreWriter getContent() {
             return content;
         }
 
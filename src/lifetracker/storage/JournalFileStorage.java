@@ -0,0 +1,258 @@
+package lifetracker.storage;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+//@@author A0091173J
+
+/**
+ * A file storage that keeps a snapshot file, and a journal file of records appended after the snapshot.
+ * <p>
+ * The journal is stored beside the snapshot file, with the same name followed by ".journal". Writes happen on a
+ * separate thread, in the order they were submitted. Appending a record only writes that record, so the cost of a save
+ * depends on the size of the change rather than the size of the snapshot.
+ * <p>
+ * Once enough records have been appended, {@link #isSnapshotDue()} reports that the journal should be compacted, by
+ * storing a new snapshot.
+ */
+public class JournalFileStorage implements JournalStorage {
+
+    private static final String DEFAULT_FILENAME = "lifetracker.dat";
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final String JOURNAL_EXTENSION = ".journal";
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
+    private static final String ERROR_FILE_IS_DIRECTORY = "Filename provided is actually a directory!";
+    private static final String ERROR_INTERRUPTED_CLOSE = "Thread was interrupted while finishing up requests!";
+
+    private final int compactionThreshold;
+
+    private File snapshotFile;
+    private File journalFile;
+    private Thread journalStoreThread;
+    private JournalStoreProcess journalStoreProcess;
+    private DurabilityPolicy durabilityPolicy = DurabilityPolicy.PER_BATCH;
+
+    private int recordsSinceSnapshot;
+    private boolean isSnapshotWritten;
+
+    /**
+     * Creates a new {@code JournalFileStorage} that stores the data in "lifetracker.dat".
+     *
+     * @throws IOException If there was an error accessing the files.
+     */
+    public JournalFileStorage() throws IOException {
+        this(DEFAULT_FILENAME);
+    }
+
+    /**
+     * Creates a new {@code JournalFileStorage} that stores the snapshot in the file specified by the file name.
+     *
+     * @param fileName The file name of the snapshot file.
+     * @throws IOException If there was an error accessing the files.
+     */
+    public JournalFileStorage(String fileName) throws IOException {
+        this(fileName, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Creates a new {@code JournalFileStorage} that stores the snapshot in the file specified by the file name, and
+     * requests a new snapshot after the specified number of records have been appended.
+     *
+     * @param fileName            The file name of the snapshot file.
+     * @param compactionThreshold The number of records after which a new snapshot is due.
+     * @throws IOException If there was an error accessing the files.
+     */
+    public JournalFileStorage(String fileName, int compactionThreshold) throws IOException {
+        assert compactionThreshold > 0;
+
+        this.compactionThreshold = compactionThreshold;
+
+        prepareFiles(fileName);
+        startThread();
+    }
+
+    /**
+     * Closes the current running write thread safely, then starts a new thread that writes to the file as specified by
+     * destination.
+     * <p>
+     * A snapshot will be due after this, so that the new destination does not depend on any earlier content.
+     *
+     * @param destination The new snapshot file to write to.
+     * @throws IOException If there was an error accessing the files.
+     */
+    @Override
+    public void setStoreAndStart(String destination) throws IOException {
+        try {
+            stopThread();
+        } catch (InterruptedException e) {
+            System.err.println(ERROR_INTERRUPTED_CLOSE);
+        }
+
+        prepareFiles(destination);
+        startThread();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setDurabilityPolicy(DurabilityPolicy policy) {
+        assert policy != null;
+
+        durabilityPolicy = policy;
+    }
+
+    /**
+     * Stores a snapshot, which replaces the snapshot file and clears the journal.
+     * <p>
+     * This method only submits the data to the write thread. The write will happen concurrently.
+     *
+     * @param storeString The String to store
+     * @throws IOException If there was an error writing to the file
+     */
+    @Override
+    public void store(String storeString) throws IOException {
+        assert storeString != null;
+
+        journalStoreProcess.submitSnapshot(storeString);
+
+        recordsSinceSnapshot = 0;
+        isSnapshotWritten = true;
+    }
+
+    /**
+     * Stores a snapshot written by the {@code StoreWriter}, which replaces the snapshot file and clears the journal.
+     * <p>
+     * This method only submits the callback to the write thread, which runs it when writing the snapshot.
+     *
+     * @param storeWriter The callback that writes the snapshot
+     * @throws IOException If there was an error writing to the file
+     */
+    @Override
+    public void storeWith(StoreWriter storeWriter) throws IOException {
+        assert storeWriter != null;
+
+        journalStoreProcess.submitSnapshot(storeWriter);
+
+        recordsSinceSnapshot = 0;
+        isSnapshotWritten = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method only submits the record to the write thread. The write will happen concurrently.
+     */
+    @Override
+    public void append(String record) throws IOException {
+        assert record != null;
+        assert !record.contains("\n");
+
+        journalStoreProcess.submitRecord(record);
+
+        recordsSinceSnapshot++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String load() throws IOException {
+        return new String(Files.readAllBytes(snapshotFile.toPath()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T loadWith(StoreReader<T> storeReader) throws IOException {
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(snapshotFile), READ_BUFFER_SIZE)) {
+            return storeReader.readFrom(inputStream);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> loadJournal() throws IOException {
+        if (!journalFile.exists()) {
+            return new ArrayList<>();
+        }
+
+        List<String> records = new ArrayList<>();
+
+        for (String line : Files.readAllLines(journalFile.toPath(), StandardCharsets.UTF_8)) {
+            if (!line.isEmpty()) {
+                records.add(line);
+            }
+        }
+
+        return records;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSnapshotDue() {
+        return !isSnapshotWritten || recordsSinceSnapshot >= compactionThreshold;
+    }
+
+    /**
+     * Closes the write thread safely.
+     * <p>
+     * This method blocks until the write thread finished writing all previous write submissions. If interrupted while
+     * waiting, the interrupt is kept for the caller to handle.
+     */
+    @Override
+    public void close() {
+        try {
+            stopThread();
+        } catch (InterruptedException e) {
+            System.err.println(ERROR_INTERRUPTED_CLOSE);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void startThread() throws FileNotFoundException {
+        journalStoreProcess = new JournalStoreProcess(snapshotFile, journalFile, durabilityPolicy);
+
+        journalStoreThread = new Thread(journalStoreProcess);
+        journalStoreThread.start();
+    }
+
+    private void stopThread() throws InterruptedException {
+        journalStoreProcess.submitClose();
+
+        journalStoreThread.join();
+    }
+
+    private void prepareFiles(String destination) throws IOException {
+        snapshotFile = prepareFile(destination);
+        journalFile = prepareFile(destination + JOURNAL_EXTENSION);
+
+        recordsSinceSnapshot = 0;
+        isSnapshotWritten = false;
+    }
+
+    private File prepareFile(String destination) throws IOException {
+        File storageFile = new File(destination);
+
+        if (!storageFile.exists()) {
+            storageFile.createNewFile();
+        } else if (storageFile.isDirectory()) {
+            throw new IOException(ERROR_FILE_IS_DIRECTORY);
+        }
+        return storageFile;
+    }
+}
@@ -0,0 +1,51 @@
+package lifetracker.storage;
+
+import java.io.IOException;
+import java.util.List;
+
+//@@author A0091173J
+
+/**
+ * A {@code Storage} that can record small changes as records appended to a journal, instead of rewriting the whole
+ * stored content every time.
+ * <p>
+ * The content passed to {@link #store(String)} is treated as a snapshot. Storing a snapshot discards all records
+ * appended before it, so the journal only ever contains the changes made after the latest snapshot.
+ */
+public interface JournalStorage extends Storage {
+
+    /**
+     * Appends a record to the journal.
+     *
+     * @param record The record to append. Must not contain line breaks.
+     * @throws IOException If there was an error writing to the storage medium.
+     */
+    void append(String record) throws IOException;
+
+    /**
+     * Loads the records appended after the latest snapshot, in the order they were appended.
+     *
+     * @return The list of records.
+     * @throws IOException If there was an error reading the journal.
+     */
+    List<String> loadJournal() throws IOException;
+
+    /**
+     * Checks if a new snapshot should be stored instead of appending more records, for example when the journal has
+     * grown too long, or when the storage destination has just been changed.
+     *
+     * @return {@code true} if the next save should be a snapshot.
+     */
+    boolean isSnapshotDue();
+
+    /**
+     * Finishes all writes submitted so far, then releases the storage.
+     * <p>
+     * Unlike {@link Storage#close()}, this method does not throw {@code InterruptedException}, so that it can be
+     * used safely in a try-with-resources statement.
+     *
+     * @throws IOException If there was an error writing to the storage medium.
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,295 @@
+package lifetracker.storage;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+//@@author A0091173J
+
+/**
+ * A class that writes snapshots and journal records to their files.
+ * <p>
+ * Unlike {@link FileStoreProcess}, requests are fulfilled strictly in the order they are submitted, since every journal
+ * record has to be written. A snapshot is skipped only if a later snapshot is already waiting to be written, as the
+ * later snapshot replaces both the earlier snapshot and the records in between.
+ * <p>
+ * Snapshots replace the snapshot file atomically. How often the written data is forced onto the storage device is
+ * decided by the {@code DurabilityPolicy}.
+ * <p>
+ * This class is designed to be run by a single thread. Running it on multiple threads might cause concurrency issues.
+ */
+public class JournalStoreProcess implements Runnable {
+
+    private static final Logger STORE_LOG = Logger.getGlobal();
+
+    private static final String LOG_SNAPSHOT_ADDED = "Journal Thread: Snapshot %1$d added.";
+    private static final String LOG_SHUTDOWN_ENTRY_ADDED = "Journal Thread: Shutdown entry added.";
+    private static final String LOG_SNAPSHOT_WRITTEN = "Journal Thread: Snapshot %1$d written to file.";
+    private static final String LOG_SNAPSHOT_SKIPPED = "Journal Thread: Snapshot %1$d skipped.";
+    private static final String LOG_RECORDS_WRITTEN = "Journal Thread: %1$d records appended to journal.";
+    private static final String LOG_BATCH_WRITTEN = "Journal Thread: Batch of %1$d requests written in %2$d us (%3$s).";
+    private static final String LOG_FILES_FORCED = "Journal Thread: Pending writes forced in %1$d us.";
+    private static final String LOG_STARTUP = "Journal Thread: Starting";
+    private static final String LOG_SHUTDOWN = "Journal Thread: Exiting";
+
+    private static final String ERROR_INVALID_FILE = "File is null or is invalid!";
+    private static final String ERROR_WAIT_INTERRUPTED = "JournalStoreProcess was interrupted while waiting for data "
+            + "to write.";
+    private static final String ERROR_FILE_WRITE = "Error writing to file!";
+
+    private static final String RECORD_SEPARATOR = "\n";
+
+    private final BlockingQueue<JournalNode> writeQueue = new LinkedBlockingQueue<>();
+    private final File snapshotFile;
+    private final File journalFile;
+    private final DurableFileWriter fileWriter;
+
+    JournalStoreProcess(File snapshotFile, File journalFile) throws FileNotFoundException {
+        this(snapshotFile, journalFile, DurabilityPolicy.PER_BATCH);
+    }
+
+    JournalStoreProcess(File snapshotFile, File journalFile, DurabilityPolicy policy) throws FileNotFoundException {
+        assert snapshotFile != null;
+        assert journalFile != null;
+        assert policy != null;
+
+        if (snapshotFile.isDirectory() || !snapshotFile.exists() || journalFile.isDirectory()) {
+            throw new FileNotFoundException(ERROR_INVALID_FILE);
+        }
+
+        this.snapshotFile = snapshotFile;
+        this.journalFile = journalFile;
+        this.fileWriter = new DurableFileWriter(policy);
+    }
+
+    /**
+     * Adds a snapshot to the write queue. The journal is cleared once the snapshot is written.
+     *
+     * @param snapshot The full content to write to the snapshot file.
+     */
+    public void submitSnapshot(String snapshot) {
+        assert snapshot != null;
+
+        submitSnapshot(outputStream -> outputStream.write(snapshot.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Adds a {@code StoreWriter} to the write queue, which will be run on the write thread to write a snapshot. The
+     * journal is cleared once the snapshot is written.
+     *
+     * @param snapshotWriter The callback that writes the full content of the snapshot file.
+     */
+    public void submitSnapshot(StoreWriter snapshotWriter) {
+        assert snapshotWriter != null;
+
+        JournalNode newNode = JournalNode.snapshot(snapshotWriter);
+        writeQueue.add(newNode);
+
+        STORE_LOG.log(Level.INFO, String.format(LOG_SNAPSHOT_ADDED, newNode.getSequenceNum()));
+    }
+
+    /**
+     * Adds a record to the write queue, to be appended to the journal.
+     *
+     * @param record The record to append.
+     */
+    public void submitRecord(String record) {
+        assert record != null;
+
+        writeQueue.add(JournalNode.record(record));
+    }
+
+    /**
+     * Submits a request to close the thread.
+     * <p>
+     * The thread will join after all write requests submitted before this close request are fulfilled.
+     */
+    public void submitClose() {
+        writeQueue.add(JournalNode.END_NODE);
+        STORE_LOG.log(Level.INFO, LOG_SHUTDOWN_ENTRY_ADDED);
+    }
+
+    @Override
+    public void run() {
+
+        STORE_LOG.log(Level.INFO, LOG_STARTUP);
+
+        List<JournalNode> batch = new ArrayList<>();
+
+        try {
+            boolean isClosing = false;
+
+            while (!isClosing) {
+                batch.clear();
+
+                JournalNode firstNode = takeNextNode();
+
+                if (firstNode != null) {
+                    batch.add(firstNode);
+                    writeQueue.drainTo(batch);
+                }
+
+                int endIndex = batch.indexOf(JournalNode.END_NODE);
+
+                if (endIndex >= 0) {
+                    isClosing = true;
+                    batch = new ArrayList<>(batch.subList(0, endIndex));
+                }
+
+                if (!batch.isEmpty()) {
+                    long startTime = System.nanoTime();
+                    writeBatch(batch);
+                    long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime);
+
+                    STORE_LOG.log(Level.INFO, String.format(LOG_BATCH_WRITTEN, batch.size(), elapsedMicros,
+                            fileWriter.getPolicy()));
+                }
+
+                if (isClosing || fileWriter.getMillisUntilForceDue() == 0) {
+                    forcePendingWrites();
+                }
+            }
+
+            STORE_LOG.log(Level.INFO, LOG_SHUTDOWN);
+
+        } catch (InterruptedException e) {
+            System.err.println(ERROR_WAIT_INTERRUPTED);
+        } catch (IOException e) {
+            System.err.println(ERROR_FILE_WRITE);
+        }
+    }
+
+    /**
+     * Writes a batch of requests. Only the latest snapshot in the batch, and the records after it, are written.
+     *
+     * @param batch The requests taken from the queue, in submission order.
+     * @throws IOException If there was an error writing to the files.
+     */
+    private void writeBatch(List<JournalNode> batch) throws IOException {
+        int startIndex = 0;
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.get(i).isSnapshot()) {
+                startIndex = i;
+            }
+        }
+
+        for (int i = 0; i < startIndex; i++) {
+            if (batch.get(i).isSnapshot()) {
+                STORE_LOG.log(Level.INFO, String.format(LOG_SNAPSHOT_SKIPPED, batch.get(i).getSequenceNum()));
+            }
+        }
+
+        List<JournalNode> nodesToWrite = batch.subList(startIndex, batch.size());
+
+        if (!nodesToWrite.isEmpty() && nodesToWrite.get(0).isSnapshot()) {
+            writeSnapshot(nodesToWrite.get(0));
+            nodesToWrite = nodesToWrite.subList(1, nodesToWrite.size());
+        }
+
+        if (!nodesToWrite.isEmpty()) {
+            appendRecords(nodesToWrite);
+        }
+    }
+
+    /**
+     * Takes the next node from the write queue, waiting no longer than the time until pending writes are due to be
+     * forced.
+     *
+     * @return The next node, or null if the pending writes are due to be forced.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    private JournalNode takeNextNode() throws InterruptedException {
+        long waitMillis = fileWriter.getMillisUntilForceDue();
+
+        if (waitMillis == Long.MAX_VALUE) {
+            return writeQueue.take();
+        }
+
+        return writeQueue.poll(waitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void forcePendingWrites() throws IOException {
+        if (fileWriter.getMillisUntilForceDue() == Long.MAX_VALUE) {
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        fileWriter.forceAll();
+        long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime);
+
+        STORE_LOG.log(Level.INFO, String.format(LOG_FILES_FORCED, elapsedMicros));
+    }
+
+    private void writeSnapshot(JournalNode snapshotNode) throws IOException {
+        // The snapshot must be on the device before the journal is cleared, or a crash in between could lose both
+        fileWriter.replaceDurably(snapshotFile, snapshotNode.getSnapshotWriter());
+
+        // The records in the journal are now part of the snapshot. Should a crash happen before the journal is
+        // cleared, replaying the records on top of the new snapshot does no harm.
+        fileWriter.truncate(journalFile);
+
+        STORE_LOG.log(Level.INFO, String.format(LOG_SNAPSHOT_WRITTEN, snapshotNode.getSequenceNum()));
+    }
+
+    private void appendRecords(List<JournalNode> recordNodes) throws IOException {
+        List<String> records = new ArrayList<>();
+
+        for (JournalNode node : recordNodes) {
+            records.add(node.getRecord());
+        }
+
+        fileWriter.append(journalFile, records, RECORD_SEPARATOR);
+
+        STORE_LOG.log(Level.INFO, String.format(LOG_RECORDS_WRITTEN, recordNodes.size()));
+    }
+
+    private static class JournalNode {
+
+        private static final JournalNode END_NODE = new JournalNode(-1, null, null);
+
+        private static long nextSequenceNum = 0;
+
+        private final long sequenceNum;
+        private final StoreWriter snapshotWriter;
+        private final String record;
+
+        private JournalNode(long sequenceNum, StoreWriter snapshotWriter, String record) {
+            this.sequenceNum = sequenceNum;
+            this.snapshotWriter = snapshotWriter;
+            this.record = record;
+        }
+
+        private static synchronized JournalNode snapshot(StoreWriter snapshotWriter) {
+            return new JournalNode(nextSequenceNum++, snapshotWriter, null);
+        }
+
+        private static synchronized JournalNode record(String record) {
+            return new JournalNode(nextSequenceNum++, null, record);
+        }
+
+        public long getSequenceNum() {
+            return sequenceNum;
+        }
+
+        private StoreWriter getSnapshotWriter() {
+            return snapshotWriter;
+        }
+
+        private String getRecord() {
+            return record;
+        }
+
+        private boolean isSnapshot() {
+            return snapshotWriter != null;
+        }
+    }
+}
@@ -15,6 +15,14 @@ public interface Storage extends AutoCloseable {
      */
     void setStoreAndStart(String destination) throws IOException;
 
+    /**
+     * Sets how often the stored data is forced onto the storage device. The policy takes effect from the next call to
+     * {@link #setStoreAndStart(String)}.
+     *
+     * @param policy The durability policy to use.
+     */
+    void setDurabilityPolicy(DurabilityPolicy policy);
+
     /**
      * Stores the String.
      *
@@ -23,6 +31,14 @@ public interface Storage extends AutoCloseable {
      */
     void store(String storeString) throws IOException;
 
+    /**
+     * Stores the data written by the {@code StoreWriter}, without first collecting the data into a String.
+     *
+     * @param storeWriter The callback that writes the data to store.
+     * @throws IOException If there was an error storage to the storage medium.
+     */
+    void storeWith(StoreWriter storeWriter) throws IOException;
+
     /**
      * Loads the data from the storage file and returns it directly as a String.
      *
@@ -30,4 +46,15 @@ public interface Storage extends AutoCloseable {
      * @throws IOException If there was an error reading the data file.
      */
     String load() throws IOException;
+
+    /**
+     * Loads the data from the storage file with the {@code StoreReader}, without first reading all of it into a
+     * String.
+     *
+     * @param storeReader The callback that reads the data.
+     * @param <T>         The type of the object read from the data.
+     * @return The object returned by the {@code StoreReader}.
+     * @throws IOException If there was an error reading the data file.
+     */
+    <T> T loadWith(StoreReader<T> storeReader) throws IOException;
 }
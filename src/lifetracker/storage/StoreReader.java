@@ -0,0 +1,24 @@
+package lifetracker.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+//@@author A0091173J
+
+/**
+ * A callback that reads the stored data directly from the storage medium.
+ *
+ * @param <T> The type of the object read from the data.
+ */
+@FunctionalInterface
+public interface StoreReader<T> {
+
+    /**
+     * Reads the data from the input stream. The stream must not be closed by this method.
+     *
+     * @param inputStream The stream to read the data from.
+     * @return The object read from the data.
+     * @throws IOException If there was an error reading from the stream.
+     */
+    T readFrom(InputStream inputStream) throws IOException;
+}
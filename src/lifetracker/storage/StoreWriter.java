@@ -0,0 +1,24 @@
+package lifetracker.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+//@@author A0091173J
+
+/**
+ * A callback that writes the data to be stored directly to the storage medium.
+ * <p>
+ * The callback is run on the storage thread, so it must only access data that will not be changed by other threads
+ * after it is submitted.
+ */
+@FunctionalInterface
+public interface StoreWriter {
+
+    /**
+     * Writes the data to the output stream. The stream must not be closed by this method.
+     *
+     * @param outputStream The stream to write the data to.
+     * @throws IOException If there was an error writing to the stream.
+     */
+    void writeTo(OutputStream outputStream) throws IOException;
+}
@@ -1,8 +1,11 @@
 package lifetracker.storage;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 
@@ -18,6 +21,7 @@ import java.nio.file.Files;
 public class ThreadedFileStorage implements Storage {
 
     private static final String DEFAULT_FILENAME = "lifetracker.dat";
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
 
     private static final String ERROR_FILE_IS_DIRECTORY = "Filename provided is actually a directory!";
     private static final String ERROR_INTERRUPTED_CLOSE = "Thread was interrupted while finishing up requests!";
@@ -25,6 +29,7 @@ public class ThreadedFileStorage implements Storage {
     private File storageFile;
     private Thread fileStoreThread;
     private FileStoreProcess fileStoreProcess;
+    private DurabilityPolicy durabilityPolicy = DurabilityPolicy.PER_BATCH;
 
     /**
      * Creates a new {@code ThreadedFileStorage} that stores the data in "lifetracker.dat".
@@ -66,6 +71,16 @@ public class ThreadedFileStorage implements Storage {
         startThread(storageFile);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setDurabilityPolicy(DurabilityPolicy policy) {
+        assert policy != null;
+
+        durabilityPolicy = policy;
+    }
+
     /**
      * Stores the data to the file.
      * <p>
@@ -81,6 +96,22 @@ public class ThreadedFileStorage implements Storage {
         fileStoreProcess.submitSave(storeString);
     }
 
+    /**
+     * Stores the data written by the {@code StoreWriter} to the file.
+     * <p>
+     * This method only submits the callback to the write thread, which runs it when writing the file. The callback is
+     * skipped if newer data is submitted before it is run.
+     *
+     * @param storeWriter The callback that writes the data to store
+     * @throws IOException If there was an error writing to the file
+     */
+    @Override
+    public void storeWith(StoreWriter storeWriter) throws IOException {
+        assert storeWriter != null;
+
+        fileStoreProcess.submitSave(storeWriter);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -89,6 +120,16 @@ public class ThreadedFileStorage implements Storage {
         return new String(Files.readAllBytes(storageFile.toPath()), StandardCharsets.UTF_8);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T loadWith(StoreReader<T> storeReader) throws IOException {
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(storageFile), READ_BUFFER_SIZE)) {
+            return storeReader.readFrom(inputStream);
+        }
+    }
+
     /**
      * Closes the write thread safely.
      * <p>
@@ -102,7 +143,7 @@ public class ThreadedFileStorage implements Storage {
     }
 
     private void startThread(File storageFile) throws FileNotFoundException {
-        fileStoreProcess = new FileStoreProcess(storageFile);
+        fileStoreProcess = new FileStoreProcess(storageFile, durabilityPolicy);
 
         fileStoreThread = new Thread(fileStoreProcess);
         fileStoreThread.start();
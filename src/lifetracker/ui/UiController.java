@@ -67,10 +67,19 @@ public class UiController implements Initializable {
     private static final PseudoClass PSEUDO_CLASS_OVERDUE = PseudoClass.getPseudoClass("overdue");
     private static final PseudoClass PSEUDO_CLASS_DONE = PseudoClass.getPseudoClass("done");
     private static final PseudoClass PSEUDO_CLASS_NEW = PseudoClass.getPseudoClass("new");
+    private static final String COMMAND_BATCH = "batch";
+    private static final String COMMAND_BATCH_END = "end";
+    private static final String COMMAND_BATCH_CANCEL = "cancel";
+    private static final String FEEDBACK_BATCH_QUEUED = "Batch mode: %1$d command(s) queued. "
+            + "Enter \"end\" to run them or \"cancel\" to discard them.";
+    private static final String FEEDBACK_BATCH_CANCELLED = "Batch cancelled.";
+    private static final String LINE_SEPARATOR_REGEX = "\\R";
 
     private static Logic l;
     private static List<String> inputHistory;
     private static int inputHistoryIndex;
+    /** The commands queued in batch mode, or null when not in batch mode */
+    private static List<String> batchLines;
     private static ObservableList<LogicTask> taskList = FXCollections.observableArrayList();
     private static ObservableList<LogicEvent> eventList = FXCollections.observableArrayList();
     private static WebEngine webEngine;
@@ -429,12 +438,66 @@ public class UiController implements Initializable {
      * @param userInput User input from textInput.
      */
     private void process(String userInput) {
+        if (batchLines != null) {
+            processBatchInput(userInput);
+            return;
+        } else if (userInput.trim().equals(COMMAND_BATCH)) {
+            startBatch();
+            return;
+        }
+
         ExecuteResult result = l.executeCommand(userInput);
         ExecuteResult.CommandType commnadType = result.getType();
         String comment = result.getComment();
         processCommandType(result, commnadType, comment);
     }
 
+    /**
+     * Enter batch mode, where the commands entered are queued instead of executed.
+     */
+    private void startBatch() {
+        batchLines = new ArrayList<String>();
+        labelFeedback.setText(String.format(FEEDBACK_BATCH_QUEUED, batchLines.size()));
+    }
+
+    /**
+     * Process the user input while in batch mode.
+     * The input is queued, one command per line, until the user ends the batch, which
+     * executes all the queued commands together, or cancels it, which discards them.
+     * 
+     * @param userInput         The input by the user.
+     */
+    private void processBatchInput(String userInput) {
+        switch (userInput.trim()) {
+        case COMMAND_BATCH_END :
+            executeBatch();
+            break;
+        case COMMAND_BATCH_CANCEL :
+            batchLines = null;
+            labelFeedback.setText(FEEDBACK_BATCH_CANCELLED);
+            break;
+        default :
+            for (String line : userInput.split(LINE_SEPARATOR_REGEX)) {
+                if (!line.trim().isEmpty()) {
+                    batchLines.add(line);
+                }
+            }
+            labelFeedback.setText(String.format(FEEDBACK_BATCH_QUEUED, batchLines.size()));
+            break;
+        }
+    }
+
+    /**
+     * Leave batch mode and execute the queued commands as one command.
+     */
+    private void executeBatch() {
+        List<String> lines = batchLines;
+        batchLines = null;
+
+        ExecuteResult result = l.executeBatch(lines);
+        processCommandType(result, result.getType(), result.getComment());
+    }
+
     /**
      * Process how the UI should react to the user input depending on the command given.
      * 
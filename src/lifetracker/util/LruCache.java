@@ -0,0 +1,64 @@
+package lifetracker.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//@@author A0091173J
+
+/**
+ * A map that remembers at most a fixed number of entries, dropping the least recently used entry when an entry is
+ * added to a full cache. Both reading and writing an entry count as using it.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+public final class LruCache<K, V> extends LinkedHashMap<K, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private int maxSize;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxSize The largest number of entries to remember, where 0 remembers nothing
+     */
+    public LruCache(int maxSize) {
+        super(INITIAL_CAPACITY, LOAD_FACTOR, true);
+
+        assert maxSize >= 0;
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the largest number of entries to remember, dropping the least recently used entries if there are more.
+     *
+     * @param maxSize The largest number of entries to remember, where 0 remembers nothing
+     */
+    public void setMaxSize(int maxSize) {
+        assert maxSize >= 0;
+        this.maxSize = maxSize;
+
+        Iterator<K> keys = keySet().iterator();
+
+        while (size() > maxSize) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maxSize;
+    }
+}
@@ -0,0 +1,5 @@
+//@@author A0091173J
+/**
+ * The util package, which contains small helper classes shared by the other packages.
+ */
+package lifetracker.util;
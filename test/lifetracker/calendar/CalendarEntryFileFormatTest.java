@@ -0,0 +1,329 @@
+package lifetracker.calendar;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//@@author A0091173J
+public class CalendarEntryFileFormatTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Singapore");
+    private static final LocalDateTime START = LocalDateTime.of(2016, 3, 1, 9, 0);
+    private static final String LONG_NAME = "a name long enough to be folded over more than one line, with \u00e9, "
+            + "\u4f60\u597d and \ud83d\ude00 in it";
+
+    @Test
+    public void testForFile() throws Exception {
+        Assert.assertTrue(CalendarEntryFileFormat.forFile("entries.csv") instanceof CalendarEntryCsvFormat);
+        Assert.assertTrue(CalendarEntryFileFormat.forFile("Calendar.ICS") instanceof CalendarEntryIcsFormat);
+        Assert.assertFalse(CalendarEntryFileFormat.isSupported("entries.txt"));
+
+        try {
+            CalendarEntryFileFormat.forFile("entries.txt");
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testReadCsv() throws Exception {
+        String csv = "Name,Done,Start,End,Period,Limit,Notes\r\n"
+                + "buy milk,,,,,,\r\n"
+                + "\"report, final\",no,,2016-03-01T10:00,,,\"says \"\"hi\"\"\"\r\n"
+                + "\r\n"
+                + "standup,,2016-03-01 09:00,2016-03-01 09:15,P1D,5,\n"
+                + "gym,,2016-03-02,2016-03-02T01:30,P1W,2016-04-01,\"two\nlines\"\n"
+                + "old meeting,yes,2016-02-01T09:00,2016-02-01T10:00";
+
+        List<CalendarEntry> entries = readCsv(csv);
+
+        Assert.assertEquals(5, entries.size());
+
+        //Partition: Generic, deadline, recurring event and done event
+        Assert.assertTrue(entries.get(0) instanceof GenericEntry);
+        Assert.assertEquals("buy milk", entries.get(0).getName());
+
+        Assert.assertTrue(entries.get(1) instanceof DeadlineTask);
+        Assert.assertEquals("report, final", entries.get(1).getName());
+        Assert.assertEquals(LocalDateTime.of(2016, 3, 1, 10, 0), entries.get(1).getDateTime(CalendarProperty.END));
+
+        Assert.assertTrue(entries.get(2) instanceof RecurringEvent);
+        Assert.assertEquals(Period.ofDays(1), entries.get(2).getPeriod());
+        Assert.assertEquals(5, entries.get(2).getIntegerProperty(CalendarProperty.OCCURRENCE_LIMIT));
+
+        //Boundary: A date without a time is midnight
+        Assert.assertEquals(LocalDateTime.of(2016, 3, 2, 0, 0), entries.get(3).getDateTime(CalendarProperty.START));
+        Assert.assertEquals(LocalDate.of(2016, 4, 1).atStartOfDay(),
+                entries.get(3).getDateTime(CalendarProperty.DATE_LIMIT));
+
+        Assert.assertTrue(entries.get(4) instanceof Event);
+        Assert.assertFalse(entries.get(4).isProperty(CalendarProperty.ACTIVE));
+    }
+
+    @Test
+    public void testReadInvalidCsv() throws Exception {
+        //Partition: No name column
+        assertCsvError("title,end\nbuy milk,\n", "Line 1");
+
+        //Partition: Invalid date, reported with its line, counting line breaks within quotes
+        assertCsvError("name,end\n\"a\nb\",2016-03-01\nreport,tomorrow\n", "Line 4");
+
+        //Partition: A done entry cannot recur
+        assertCsvError("name,end,period,done\nreport,2016-03-01,P1D,yes\n", "Line 2");
+
+        //Boundary: An unclosed quote at the end of the file
+        assertCsvError("name\n\"buy milk\n", "Line 2");
+    }
+
+    @Test
+    public void testReadIcs() throws Exception {
+        String ics = "BEGIN:VCALENDAR\r\n"
+                + "VERSION:2.0\r\n"
+                + "BEGIN:VTIMEZONE\r\n"
+                + "TZID:Europe/London\r\n"
+                + "BEGIN:STANDARD\r\n"
+                + "DTSTART:19701025T020000\r\n"
+                + "END:STANDARD\r\n"
+                + "END:VTIMEZONE\r\n"
+                + "BEGIN:VEVENT\r\n"
+                + "SUMMARY:Project meeting\\, weekly\r\n"
+                + "DTSTART:20160301T010000Z\r\n"
+                + "DTEND:20160301T020000Z\r\n"
+                + "RRULE:FREQ=WEEKLY;BYDAY=TU;COUNT=10\r\n"
+                + "BEGIN:VALARM\r\n"
+                + "TRIGGER:-PT15M\r\n"
+                + "DESCRIPTION:Reminder\r\n"
+                + "END:VALARM\r\n"
+                + "END:VEVENT\r\n"
+                + "BEGIN:VEVENT\r\n"
+                + "SUMMARY:Long\r\n"
+                + " er name\r\n"
+                + "DTSTART;TZID=\"Europe/London\":20160301T090000\r\n"
+                + "DURATION:PT1H30M\r\n"
+                + "END:VEVENT\r\n"
+                + "BEGIN:VEVENT\r\n"
+                + "SUMMARY:Holiday\r\n"
+                + "DTSTART;VALUE=DATE:20160305\r\n"
+                + "END:VEVENT\r\n"
+                + "BEGIN:VTODO\r\n"
+                + "SUMMARY:Pay rent\r\n"
+                + "DUE:20160301T120000\r\n"
+                + "RRULE:FREQ=MONTHLY;UNTIL=20161231T000000Z\r\n"
+                + "END:VTODO\r\n"
+                + "BEGIN:VTODO\r\n"
+                + "SUMMARY:Old chore\r\n"
+                + "STATUS:COMPLETED\r\n"
+                + "END:VTODO\r\n"
+                + "BEGIN:VEVENT\r\n"
+                + "SUMMARY:Classes\r\n"
+                + "DTSTART:20160301T090000\r\n"
+                + "DTEND:20160301T100000\r\n"
+                + "RRULE:FREQ=WEEKLY;BYDAY=MO,WE,FR\r\n"
+                + "END:VEVENT\r\n"
+                + "BEGIN:VEVENT\r\n"
+                + "SUMMARY:Called off\r\n"
+                + "STATUS:CANCELLED\r\n"
+                + "DTSTART:20160301T090000\r\n"
+                + "END:VEVENT\r\n"
+                + "END:VCALENDAR\r\n";
+
+        List<CalendarEntry> entries = new ArrayList<>();
+        CalendarEntryIcsFormat format = new CalendarEntryIcsFormat(Clock.system(ZONE));
+        int skipped = format.read(new BufferedReader(new StringReader(ics)), entries::add);
+
+        //Partition: Rules with several days and cancelled events are left out
+        Assert.assertEquals(2, skipped);
+        Assert.assertEquals(5, entries.size());
+
+        //Partition: UTC times are converted, escaped text and alarms are handled
+        CalendarEntry meeting = entries.get(0);
+        Assert.assertTrue(meeting instanceof RecurringEvent);
+        Assert.assertEquals("Project meeting, weekly", meeting.getName());
+        Assert.assertEquals(LocalDateTime.of(2016, 3, 1, 9, 0), meeting.getDateTime(CalendarProperty.START));
+        Assert.assertEquals(LocalDateTime.of(2016, 3, 1, 10, 0), meeting.getDateTime(CalendarProperty.END));
+        Assert.assertEquals(Period.ofWeeks(1), meeting.getPeriod());
+        Assert.assertEquals(10, meeting.getIntegerProperty(CalendarProperty.OCCURRENCE_LIMIT));
+
+        //Partition: Folded lines, named time zones and durations
+        CalendarEntry longer = entries.get(1);
+        Assert.assertEquals("Longer name", longer.getName());
+        Assert.assertEquals(LocalDateTime.of(2016, 3, 1, 17, 0), longer.getDateTime(CalendarProperty.START));
+        Assert.assertEquals(LocalDateTime.of(2016, 3, 1, 18, 30), longer.getDateTime(CalendarProperty.END));
+
+        //Boundary: An event on a date takes the whole day
+        CalendarEntry holiday = entries.get(2);
+        Assert.assertEquals(LocalDateTime.of(2016, 3, 5, 0, 0), holiday.getDateTime(CalendarProperty.START));
+        Assert.assertEquals(LocalDateTime.of(2016, 3, 6, 0, 0), holiday.getDateTime(CalendarProperty.END));
+
+        //Partition: Tasks, recurring until a date, and done
+        CalendarEntry rent = entries.get(3);
+        Assert.assertTrue(rent instanceof RecurringTask);
+        Assert.assertEquals(LocalDateTime.of(2016, 3, 1, 12, 0), rent.getDateTime(CalendarProperty.END));
+        Assert.assertEquals(LocalDate.of(2016, 12, 31).atStartOfDay(),
+                rent.getDateTime(CalendarProperty.DATE_LIMIT));
+
+        CalendarEntry chore = entries.get(4);
+        Assert.assertTrue(chore instanceof GenericEntry);
+        Assert.assertFalse(chore.isProperty(CalendarProperty.ACTIVE));
+    }
+
+    @Test
+    public void testWriteCsv() throws Exception {
+        CalendarList calendar = createCalendar();
+
+        //Partition: Active entries only, archived entries only, and both
+        Assert.assertEquals(5, write(new CalendarEntryCsvFormat(), calendar, true, false).split("\r\n").length - 1);
+        Assert.assertEquals(3, write(new CalendarEntryCsvFormat(), calendar, false, true).split("\r\n").length - 1);
+
+        String csv = write(new CalendarEntryCsvFormat(), calendar, true, true);
+        Assert.assertTrue(csv.startsWith("name,start,end,period,limit,done\r\n"));
+        Assert.assertTrue(csv.contains("\"buy milk, eggs\",,,,,\r\n"));
+
+        //Partition: Every entry reads back as it was written
+        Map<String, CalendarEntry> entries = toMap(readCsv(csv));
+        Assert.assertEquals(8, entries.size());
+        for (CalendarEntry entry : toMap(createEntries()).values()) {
+            CalendarEntry readEntry = entries.get(entry.getName());
+
+            Assert.assertEquals(entry.getClass(), readEntry.getClass());
+            Assert.assertEquals(entry.getDateTime(CalendarProperty.START),
+                    readEntry.getDateTime(CalendarProperty.START));
+            Assert.assertEquals(entry.getDateTime(CalendarProperty.END), readEntry.getDateTime(CalendarProperty.END));
+            Assert.assertEquals(entry.isProperty(CalendarProperty.ACTIVE),
+                    readEntry.isProperty(CalendarProperty.ACTIVE));
+            if (entry.isProperty(CalendarProperty.RECURRING)) {
+                Assert.assertEquals(entry.getPeriod(), readEntry.getPeriod());
+                Assert.assertEquals(entry.getIntegerProperty(CalendarProperty.OCCURRENCE_LIMIT),
+                        readEntry.getIntegerProperty(CalendarProperty.OCCURRENCE_LIMIT));
+                Assert.assertEquals(entry.getDateTime(CalendarProperty.DATE_LIMIT),
+                        readEntry.getDateTime(CalendarProperty.DATE_LIMIT));
+            }
+        }
+    }
+
+    @Test
+    public void testWriteIcs() throws Exception {
+        Clock clock = Clock.fixed(Instant.parse("2016-02-29T16:00:00Z"), ZONE);
+        String ics = write(new CalendarEntryIcsFormat(clock), createCalendar(), true, true);
+
+        Assert.assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+        Assert.assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+        Assert.assertTrue(ics.contains("DTSTAMP:20160229T160000Z\r\n"));
+        Assert.assertTrue(ics.contains("SUMMARY:buy milk\\, eggs\r\n"));
+        Assert.assertTrue(ics.contains("RRULE:FREQ=DAILY;COUNT=5\r\n"));
+        Assert.assertTrue(ics.contains("RRULE:FREQ=WEEKLY;INTERVAL=2;UNTIL=20160430T235959\r\n"));
+
+        //Boundary: No line is longer than 75 bytes, without splitting a character
+        for (String line : ics.split("\r\n")) {
+            Assert.assertTrue(line, line.getBytes("UTF-8").length <= 75);
+        }
+
+        Map<String, CalendarEntry> entries = toMap(readIcs(ics, 0));
+        Assert.assertEquals(8, entries.size());
+
+        //Partition: Recurring entries, limited by number or by date
+        CalendarEntry standup = entries.get("standup");
+        Assert.assertTrue(standup instanceof RecurringEvent);
+        Assert.assertEquals(START, standup.getDateTime(CalendarProperty.START));
+        Assert.assertEquals(5, standup.getIntegerProperty(CalendarProperty.OCCURRENCE_LIMIT));
+
+        CalendarEntry review = entries.get("review");
+        Assert.assertTrue(review instanceof RecurringTask);
+        Assert.assertEquals(Period.ofWeeks(2), review.getPeriod());
+        Assert.assertEquals(LocalDate.of(2016, 4, 30).atStartOfDay(), review.getDateTime(CalendarProperty.DATE_LIMIT));
+
+        //Partition: Folded lines read back whole
+        Assert.assertTrue(entries.get(LONG_NAME) instanceof Event);
+
+        //Partition: A period mixing months and days is written as its current occurrence
+        CalendarEntry mixed = entries.get("mixed");
+        Assert.assertTrue(mixed instanceof Event);
+        Assert.assertEquals(START.plusDays(1), mixed.getDateTime(CalendarProperty.START));
+
+        //Partition: Done tasks stay done
+        Assert.assertFalse(entries.get("old chore").isProperty(CalendarProperty.ACTIVE));
+        Assert.assertFalse(entries.get("old report").isProperty(CalendarProperty.ACTIVE));
+    }
+
+    /**
+     * Creates a calendar with some of each kind of entry, with more archived entries than are kept on the heap.
+     */
+    private static CalendarList createCalendar() {
+        CalendarList calendar = new CalendarListImpl(1);
+        calendar.addAll(createEntries());
+        return calendar;
+    }
+
+    private static List<CalendarEntry> createEntries() {
+        CalendarEntry oldChore = new GenericEntry("old chore");
+        CalendarEntry oldReport = new DeadlineTask("old report", START.minusDays(1));
+        CalendarEntry oldMeeting = new Event("old meeting", START.minusDays(2), START.minusDays(2).plusHours(1));
+        oldChore.toggleActive();
+        oldReport.toggleActive();
+        oldMeeting.toggleActive();
+
+        return Arrays.asList(new GenericEntry("buy milk, eggs"),
+                new RecurringEvent("standup", START, START.plusMinutes(15), Period.ofDays(1), 5),
+                new RecurringTask("review", START, Period.ofWeeks(2), LocalDate.of(2016, 4, 30)),
+                new Event(LONG_NAME, START, START.plusHours(1)),
+                new RecurringEvent("mixed", START.plusDays(1), START.plusDays(1).plusHours(1), Period.of(0, 1, 3)),
+                oldChore, oldReport, oldMeeting);
+    }
+
+    private static String write(CalendarEntryFileFormat format, CalendarList calendar, boolean isActiveIncluded,
+            boolean isArchivedIncluded) throws IOException {
+        StringWriter writer = new StringWriter();
+        format.write(calendar, isActiveIncluded, isArchivedIncluded, writer);
+        return writer.toString();
+    }
+
+    private static Map<String, CalendarEntry> toMap(List<CalendarEntry> entries) {
+        Map<String, CalendarEntry> entryMap = new HashMap<>();
+        for (CalendarEntry entry : entries) {
+            entryMap.put(entry.getName(), entry);
+        }
+        return entryMap;
+    }
+
+    private List<CalendarEntry> readIcs(String ics, int expectedSkipped) throws IOException {
+        List<CalendarEntry> entries = new ArrayList<>();
+        CalendarEntryIcsFormat format = new CalendarEntryIcsFormat(Clock.system(ZONE));
+        int skipped = format.read(new BufferedReader(new StringReader(ics)), entries::add);
+
+        Assert.assertEquals(expectedSkipped, skipped);
+        return entries;
+    }
+
+    private List<CalendarEntry> readCsv(String csv) throws IOException {
+        List<CalendarEntry> entries = new ArrayList<>();
+        int skipped = new CalendarEntryCsvFormat().read(new BufferedReader(new StringReader(csv)), entries::add);
+
+        Assert.assertEquals(0, skipped);
+        return entries;
+    }
+
+    private void assertCsvError(String csv, String expectedLine) throws IOException {
+        try {
+            readCsv(csv);
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().startsWith(expectedLine + ":"));
+        }
+    }
+}
@@ -0,0 +1,566 @@
+package lifetracker.calendar;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import lifetracker.calendar.visitor.OldNewEntriesPair;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+//@@author A0091173J
+public class CalendarListImplTest {
+
+    private static final int SPILL_THRESHOLD = 4;
+    private static final LocalDateTime START = LocalDateTime.of(2016, 3, 1, 9, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2016, 3, 1, 10, 30);
+
+    private CalendarListImpl calendar;
+
+    @Before
+    public void setUp() throws Exception {
+        calendar = new CalendarListImpl(SPILL_THRESHOLD);
+    }
+
+    @Test
+    public void testArchiveSpill() throws Exception {
+        //Partition: More archived entries than the threshold
+        List<Integer> archivedIds = addArchived(10);
+        int activeId = calendar.add("active task", END);
+
+        Assert.assertEquals(5, calendar.getArchivedTaskList().size());
+        Assert.assertEquals(5, calendar.getArchivedEventList().size());
+        Assert.assertEquals(1, calendar.getTaskList().size());
+
+        for (int id : archivedIds) {
+            Assert.assertTrue(isPresent(calendar, id));
+            Assert.assertEquals(id, calendar.get(id).getId());
+            Assert.assertFalse(calendar.get(id).isProperty(CalendarProperty.ACTIVE));
+        }
+
+        //Boundary: New IDs continue after the archived entries
+        Assert.assertEquals(activeId, archivedIds.get(archivedIds.size() - 1) + 1);
+
+        //Archived lists keep their order
+        List<CalendarEntry> archivedTasks = calendar.getArchivedTaskList();
+
+        for (int i = 1; i < archivedTasks.size(); i++) {
+            LocalDateTime previous = archivedTasks.get(i - 1).getDateTime(CalendarProperty.END);
+            LocalDateTime current = archivedTasks.get(i).getDateTime(CalendarProperty.END);
+            Assert.assertFalse(current.isAfter(previous));
+        }
+    }
+
+    @Test
+    public void testBulkLoad() throws Exception {
+        calendar.beginBulkLoad();
+        List<Integer> archivedIds = addArchived(10);
+
+        //Partition: Archived entries stay on the heap during a bulk load
+        for (int id : archivedIds) {
+            Assert.assertSame(calendar.get(id), calendar.get(id));
+        }
+
+        //Partition: Archived entries are moved off the heap at the end, and decoded on every get
+        calendar.endBulkLoad();
+
+        for (int id : archivedIds) {
+            Assert.assertNotSame(calendar.get(id), calendar.get(id));
+            Assert.assertEquals(id, calendar.get(id).getId());
+        }
+        Assert.assertEquals(10, calendar.getArchivedTaskList().size() + calendar.getArchivedEventList().size());
+    }
+
+    @Test
+    public void testDeleteFromArchive() throws Exception {
+        List<Integer> archivedIds = addArchived(10);
+        int deletedId = archivedIds.get(0);
+
+        //Partition: Deleting an entry that was moved off the heap
+        CalendarEntry deleted = calendar.delete(deletedId);
+
+        Assert.assertEquals(deletedId, deleted.getId());
+        Assert.assertFalse(isPresent(calendar, deletedId));
+        Assert.assertEquals(9, calendar.getArchivedTaskList().size() + calendar.getArchivedEventList().size());
+
+        //Boundary: Deleting it again fails
+        try {
+            calendar.delete(deletedId);
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+            //Expected
+        }
+
+        //Boundary: Enough deletions to rebuild the segment
+        for (int id : archivedIds.subList(1, 6)) {
+            calendar.delete(id);
+        }
+
+        Assert.assertEquals(4, calendar.getArchivedTaskList().size() + calendar.getArchivedEventList().size());
+
+        for (int id : archivedIds.subList(6, 10)) {
+            Assert.assertTrue(isPresent(calendar, id));
+        }
+    }
+
+    @Test
+    public void testMarkArchived() throws Exception {
+        List<Integer> archivedIds = addArchived(10);
+        int taskId = archivedIds.get(0);
+
+        //Partition: Unmarking an entry that was moved off the heap
+        calendar.mark(taskId);
+
+        Assert.assertTrue(calendar.get(taskId).isProperty(CalendarProperty.ACTIVE));
+        Assert.assertEquals(1, calendar.getTaskList().size());
+        Assert.assertEquals(4, calendar.getArchivedTaskList().size());
+    }
+
+    @Test
+    public void testFindArchived() throws Exception {
+        addArchived(10);
+        calendar.add("active task 0", END);
+
+        //Partition: Search matches archived entries on and off the heap
+        CalendarView result = calendar.findArchivedByName("task");
+
+        Assert.assertEquals(5, result.getTaskList().size());
+        Assert.assertEquals(0, result.getEventList().size());
+
+        //Partition: Search across active and archived entries
+        result = calendar.findAllByName("task");
+
+        Assert.assertEquals(6, result.getTaskList().size());
+
+        //Boundary: No match
+        result = calendar.findArchivedByName("zzzzzz");
+
+        Assert.assertEquals(0, result.getTaskList().size() + result.getEventList().size());
+    }
+
+    @Test
+    public void testCopyAndForEachArchived() throws Exception {
+        List<Integer> archivedIds = addArchived(10);
+
+        CalendarList copy = calendar.copy();
+        calendar.delete(archivedIds.get(0));
+
+        //Copy is not affected by later changes
+        Assert.assertTrue(isPresent(copy, archivedIds.get(0)));
+
+        List<Integer> visitedIds = new ArrayList<>();
+        copy.forEachArchived(entry -> visitedIds.add(entry.getId()));
+        visitedIds.sort(null);
+
+        Assert.assertEquals(archivedIds, visitedIds);
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        List<Integer> archivedIds = addArchived(10);
+        int taskId = calendar.add("task", END);
+        int eventId = calendar.add("event", START, END);
+
+        CalendarView snapshot = calendar.snapshot();
+
+        //Entries are shared, not copied
+        Assert.assertSame(calendar.get(taskId), snapshot.get(taskId));
+
+        calendar.mark(taskId);
+        calendar.updateToEvent(eventId, "renamed", null, null, false);
+        calendar.delete(archivedIds.get(0));
+
+        //Snapshot is not affected by later changes
+        Assert.assertTrue(snapshot.get(taskId).isProperty(CalendarProperty.ACTIVE));
+        Assert.assertEquals("event", snapshot.get(eventId).getName());
+        Assert.assertTrue(isPresent(snapshot, archivedIds.get(0)));
+        Assert.assertFalse(calendar.get(taskId).isProperty(CalendarProperty.ACTIVE));
+
+        List<Integer> visitedIds = new ArrayList<>();
+        snapshot.forEachArchived(entry -> visitedIds.add(entry.getId()));
+        visitedIds.sort(null);
+
+        Assert.assertEquals(archivedIds, visitedIds);
+    }
+
+    @Test
+    public void testNextId() throws Exception {
+        //Partition: IDs are given out in order
+        int firstId = calendar.add("first");
+        int lastId = calendar.add("last", END);
+
+        Assert.assertEquals(firstId + 1, lastId);
+
+        //Boundary: The largest ID is not reused after it is deleted
+        calendar.delete(lastId);
+
+        Assert.assertEquals(lastId + 1, calendar.add("new"));
+
+        //Partition: Entries that keep their ID across an update
+        int eventId = calendar.add("event", START, END);
+        calendar.mark(eventId);
+        calendar.mark(eventId);
+
+        Assert.assertEquals(eventId, calendar.get(eventId).getId());
+        Assert.assertTrue(calendar.get(eventId).isProperty(CalendarProperty.ACTIVE));
+
+        //Boundary: Advancing to a smaller ID has no effect
+        int nextId = calendar.getNextId();
+        calendar.advanceNextId(1);
+
+        Assert.assertEquals(nextId, calendar.getNextId());
+        Assert.assertEquals(nextId, calendar.copy().getNextId());
+    }
+
+    @Test
+    public void testSortedLists() throws Exception {
+        int floatingId = calendar.add("floating");
+        int laterId = calendar.add("later", END.plusDays(2));
+        int soonerId = calendar.add("sooner", END);
+        int tiedId = calendar.add("tied", END);
+        int lateEventId = calendar.add("late event", START.plusDays(1), END.plusDays(1));
+        int earlyEventId = calendar.add("early event", START, END.plusDays(1));
+        int shortEventId = calendar.add("short event", START, END);
+
+        //Partition: Tasks by deadline, ties by ID, no deadline last
+        assertIds(calendar.getTaskList(), soonerId, tiedId, laterId, floatingId);
+
+        //Partition: Events by start, then by end
+        assertIds(calendar.getEventList(), shortEventId, earlyEventId, lateEventId);
+
+        //Lists follow changes to the entries
+        calendar.updateToDeadline(floatingId, "floating", START, false);
+        calendar.delete(tiedId);
+        calendar.mark(shortEventId);
+
+        assertIds(calendar.getTaskList(), floatingId, soonerId, laterId);
+        assertIds(calendar.getEventList(), earlyEventId, lateEventId);
+
+        //Boundary: Inactive entries come after active ones, latest first
+        calendar.mark(floatingId);
+        calendar.mark(soonerId);
+
+        CalendarView result = calendar.findAllByName("");
+
+        assertIds(result.getTaskList(), laterId, soonerId, floatingId);
+    }
+
+    @Test
+    public void testSearchResultView() throws Exception {
+        int todayId = calendar.add("report today", LocalDateTime.now());
+        int laterId = calendar.add("report later", LocalDateTime.now().plusDays(3));
+        calendar.add("lunch", LocalDateTime.now());
+
+        //Partition: Search narrowed to today
+        CalendarView result = calendar.findByName("report").findToday(LocalDateTime.now());
+
+        assertIds(result.getTaskList(), todayId);
+        Assert.assertEquals(todayId, result.get(todayId).getId());
+        Assert.assertFalse(isPresent(result, laterId));
+
+        //Boundary: Results cannot be changed
+        Assert.assertFalse(result instanceof CalendarList);
+    }
+
+    @Test
+    public void testFindInRange() throws Exception {
+        int eventId = calendar.add("workshop", START, END);
+        int dueId = calendar.add("report", END);
+        int laterId = calendar.add("exam", END.plusDays(7));
+        calendar.add("no deadline");
+
+        //Partition: Range covering the first day only
+        CalendarView result = calendar.findInRange(START.toLocalDate().atStartOfDay(), START.plusDays(1));
+
+        assertIds(result.getTaskList(), dueId);
+        assertIds(result.getEventList(), eventId);
+
+        //Partition: Entry moved into the range by an edit
+        calendar.updateToDeadline(laterId, "exam", START, false);
+        result = calendar.findInRange(START, END.plusMinutes(1));
+
+        assertIds(result.getTaskList(), laterId, dueId);
+
+        //Partition: Marked entries are no longer found
+        calendar.mark(dueId);
+        result = calendar.findInRange(START, END.plusMinutes(1));
+
+        assertIds(result.getTaskList(), laterId);
+        Assert.assertTrue(result.findInRange(START, START).getTaskList().isEmpty());
+        assertIds(calendar.copy().findInRange(START, END).getEventList(), eventId);
+    }
+
+    @Test
+    public void testFindAgenda() throws Exception {
+        int weeklyId = calendar.add("lecture", START, END, Period.ofWeeks(1), 3);
+        int dailyId = calendar.add("journal", END, Period.ofDays(1));
+        int dueId = calendar.add("report", END.plusDays(2));
+        int eventId = calendar.add("workshop", START.plusDays(7).minusHours(1), START.plusDays(7).plusHours(1));
+        calendar.add("no deadline");
+
+        //Partition: Occurrences of recurring and one-off entries in order of time
+        CalendarView result = calendar.findAgenda(START, START.plusDays(3));
+
+        assertIds(result.getTaskList(), dailyId, dailyId, dailyId, dueId);
+        assertIds(result.getEventList(), weeklyId);
+        Assert.assertEquals(END.plusDays(2), result.getTaskList().get(2).getDateTime(CalendarProperty.END));
+
+        //Partition: Later occurrences are copies, and the entries are unchanged
+        result = calendar.findAgenda(START.plusDays(7), START.plusDays(15));
+
+        assertIds(result.getEventList(), eventId, weeklyId, weeklyId);
+        Assert.assertEquals(START.plusDays(14), result.getEventList().get(2).getDateTime(CalendarProperty.START));
+        Assert.assertEquals(1, result.getEventList().get(2).getIntegerProperty(CalendarProperty.OCCURRENCE_LIMIT));
+        Assert.assertEquals(START, calendar.get(weeklyId).getDateTime(CalendarProperty.START));
+
+        //Boundary: Nothing past the occurrence limit, or in an empty range
+        Assert.assertTrue(calendar.findAgenda(START.plusDays(15), START.plusDays(30)).getEventList().isEmpty());
+        Assert.assertTrue(calendar.findAgenda(START, START).getTaskList().isEmpty());
+
+        //Partition: Marked entries move on to their next occurrence
+        calendar.mark(dailyId);
+        assertIds(calendar.findAgenda(START, START.plusDays(1)).getTaskList());
+        assertIds(calendar.copy().findAgenda(START, START.plusDays(3)).getTaskList(), dailyId, dailyId, dueId);
+    }
+
+    @Test
+    public void testFindConflicts() throws Exception {
+        int workshopId = calendar.add("workshop", START, END);
+        int lunchId = calendar.add("lunch", END, END.plusHours(1));
+        int weeklyId = calendar.add("lecture", START.minusWeeks(3).plusHours(1), END.minusWeeks(3).plusHours(1),
+                Period.ofWeeks(1));
+        int dueId = calendar.add("report", START.plusMinutes(30));
+
+        //Partition: Overlapping events and occurrences of recurring events, but not tasks
+        Assert.assertEquals(new TreeSet<>(Arrays.asList(weeklyId)), calendar.findConflicts(workshopId));
+        Assert.assertEquals(new TreeSet<>(Arrays.asList(lunchId, workshopId)), calendar.findConflicts(weeklyId));
+        Assert.assertTrue(calendar.findConflicts(dueId).isEmpty());
+
+        //Boundary: Events that only touch do not conflict
+        int breakfastId = calendar.add("breakfast", START.minusHours(1), START);
+        Assert.assertTrue(calendar.findConflicts(breakfastId).isEmpty());
+
+        //Partition: Conflicts follow edits and deletions
+        calendar.delete(weeklyId);
+        Assert.assertTrue(calendar.findConflicts(workshopId).isEmpty());
+
+        calendar.updateToEvent(breakfastId, "breakfast", START.minusHours(1), START.plusMinutes(1), false);
+        Assert.assertEquals(new TreeSet<>(Arrays.asList(breakfastId)), calendar.findConflicts(workshopId));
+    }
+
+    @Test
+    public void testFindFreeSlots() throws Exception {
+        LocalDateTime dayStart = START.toLocalDate().atTime(8, 0);
+        LocalDateTime dayEnd = START.toLocalDate().atTime(18, 0);
+
+        calendar.add("workshop", START, END);
+        calendar.add("overlapping", START.plusMinutes(30), END.plusMinutes(30));
+        calendar.add("standup", START.minusDays(7).withHour(13), START.minusDays(7).withHour(14), Period.ofDays(1));
+        calendar.add("report", START.withHour(16));
+        int doneId = calendar.add("cancelled", START.withHour(16), START.withHour(17));
+        calendar.mark(doneId);
+
+        //Partition: Gaps between events and occurrences of recurring events, but not tasks or archived events
+        List<FreeSlot> slots = calendar.findFreeSlots(Duration.ofHours(1), dayStart, dayEnd, 5);
+
+        Assert.assertEquals(3, slots.size());
+        assertSlot(slots.get(0), dayStart, START);
+        assertSlot(slots.get(1), END.plusMinutes(30), START.withHour(13));
+        assertSlot(slots.get(2), START.withHour(14), dayEnd);
+
+        //Boundary: Gaps shorter than the length, and the limit
+        slots = calendar.findFreeSlots(Duration.ofMinutes(90), dayStart, dayEnd, 1);
+
+        Assert.assertEquals(1, slots.size());
+        assertSlot(slots.get(0), END.plusMinutes(30), START.withHour(13));
+
+        //Boundary: No gap long enough
+        Assert.assertTrue(calendar.findFreeSlots(Duration.ofHours(5), dayStart, dayEnd, 5).isEmpty());
+        Assert.assertTrue(calendar.findFreeSlots(Duration.ofHours(1), START, END, 5).isEmpty());
+
+        //Partition: Search results find the same gaps
+        CalendarView searchResult = calendar.findInRange(START.minusDays(7), dayEnd);
+        Assert.assertEquals(3, searchResult.findFreeSlots(Duration.ofHours(1), dayStart, dayEnd, 5).size());
+    }
+
+    @Test
+    public void testMarkUpTo() throws Exception {
+        int taskId = calendar.add("journal", END, Period.ofDays(1), 10);
+        CalendarListImpl markedOneByOne = new CalendarListImpl(SPILL_THRESHOLD);
+        markedOneByOne.add("journal", END, Period.ofDays(1), 10);
+
+        //Partition: Same as marking each occurrence up to the date
+        OldNewEntriesPair pair = calendar.markUpTo(taskId, END.plusDays(4).toLocalDate());
+
+        for (int i = 0; i < 5; i++) {
+            markedOneByOne.mark(taskId);
+        }
+
+        Assert.assertEquals(5, pair.newEntries.size());
+        Assert.assertEquals(END, pair.oldEntry.getDateTime(CalendarProperty.END));
+        Assert.assertEquals(markedOneByOne.get(taskId).getDateTime(CalendarProperty.END),
+                calendar.get(taskId).getDateTime(CalendarProperty.END));
+        Assert.assertEquals(5, calendar.get(taskId).getIntegerProperty(CalendarProperty.OCCURRENCE_LIMIT));
+        Assert.assertEquals(markedOneByOne.getArchivedTaskList().size(), calendar.getArchivedTaskList().size());
+
+        //Boundary: Marking past the occurrence limit ends the entry
+        pair = calendar.markUpTo(taskId, END.plusYears(1).toLocalDate());
+
+        Assert.assertEquals(5, pair.newEntries.size());
+        Assert.assertFalse(calendar.get(taskId).isProperty(CalendarProperty.ACTIVE));
+        Assert.assertTrue(calendar.getTaskList().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMarkUpToBeforeFirstOccurrence() throws Exception {
+        int taskId = calendar.add("journal", END, Period.ofDays(1));
+
+        calendar.markUpTo(taskId, END.minusDays(1).toLocalDate());
+    }
+
+    @Test
+    public void testFindTodayAtTime() throws Exception {
+        LocalDateTime now = START.plusMinutes(30);
+
+        int ongoingId = calendar.add("workshop", START, END);
+        int overnightId = calendar.add("night shift", START.minusHours(12), START.minusHours(1));
+        int carriedOverId = calendar.add("conference", START.minusDays(1), END);
+        int dueId = calendar.add("report", END.plusHours(12));
+        int examId = calendar.add("exam", END.plusDays(1));
+        int floatingId = calendar.add("no deadline");
+
+        //Partition: Entries checked against the given time, not the current time
+        CalendarView result = calendar.findToday(now);
+
+        assertIds(result.getTaskList(), dueId, floatingId);
+        assertIds(result.getEventList(), carriedOverId, ongoingId);
+        Assert.assertFalse(isPresent(result, overnightId));
+
+        //Boundary: The first instant of the next day
+        result = calendar.findToday(START.toLocalDate().plusDays(1).atStartOfDay());
+
+        assertIds(result.getTaskList(), examId, floatingId);
+        Assert.assertTrue(calendar.get(dueId).isProperty(CalendarProperty.OVER, END.plusDays(1)));
+        Assert.assertFalse(calendar.get(dueId).isProperty(CalendarProperty.OVER, now));
+    }
+
+    @Test
+    public void testManyEntries() throws Exception {
+        //Partition: Enough entries to grow the index several times
+        List<Integer> ids = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            ids.add(calendar.add("task " + i));
+        }
+
+        //Delete every other entry, which closes up the index
+        for (int i = 0; i < ids.size(); i += 2) {
+            calendar.delete(ids.get(i));
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            Assert.assertEquals(i % 2 == 1, isPresent(calendar, ids.get(i)));
+        }
+
+        Assert.assertEquals(500, calendar.getTaskList().size());
+    }
+
+    @Test
+    public void testBinaryRoundTripAfterSpill() throws Exception {
+        addArchived(10);
+        calendar.add("active task", END);
+
+        //Archived entries off the heap are saved together with the rest
+        CalendarEntryBinaryCodec codec = new CalendarEntryBinaryCodec();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        codec.write(calendar, outputStream);
+
+        CalendarList loaded = codec.read(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        Assert.assertEquals(1, loaded.getTaskList().size());
+        Assert.assertEquals(5, loaded.getArchivedTaskList().size());
+        Assert.assertEquals(5, loaded.getArchivedEventList().size());
+        Assert.assertEquals(calendar.getNextId(), loaded.getNextId());
+    }
+
+    private void assertSlot(FreeSlot slot, LocalDateTime expectedStart, LocalDateTime expectedEnd) {
+        Assert.assertEquals(expectedStart, slot.getStart());
+        Assert.assertEquals(expectedEnd, slot.getEnd());
+    }
+
+    private void assertIds(List<CalendarEntry> entries, int... expectedIds) {
+        Assert.assertEquals(expectedIds.length, entries.size());
+
+        for (int i = 0; i < expectedIds.length; i++) {
+            Assert.assertEquals(expectedIds[i], entries.get(i).getId());
+        }
+    }
+
+    @Test
+    public void testAddAll() throws Exception {
+        List<CalendarEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            CalendarEntry entry = new DeadlineTask("imported " + i, END.plusDays(i));
+
+            if (i % 2 == 0) {
+                entry.toggleActive();
+            }
+            entries.add(entry);
+        }
+
+        //Partition: Active and archived entries, more archived than the threshold
+        List<Integer> ids = calendar.addAll(entries);
+
+        Assert.assertEquals(10, ids.size());
+        Assert.assertEquals(5, calendar.getTaskList().size());
+        Assert.assertEquals(5, calendar.getArchivedTaskList().size());
+        for (int i = 0; i < ids.size(); i++) {
+            Assert.assertEquals("imported " + i, calendar.get(ids.get(i)).getName());
+        }
+
+        //Boundary: An invalid entry adds none of them
+        List<CalendarEntry> invalid = Arrays.asList(new GenericEntry("valid"), new GenericEntry(""));
+        try {
+            calendar.addAll(invalid);
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+            Assert.assertEquals(5, calendar.getTaskList().size());
+        }
+    }
+
+    private boolean isPresent(CalendarView calendar, int id) {
+        try {
+            calendar.get(id);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    private List<Integer> addArchived(int count) {
+        List<Integer> ids = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            int id;
+
+            if (i % 2 == 0) {
+                id = calendar.add("task " + i, END.plusDays(i));
+            } else {
+                id = calendar.add("event " + i, START.plusDays(i), END.plusDays(i));
+            }
+
+            calendar.mark(id);
+            ids.add(id);
+        }
+
+        return ids;
+    }
+}
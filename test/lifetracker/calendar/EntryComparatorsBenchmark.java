@@ -0,0 +1,80 @@
+package lifetracker.calendar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+//@@author A0108473E
+
+/**
+ * Compares the time taken to sort task and event lists with {@code EntryComparators} and with the sorting used
+ * before.
+ * <p>
+ * This is not run with the tests. Run it on its own with assertions disabled:
+ * {@code java -cp <classpath> lifetracker.calendar.EntryComparatorsBenchmark}
+ */
+public class EntryComparatorsBenchmark {
+
+    private static final int[] SIZES = {1000, 10000, 100000};
+    private static final int WARM_UP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final long SEED = 20160301L;
+
+    private static final String RESULT_FORMAT = "%1$-7s %2$7d entries: legacy %3$8.2f ms, single pass %4$8.2f ms";
+
+    public static void main(String[] args) {
+        Random random = new Random(SEED);
+
+        for (int size : SIZES) {
+            // Few distinct times, as in a real calendar where many entries share a date
+            List<CalendarEntry> tasks = EntryComparatorsTest.createTasks(random, size, size / 10 + 1);
+            List<CalendarEntry> events = EntryComparatorsTest.createEvents(random, size, size / 10 + 1);
+
+            report("tasks", size, tasks, LegacyEntrySort::sortTasks, list -> {
+                list.sort(EntryComparators.TASK_ORDER);
+                return list;
+            });
+            report("events", size, events, LegacyEntrySort::sortEvents, list -> {
+                list.sort(EntryComparators.EVENT_ORDER);
+                return list;
+            });
+        }
+    }
+
+    private static void report(String label, int size, List<CalendarEntry> entries,
+            UnaryOperator<List<CalendarEntry>> legacySort, UnaryOperator<List<CalendarEntry>> newSort) {
+        double legacyMillis = measure(entries, legacySort);
+        double newMillis = measure(entries, newSort);
+
+        System.out.println(String.format(RESULT_FORMAT, label, size, legacyMillis, newMillis));
+    }
+
+    /**
+     * Returns the average time in milliseconds taken to sort a fresh copy of the entries, after warming up.
+     */
+    private static double measure(List<CalendarEntry> entries, UnaryOperator<List<CalendarEntry>> sort) {
+        int checksum = 0;
+
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            checksum += sort.apply(new ArrayList<>(entries)).size();
+        }
+
+        long totalNanos = 0;
+
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            List<CalendarEntry> copy = new ArrayList<>(entries);
+            long start = System.nanoTime();
+            checksum += sort.apply(copy).size();
+            totalNanos += System.nanoTime() - start;
+        }
+
+        // Keeps the results in use so the sorting cannot be optimized away
+        if (checksum < 0) {
+            System.out.println(checksum);
+        }
+
+        return (double) TimeUnit.NANOSECONDS.toMicros(totalNanos) / MEASURED_ROUNDS / 1000;
+    }
+}
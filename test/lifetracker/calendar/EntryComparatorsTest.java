@@ -0,0 +1,132 @@
+package lifetracker.calendar;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+//@@author A0108473E
+public class EntryComparatorsTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2016, 3, 1, 9, 0);
+    private static final long SEED = 20160301L;
+
+    @Test
+    public void testSameOrderAsLegacySort() throws Exception {
+        Random random = new Random(SEED);
+
+        //Partition: Few distinct times, so many entries tie on every date
+        for (int size : new int[] {0, 1, 2, 50, 1000}) {
+            List<CalendarEntry> tasks = createTasks(random, size, 5);
+            List<CalendarEntry> events = createEvents(random, size, 5);
+
+            assertSameOrder(LegacyEntrySort.sortTasks(new ArrayList<>(tasks)), sort(tasks,
+                    EntryComparators.TASK_ORDER));
+            assertSameOrder(LegacyEntrySort.sortEvents(new ArrayList<>(events)), sort(events,
+                    EntryComparators.EVENT_ORDER));
+        }
+
+        //Partition: Mostly distinct times
+        List<CalendarEntry> tasks = createTasks(random, 1000, 100000);
+        List<CalendarEntry> events = createEvents(random, 1000, 100000);
+
+        assertSameOrder(LegacyEntrySort.sortTasks(new ArrayList<>(tasks)), sort(tasks, EntryComparators.TASK_ORDER));
+        assertSameOrder(LegacyEntrySort.sortEvents(new ArrayList<>(events)), sort(events,
+                EntryComparators.EVENT_ORDER));
+    }
+
+    @Test
+    public void testNoTies() throws Exception {
+        CalendarEntry first = new DeadlineTask("first", BASE_TIME);
+        CalendarEntry second = new DeadlineTask("second", BASE_TIME);
+        first.setId(1);
+        second.setId(2);
+
+        //Boundary: Same deadline, different IDs
+        Assert.assertTrue(EntryComparators.TASK_ORDER.compare(first, second) < 0);
+        Assert.assertEquals(0, EntryComparators.TASK_ORDER.compare(first, first));
+    }
+
+    /**
+     * Creates tasks of every kind, in order of ID, with deadlines picked from the given number of distinct times.
+     */
+    static List<CalendarEntry> createTasks(Random random, int size, int distinctTimes) {
+        List<CalendarEntry> tasks = new ArrayList<>();
+
+        for (int id = 1; id <= size; id++) {
+            LocalDateTime end = BASE_TIME.plusHours(random.nextInt(distinctTimes));
+            CalendarEntry task;
+
+            switch (random.nextInt(4)) {
+                case 0 :
+                    task = new GenericEntry("task " + id);
+                    break;
+                case 1 :
+                    task = new RecurringTask("task " + id, end, Period.ofDays(1));
+                    break;
+                default :
+                    task = new DeadlineTask("task " + id, end);
+                    break;
+            }
+
+            // Recurring tasks are always active
+            if (random.nextInt(3) == 0 && !(task instanceof RecurringTask)) {
+                task.toggleActive();
+            }
+
+            task.setId(id);
+            tasks.add(task);
+        }
+
+        return tasks;
+    }
+
+    /**
+     * Creates events, in order of ID, with start and end times picked from the given number of distinct times.
+     */
+    static List<CalendarEntry> createEvents(Random random, int size, int distinctTimes) {
+        List<CalendarEntry> events = new ArrayList<>();
+
+        for (int id = 1; id <= size; id++) {
+            LocalDateTime start = BASE_TIME.plusHours(random.nextInt(distinctTimes));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(distinctTimes));
+            CalendarEntry event;
+
+            if (random.nextInt(4) == 0) {
+                event = new RecurringEvent("event " + id, start, end, Period.ofWeeks(1));
+            } else {
+                event = new Event("event " + id, start, end);
+
+                if (random.nextInt(3) == 0) {
+                    event.toggleActive();
+                }
+            }
+
+            event.setId(id);
+            events.add(event);
+        }
+
+        return events;
+    }
+
+    private List<CalendarEntry> sort(List<CalendarEntry> entries, Comparator<CalendarEntry> order) {
+        List<CalendarEntry> sorted = new ArrayList<>(entries);
+        Collections.shuffle(sorted, new Random(SEED));
+        sorted.sort(order);
+        return sorted;
+    }
+
+    private void assertSameOrder(List<CalendarEntry> expected, List<CalendarEntry> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertSame(expected.get(i), actual.get(i));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package lifetracker.calendar;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+//@@author A0091173J
+public class IntervalIndexTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2016, 3, 1, 0, 0);
+    private static final long SEED = 20160301L;
+
+    @Test
+    public void testSameAsScan() throws Exception {
+        Random random = new Random(SEED);
+        IntervalIndex intervalIndex = new IntervalIndex();
+
+        List<CalendarEntry> entries = new ArrayList<>(EntryComparatorsTest.createTasks(random, 500, 200));
+        for (CalendarEntry event : EntryComparatorsTest.createEvents(random, 500, 200)) {
+            event.setId(event.getId() + 500);
+            entries.add(event);
+        }
+        entries.forEach(intervalIndex::add);
+
+        //Partition: Every entry in the index
+        assertSameAsScan(random, intervalIndex, entries);
+
+        //Partition: After removing half of the entries
+        List<CalendarEntry> removed = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i += 2) {
+            removed.add(entries.get(i));
+        }
+        removed.forEach(intervalIndex::remove);
+        entries.removeAll(removed);
+
+        Assert.assertEquals(entries.size(), intervalIndex.size());
+        assertSameAsScan(random, intervalIndex, entries);
+    }
+
+    @Test
+    public void testBoundaries() throws Exception {
+        IntervalIndex intervalIndex = new IntervalIndex();
+        LocalDateTime from = BASE_TIME.plusDays(1);
+        LocalDateTime to = BASE_TIME.plusDays(2);
+
+        CalendarEntry endsAtStart = createEvent(1, BASE_TIME, from);
+        CalendarEntry startsAtStart = createEvent(2, from, from.plusHours(1));
+        CalendarEntry startsAtEnd = createEvent(3, to, to.plusHours(1));
+        CalendarEntry spansRange = createEvent(4, BASE_TIME, to.plusDays(1));
+        CalendarEntry dueAtStart = createTask(5, from);
+        CalendarEntry dueAtEnd = createTask(6, to);
+        CalendarEntry noDeadline = new GenericEntry("no deadline");
+        noDeadline.setId(7);
+
+        for (CalendarEntry entry : new CalendarEntry[] {endsAtStart, startsAtStart, startsAtEnd, spansRange,
+            dueAtStart, dueAtEnd, noDeadline}) {
+            intervalIndex.add(entry);
+        }
+
+        List<CalendarEntry> found = intervalIndex.find(from, to);
+
+        //Boundary: Entries at the start of the range are in it, entries at its end are not
+        Assert.assertEquals(3, found.size());
+        Assert.assertTrue(found.contains(startsAtStart));
+        Assert.assertTrue(found.contains(spansRange));
+        Assert.assertTrue(found.contains(dueAtStart));
+
+        //Partition: Entries without a date are kept apart
+        Assert.assertEquals(7, intervalIndex.size());
+        Assert.assertTrue(intervalIndex.getUndatedEntries().contains(noDeadline));
+
+        //Boundary: Empty range
+        Assert.assertTrue(intervalIndex.find(to, from).isEmpty());
+    }
+
+    private void assertSameAsScan(Random random, IntervalIndex intervalIndex, List<CalendarEntry> entries) {
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime from = BASE_TIME.plusHours(random.nextInt(250));
+            LocalDateTime to = from.plusHours(random.nextInt(48));
+
+            Set<CalendarEntry> expected = new HashSet<>();
+            for (CalendarEntry entry : entries) {
+                if (IntervalIndex.isWithin(entry, from, to)) {
+                    expected.add(entry);
+                }
+            }
+
+            List<CalendarEntry> found = intervalIndex.find(from, to);
+
+            Assert.assertEquals(expected.size(), found.size());
+            Assert.assertEquals(expected, new HashSet<>(found));
+        }
+    }
+
+    private CalendarEntry createEvent(int id, LocalDateTime start, LocalDateTime end) {
+        CalendarEntry event = new Event("event " + id, start, end);
+        event.setId(id);
+        return event;
+    }
+
+    private CalendarEntry createTask(int id, LocalDateTime deadline) {
+        CalendarEntry task = new DeadlineTask("task " + id, deadline);
+        task.setId(id);
+        return task;
+    }
+}
@@ -0,0 +1,100 @@
+package lifetracker.calendar;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+//@@author A0108473E
+
+/**
+ * The sorting that {@code CalendarListImpl} used before {@code EntryComparators}, kept to check that the order of the
+ * lists has not changed and to compare the cost of sorting.
+ * <p>
+ * Each method takes the entries in order of ID, as they came out of the {@code TreeMap} of the calendar.
+ */
+class LegacyEntrySort {
+
+    static List<CalendarEntry> sortTasks(List<CalendarEntry> entriesById) {
+        List<CalendarEntry> active = entriesById.stream()
+                .filter(entry -> entry.isProperty(CalendarProperty.ACTIVE)).collect(Collectors.toList());
+
+        sortByDateTime(CalendarProperty.END, active);
+
+        List<CalendarEntry> nonActive = entriesById.stream()
+                .filter(entry -> !entry.isProperty(CalendarProperty.ACTIVE)).collect(Collectors.toList());
+
+        sortReverseByDateTime(CalendarProperty.END, nonActive);
+        active.addAll(nonActive);
+
+        return active;
+    }
+
+    static List<CalendarEntry> sortEvents(List<CalendarEntry> entriesById) {
+        List<CalendarEntry> active = entriesById.stream()
+                .filter(entry -> entry.isProperty(CalendarProperty.ACTIVE)).collect(Collectors.toList());
+
+        sortByDateTime(CalendarProperty.END, active);
+        sortByDateTime(CalendarProperty.START, active);
+
+        List<CalendarEntry> nonActive = entriesById.stream()
+                .filter(entry -> !entry.isProperty(CalendarProperty.ACTIVE)).collect(Collectors.toList());
+
+        sortReverseByDateTime(CalendarProperty.END, nonActive);
+        sortReverseByDateTime(CalendarProperty.START, nonActive);
+
+        active.addAll(nonActive);
+
+        return active;
+    }
+
+    private static List<CalendarEntry> sortByDateTime(CalendarProperty property, List<CalendarEntry> list) {
+        Comparator<CalendarEntry> comparator = (CalendarEntry entry1, CalendarEntry entry2) -> {
+            LocalDateTime date1 = entry1.getDateTime(property);
+            LocalDateTime date2 = entry2.getDateTime(property);
+
+            if (date1 == null && date2 == null) {
+                return 0;
+            } else if (date1 == null) {
+                return 1;
+            } else if (date2 == null) {
+                return -1;
+            } else if (date1.isBefore(date2)) {
+                return -1;
+            } else if (date1.isAfter(date2)) {
+                return 1;
+            } else {
+                return 0;
+            }
+        };
+        Collections.sort(list, comparator);
+        return list;
+    }
+
+    private static List<CalendarEntry> sortReverseByDateTime(CalendarProperty property, List<CalendarEntry> list) {
+        List<CalendarEntry> sortedList = new ArrayList<CalendarEntry>();
+        sortedList = sortByDateTime(property, list);
+        Collections.reverse(sortedList);
+
+        Comparator<CalendarEntry> comparator = (CalendarEntry entry1, CalendarEntry entry2) -> {
+            LocalDateTime date1 = entry1.getDateTime(property);
+            LocalDateTime date2 = entry2.getDateTime(property);
+
+            if (date1 == null && date2 == null) {
+                return 0;
+            } else if (date1 == null) {
+                return 1;
+            } else if (date2 == null) {
+                return -1;
+            } else {
+                return 0;
+            }
+        };
+
+        Collections.sort(sortedList, comparator);
+
+        return sortedList;
+    }
+}
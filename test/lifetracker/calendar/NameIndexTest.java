@@ -0,0 +1,109 @@
+package lifetracker.calendar;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+//@@author A0108473E
+public class NameIndexTest {
+
+    private static final double THRESHOLD = 0.85;
+    private static final String[] WORDS = {"meeting", "Meeting", "meetings", "meet", "CS2103", "CS2103T", "lecture",
+        "lectures", "tutorial", "project", "projector", "a", "ab", "report", "reports", "Report", "revise", "review",
+        "dinner", "diner", "exam", "examination", "x", "mtg", ""};
+
+    @Test
+    public void testLengthBound() throws Exception {
+        Random random = new Random(2103);
+        NameIndex nameIndex = new NameIndex(NameIndexTest::isSimilar, THRESHOLD);
+
+        //Partition: No pair of similar words is skipped because of its lengths
+        for (int i = 0; i < 20000; i++) {
+            String word1 = randomWord(random);
+            String word2 = randomWord(random);
+
+            if (isSimilar(word1, word2)) {
+                Assert.assertTrue(word1 + " " + word2, nameIndex.canBeSimilar(word1.length(), word2.length()));
+            }
+        }
+
+        //Boundary: Words of very different lengths are skipped
+        Assert.assertFalse(nameIndex.canBeSimilar(1, 10));
+        Assert.assertFalse(nameIndex.canBeSimilar(0, 0));
+        Assert.assertTrue(nameIndex.canBeSimilar(7, 8));
+    }
+
+    @Test
+    public void testSameMatchesAsComparingEveryWord() throws Exception {
+        Random random = new Random(2103);
+        NameIndex nameIndex = new NameIndex(NameIndexTest::isSimilar, THRESHOLD);
+        String[] names = new String[200];
+
+        for (int id = 1; id < names.length; id++) {
+            names[id] = randomName(random);
+            nameIndex.add(id, names[id]);
+        }
+
+        //Removed names are no longer found
+        for (int id = 1; id < names.length; id += 3) {
+            nameIndex.remove(id, names[id]);
+            names[id] = null;
+        }
+
+        for (String query : WORDS) {
+            for (String secondWord : new String[] {"", " exam", " Report meet"}) {
+                String toSearch = query + secondWord;
+                Set<Integer> expected = new HashSet<>();
+
+                for (int id = 1; id < names.length; id++) {
+                    if (names[id] != null && containsAnyWord(names[id], toSearch)) {
+                        expected.add(id);
+                    }
+                }
+
+                Assert.assertEquals(toSearch, expected, nameIndex.find(toSearch));
+            }
+        }
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+
+        for (int i = random.nextInt(3); i > 0; i--) {
+            name.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return name.toString();
+    }
+
+    private static String randomWord(Random random) {
+        if (random.nextBoolean()) {
+            return WORDS[random.nextInt(WORDS.length)];
+        }
+
+        char[] letters = new char[1 + random.nextInt(12)];
+
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(3));
+        }
+        return new String(letters);
+    }
+
+    private static boolean containsAnyWord(String entryName, String toSearch) {
+        for (String word1 : toSearch.split(" ")) {
+            for (String word2 : entryName.split(" ")) {
+                if (isSimilar(word1, word2)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSimilar(String word1, String word2) {
+        return StringUtils.getJaroWinklerDistance(word1, word2) > THRESHOLD;
+    }
+}
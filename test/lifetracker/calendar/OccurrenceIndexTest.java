@@ -0,0 +1,98 @@
+package lifetracker.calendar;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+//@@author A0091173J
+public class OccurrenceIndexTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2016, 3, 1, 0, 0);
+    private static final Period[] PERIODS = {Period.ofDays(1), Period.ofWeeks(1), Period.ofMonths(1),
+        Period.of(0, 1, 3)};
+    private static final long SEED = 20160302L;
+
+    @Test
+    public void testSameAsScan() throws Exception {
+        Random random = new Random(SEED);
+        OccurrenceIndex occurrenceIndex = new OccurrenceIndex();
+
+        List<CalendarEntry> entries = createEvents(random, 0, 100);
+        entries.forEach(occurrenceIndex::add);
+
+        //Partition: Ranges that grow the window, start a new one, or are too long for one
+        assertSameAsScan(random, occurrenceIndex, entries);
+
+        //Partition: Entries added and removed while there is a window
+        List<CalendarEntry> removed = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i += 2) {
+            removed.add(entries.get(i));
+        }
+        removed.forEach(occurrenceIndex::remove);
+        entries.removeAll(removed);
+
+        List<CalendarEntry> added = createEvents(random, 100, 50);
+        added.forEach(occurrenceIndex::add);
+        entries.addAll(added);
+
+        assertSameAsScan(random, occurrenceIndex, entries);
+    }
+
+    @Test
+    public void testEmptyRange() throws Exception {
+        OccurrenceIndex occurrenceIndex = new OccurrenceIndex();
+        occurrenceIndex.add(new RecurringEvent("standup", BASE_TIME, BASE_TIME.plusHours(1), Period.ofDays(1)));
+
+        //Boundary: Empty and reversed ranges
+        Assert.assertTrue(occurrenceIndex.find(BASE_TIME, BASE_TIME).isEmpty());
+        Assert.assertTrue(occurrenceIndex.find(BASE_TIME.plusDays(1), BASE_TIME).isEmpty());
+
+        //Boundary: Occurrences ending at the start of the range
+        Assert.assertEquals(1, occurrenceIndex.find(BASE_TIME.plusHours(1), BASE_TIME.plusDays(1).plusHours(1))
+                .size());
+    }
+
+    private void assertSameAsScan(Random random, OccurrenceIndex occurrenceIndex, List<CalendarEntry> entries) {
+        for (int i = 0; i < 300; i++) {
+            LocalDateTime from = BASE_TIME.plusDays(random.nextInt(1500)).plusHours(random.nextInt(24));
+            LocalDateTime to = from.plusHours(random.nextInt(i % 10 == 0 ? 30000 : 200));
+
+            List<String> expected = new ArrayList<>();
+            for (CalendarEntry entry : entries) {
+                Recurrence.stream(entry, from, to).forEach(occurrence -> expected.add(describe(occurrence)));
+            }
+            List<String> actual = occurrenceIndex.find(from, to).stream().map(this::describe)
+                    .collect(Collectors.toList());
+
+            expected.sort(null);
+            actual.sort(null);
+            Assert.assertEquals(from + " " + to, expected, actual);
+        }
+    }
+
+    private String describe(Occurrence occurrence) {
+        return occurrence.getEntry().getId() + "@" + occurrence.getStart() + "#" + occurrence.getIndex();
+    }
+
+    private List<CalendarEntry> createEvents(Random random, int firstId, int count) {
+        List<CalendarEntry> events = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = BASE_TIME.plusDays(random.nextInt(400)).plusMinutes(random.nextInt(1440));
+            LocalDateTime end = start.plusMinutes(random.nextInt(3000));
+            Period period = PERIODS[random.nextInt(PERIODS.length)];
+
+            RecurringEvent event = random.nextBoolean() ? new RecurringEvent("event", start, end, period)
+                    : new RecurringEvent("event", start, end, period, 1 + random.nextInt(50));
+            event.setId(firstId + i + 1);
+            events.add(event);
+        }
+        return events;
+    }
+}
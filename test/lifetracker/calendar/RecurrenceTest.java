@@ -0,0 +1,138 @@
+package lifetracker.calendar;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+//@@author A0108473E
+public class RecurrenceTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2016, 1, 29, 9, 0);
+    private static final Period[] PERIODS = {Period.ofDays(1), Period.ofWeeks(1), Period.ofDays(10),
+        Period.ofMonths(1), Period.ofMonths(3), Period.ofYears(1), Period.of(0, 1, 1)};
+    private static final long SEED = 20160129L;
+
+    @Test
+    public void testSameAsMarking() throws Exception {
+        Random random = new Random(SEED);
+
+        for (int i = 0; i < 500; i++) {
+            CalendarEntry entry = createEntry(random);
+            LocalDateTime from = BASE_TIME.plusDays(random.nextInt(800) - 30).plusHours(random.nextInt(24));
+            LocalDateTime to = from.plusDays(random.nextInt(200));
+
+            List<LocalDateTime> expected = markUntil(entry, from, to);
+            List<LocalDateTime> actual = Recurrence.stream(entry, from, to).map(Occurrence::getStart)
+                    .collect(Collectors.toList());
+
+            Assert.assertEquals(entry.getPeriod() + " " + from, expected, actual);
+        }
+    }
+
+    @Test
+    public void testLimits() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2016, 3, 31, 9, 0);
+        LocalDateTime end = start.plusHours(2);
+
+        //Partition: Occurrence limit
+        RecurringEvent limited = new RecurringEvent("lecture", start, end, Period.ofWeeks(1), 3);
+        Assert.assertEquals(3, Recurrence.stream(limited, start, LocalDateTime.MAX).count());
+
+        //Partition: Date limit is on the start of an event, including the last day
+        RecurringEvent dateLimited = new RecurringEvent("lecture", start, end, Period.ofDays(1),
+                LocalDate.of(2016, 4, 2));
+        Assert.assertEquals(3, Recurrence.stream(dateLimited, start, LocalDateTime.MAX).count());
+
+        //Boundary: An overnight event starting on the limit date ends after it
+        RecurringEvent overnight = new RecurringEvent("night", LocalDateTime.of(2016, 3, 1, 22, 0),
+                LocalDateTime.of(2016, 3, 2, 2, 0), Period.ofDays(1), LocalDate.of(2016, 3, 3));
+        List<Occurrence> nights = Recurrence.stream(overnight, start.minusMonths(1), LocalDateTime.MAX)
+                .collect(Collectors.toList());
+        Assert.assertEquals(3, nights.size());
+
+        CalendarEntry lastNight = nights.get(2).toEntry();
+        Assert.assertEquals(LocalDateTime.of(2016, 3, 3, 22, 0), lastNight.getDateTime(CalendarProperty.START));
+        Assert.assertEquals(LocalDateTime.of(2016, 3, 4, 2, 0), lastNight.getDateTime(CalendarProperty.END));
+
+        //Boundary: Jumping past the limit
+        Assert.assertEquals(0, Recurrence.stream(limited, start.plusYears(1), LocalDateTime.MAX).count());
+
+        //Partition: Entries that do not recur
+        Assert.assertEquals(1, Recurrence.stream(new Event("exam", start, end), start, end).count());
+        Assert.assertEquals(0, Recurrence.stream(new Event("exam", start, end), end, end.plusDays(1)).count());
+        Assert.assertEquals(0, Recurrence.stream(new GenericEntry("read"), start, end).count());
+    }
+
+    @Test
+    public void testUnchangedEntry() throws Exception {
+        LocalDateTime deadline = LocalDateTime.of(2016, 1, 15, 9, 0);
+        RecurringTask task = new RecurringTask("pay rent", deadline, Period.ofMonths(1));
+        Iterator<Occurrence> iterator = Recurrence.iterator(task, deadline.plusYears(2), LocalDateTime.MAX);
+
+        //Partition: Jumping to a far away occurrence
+        Occurrence occurrence = iterator.next();
+        Assert.assertEquals(deadline.plusYears(2), occurrence.getEnd());
+        Assert.assertEquals(24, occurrence.getIndex());
+        Assert.assertSame(task, occurrence.getEntry());
+        Assert.assertEquals(deadline, task.getDateTime(CalendarProperty.END));
+
+        //Boundary: Shortened months are kept, as marking the task would
+        RecurringTask endOfMonth = new RecurringTask("pay rent", BASE_TIME, Period.ofMonths(1));
+        occurrence = Recurrence.iterator(endOfMonth, BASE_TIME.plusYears(2), LocalDateTime.MAX).next();
+        Assert.assertEquals(LocalDateTime.of(2018, 2, 28, 9, 0), occurrence.getEnd());
+    }
+
+    private CalendarEntry createEntry(Random random) {
+        LocalDateTime start = BASE_TIME.plusDays(random.nextInt(5)).plusHours(random.nextInt(12));
+        LocalDateTime end = start.plusHours(1 + random.nextInt(30));
+        Period period = PERIODS[random.nextInt(PERIODS.length)];
+        boolean isEvent = random.nextBoolean();
+
+        switch (random.nextInt(3)) {
+            case 0 :
+                int limit = 1 + random.nextInt(40);
+                return isEvent ? new RecurringEvent("event", start, end, period, limit) :
+                        new RecurringTask("task", end, period, limit);
+            case 1 :
+                LocalDate dateLimit = end.toLocalDate().plusDays(random.nextInt(400));
+                return isEvent ? new RecurringEvent("event", start, end, period, dateLimit) :
+                        new RecurringTask("task", end, period, dateLimit);
+            default :
+                return isEvent ? new RecurringEvent("event", start, end, period) :
+                        new RecurringTask("task", end, period);
+        }
+    }
+
+    /**
+     * Returns the starts of the occurrences within the range, found by marking a copy of the entry repeatedly.
+     */
+    private List<LocalDateTime> markUntil(CalendarEntry entry, LocalDateTime from, LocalDateTime to) {
+        RecurringTask copy = entry instanceof RecurringEvent ? new RecurringEvent((RecurringEvent) entry) :
+                new RecurringTask((RecurringTask) entry);
+        List<LocalDateTime> starts = new ArrayList<>();
+
+        while (true) {
+            LocalDateTime start = copy.getDateTime(CalendarProperty.START);
+            start = start == null ? copy.getDateTime(CalendarProperty.END) : start;
+
+            if (!start.isBefore(to)) {
+                return starts;
+            }
+            if (IntervalIndex.isWithin(copy, from, to)) {
+                starts.add(start);
+            }
+            if (!copy.hasNext()) {
+                return starts;
+            }
+            copy.updateToNext();
+        }
+    }
+}
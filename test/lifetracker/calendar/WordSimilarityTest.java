@@ -0,0 +1,73 @@
+package lifetracker.calendar;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+//@@author A0108473E
+public class WordSimilarityTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Before
+    public void setUp() throws Exception {
+        WordSimilarity.setCacheSize(WordSimilarity.DEFAULT_CACHE_SIZE);
+        WordSimilarity.clear();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        WordSimilarity.setCacheSize(WordSimilarity.DEFAULT_CACHE_SIZE);
+        WordSimilarity.clear();
+    }
+
+    @Test
+    public void testCachedScore() throws Exception {
+        //Partition: First lookup computes the score
+        double score = WordSimilarity.getScore("meeting", "meetings");
+
+        Assert.assertEquals(StringUtils.getJaroWinklerDistance("meeting", "meetings"), score, DELTA);
+        Assert.assertEquals(0, WordSimilarity.getHitCount());
+        Assert.assertEquals(1, WordSimilarity.getMissCount());
+
+        //Partition: Repeated lookup is a hit with the same score
+        Assert.assertEquals(score, WordSimilarity.getScore("meeting", "meetings"), DELTA);
+        Assert.assertEquals(1, WordSimilarity.getHitCount());
+
+        //Boundary: Order of the words is part of the key
+        WordSimilarity.getScore("meetings", "meeting");
+        Assert.assertEquals(2, WordSimilarity.getMissCount());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        WordSimilarity.setCacheSize(2);
+
+        WordSimilarity.getScore("a", "b");
+        WordSimilarity.getScore("c", "d");
+        WordSimilarity.getScore("a", "b");
+        WordSimilarity.getScore("e", "f");
+
+        //Least recently used score is dropped
+        WordSimilarity.getScore("a", "b");
+        Assert.assertEquals(2, WordSimilarity.getHitCount());
+
+        WordSimilarity.getScore("c", "d");
+        Assert.assertEquals(4, WordSimilarity.getMissCount());
+
+        //Boundary: Size of 0 turns the cache off
+        WordSimilarity.setCacheSize(0);
+        WordSimilarity.getScore("a", "b");
+        WordSimilarity.getScore("a", "b");
+
+        Assert.assertEquals(2, WordSimilarity.getHitCount());
+        Assert.assertEquals(6, WordSimilarity.getMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeSize() throws Exception {
+        WordSimilarity.setCacheSize(-1);
+    }
+}
@@ -1,10 +1,14 @@
 package lifetracker.command;
 
 import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarListImpl;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.Arrays;
+import java.util.HashSet;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -87,6 +91,63 @@ public class AddCommandTest {
         Assert.assertEquals("3: \"event\" removed.", addCommand.getComment());
     }
 
+    @Test
+    public void testHighlightConflicts() throws Exception {
+        AddCommand addCommand = new AddCommand("event", LocalDateTime.MIN, LocalDateTime.MAX);
+        CalendarList calendar = mock(CalendarList.class);
+        when(calendar.add("event", LocalDateTime.MIN, LocalDateTime.MAX)).thenReturn(3);
+        when(calendar.findConflicts(3)).thenReturn(new HashSet<>(Arrays.asList(1, 2)));
+
+        addCommand.execute(calendar);
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), addCommand.getHighlightEntries());
+        Assert.assertEquals("\"event\" is added.", addCommand.getComment());
+    }
+
+    @Test
+    public void testRedo() throws Exception {
+        CalendarListImpl calendar = new CalendarListImpl();
+
+        //Partition: entry is marked in place
+        AddCommand addCommand = new AddCommand("task");
+        MarkCommand markCommand = new MarkCommand(1);
+
+        addCommand.execute(calendar);
+        markCommand.execute(calendar);
+        markCommand.undo(calendar);
+        addCommand.undo(calendar);
+        addCommand.execute(calendar);
+        markCommand.execute(calendar);
+
+        Assert.assertTrue(calendar.getTaskList().isEmpty());
+        Assert.assertEquals(1, calendar.getArchivedTaskList().size());
+        Assert.assertEquals(1, calendar.getArchivedTaskList().get(0).getId());
+
+        //Partition: marking a recurring entry adds a done copy
+        calendar = new CalendarListImpl();
+        addCommand = new AddRecurringCommand("report", LocalDateTime.now().plusDays(1), Period.ofDays(1));
+        markCommand = new MarkCommand(1);
+
+        addCommand.execute(calendar);
+        markCommand.execute(calendar);
+        markCommand.undo(calendar);
+        addCommand.undo(calendar);
+        addCommand.execute(calendar);
+        markCommand.execute(calendar);
+
+        Assert.assertEquals(1, calendar.getTaskList().size());
+        Assert.assertEquals(1, calendar.getTaskList().get(0).getId());
+        Assert.assertEquals(1, calendar.getArchivedTaskList().size());
+        Assert.assertEquals(2, calendar.getArchivedTaskList().get(0).getId());
+
+        //The redone commands can still be undone
+        markCommand.undo(calendar);
+        addCommand.undo(calendar);
+
+        Assert.assertTrue(calendar.getTaskList().isEmpty());
+        Assert.assertTrue(calendar.getArchivedTaskList().isEmpty());
+    }
+
     @Test(expected = AssertionError.class)
     public void testPrematureUndo() throws Exception {
         AddCommand addCommand = new AddCommand("test");
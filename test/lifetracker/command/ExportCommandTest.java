@@ -0,0 +1,63 @@
+package lifetracker.command;
+
+import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarListImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+//@@author A0091173J
+public class ExportCommandTest {
+
+    private static final LocalDateTime END = LocalDateTime.of(2016, 3, 1, 10, 0);
+
+    @Test
+    public void testExecute() throws Exception {
+        Path directory = Files.createTempDirectory("export");
+        Path file = directory.resolve("entries.csv");
+
+        try {
+            CalendarList calendar = new CalendarListImpl();
+            calendar.add("report", END);
+            calendar.add("meeting", END, END.plusHours(1));
+
+            ExportCommand exportCommand = new ExportCommand(file.toString(), true, false);
+
+            //Partition: The calendar is returned as it is, and the file is written
+            Assert.assertSame(calendar, exportCommand.execute(calendar));
+            Assert.assertEquals("Exporting entries to " + file + ".", exportCommand.getComment());
+
+            exportCommand.awaitExport();
+
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            Assert.assertEquals(3, lines.size());
+            Assert.assertEquals("report,,2016-03-01T10:00:00,,,", lines.get(1));
+            Assert.assertFalse(Files.exists(directory.resolve("entries.csv.tmp")));
+
+            //Partition: Undo displays the entries again, leaving the file
+            Assert.assertSame(calendar, exportCommand.undo(calendar));
+            Assert.assertTrue(Files.exists(file));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testExecuteUnsupportedFile() throws Exception {
+        ExportCommand exportCommand = new ExportCommand("entries.txt", true, true);
+
+        //Boundary: The file type is checked before anything is written
+        try {
+            exportCommand.execute(new CalendarListImpl());
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+            Assert.assertEquals("entries.txt is not a .csv or .ics file!", ex.getMessage());
+        }
+    }
+}
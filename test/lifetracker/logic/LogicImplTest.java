@@ -1,20 +1,29 @@
 package lifetracker.logic;
 
 import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarListImpl;
 import lifetracker.command.AddCommand;
 import lifetracker.logic.ExecuteResult.CommandType;
 import lifetracker.parser.Parser;
 import lifetracker.storage.Storage;
+import lifetracker.storage.StoreReader;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,6 +37,7 @@ public class LogicImplTest {
     private static final String COMMAND_HELP = "help";
     private static final String COMMAND_ADD_FIRST = "add first meeting";
     private static final String COMMAND_ADD_SECOND = "add second meeting by 2016-12-31 23:59:59";
+    private static final String COMMAND_ADD_CLOCK = "add submit report by 2016-03-01 10:00:00";
     private static final String COMMAND_ADD_THIRD = "add third meeting from 2017-01-01 00:00:00 to 2017-01-01 23:59:59";
     private static final String COMMAND_ERROR_MONTH1 = "add error meeting by 2016-00-31 23:59:59";
     private static final String COMMAND_ERROR_MONTH2 = "add error meeting by 2016-13-31 23:59:59";
@@ -39,6 +49,9 @@ public class LogicImplTest {
     private static final String COMMAND_ERROR_MINUTE2 = "add error meeting by 2016-12-31 23:60:59";
     private static final String COMMAND_ERROR_SECOND1 = "add error meeting by 2016-12-31 23:59:-1";
     private static final String COMMAND_ERROR_SECOND2 = "add error meeting by 2016-12-31 23:59:60";
+    private static final String COMMAND_BATCH_FIRST = "add first batch meeting";
+    private static final String COMMAND_BATCH_SECOND = "add second batch meeting";
+    private static final String COMMAND_BATCH_ERROR = "add error batch meeting by 2016-13-31 23:59:59";
     
     //expected comment after execution
     private static final String COMMENT_SAVE = "Calendar is saved at ";
@@ -48,6 +61,9 @@ public class LogicImplTest {
 
     //error comment after execution
     private static final String COMMENT_INVALID_COMMAND = "Invalid Command: null";
+    private static final String COMMENT_INVALID_BATCH = "Invalid Command: Line 3: null";
+    private static final String COMMENT_UNDO_IN_BATCH = "Invalid Command: Line 2: undo cannot be run in a batch!";
+    private static final String COMMENT_EMPTY_BATCH = "Invalid Command: There are no commands to execute!";
     
     //test store constant
     private static final String DEFAULT_CONFIG_FILENAME = "config.properties";
@@ -108,6 +124,8 @@ public class LogicImplTest {
         }
 
         when(storage.load()).thenReturn("");
+        when(storage.loadWith(any())).thenAnswer(invocation -> ((StoreReader<?>) invocation.getArguments()[0])
+                .readFrom(new ByteArrayInputStream(new byte[0])));
     }
 
     @AfterClass
@@ -203,6 +221,29 @@ public class LogicImplTest {
         assertEquals(expected2.getType(), actual.getType());
     }
 
+    //Entries are shown as overdue according to the clock given to logic, read once per command
+    @Test
+    public void testOverdueAtClockTime() throws IOException {
+        LocalDateTime deadline = LocalDateTime.of(2016, 3, 1, 10, 0);
+        ZoneId zone = ZoneId.systemDefault();
+        CalendarList list = new CalendarListImpl();
+        list.add("submit report", deadline);
+
+        AddCommand object = mock(AddCommand.class);
+        when(object.getComment()).thenReturn(COMMENT_ADD_SECOND);
+        when(object.execute(any(CalendarList.class))).thenReturn(list);
+        when(parser.parse(COMMAND_ADD_CLOCK)).thenReturn(object);
+
+        Clock beforeDeadline = Clock.fixed(deadline.minusHours(1).atZone(zone).toInstant(), zone);
+        Clock afterDeadline = Clock.fixed(deadline.plusHours(1).atZone(zone).toInstant(), zone);
+
+        ExecuteResult actual = new LogicImpl(parser, storage, beforeDeadline).executeCommand(COMMAND_ADD_CLOCK);
+        assertEquals(false, actual.getTaskList().get(0).getOverdue());
+
+        actual = new LogicImpl(parser, storage, afterDeadline).executeCommand(COMMAND_ADD_CLOCK);
+        assertEquals(true, actual.getTaskList().get(0).getOverdue());
+    }
+
     //This is the lower bound of the boundary case for the valid partition
     @Test
     public void testAddEvent() {
@@ -312,4 +353,61 @@ public class LogicImplTest {
         assertEquals(error.getComment(), actual10.getComment());
         assertEquals(error.getType(), actual10.getType());
     }
+
+    //A batch is executed as one command and stored once, however many commands it has
+    @Test
+    public void testBatchStoresOnce() throws IOException {
+        Storage batchStorage = mock(Storage.class);
+        when(batchStorage.loadWith(any())).thenAnswer(invocation -> ((StoreReader<?>) invocation.getArguments()[0])
+                .readFrom(new ByteArrayInputStream(new byte[0])));
+        LogicImpl batchLogic = new LogicImpl(parser, batchStorage);
+
+        AddCommand first = mock(AddCommand.class);
+        AddCommand second = mock(AddCommand.class);
+        CalendarList list = mock(CalendarList.class);
+
+        when(first.execute(any(CalendarList.class))).thenReturn(list);
+        when(second.getComment()).thenReturn(COMMENT_ADD_SECOND);
+        when(second.execute(any(CalendarList.class))).thenReturn(list);
+        when(first.undo(any(CalendarList.class))).thenReturn(list);
+        when(second.undo(any(CalendarList.class))).thenReturn(list);
+        when(parser.parse(COMMAND_BATCH_FIRST)).thenReturn(first);
+        when(parser.parse(COMMAND_BATCH_SECOND)).thenReturn(second);
+
+        ExecuteResult actual = batchLogic.executeBatch(Arrays.asList(COMMAND_BATCH_FIRST, "", COMMAND_BATCH_SECOND));
+
+        assertEquals(CommandType.DISPLAY, actual.getType());
+        assertEquals("2 commands executed. Last: " + COMMENT_ADD_SECOND, actual.getComment());
+        verify(first).execute(any(CalendarList.class));
+        verify(second).execute(any(CalendarList.class));
+        verify(batchStorage, times(1)).storeWith(any());
+
+        //One undo reverts the whole batch
+        batchLogic.executeCommand("undo");
+        verify(second).undo(any(CalendarList.class));
+        verify(first).undo(any(CalendarList.class));
+    }
+
+    //No command in a batch is executed if any line cannot be parsed
+    @Test
+    public void testBatchError() {
+        AddCommand first = mock(AddCommand.class);
+        when(parser.parse(COMMAND_BATCH_FIRST)).thenReturn(first);
+        when(parser.parse(COMMAND_BATCH_ERROR)).thenThrow(new IllegalArgumentException());
+
+        ExecuteResult actual = logicTest.executeBatch(
+                Arrays.asList(COMMAND_BATCH_FIRST, COMMAND_BATCH_SECOND, COMMAND_BATCH_ERROR));
+        assertEquals(COMMENT_INVALID_BATCH, actual.getComment());
+        assertEquals(CommandType.ERROR, actual.getType());
+
+        actual = logicTest.executeBatch(Arrays.asList(COMMAND_BATCH_FIRST, "undo"));
+        assertEquals(COMMENT_UNDO_IN_BATCH, actual.getComment());
+        assertEquals(CommandType.ERROR, actual.getType());
+
+        actual = logicTest.executeBatch(Arrays.asList("", "  "));
+        assertEquals(COMMENT_EMPTY_BATCH, actual.getComment());
+        assertEquals(CommandType.ERROR, actual.getType());
+
+        verify(first, never()).execute(any(CalendarList.class));
+    }
 }
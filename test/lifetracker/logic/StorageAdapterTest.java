@@ -0,0 +1,205 @@
+package lifetracker.logic;
+
+import lifetracker.calendar.CalendarEntry;
+import lifetracker.calendar.CalendarList;
+import lifetracker.calendar.CalendarListImpl;
+import lifetracker.calendar.CalendarProperty;
+import lifetracker.storage.ThreadedFileStorage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+import java.util.logging.LogManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+//@@author A0149467N
+
+public class StorageAdapterTest {
+
+    private static final String TEST_STORE = "storage_adapter_test.dat";
+    private static final String CONVERTED_STORE = "storage_adapter_converted.dat";
+
+    private static final LocalDateTime START = LocalDateTime.of(2016, 3, 1, 9, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2016, 3, 1, 10, 30);
+
+    private ThreadedFileStorage storage;
+
+    @Before
+    public void setUp() throws IOException {
+        LogManager.getLogManager().reset();
+
+        deleteTestStore();
+        storage = new ThreadedFileStorage(TEST_STORE);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        storage.close();
+        deleteTestStore();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        CalendarList calendar = createCalendar();
+
+        //Compact output
+        new StorageAdapter(storage).store(calendar);
+        storage.close();
+
+        String content = new String(Files.readAllBytes(Paths.get(TEST_STORE)), StandardCharsets.UTF_8);
+        assertTrue(!content.contains("\n"));
+
+        storage = new ThreadedFileStorage(TEST_STORE);
+        assertSameCalendar(calendar, new StorageAdapter(storage).load());
+
+        //Pretty printed output
+        new StorageAdapter(storage, true).store(calendar);
+        storage.close();
+
+        content = new String(Files.readAllBytes(Paths.get(TEST_STORE)), StandardCharsets.UTF_8);
+        assertTrue(content.contains("\n"));
+
+        storage = new ThreadedFileStorage(TEST_STORE);
+        assertSameCalendar(calendar, new StorageAdapter(storage).load());
+    }
+
+    @Test
+    public void testBinaryRoundTrip() throws Exception {
+        CalendarList calendar = createCalendar();
+
+        new StorageAdapter(storage, SaveFormat.JSON, false).store(calendar);
+        storage.close();
+        long jsonSize = new File(TEST_STORE).length();
+
+        storage = new ThreadedFileStorage(TEST_STORE);
+        new StorageAdapter(storage, SaveFormat.BINARY, false).store(calendar);
+        storage.close();
+        long binarySize = new File(TEST_STORE).length();
+
+        assertTrue(binarySize < jsonSize);
+
+        //Format is detected on load
+        storage = new ThreadedFileStorage(TEST_STORE);
+        assertSameCalendar(calendar, new StorageAdapter(storage).load());
+    }
+
+    @Test
+    public void testNextIdRoundTrip() throws Exception {
+        CalendarList calendar = createCalendar();
+        int deletedId = calendar.add("deleted");
+        calendar.delete(deletedId);
+
+        for (SaveFormat format : SaveFormat.values()) {
+            //Partition: The ID of a deleted entry is not reused after loading
+            new StorageAdapter(storage, format, false).store(calendar);
+            storage.close();
+
+            storage = new ThreadedFileStorage(TEST_STORE);
+            assertEquals(deletedId + 1, new StorageAdapter(storage).load().getNextId());
+        }
+    }
+
+    @Test
+    public void testConvert() throws Exception {
+        CalendarList calendar = createCalendar();
+
+        new StorageAdapter(storage).store(calendar);
+        storage.close();
+
+        String json = new String(Files.readAllBytes(Paths.get(TEST_STORE)), StandardCharsets.UTF_8);
+
+        //Json to binary and back gives the same Json
+        SaveFileConverter.convert(TEST_STORE, CONVERTED_STORE, SaveFormat.BINARY);
+        SaveFileConverter.convert(CONVERTED_STORE, TEST_STORE, SaveFormat.JSON);
+
+        assertEquals(json, new String(Files.readAllBytes(Paths.get(TEST_STORE)), StandardCharsets.UTF_8));
+
+        storage = new ThreadedFileStorage(TEST_STORE);
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoadUnsupportedVersion() throws Exception {
+        Files.write(Paths.get(TEST_STORE), new byte[] {'L', 'T', 'B', 'F', 99});
+
+        new StorageAdapter(storage).load();
+    }
+
+    @Test
+    public void testLoadEmpty() throws Exception {
+        CalendarList calendar = new StorageAdapter(storage).load();
+
+        assertTrue(calendar.getTaskList().isEmpty());
+        assertTrue(calendar.getEventList().isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoadCorrupted() throws Exception {
+        Files.write(Paths.get(TEST_STORE), "{\"taskList\":{\"1\":{\"name\":\"no type\"}}}"
+                .getBytes(StandardCharsets.UTF_8));
+
+        new StorageAdapter(storage).load();
+    }
+
+    private CalendarList createCalendar() {
+        CalendarList calendar = new CalendarListImpl();
+
+        calendar.add("floating");
+        calendar.add("deadline", END);
+        calendar.add("recurring deadline", END, Period.ofDays(1), 3);
+        calendar.add("event", START, END);
+        calendar.add("recurring event", START, END, Period.ofWeeks(1), LocalDate.of(2016, 4, 1));
+
+        int archivedId = calendar.add("archived", END);
+        calendar.mark(archivedId);
+
+        return calendar;
+    }
+
+    private void assertSameCalendar(CalendarList expected, CalendarList actual) {
+        assertSameEntries(expected.getTaskList(), actual.getTaskList());
+        assertSameEntries(expected.getEventList(), actual.getEventList());
+        assertSameEntries(expected.getArchivedTaskList(), actual.getArchivedTaskList());
+        assertSameEntries(expected.getArchivedEventList(), actual.getArchivedEventList());
+    }
+
+    private void assertSameEntries(List<CalendarEntry> expected, List<CalendarEntry> actual) {
+        assertEquals(expected.size(), actual.size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            CalendarEntry expectedEntry = expected.get(i);
+            CalendarEntry actualEntry = actual.get(i);
+
+            assertEquals(expectedEntry.getClass(), actualEntry.getClass());
+            assertEquals(expectedEntry.getId(), actualEntry.getId());
+            assertEquals(expectedEntry.getName(), actualEntry.getName());
+            assertEquals(expectedEntry.getDateTime(CalendarProperty.START),
+                    actualEntry.getDateTime(CalendarProperty.START));
+            assertEquals(expectedEntry.getDateTime(CalendarProperty.END),
+                    actualEntry.getDateTime(CalendarProperty.END));
+            assertEquals(expectedEntry.getPeriod(), actualEntry.getPeriod());
+            assertEquals(expectedEntry.isProperty(CalendarProperty.ACTIVE),
+                    actualEntry.isProperty(CalendarProperty.ACTIVE));
+        }
+    }
+
+    private void deleteTestStore() {
+        for (String fileName : new String[] {TEST_STORE, CONVERTED_STORE}) {
+            File testStore = new File(fileName);
+
+            if (testStore.exists()) {
+                testStore.delete();
+            }
+        }
+    }
+}
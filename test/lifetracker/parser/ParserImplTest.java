@@ -4,6 +4,7 @@ import lifetracker.command.CommandFactory;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -163,4 +164,115 @@ public class ParserImplTest {
         parser.parse("list something in the water > ?? > !!");
         verify(cmdFactory).find("something in the water > ?? > !!", false);
     }
+
+    @Test
+    public void testRange() throws Exception {
+        //Partition: The next seven days, from when the command is executed
+        parser.parse("week");
+        verify(cmdFactory).findInRange();
+
+        //Partition: First and last date
+        parser.parse("range 1 May 2016 to 7 May 2016");
+        verify(cmdFactory).findInRange(LocalDate.of(2016, 5, 1), LocalDate.of(2016, 5, 7));
+
+        parser.parse("range from 2 May 2016 to 8 May 2016");
+        verify(cmdFactory).findInRange(LocalDate.of(2016, 5, 2), LocalDate.of(2016, 5, 8));
+
+        //Boundary: Single date
+        parser.parse("range 3 May 2016");
+        verify(cmdFactory).findInRange(LocalDate.of(2016, 5, 3), LocalDate.of(2016, 5, 3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRange() throws Exception {
+        parser.parse("range");
+    }
+
+    @Test
+    public void testMark() throws Exception {
+        //Partition: Single occurrence
+        parser.parse("mark 3");
+        verify(cmdFactory).mark(3);
+
+        //Partition: Every occurrence up to a date
+        parser.parse("mark 3 upto 7 May 2016");
+        verify(cmdFactory).markUpTo(3, LocalDate.of(2016, 5, 7));
+    }
+
+    @Test
+    public void testFree() throws Exception {
+        //Partition: Length with a range
+        parser.parse("free 2 hours from 2 May 2016 9am to 2 May 2016 5pm");
+        verify(cmdFactory).findFree(Duration.ofHours(2), LocalDateTime.of(2016, 5, 2, 9, 0),
+                LocalDateTime.of(2016, 5, 2, 17, 0));
+
+        //Partition: The defaults are left to the command
+        parser.parse("free 30 minutes from 3 May 2016 9am");
+        verify(cmdFactory).findFree(Duration.ofMinutes(30), LocalDateTime.of(2016, 5, 3, 9, 0), null);
+
+        parser.parse("free 1 hour");
+        verify(cmdFactory).findFree(Duration.ofHours(1), null, null);
+    }
+
+    @Test
+    public void testFreeAsName() throws Exception {
+        //Partition: Without a length, the command is added as an entry
+        parser.parse("free a while");
+        verify(cmdFactory).addGenericTask("free a while");
+
+        //Boundary: Only the command
+        parser.parse("free");
+        verify(cmdFactory).addGenericTask("free");
+    }
+
+    @Test
+    public void testImport() throws Exception {
+        //Partition: CSV and iCalendar files, keeping the case of the path
+        parser.parse("import backup/Entries.csv");
+        verify(cmdFactory).importEntries("backup/Entries.csv");
+
+        parser.parse("import my calendar.ICS");
+        verify(cmdFactory).importEntries("my calendar.ICS");
+
+        //Partition: Without a file, the command is added as an entry
+        parser.parse("import groceries");
+        verify(cmdFactory).addGenericTask("import groceries");
+
+        //Boundary: Only the extension
+        parser.parse("import .csv");
+        verify(cmdFactory).addGenericTask("import .csv");
+    }
+
+    @Test
+    public void testExport() throws Exception {
+        //Partition: Active entries by default
+        parser.parse("export backup/Entries.csv");
+        verify(cmdFactory).export("backup/Entries.csv");
+
+        //Partition: Archived entries, or all entries
+        parser.parse("export my calendar.ics OLD");
+        verify(cmdFactory).exportOld("my calendar.ics");
+
+        parser.parse("export all.csv all");
+        verify(cmdFactory).exportAll("all.csv");
+
+        //Partition: Without a file, the command is added as an entry
+        parser.parse("export goods");
+        verify(cmdFactory).addGenericTask("export goods");
+
+        //Boundary: Only the scope
+        parser.parse("export all");
+        verify(cmdFactory).addGenericTask("export all");
+    }
+
+    @Test
+    public void testAgenda() throws Exception {
+        //Partition: The next seven days by default, from when the command is executed
+        parser.parse("agenda");
+        verify(cmdFactory).agenda();
+
+        //Partition: First and last date
+        parser.parse("agenda from 1 May 2016 to 31 May 2016");
+        verify(cmdFactory).agenda(LocalDate.of(2016, 5, 1), LocalDate.of(2016, 5, 31));
+    }
 }
\ No newline at end of file
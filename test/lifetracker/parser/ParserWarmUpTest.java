@@ -0,0 +1,45 @@
+package lifetracker.parser;
+
+import lifetracker.command.CommandFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+//@@author A0091173J
+public class ParserWarmUpTest {
+
+    @Test
+    public void testRun() throws Exception {
+        CommandFactory cmdFactory = mock(CommandFactory.class);
+        ParserWarmUp warmUp = new ParserWarmUp(new ParserImpl(cmdFactory));
+
+        //Partition: Every command parses, and none of them is added as an entry by mistake
+        warmUp.run();
+
+        Assert.assertEquals(ParserWarmUp.COMMANDS.size() + 1, warmUp.getParsedCount());
+        verify(cmdFactory, atLeastOnce()).addRecurringDeadlineTask(any(), any(), any());
+        verify(cmdFactory).addRecurringEvent(any(), any(), any(), any(), anyInt());
+        verify(cmdFactory).addRecurringDeadlineTask(any(), any(), any(), any(LocalDate.class));
+        verify(cmdFactory).delete(1);
+        verify(cmdFactory).markUpTo(anyInt(), any());
+    }
+
+    @Test
+    public void testStart() throws Exception {
+        Parser parser = mock(Parser.class);
+
+        //Partition: The commands are parsed on a thread that does not keep the program running
+        Thread warmUpThread = ParserWarmUp.start(parser);
+        Assert.assertTrue(warmUpThread.isDaemon());
+
+        warmUpThread.join();
+        verify(parser, atLeastOnce()).parse(ParserWarmUp.COMMANDS.get(0));
+    }
+}
@@ -3,16 +3,55 @@ package lifetracker.parser.datetime;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
 
 //@@author A0091173J
 public class DateTimeParserTest {
 
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final LocalDateTime NOW = LocalDateTime.of(2016, 3, 1, 10, 0, 30);
+    private static final List<String> PHRASES = Arrays.asList("tomorrow", "in 2 hours", "5pm", "next monday 4am",
+            "2/3", "tonight", "3 days ago", "today 2:30pm");
+
+    /**
+     * A clock that stays at the time it is set to.
+     */
+    private static class SettableClock extends Clock {
+        private Instant instant;
+
+        private SettableClock(LocalDateTime dateTime) {
+            set(dateTime);
+        }
+
+        private void set(LocalDateTime dateTime) {
+            instant = dateTime.atZone(ZONE).toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
     @Test
     public void isDateTime() throws Exception {
         DateTimeParser parser = DateTimeParser.getInstance();
@@ -276,4 +315,56 @@ public class DateTimeParserTest {
 
         Assert.assertEquals(expectedDateTimeList, actualDateTimeList);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void parseOncePerCommand() throws Exception {
+        SettableClock clock = new SettableClock(NOW);
+        DateTimeParser parser = new DateTimeParser(clock);
+
+        //Partition: Checking a string and then parsing it parses it once, ignoring case and spaces
+        Assert.assertTrue(parser.isDateTime("next monday 4am"));
+        Assert.assertEquals(new DateTimeParser(clock).parseSingleDateTime("next monday 4am"),
+                parser.parseSingleDateTime("Next  Monday 4AM"));
+        Assert.assertEquals(1, parser.getMissCount());
+
+        //Partition: Simple strings are not parsed by natty at all
+        Assert.assertEquals(LocalDateTime.of(2016, 3, 2, 14, 0), parser.parseSingleDateTime("Tomorrow  2PM"));
+        Assert.assertEquals(1, parser.getMissCount());
+        Assert.assertTrue(parser.getSimpleCount() > 0);
+
+        //Partition: Strings that are not dates are remembered too
+        Assert.assertFalse(parser.isDateTime("abcd"));
+        Assert.assertFalse(parser.isDateTime("abcd"));
+        Assert.assertEquals(2, parser.getMissCount());
+    }
+
+    @Test
+    public void parseCachedSameAsNatty() throws Exception {
+        SettableClock clock = new SettableClock(NOW);
+        DateTimeParser parser = new DateTimeParser(clock);
+
+        assertSameAsNatty(parser, clock);
+        long missCount = parser.getMissCount();
+
+        //Partition: Later on the same day, times natty takes from the clock move with it
+        clock.set(NOW.withHour(23).withMinute(59).withSecond(59));
+        assertSameAsNatty(parser, clock);
+        Assert.assertEquals(missCount, parser.getMissCount());
+
+        //Boundary: The next day, every string is parsed again
+        clock.set(NOW.plusDays(1).withHour(0).withMinute(0).withSecond(0));
+        assertSameAsNatty(parser, clock);
+        Assert.assertEquals(missCount * 2, parser.getMissCount());
+    }
+
+    private void assertSameAsNatty(DateTimeParser parser, Clock clock) {
+        for (String phrase : PHRASES) {
+            DateTimeParser uncachedParser = new DateTimeParser(clock);
+
+            Assert.assertEquals(phrase, uncachedParser.parseDateTimeAsIs(phrase), parser.parseDateTimeAsIs(phrase));
+            Assert.assertEquals(phrase, uncachedParser.parseSingleDateTime(phrase), parser.parseSingleDateTime(phrase));
+            Assert.assertEquals(phrase, uncachedParser.parseDoubleDateTime(phrase, ""),
+                    parser.parseDoubleDateTime(phrase, ""));
+        }
+    }
+}
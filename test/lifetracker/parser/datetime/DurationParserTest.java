@@ -3,6 +3,7 @@ package lifetracker.parser.datetime;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.time.Period;
 
 //@@author A0091173J
@@ -97,6 +98,22 @@ public class DurationParserTest {
         parser.parse("");
     }
 
+    @Test
+    public void testParseLength() throws Exception {
+        //Partition: Lengths shorter than a day
+        Assert.assertEquals(Duration.ofHours(2), parser.parseLength("2 hours"));
+        Assert.assertEquals(Duration.ofMinutes(45), parser.parseLength("45 mins"));
+        Assert.assertEquals(Duration.ofMinutes(1), parser.parseLength("minute"));
+
+        //Partition: Lengths of whole days
+        Assert.assertEquals(Duration.ofDays(14), parser.parseLength("2 weeks"));
+
+        //Partition: Months and years have no fixed length
+        Assert.assertFalse(parser.isLength("month"));
+        Assert.assertFalse(parser.isLength("0 hours"));
+        Assert.assertFalse(parser.isDuration("2 hours"));
+    }
+
     @Test
     public void testIsValidMethod() throws Exception {
 
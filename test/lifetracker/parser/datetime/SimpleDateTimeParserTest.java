@@ -0,0 +1,98 @@
+package lifetracker.parser.datetime;
+
+import com.joestelmach.natty.DateGroup;
+import com.joestelmach.natty.Parser;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+
+//@@author A0091173J
+public class SimpleDateTimeParserTest {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    // The strings in DateTimeParserTest, with the forms read by the simple parser and strings close to them
+    private static final List<String> PHRASES = Arrays.asList("23/4/2016 2:30pm", "23/4/2016", "2:30pm",
+            "tomorrow 2pm", "next monday 4am", "monday after 2/3", "today 2:30pm", "2/3 21:33", "2/3 00:00", "10pm",
+            "00:00", "11:58pm", "11:59pm", "12am", "12.01am", "23/3/16 11:30am", "1100", "1300", "24/3/16 11.40pm",
+            "today", "tomorrow", "day after tomorrow", "abcd",
+            "5pm", "5 pm", "5:30 pm", "12pm", "12:30am", "0:30", "13:00", "23:59", "9am tomorrow", "tmr", "yesterday",
+            "mon", "monday", "tue", "tues", "tuesday", "wed", "wednesday", "thu", "thur", "thurs", "thursday", "fri",
+            "friday", "sat", "saturday", "sun", "sunday", "sunday 5pm", "mon 9:15am", "12/04", "2/3", "01/02",
+            "29/2", "29/2/2016", "2016-03-01", "2016-12-31 23:00", "7:45 2016-03-01", "2/3 9am",
+            "5", "13pm", "0am", "24:00", "9:5am", "4/23", "31/2", "29/2/2015", "1/13", "2016-02-30", "0016-01-01",
+            "1/1/1016", "2016-3-1", "tod", "mondays", "5pmx", "2/3 5", "today tomorrow", "5pm 6pm", "");
+
+    private static final List<String> SIMPLE_PHRASES = Arrays.asList("5pm", "tomorrow 9am", "12/04", "mon",
+            "2016-03-01", "2:30pm", "2/3 21:33", "23/4/2016 2:30pm", "today");
+
+    private static final List<String> NATTY_PHRASES = Arrays.asList("next monday 4am", "23/3/16 11:30am", "12.01am",
+            "1100", "31/2", "4/23", "5", "");
+
+    @Test
+    public void parseSameAsNatty() throws Exception {
+        SimpleDateTimeParser simpleParser = new SimpleDateTimeParser(ZONE);
+        Parser nattyParser = new Parser(TimeZone.getTimeZone(ZONE));
+
+        //Partition: Every day of the week, including a leap day, at the start, middle and end of the day
+        List<LocalDateTime> nows = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            LocalDateTime date = LocalDateTime.of(2016, 2, 29, 0, 0).plusDays(i);
+            nows.add(date);
+            nows.add(date.with(LocalTime.of(13, 7, 30, 250_000_000)));
+            nows.add(date.with(LocalTime.of(23, 59, 59, 999_999_999)));
+        }
+
+        for (LocalDateTime now : nows) {
+            for (String phrase : PHRASES) {
+                if (!simpleParser.parse(phrase, now)) {
+                    continue;
+                }
+
+                List<DateGroup> dateGroups = nattyParser.parse(phrase, Date.from(now.atZone(ZONE).toInstant()));
+                String message = phrase + " at " + now;
+
+                Assert.assertEquals(message, 1, dateGroups.size());
+
+                DateGroup dateGroup = dateGroups.get(0);
+                Set<String> parseElements = dateGroup.getParseLocations().keySet();
+                LocalDateTime nattyDateTime = LocalDateTime.ofInstant(dateGroup.getDates().get(0).toInstant(), ZONE);
+
+                Assert.assertEquals(message, nattyDateTime, simpleParser.getDateTime());
+                Assert.assertEquals(message, parseElements.contains("explicit_time"), simpleParser.isTimeSpecified());
+                Assert.assertEquals(message, parseElements.contains("date"), simpleParser.isDateSpecified());
+                Assert.assertEquals(message, parseElements.contains("meridian_indicator"),
+                        simpleParser.isMeridianSpecified());
+            }
+        }
+    }
+
+    @Test
+    public void parse() throws Exception {
+        SimpleDateTimeParser simpleParser = new SimpleDateTimeParser(ZONE);
+        LocalDateTime now = LocalDateTime.of(2016, 3, 1, 13, 7, 30);
+
+        //Partition: The common forms are read
+        for (String phrase : SIMPLE_PHRASES) {
+            Assert.assertTrue(phrase, simpleParser.parse(phrase, now));
+        }
+
+        //Partition: Other forms, and strings natty reads differently, are left to natty
+        for (String phrase : NATTY_PHRASES) {
+            Assert.assertFalse(phrase, simpleParser.parse(phrase, now));
+        }
+
+        //Boundary: The same day of the week is a week later
+        Assert.assertTrue(simpleParser.parse("tue 9am", now));
+        Assert.assertEquals(LocalDateTime.of(2016, 3, 8, 9, 0), simpleParser.getDateTime());
+    }
+}
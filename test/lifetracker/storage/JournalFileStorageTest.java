@@ -0,0 +1,142 @@
+package lifetracker.storage;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.logging.FileHandler;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+
+//@@author A0091173J
+public class JournalFileStorageTest {
+
+    private static final String TEST_FILE_NAME = "journal_test.dat";
+    private static final String TEST_JOURNAL_NAME = TEST_FILE_NAME + ".journal";
+    private static final String ALT_TEST_FILE_NAME = "alt_journal_test.dat";
+    private static final String ALT_TEST_JOURNAL_NAME = ALT_TEST_FILE_NAME + ".journal";
+    private static final String LOG_FOLDER = "logs/";
+    private static final String LOG_FILE = "lifetracker_test.log";
+
+    private static final int TEST_COMPACTION_THRESHOLD = 3;
+
+    private JournalFileStorage storage;
+
+    @Before
+    public void setUp() throws Exception {
+        File logDir = new File(LOG_FOLDER);
+
+        if (!logDir.exists()) {
+            logDir.mkdir();
+        }
+
+        LogManager.getLogManager().reset();
+
+        Logger globalLogger = Logger.getGlobal();
+        globalLogger.addHandler(new FileHandler(LOG_FOLDER + LOG_FILE));
+
+        deleteTestFiles();
+        storage = new JournalFileStorage(TEST_FILE_NAME, TEST_COMPACTION_THRESHOLD);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        storage.close();
+        deleteTestFiles();
+    }
+
+    @Test
+    public void testAppend() throws Exception {
+        //Partition: Records after a snapshot
+        storage.store("snapshot");
+        storage.append("record 1");
+        storage.append("record 2");
+        storage.close();
+
+        Assert.assertEquals("snapshot", readFile(TEST_FILE_NAME));
+
+        storage = new JournalFileStorage(TEST_FILE_NAME, TEST_COMPACTION_THRESHOLD);
+        Assert.assertEquals("snapshot", storage.load());
+        Assert.assertEquals(Arrays.asList("record 1", "record 2"), storage.loadJournal());
+
+        //Partition: Records are kept across sessions until the next snapshot
+        storage.append("record 3");
+        storage.close();
+
+        storage = new JournalFileStorage(TEST_FILE_NAME, TEST_COMPACTION_THRESHOLD);
+        Assert.assertEquals(Arrays.asList("record 1", "record 2", "record 3"), storage.loadJournal());
+    }
+
+    @Test
+    public void testSnapshotClearsJournal() throws Exception {
+        storage.store("snapshot 1");
+        storage.append("record 1");
+        storage.store("snapshot 2");
+        storage.append("record 2");
+        storage.close();
+
+        storage = new JournalFileStorage(TEST_FILE_NAME, TEST_COMPACTION_THRESHOLD);
+        Assert.assertEquals("snapshot 2", storage.load());
+        Assert.assertEquals(Collections.singletonList("record 2"), storage.loadJournal());
+
+        //Boundary: Snapshot with no records after it
+        storage.store("snapshot 3");
+        storage.close();
+
+        storage = new JournalFileStorage(TEST_FILE_NAME, TEST_COMPACTION_THRESHOLD);
+        Assert.assertEquals("snapshot 3", storage.load());
+        Assert.assertTrue(storage.loadJournal().isEmpty());
+    }
+
+    @Test
+    public void testIsSnapshotDue() throws Exception {
+        //Partition: Nothing written to a new destination yet
+        Assert.assertTrue(storage.isSnapshotDue());
+
+        storage.store("snapshot");
+        Assert.assertFalse(storage.isSnapshotDue());
+
+        //Boundary: One record short of the threshold
+        storage.append("record 1");
+        storage.append("record 2");
+        Assert.assertFalse(storage.isSnapshotDue());
+
+        //Boundary: Threshold reached
+        storage.append("record 3");
+        Assert.assertTrue(storage.isSnapshotDue());
+
+        storage.store("snapshot");
+        Assert.assertFalse(storage.isSnapshotDue());
+
+        //Partition: Changing the destination
+        storage.setStoreAndStart(ALT_TEST_FILE_NAME);
+        Assert.assertTrue(storage.isSnapshotDue());
+    }
+
+    @Test(expected = AssertionError.class)
+    public void testNull() throws Exception {
+        storage.append(null);
+    }
+
+    private String readFile(String fileName) throws Exception {
+        return new String(Files.readAllBytes(Paths.get(fileName)), StandardCharsets.UTF_8);
+    }
+
+    private void deleteTestFiles() {
+        for (String fileName : new String[] {TEST_FILE_NAME, TEST_JOURNAL_NAME, ALT_TEST_FILE_NAME,
+                ALT_TEST_JOURNAL_NAME}) {
+            File testFile = new File(fileName);
+
+            if (testFile.exists()) {
+                testFile.delete();
+            }
+        }
+    }
+}
@@ -129,6 +129,53 @@ public class ThreadedFileStorageTest {
         Assert.assertEquals(jsonTestData, actualFileContent);
     }
 
+    @Test
+    public void testStoreWith() throws Exception {
+        //Partition: Data written by the callback
+        storage.storeWith(outputStream -> outputStream.write(jsonTestData.getBytes(StandardCharsets.UTF_8)));
+        storage.close();
+
+        String actualFileContent = new String(Files.readAllBytes(Paths.get(TEST_FILE_NAME)), StandardCharsets.UTF_8);
+
+        Assert.assertEquals(jsonTestData, actualFileContent);
+
+        //Boundary: Callback that fails leaves the file unchanged
+        storage = new ThreadedFileStorage(TEST_FILE_NAME);
+        storage.storeWith(outputStream -> {
+            outputStream.write("Partial".getBytes(StandardCharsets.UTF_8));
+            throw new IOException();
+        });
+        storage.close();
+
+        actualFileContent = new String(Files.readAllBytes(Paths.get(TEST_FILE_NAME)), StandardCharsets.UTF_8);
+
+        Assert.assertEquals(jsonTestData, actualFileContent);
+    }
+
+    @Test
+    public void testDurabilityPolicy() throws Exception {
+        for (DurabilityPolicy policy : DurabilityPolicy.values()) {
+            //Partition: Each policy writes the same content
+            String testString = "Written with " + policy;
+
+            storage.setDurabilityPolicy(policy);
+            storage.setStoreAndStart(TEST_FILE_NAME);
+            storage.store("Older string");
+            storage.store(testString);
+            storage.close();
+
+            String actualFileContent = new String(Files.readAllBytes(Paths.get(TEST_FILE_NAME)),
+                    StandardCharsets.UTF_8);
+
+            Assert.assertEquals(testString, actualFileContent);
+
+            //Boundary: No temporary file is left behind after the rename
+            Assert.assertFalse(new File(TEST_FILE_NAME + ".tmp").exists());
+
+            storage = new ThreadedFileStorage(TEST_FILE_NAME);
+        }
+    }
+
     @Test(expected = AssertionError.class)
     public void testNull() throws Exception {
         storage.store(null);